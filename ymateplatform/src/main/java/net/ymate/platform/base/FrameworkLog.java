@@ -0,0 +1,201 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.base;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * <p>
+ * FrameworkLog
+ * </p>
+ * <p>
+ * 框架内部日志门面，仅在日志级别及所属子系统(mvc、jdbc、validation、plugin)开关允许输出时才解析消息资源，并按语言缓存已解析的消息模板；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月9日下午3:05:44</td>
+ *          </tr>
+ *          </table>
+ */
+public class FrameworkLog {
+
+	public static final String MVC = "mvc";
+
+	public static final String JDBC = "jdbc";
+
+	public static final String VALIDATION = "validation";
+
+	public static final String PLUGIN = "plugin";
+
+	/**
+	 * 各子系统跟踪日志开关状态，未设置的子系统默认为开启
+	 */
+	private static final Map<String, Boolean> __SUBSYSTEM_STATES = new ConcurrentHashMap<String, Boolean>();
+
+	/**
+	 * 已解析的消息模板缓存：语言 -> (消息键 -> 消息模板)
+	 */
+	private static final Map<Locale, Map<String, MessagePattern>> __MESSAGE_CACHES = new ConcurrentHashMap<Locale, Map<String, MessagePattern>>();
+
+	private final Log __log;
+
+	private final String __subsystem;
+
+	/**
+	 * @param subsystem 所属子系统名称
+	 * @param clazz 日志输出类
+	 * @return 创建框架日志对象
+	 */
+	public static FrameworkLog getLog(String subsystem, Class<?> clazz) {
+		return new FrameworkLog(subsystem, LogFactory.getLog(clazz));
+	}
+
+	/**
+	 * 构造器
+	 * 
+	 * @param subsystem 所属子系统名称
+	 * @param log 日志对象
+	 */
+	protected FrameworkLog(String subsystem, Log log) {
+		this.__subsystem = subsystem;
+		this.__log = log;
+	}
+
+	/**
+	 * 设置子系统跟踪日志开关，关闭后该子系统的INFO级别日志将不再输出，WARN及以上级别不受影响
+	 * 
+	 * @param subsystem 子系统名称
+	 * @param enabled 是否开启
+	 */
+	public static void setEnabled(String subsystem, boolean enabled) {
+		__SUBSYSTEM_STATES.put(subsystem, enabled);
+	}
+
+	/**
+	 * @param subsystem 子系统名称
+	 * @return 判断子系统跟踪日志是否开启
+	 */
+	public static boolean isEnabled(String subsystem) {
+		Boolean _state = __SUBSYSTEM_STATES.get(subsystem);
+		return _state == null || _state;
+	}
+
+	/**
+	 * @return 判断当前子系统INFO级别日志是否需要输出
+	 */
+	public boolean isInfoEnabled() {
+		return isEnabled(__subsystem) && __log.isInfoEnabled();
+	}
+
+	/**
+	 * 输出INFO级别日志，仅当日志需要输出时才解析消息资源并格式化
+	 * 
+	 * @param msgKey 消息资源键值
+	 * @param args 消息参数
+	 */
+	public void info(String msgKey, Object... args) {
+		if (isInfoEnabled()) {
+			__log.info(formatMessage(msgKey, args));
+		}
+	}
+
+	/**
+	 * 输出WARN级别日志，不受子系统开关控制
+	 * 
+	 * @param msgKey 消息资源键值
+	 * @param args 消息参数
+	 */
+	public void warn(String msgKey, Object... args) {
+		if (__log.isWarnEnabled()) {
+			__log.warn(formatMessage(msgKey, args));
+		}
+	}
+
+	/**
+	 * 输出WARN级别异常信息，不受子系统开关控制
+	 * 
+	 * @param e 异常对象
+	 */
+	public void warn(Throwable e) {
+		__log.warn("", e);
+	}
+
+	/**
+	 * @param msgKey 框架消息资源键值
+	 * @param args 消息参数
+	 * @return 使用缓存的消息模板格式化框架消息，与I18N.formatMessage(YMP.__LSTRING_FILE, null, null, msgKey, args)结果一致
+	 */
+	public static String formatMessage(String msgKey, Object... args) {
+		Locale _locale = Locale.getDefault();
+		Map<String, MessagePattern> _patterns = __MESSAGE_CACHES.get(_locale);
+		if (_patterns == null) {
+			_patterns = new ConcurrentHashMap<String, MessagePattern>();
+			__MESSAGE_CACHES.put(_locale, _patterns);
+		}
+		MessagePattern _pattern = _patterns.get(msgKey);
+		if (_pattern == null) {
+			_pattern = new MessagePattern(ResourceBundle.getBundle(YMP.__LSTRING_FILE, _locale).getString(msgKey));
+			_patterns.put(msgKey, _pattern);
+		}
+		return _pattern.format(args);
+	}
+
+	/**
+	 * 消息模板，MessageFormat对象在首次带参格式化时创建，由于其非线程安全，格式化时需同步
+	 */
+	private static class MessagePattern {
+
+		private final String pattern;
+
+		private MessageFormat format;
+
+		MessagePattern(String pattern) {
+			this.pattern = pattern;
+		}
+
+		String format(Object[] args) {
+			if (args == null || args.length == 0) {
+				return pattern;
+			}
+			synchronized (this) {
+				if (format == null) {
+					format = new MessageFormat(pattern);
+				}
+				return format.format(args);
+			}
+		}
+
+	}
+
+}
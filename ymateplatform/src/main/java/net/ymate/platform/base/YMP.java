@@ -23,6 +23,7 @@ import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.commons.lang.BlurObject;
 import net.ymate.platform.commons.util.RuntimeUtils;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.time.StopWatch;
 
 /**
@@ -94,6 +95,9 @@ public class YMP {
 				try {
 					_configs.load(_in);
 					IS_DEV_MODEL = new BlurObject(_configs.getProperty("ymp.dev_model")).toBooleanValue();
+					for (String _subsystem : StringUtils.split(StringUtils.defaultString(_configs.getProperty("ymp.trace_disabled")), "|")) {
+						FrameworkLog.setEnabled(StringUtils.trim(_subsystem), false);
+					}
 					__MODULE_LOADER = (IModuleLoader) Class.forName(_configs.getProperty("ymp.module_loader_impl_class")).newInstance();
 				} catch (Exception e) {
 					__MODULE_LOADER = new DefaultModuleLoader();
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.commons.lang;
+
+/**
+ * <p>
+ * ITypeConverter
+ * </p>
+ * <p>
+ * 类型转换器接口定义，每个实现仅负责一种(源类型, 目标类型)组合的转换；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月5日上午10:12:08</td>
+ *          </tr>
+ *          </table>
+ */
+public interface ITypeConverter {
+
+	/**
+	 * @param value 原始值，可能为NULL
+	 * @return 返回转换为目标类型后的值，若目标类型为基本类型且原始值为NULL则返回其默认值
+	 */
+	public Object convert(Object value);
+
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.commons.lang;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * <p>
+ * TypeConverters
+ * </p>
+ * <p>
+ * 类型转换器注册表，按(源类型, 目标类型)解析并缓存转换器，用于替代请求参数绑定及JDBC结果映射中的BlurObject转换；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月5日上午10:20:51</td>
+ *          </tr>
+ *          </table>
+ */
+public class TypeConverters {
+
+	private static final int __INT = 1, __LONG = 2, __DOUBLE = 3, __FLOAT = 4, __SHORT = 5, __BYTE = 6, __BOOLEAN = 7, __CHAR = 8, __BIG_INTEGER = 9, __BIG_DECIMAL = 10;
+
+	/**
+	 * 已注册的转换器：目标类型 -> (源类型 -> 转换器)
+	 */
+	private static final Map<Class<?>, Map<Class<?>, ITypeConverter>> __REGISTERED_CONVERTERS = new ConcurrentHashMap<Class<?>, Map<Class<?>, ITypeConverter>>();
+
+	/**
+	 * 已解析的转换器缓存：目标类型 -> (源类型 -> 转换器)，查找过程无需创建任何组合键对象
+	 */
+	private static final Map<Class<?>, Map<Class<?>, ITypeConverter>> __RESOLVED_CONVERTERS = new ConcurrentHashMap<Class<?>, Map<Class<?>, ITypeConverter>>();
+
+	/**
+	 * 基本类型与其包装类型的映射
+	 */
+	private static final Map<Class<?>, Class<?>> __PRIMITIVE_WRAPPERS = new HashMap<Class<?>, Class<?>>();
+
+	/**
+	 * 基本类型的默认值
+	 */
+	private static final Map<Class<?>, Object> __PRIMITIVE_DEFAULTS = new HashMap<Class<?>, Object>();
+
+	static {
+		__PRIMITIVE_WRAPPERS.put(int.class, Integer.class);
+		__PRIMITIVE_WRAPPERS.put(long.class, Long.class);
+		__PRIMITIVE_WRAPPERS.put(double.class, Double.class);
+		__PRIMITIVE_WRAPPERS.put(float.class, Float.class);
+		__PRIMITIVE_WRAPPERS.put(short.class, Short.class);
+		__PRIMITIVE_WRAPPERS.put(byte.class, Byte.class);
+		__PRIMITIVE_WRAPPERS.put(boolean.class, Boolean.class);
+		__PRIMITIVE_WRAPPERS.put(char.class, Character.class);
+		//
+		__PRIMITIVE_DEFAULTS.put(int.class, Integer.valueOf(0));
+		__PRIMITIVE_DEFAULTS.put(long.class, Long.valueOf(0L));
+		__PRIMITIVE_DEFAULTS.put(double.class, Double.valueOf(0d));
+		__PRIMITIVE_DEFAULTS.put(float.class, Float.valueOf(0f));
+		__PRIMITIVE_DEFAULTS.put(short.class, Short.valueOf((short) 0));
+		__PRIMITIVE_DEFAULTS.put(byte.class, Byte.valueOf((byte) 0));
+		__PRIMITIVE_DEFAULTS.put(boolean.class, Boolean.FALSE);
+		__PRIMITIVE_DEFAULTS.put(char.class, Character.valueOf(Character.MIN_VALUE));
+		//
+		__registerBuiltin(int.class, Integer.class, __INT);
+		__registerBuiltin(long.class, Long.class, __LONG);
+		__registerBuiltin(double.class, Double.class, __DOUBLE);
+		__registerBuiltin(float.class, Float.class, __FLOAT);
+		__registerBuiltin(short.class, Short.class, __SHORT);
+		__registerBuiltin(byte.class, Byte.class, __BYTE);
+		__registerBuiltin(boolean.class, Boolean.class, __BOOLEAN);
+		__registerBuiltin(char.class, Character.class, __CHAR);
+		__registerBuiltin(null, BigInteger.class, __BIG_INTEGER);
+		__registerBuiltin(null, BigDecimal.class, __BIG_DECIMAL);
+		__register(Object.class, String.class, new ITypeConverter() {
+			public Object convert(Object value) {
+				return value == null ? null : value.toString();
+			}
+		});
+	}
+
+	private static void __registerBuiltin(Class<?> primitiveClass, Class<?> wrapperClass, int kind) {
+		if (primitiveClass != null) {
+			__register(String.class, primitiveClass, new StringConverter(kind, __PRIMITIVE_DEFAULTS.get(primitiveClass)));
+			__register(Number.class, primitiveClass, new NumberConverter(kind, __PRIMITIVE_DEFAULTS.get(primitiveClass)));
+		}
+		__register(String.class, wrapperClass, new StringConverter(kind, null));
+		__register(Number.class, wrapperClass, new NumberConverter(kind, null));
+	}
+
+	private static void __register(Class<?> sourceClass, Class<?> targetClass, ITypeConverter converter) {
+		Map<Class<?>, ITypeConverter> _converters = __REGISTERED_CONVERTERS.get(targetClass);
+		if (_converters == null) {
+			_converters = new ConcurrentHashMap<Class<?>, ITypeConverter>();
+			__REGISTERED_CONVERTERS.put(targetClass, _converters);
+		}
+		_converters.put(sourceClass, converter);
+	}
+
+	/**
+	 * 注册自定义类型转换器，将覆盖相同(源类型, 目标类型)组合的已有转换器，
+	 * 由于请求参数绑定器等会在初始化时预先解析并持有转换器，建议在框架初始化之前完成注册
+	 * 
+	 * @param sourceClass 源类型（同样适用于其子类或实现类）
+	 * @param targetClass 目标类型
+	 * @param converter 转换器对象
+	 */
+	public static synchronized void register(Class<?> sourceClass, Class<?> targetClass, ITypeConverter converter) {
+		__register(sourceClass, targetClass, converter);
+		__RESOLVED_CONVERTERS.clear();
+	}
+
+	/**
+	 * @param sourceClass 源类型
+	 * @param targetClass 目标类型
+	 * @return 返回适用于指定类型组合的转换器，首次解析后将被缓存，若无匹配的转换器则返回基于BlurObject的通用转换器
+	 */
+	public static ITypeConverter get(Class<?> sourceClass, Class<?> targetClass) {
+		Map<Class<?>, ITypeConverter> _resolved = __RESOLVED_CONVERTERS.get(targetClass);
+		if (_resolved != null) {
+			ITypeConverter _converter = _resolved.get(sourceClass);
+			if (_converter != null) {
+				return _converter;
+			}
+		} else {
+			_resolved = new ConcurrentHashMap<Class<?>, ITypeConverter>();
+			__RESOLVED_CONVERTERS.put(targetClass, _resolved);
+		}
+		ITypeConverter _converter = __resolve(sourceClass, targetClass);
+		_resolved.put(sourceClass, _converter);
+		return _converter;
+	}
+
+	/**
+	 * @param value 原始值
+	 * @param targetClass 目标类型
+	 * @return 将value转换为目标类型，若value为NULL则返回目标类型的默认值（基本类型）或NULL
+	 */
+	public static Object convert(Object value, Class<?> targetClass) {
+		if (value == null) {
+			return __PRIMITIVE_DEFAULTS.get(targetClass);
+		}
+		return get(value.getClass(), targetClass).convert(value);
+	}
+
+	private static ITypeConverter __resolve(Class<?> sourceClass, Class<?> targetClass) {
+		Map<Class<?>, ITypeConverter> _registered = __REGISTERED_CONVERTERS.get(targetClass);
+		if (_registered != null) {
+			// 依次查找源类型、其父类及所实现的接口所注册的转换器
+			for (Class<?> _clazz = sourceClass; _clazz != null; _clazz = _clazz.getSuperclass()) {
+				ITypeConverter _converter = _registered.get(_clazz);
+				if (_converter == null) {
+					for (Class<?> _interface : _clazz.getInterfaces()) {
+						_converter = _registered.get(_interface);
+						if (_converter != null) {
+							break;
+						}
+					}
+				}
+				if (_converter != null) {
+					// 源类型可直接赋值给目标类型时，仅当存在精确注册的转换器时才使用它
+					if (_clazz == sourceClass || !__isAssignable(sourceClass, targetClass)) {
+						return _converter;
+					}
+					break;
+				}
+			}
+		}
+		if (__isAssignable(sourceClass, targetClass)) {
+			return new DirectConverter(__PRIMITIVE_DEFAULTS.get(targetClass));
+		}
+		return new BlurObjectConverter(targetClass);
+	}
+
+	private static boolean __isAssignable(Class<?> sourceClass, Class<?> targetClass) {
+		Class<?> _target = targetClass.isPrimitive() ? __PRIMITIVE_WRAPPERS.get(targetClass) : targetClass;
+		return sourceClass != null && _target.isAssignableFrom(sourceClass);
+	}
+
+	/**
+	 * 源类型可直接赋值给目标类型时使用的转换器
+	 */
+	private static class DirectConverter implements ITypeConverter {
+
+		private final Object nullValue;
+
+		DirectConverter(Object nullValue) {
+			this.nullValue = nullValue;
+		}
+
+		public Object convert(Object value) {
+			return value == null ? nullValue : value;
+		}
+
+	}
+
+	/**
+	 * 未找到匹配转换器时，沿用BlurObject的转换逻辑
+	 */
+	private static class BlurObjectConverter implements ITypeConverter {
+
+		private final Class<?> targetClass;
+
+		BlurObjectConverter(Class<?> targetClass) {
+			this.targetClass = targetClass;
+		}
+
+		public Object convert(Object value) {
+			return new BlurObject(value).toObjectValue(targetClass);
+		}
+
+	}
+
+	/**
+	 * 字符串到数值、布尔及字符类型的转换器，与BlurObject保持一致：空白字符串视为0或false
+	 */
+	private static class StringConverter implements ITypeConverter {
+
+		private final int kind;
+
+		private final Object nullValue;
+
+		StringConverter(int kind, Object nullValue) {
+			this.kind = kind;
+			this.nullValue = nullValue;
+		}
+
+		public Object convert(Object value) {
+			if (value == null) {
+				return nullValue;
+			}
+			String _str = (String) value;
+			boolean _blank = StringUtils.isBlank(_str);
+			switch (kind) {
+			case __INT:
+				return Integer.valueOf(_blank ? 0 : Integer.parseInt(_str, 10));
+			case __LONG:
+				return Long.valueOf(_blank ? 0L : Long.parseLong(_str, 10));
+			case __DOUBLE:
+				return Double.valueOf(_blank ? 0d : Double.parseDouble(_str));
+			case __FLOAT:
+				return Float.valueOf(_blank ? 0f : Float.parseFloat(_str));
+			case __SHORT:
+				return Short.valueOf(_blank ? 0 : (short) Integer.parseInt(_str, 10));
+			case __BYTE:
+				return Byte.valueOf(_blank ? 0 : Byte.parseByte(_str));
+			case __BOOLEAN:
+				return Boolean.valueOf("true".equalsIgnoreCase(_str) || "on".equalsIgnoreCase(_str) || "1".equals(_str));
+			case __CHAR:
+				return Character.valueOf(_str.length() > 0 ? _str.charAt(0) : Character.MIN_VALUE);
+			case __BIG_INTEGER:
+				return _blank ? null : new BigInteger(_str);
+			case __BIG_DECIMAL:
+				return _blank ? null : new BigDecimal(_str);
+			default:
+				return value;
+			}
+		}
+
+	}
+
+	/**
+	 * 数值类型间的转换器，如JDBC驱动返回的BigDecimal、Long等到实体属性类型的转换
+	 */
+	private static class NumberConverter implements ITypeConverter {
+
+		private final int kind;
+
+		private final Object nullValue;
+
+		NumberConverter(int kind, Object nullValue) {
+			this.kind = kind;
+			this.nullValue = nullValue;
+		}
+
+		public Object convert(Object value) {
+			if (value == null) {
+				return nullValue;
+			}
+			Number _num = (Number) value;
+			switch (kind) {
+			case __INT:
+				return Integer.valueOf(_num.intValue());
+			case __LONG:
+				return Long.valueOf(_num.longValue());
+			case __DOUBLE:
+				return Double.valueOf(_num.doubleValue());
+			case __FLOAT:
+				return Float.valueOf(_num.floatValue());
+			case __SHORT:
+				return Short.valueOf(_num.shortValue());
+			case __BYTE:
+				return Byte.valueOf(_num.byteValue());
+			case __BOOLEAN:
+				return Boolean.valueOf(_num.floatValue() > 0);
+			case __CHAR:
+				return Character.valueOf((char) _num.intValue());
+			case __BIG_INTEGER:
+				return _num instanceof BigDecimal ? ((BigDecimal) _num).toBigInteger() : new BigInteger(_num.toString());
+			case __BIG_DECIMAL:
+				return new BigDecimal(_num.toString());
+			default:
+				return value;
+			}
+		}
+
+	}
+
+}
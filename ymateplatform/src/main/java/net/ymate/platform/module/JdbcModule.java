@@ -59,6 +59,10 @@ public class JdbcModule extends AbstractModule {
 	 */
 	public void initialize(final Map<String, String> moduleCfgs) throws Exception {
 		final boolean _showSql = new BlurObject(moduleCfgs.get("base.show_sql")).toBooleanValue();
+		final int _batchSize = new BlurObject(moduleCfgs.get("base.batch_size")).toIntValue();
+		final boolean _batchMultiRowInsert = new BlurObject(moduleCfgs.get("base.batch_multi_row_insert")).toBooleanValue();
+		final boolean _metricsEnabled = new BlurObject(moduleCfgs.get("base.metrics_enabled")).toBooleanValue();
+		final long _slowQueryThreshold = new BlurObject(moduleCfgs.get("base.slow_query_threshold")).toLongValue();
 		final Set<JdbcDataSourceCfgMeta> _metas = new HashSet<JdbcDataSourceCfgMeta>();
 		for (String _name : StringUtils.split(StringUtils.defaultIfEmpty(StringUtils.trimToEmpty(moduleCfgs.get("base.datasource_list")), "default"), "|")) {
 			String _adaptorClass = moduleCfgs.get("datasource." + _name + ".adapter_class");
@@ -66,6 +70,7 @@ public class JdbcModule extends AbstractModule {
 			String _connectionUrl = moduleCfgs.get("datasource." + _name + ".connection_url");
 			String _userName = moduleCfgs.get("datasource." + _name + ".username");
 			String _password = moduleCfgs.get("datasource." + _name + ".password");
+			int _statementCacheSize = new BlurObject(moduleCfgs.get("datasource." + _name + ".statement_cache_size")).toIntValue();
 			//
 			Map<String, String> _params = new HashMap<String, String>();
 			String _paramKey = "datasource." + _name + ".params.";
@@ -74,7 +79,15 @@ public class JdbcModule extends AbstractModule {
 					_params.put(StringUtils.substringAfter(_cfgKey, _paramKey), moduleCfgs.get(_cfgKey));
 				}
 			}
-			_metas.add(new JdbcDataSourceCfgMeta(_name, _adaptorClass, _driverClass, _connectionUrl, _userName, _password, _params));
+			String _replicas = moduleCfgs.get("datasource." + _name + ".replicas");
+			Map<String, String> _routingParams = new HashMap<String, String>();
+			String _routingKey = "datasource." + _name + ".routing.";
+			for (String _cfgKey : moduleCfgs.keySet()) {
+				if (_cfgKey.startsWith(_routingKey)) {
+					_routingParams.put(StringUtils.substringAfter(_cfgKey, _routingKey), moduleCfgs.get(_cfgKey));
+				}
+			}
+			_metas.add(new JdbcDataSourceCfgMeta(_name, _adaptorClass, _driverClass, _connectionUrl, _userName, _password, _statementCacheSize, _params, _replicas, _routingParams));
 		}
 		JDBC.initialize(new IJdbcConfig() {
 			
@@ -93,6 +106,30 @@ public class JdbcModule extends AbstractModule {
 			public String[] getRepositoryPackages() {
 				return StringUtils.split(moduleCfgs.get("base.repository_packages"), "|");
 			}
+
+			public int getBatchSize() {
+				return _batchSize;
+			}
+
+			public boolean isBatchMultiRowInsert() {
+				return _batchMultiRowInsert;
+			}
+
+			public String getEntityCacheClass() {
+				return moduleCfgs.get("base.entity_cache_class");
+			}
+
+			public String[] getCacheableEntities() {
+				return StringUtils.split(moduleCfgs.get("base.cacheable_entities"), "|");
+			}
+
+			public boolean isMetricsEnabled() {
+				return _metricsEnabled;
+			}
+
+			public long getSlowQueryThreshold() {
+				return _slowQueryThreshold;
+			}
 			
 			public Set<JdbcDataSourceCfgMeta> getDataSourceCfgMetas() {
 				return _metas;
@@ -17,7 +17,7 @@ package net.ymate.platform.mvc;
 
 import java.util.Locale;
 
-import net.ymate.platform.base.YMP;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.mvc.context.IRequestContext;
 import net.ymate.platform.mvc.impl.DefaultRequestProcessor;
@@ -28,8 +28,6 @@ import net.ymate.platform.plugin.Plugins;
 import net.ymate.platform.plugin.impl.DefaultPluginConfig;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 
 
@@ -59,7 +57,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public abstract class MVC {
 
-	private static final Log _LOG = LogFactory.getLog(MVC.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, MVC.class);
 
 	/**
 	 * 当前MVC框架初始化配置对象
@@ -80,7 +78,7 @@ public abstract class MVC {
 	 */
 	protected static void __doInitialize(IMvcConfig config, IRequestProcessor processor) {
 		if (!__IS_INITED) {
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.module_init"));
+			_LOG.info("ymp.mvc.module_init");
 			__MVC_CONFIG = config;
 			__META_PROCESSOR = processor == null ? new DefaultRequestProcessor() : processor;
 			__META_PROCESSOR.initialize();
@@ -98,7 +96,7 @@ public abstract class MVC {
                     __MVC_CONFIG.getPluginHome(),
                     MVC.getConfig().getExtendParams().get(Optional.PLUGIN_MANIFEST_FILE), true, true));
             //
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.module_init_final"));
+			_LOG.info("ymp.mvc.module_init_final");
 		}
 	}
 
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.filter;
+
+import net.ymate.platform.mvc.support.RequestMeta;
+
+/**
+ * <p>
+ * IPreparableFilter
+ * </p>
+ * <p>
+ * 可预处理的拦截器接口定义类，在构建拦截器链时针对每个请求元数据执行一次预处理；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月10日上午10:21:37</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IPreparableFilter extends IFilter {
+
+	/**
+	 * 构建拦截器链时调用，拦截器可在此预先解析执行时所需的元数据并通过RequestMeta.setAttribute方法缓存
+	 * 
+	 * @param meta 请求元数据描述对象
+	 * @param params 置入初始化配置参数
+	 * @return 若当前拦截器对该请求无任何作用则返回false，此拦截器将不会被加入拦截器链
+	 */
+	public boolean prepare(RequestMeta meta, String params);
+
+}
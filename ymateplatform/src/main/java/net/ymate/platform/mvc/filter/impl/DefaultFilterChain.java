@@ -16,20 +16,17 @@
 package net.ymate.platform.mvc.filter.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
-import net.ymate.platform.base.YMP;
-import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.mvc.filter.IFilter;
 import net.ymate.platform.mvc.filter.IFilterChain;
 import net.ymate.platform.mvc.support.RequestMeta;
 import net.ymate.platform.mvc.view.IView;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
 /**
  * <p>
  * DefaultFilterChain
@@ -56,15 +53,21 @@ import org.apache.commons.logging.LogFactory;
  */
 public class DefaultFilterChain implements IFilterChain {
 
-	private static final Log _LOG = LogFactory.getLog(DefaultFilterChain.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, DefaultFilterChain.class);
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final PairObject<IFilter, String>[] __EMPTY_FILTERS = new PairObject[0];
 
-	protected final List<PairObject<IFilter, String>> filters;
+	/**
+	 * 拦截器数组，构建完成后不再修改，添加操作将以复制方式生成新数组，执行时无需加锁
+	 */
+	protected volatile PairObject<IFilter, String>[] filters;
 
 	/**
 	 * 构造器
 	 */
 	public DefaultFilterChain() {
-		this.filters = new ArrayList<PairObject<IFilter, String>>();
+		this.filters = __EMPTY_FILTERS;
 	}
 
 	/**
@@ -73,21 +76,30 @@ public class DefaultFilterChain implements IFilterChain {
 	 * @param filters 初始过滤器集合
 	 */
 	public DefaultFilterChain(Collection<PairObject<IFilter, String>> filters) {
-		this.filters = filters==null ? new ArrayList<PairObject<IFilter, String>>() : new ArrayList<PairObject<IFilter, String>>(filters);
+		this.filters = (filters == null || filters.isEmpty()) ? __EMPTY_FILTERS : filters.toArray(__EMPTY_FILTERS);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.mvc.filter.IFilterChain#add(net.ymate.platform.mvc.filter.IFilter)
 	 */
-	public void add(PairObject<IFilter, String> filter) {
-		this.filters.add(filter);
+	public synchronized void add(PairObject<IFilter, String> filter) {
+		this.add(this.filters.length, filter);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.mvc.filter.IFilterChain#add(int, net.ymate.platform.mvc.filter.IFilter)
 	 */
-	public void add(int index, PairObject<IFilter, String> filter) {
-		this.filters.add(index, filter);
+	public synchronized void add(int index, PairObject<IFilter, String> filter) {
+		List<PairObject<IFilter, String>> _filters = new ArrayList<PairObject<IFilter, String>>(Arrays.asList(this.filters));
+		_filters.add(index, filter);
+		this.filters = _filters.toArray(__EMPTY_FILTERS);
+	}
+
+	/**
+	 * @return 判断拦截器链是否为空
+	 */
+	public boolean isEmpty() {
+		return this.filters.length == 0;
 	}
 
 	/* (non-Javadoc)
@@ -96,7 +108,7 @@ public class DefaultFilterChain implements IFilterChain {
 	public IView doChain(RequestMeta meta) throws Exception {
 		IView _view = null;
 		for (PairObject<IFilter, String> _filter : this.filters) {
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.execute_filter", _filter.getKey().getClass().getName(), _filter.getValue()));
+			_LOG.info("ymp.mvc.execute_filter", _filter.getKey().getClass().getName(), _filter.getValue());
 			_view = _filter.getKey().doFilter(meta, _filter.getValue());
 			if (_view != null) {
 				break;
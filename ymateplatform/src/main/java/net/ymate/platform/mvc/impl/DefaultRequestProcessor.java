@@ -17,18 +17,19 @@ package net.ymate.platform.mvc.impl;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import net.ymate.platform.base.YMP;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.beans.IBeanMeta;
-import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.mvc.IRequestProcessor;
 import net.ymate.platform.mvc.MVC;
 import net.ymate.platform.mvc.context.IRequestContext;
 import net.ymate.platform.mvc.filter.IFilter;
 import net.ymate.platform.mvc.filter.IFilterChain;
+import net.ymate.platform.mvc.filter.IPreparableFilter;
 import net.ymate.platform.mvc.filter.impl.DefaultFilterChain;
 import net.ymate.platform.mvc.support.IControllerBeanFactory;
 import net.ymate.platform.mvc.support.IControllerBeanMeta;
@@ -36,8 +37,6 @@ import net.ymate.platform.mvc.support.RequestExecutor;
 import net.ymate.platform.mvc.support.RequestMeta;
 import net.ymate.platform.mvc.support.impl.ControllerBeanFactory;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 
 /**
@@ -66,7 +65,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public class DefaultRequestProcessor implements IRequestProcessor {
 
-	private static final Log _LOG = LogFactory.getLog(DefaultRequestProcessor.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, DefaultRequestProcessor.class);
 
 	protected final static Map<String, RequestExecutor> __REQUEST_EXECUTOR_CACHES = new ConcurrentHashMap<String, RequestExecutor>();
 
@@ -119,11 +118,11 @@ public class DefaultRequestProcessor implements IRequestProcessor {
 	 */
 	protected void addControllerMetaToMap(IControllerBeanMeta beanMeta) {
 		for (RequestMeta _meta : beanMeta.getRequestMetas()) {
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.register_controller", _meta.getRequestMapping(), _meta.getTarget().getClass().getName() + "#" + _meta.getMethod().getName()));
+			_LOG.info("ymp.mvc.register_controller", _meta.getRequestMapping(), _meta.getTarget().getClass().getName() + "#" + _meta.getMethod().getName());
 			__CONSTANT_REQUEST_MAPPING_MAP.put(_meta.getRequestMapping(), _meta);
 			// 注册拦截器
 			for (PairObject<Class<IFilter>, String> _c : _meta.getFilters()) {
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.register_filter", _c.getKey(), _c.getKey().getName()));
+				_LOG.info("ymp.mvc.register_filter", _c.getKey(), _c.getKey().getName());
 				this.getControllerBeanFactory().add(_c.getKey());
 			}
 		}
@@ -141,7 +140,35 @@ public class DefaultRequestProcessor implements IRequestProcessor {
 
 	/**
 	 * @param meta 请求元数据描述对象
-	 * @param chain 拦截器执行链对象
+	 * @return 返回当前请求需要执行的拦截器集合，已排除对该请求无作用的拦截器
+	 */
+	protected List<PairObject<IFilter, String>> getRequestFilters(RequestMeta meta) {
+		List<PairObject<IFilter, String>> _filters = new ArrayList<PairObject<IFilter, String>>();
+		for (PairObject<Class<IFilter>, String> _filter : meta.getFilters()) {
+			this.addRequestFilter(_filters, _filters.size(), meta, this.getControllerBeanFactory().get(_filter.getKey()), _filter.getValue());
+		}
+		return _filters;
+	}
+
+	/**
+	 * 向拦截器集合中添加拦截器，若拦截器为IPreparableFilter类型则先执行预处理，预处理结果为false时忽略该拦截器
+	 * 
+	 * @param filters 拦截器集合
+	 * @param index 索引位置
+	 * @param meta 请求元数据描述对象
+	 * @param filter 拦截器对象
+	 * @param params 拦截器初始化配置参数
+	 */
+	protected void addRequestFilter(List<PairObject<IFilter, String>> filters, int index, RequestMeta meta, IFilter filter, String params) {
+		if (filter instanceof IPreparableFilter && !((IPreparableFilter) filter).prepare(meta, params)) {
+			return;
+		}
+		filters.add(index, new PairObject<IFilter, String>(filter, params));
+	}
+
+	/**
+	 * @param meta 请求元数据描述对象
+	 * @param chain 拦截器执行链对象，当前请求无拦截器时为null
 	 * @return 返回根据所提供参数构建的请求执行器实例
 	 */
 	protected RequestExecutor getRequestExecutor(RequestMeta meta, IFilterChain chain) {
@@ -174,15 +201,12 @@ public class DefaultRequestProcessor implements IRequestProcessor {
 		if (_meta != null) {
 			RequestExecutor _exec = this.getRequestExecutorFormCache(_meta.getRequestMapping());
 			if (_exec == null) {
-				IFilterChain _chain = new DefaultFilterChain();
-	            for (PairObject<Class<IFilter>, String> _filter : _meta.getFilters()) {
-	            	_chain.add(new PairObject<IFilter, String>(this.getControllerBeanFactory().get(_filter.getKey()), _filter.getValue()));
-	            }
-				_exec = this.getRequestExecutor(_meta, _chain);
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.create_request_executor", _meta.getRequestMapping()));
+				// 拦截器链仅在首次创建执行器时构建一次，无拦截器时传入空链(子类可能在 getRequestExecutor 中向链中追加拦截器)
+				_exec = this.getRequestExecutor(_meta, new DefaultFilterChain(this.getRequestFilters(_meta)));
+				_LOG.info("ymp.mvc.create_request_executor", _meta.getRequestMapping());
 				this.putRequestExecutorToCache(_meta.getRequestMapping(), _exec);
 			} else {
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.match_request_executor", _meta.getRequestMapping()));
+				_LOG.info("ymp.mvc.match_request_executor", _meta.getRequestMapping());
 			}
 			return _exec;
 		}
@@ -19,8 +19,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
-import net.ymate.platform.base.YMP;
-import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.mvc.filter.IFilterChain;
 import net.ymate.platform.mvc.view.IView;
@@ -31,15 +30,13 @@ import net.ymate.platform.validation.ValidationException;
 import net.ymate.platform.validation.annotation.ValidateRule;
 import net.ymate.platform.validation.annotation.Validation;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 /**
  * <p>
  * RequestExecutor
  * </p>
  * <p>
- * MVC请求执行器；
+ * MVC请求执行器，实例创建后不再持有任何与单次请求相关的状态，可被缓存并在多线程间共享；
  * </p>
  * 
  * @author 刘镇(suninformation@163.com)
@@ -60,7 +57,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public class RequestExecutor {
 
-	private static final Log _LOG = LogFactory.getLog(RequestExecutor.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, RequestExecutor.class);
 
 	protected final RequestMeta requestMeta;
 	protected final IFilterChain chain;
@@ -68,12 +65,7 @@ public class RequestExecutor {
 	/**
 	 * 当前方法包含的参数验证规则配置
 	 */
-	protected PairObject<Validation, Map<String, ValidateRule[]>> validateRuleConf;
-	
-	/**
-	 * 所有子类若想正确使用参数验证特性，必须在处理请求参数时将参数名与值手工添加到此映射中，映射中的值对象种类有：null与String、String[]和IUploadFileWrapper、IUploadFileWrapper[]
-	 */
-	protected Map<String, Object> validateFieldValues = new HashMap<String, Object>();
+	protected final PairObject<Validation, Map<String, ValidateRule[]>> validateRuleConf;
 
 	/**
 	 * 构造器
@@ -100,9 +92,20 @@ public class RequestExecutor {
 		}
 	}
 
+	/**
+	 * @param validateFieldValues 当前请求的参数验证取值映射（仅在本次调用栈内有效），所有子类若想正确使用参数验证特性，必须在处理请求参数时将参数名与值手工添加到此映射中，映射中的值对象种类有：null与String、String[]和IUploadFileWrapper、IUploadFileWrapper[]
+	 * @return 处理并返回方法对象invoke时所需的参数集合，默认调用已废弃的无参方法以兼容仍重写该方法的子类
+	 * @throws Exception 抛出任何可能异常
+	 */
+	protected Object[] getMethodParams(Map<String, Object> validateFieldValues) throws Exception {
+		return this.getMethodParams();
+	}
+
 	/**
 	 * @return 处理并返回方法对象invoke时所需的参数集合
+	 * @deprecated 无法向参数验证取值映射中添加参数，请重写 getMethodParams(Map) 方法
 	 */
+	@Deprecated
 	protected Object[] getMethodParams() {
 		return new Object[this.requestMeta.getParameterTypes().length];
 	}
@@ -121,46 +124,44 @@ public class RequestExecutor {
 	 * @throws Exception 抛出任何可能异常
 	 */
 	public IView execute() throws Exception {
-		_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.request_executor_startup", this.requestMeta.getRequestMapping()));
+		_LOG.info("ymp.mvc.request_executor_startup", this.requestMeta.getRequestMapping());
 		IView _view = null;
 		if (chain != null) {
 			_view = chain.doChain(this.requestMeta);
 		}
 		if (_view == null) {
-			try {
-				Object[] _params = null;
+			// 每次请求独立的参数验证取值映射，避免并发请求间相互干扰
+			Map<String, Object> _validateFieldValues = new HashMap<String, Object>();
+			Object[] _params = null;
+			if (this.requestMeta.getRequestMethodHandler() != null) {
+//				_LOG.info("通过控制器请求方法处理程序获取所需的参数集合");
+				_params = this.requestMeta.getRequestMethodHandler().getMethodParams();
+			} else {
+				_params = this.getMethodParams(_validateFieldValues);
+			}
+			if (hasValidation()) {
+				Set<ValidateResult> _results = null;
 				if (this.requestMeta.getRequestMethodHandler() != null) {
-//					_LOG.info("通过控制器请求方法处理程序获取所需的参数集合");
-					_params = this.requestMeta.getRequestMethodHandler().getMethodParams();
+//					_LOG.info("通过控制器请求方法处理程序执行方法参数验证");
+					_results = this.requestMeta.getRequestMethodHandler().doValidation(this.requestMeta.getMethod(), _params);
 				} else {
-					_params = this.getMethodParams();
+					_results = Validates.execute(validateRuleConf.getKey(), validateRuleConf.getValue(), _validateFieldValues);
 				}
-				if (hasValidation()) {
-					Set<ValidateResult> _results = null;
-					if (this.requestMeta.getRequestMethodHandler() != null) {
-//						_LOG.info("通过控制器请求方法处理程序执行方法参数验证");
-						_results = this.requestMeta.getRequestMethodHandler().doValidation(this.requestMeta.getMethod(), _params);
-					} else {
-						_results = Validates.execute(validateRuleConf.getKey(), validateRuleConf.getValue(), validateFieldValues);
+				if (_results != null && !_results.isEmpty()) {
+					if (WebMVC.getConfig().getErrorHandlerClassImpl() != null) {
+						_view = WebMVC.getConfig().getErrorHandlerClassImpl().onValidation(_results);
 					}
-					if (_results != null && !_results.isEmpty()) {
-						if (WebMVC.getConfig().getErrorHandlerClassImpl() != null) {
-							_view = WebMVC.getConfig().getErrorHandlerClassImpl().onValidation(_results);
-						}
-						if (_view == null) {
-							throw new ValidationException(_results.toString());
-						}
+					if (_view == null) {
+						throw new ValidationException(_results.toString());
 					}
 				}
-				if (_view == null) {
-					Object _result = this.requestMeta.getMethod().invoke(this.requestMeta.getTarget(), _params);
-					_view = this.processMethodResultToView(_result);
-				}
-			} finally {
-				validateFieldValues.clear();
+			}
+			if (_view == null) {
+				Object _result = this.requestMeta.getMethod().invoke(this.requestMeta.getTarget(), _params);
+				_view = this.processMethodResultToView(_result);
 			}
 		}
-		_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.request_executor_stop", this.requestMeta.getRequestMapping()));
+		_LOG.info("ymp.mvc.request_executor_stop", this.requestMeta.getRequestMapping());
 		return _view;
 	}
 
@@ -19,6 +19,8 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.commons.util.ClassUtils;
@@ -64,6 +66,11 @@ public class RequestMeta {
 	protected final String[] methodParamNames;
 	protected final List<PairObject<Class<IFilter>, String>> interceptors;
 	protected final Class<?>[] parameterTypes;
+
+	/**
+	 * 拦截器等组件预先解析并缓存的扩展元数据
+	 */
+	protected final Map<String, Object> attributes = new ConcurrentHashMap<String, Object>();
 	
 	/**
 	 * 构造器
@@ -194,4 +201,26 @@ public class RequestMeta {
 		return target;
 	}
 
+	/**
+	 * @param name 扩展元数据名称
+	 * @return 返回预先缓存的扩展元数据，不存在则返回null
+	 */
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	/**
+	 * 缓存扩展元数据，通常在构建拦截器链时由拦截器设置
+	 * 
+	 * @param name 扩展元数据名称
+	 * @param value 扩展元数据值对象，为null时将移除该元数据
+	 */
+	public void setAttribute(String name, Object value) {
+		if (value == null) {
+			attributes.remove(name);
+		} else {
+			attributes.put(name, value);
+		}
+	}
+
 }
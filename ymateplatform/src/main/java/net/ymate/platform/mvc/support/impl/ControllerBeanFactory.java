@@ -19,20 +19,17 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import net.ymate.platform.base.YMP;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.beans.IBeanMeta;
 import net.ymate.platform.commons.beans.IBeanMetaLoader;
 import net.ymate.platform.commons.beans.annotation.Bean;
 import net.ymate.platform.commons.beans.impl.AnnotationBeanFactory;
 import net.ymate.platform.commons.beans.impl.AnnotationBeanMetaLoader;
-import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.commons.util.ClassUtils;
 import net.ymate.platform.mvc.annotation.Controller;
 import net.ymate.platform.mvc.filter.IFilter;
 import net.ymate.platform.mvc.support.IControllerBeanFactory;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 /**
  * <p>
@@ -60,7 +57,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public class ControllerBeanFactory extends AnnotationBeanFactory implements IControllerBeanFactory {
 
-	private static final Log _LOG = LogFactory.getLog(ControllerBeanFactory.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, ControllerBeanFactory.class);
 
 	protected static final Set<String> excludedClassNameSet;
 	
@@ -101,7 +98,7 @@ public class ControllerBeanFactory extends AnnotationBeanFactory implements ICon
 			IBeanMetaLoader _loader = this.getBeanMetaLoader(clazz);
 			for (IBeanMeta _meta : _loader.loadBeanMetas()) {
 				if (!this.beanMap.containsKey(_meta.getClassName())) {
-					_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.add_controller", _meta.getClassName()));
+					_LOG.info("ymp.mvc.add_controller", _meta.getClassName());
 					this.beanMetaList.add(_meta);
 					this.addBeanMeta(_meta);
 					return _meta;
@@ -111,7 +108,7 @@ public class ControllerBeanFactory extends AnnotationBeanFactory implements ICon
 			IBeanMetaLoader _loader = new AnnotationBeanMetaLoader<Bean>(Bean.class, clazz);
 			for (IBeanMeta _meta : _loader.loadBeanMetas()) {
 				if (!this.beanMap.containsKey(_meta.getClassName())) {
-					_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.add_filter", _meta.getClassName()));
+					_LOG.info("ymp.mvc.add_filter", _meta.getClassName());
 					this.beanMetaList.add(_meta);
 					this.addBeanMeta(_meta);
 					return _meta;
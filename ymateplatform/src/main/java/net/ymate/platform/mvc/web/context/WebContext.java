@@ -105,16 +105,214 @@ public class WebContext extends Context {
 	 */
 	public static final String WEB_REQUEST_CONTEXT = "net.ymate.platform.mvc.context.web.WebContext.WebRequestContext";
 
+	/**
+	 * 固定上下文键值与字段索引的映射关系
+	 */
+	private static final Map<String, Integer> __FIELD_KEYS = new HashMap<String, Integer>();
+
+	static {
+		String[] _keys = { WEB_REQUEST_CONTEXT, HTTP_REQUEST, HTTP_RESPONSE, SERVLET_CONTEXT, PAGE_CONTEXT, LOCALE, PARAMETERS, REQUEST, SESSION, APPLICATION };
+		for (int _idx = 0; _idx < _keys.length; _idx++) {
+			__FIELD_KEYS.put(_keys[_idx], _idx);
+		}
+	}
+
+	/**
+	 * 绑定当前对象前线程已绑定的上下文对象(嵌套的forward/include请求)，解除绑定时恢复
+	 */
+	private Context __previous;
+
+	private IWebRequestContext __requestContext;
+	private HttpServletRequest __request;
+	private HttpServletResponse __response;
+	private ServletContext __servletContext;
+	private PageContext __pageContext;
+	private Locale __locale;
+
+	/**
+	 * 以下Map视图对象均在首次访问时创建
+	 */
+	private Object __parameters;
+	private Object __requestMap;
+	private Object __sessionMap;
+	private Object __applicationMap;
+
+	/**
+	 * 非固定键值的上下文数据(如路径变量等)，首次写入时创建，复用时仅清空内容
+	 */
+	private Map<String, Object> __attributes;
+
 	/**
 	 * 构造器
 	 * 
 	 * @param context
 	 */
 	public WebContext(Map<String, Object> context, IWebRequestContext requestContext) {
-		super(context);
+		super(null);
+		if (context != null) {
+			for (Map.Entry<String, Object> _entry : context.entrySet()) {
+				put(_entry.getKey(), _entry.getValue());
+			}
+		}
 		put(WEB_REQUEST_CONTEXT, requestContext);
 	}
 
+	/**
+	 * 构造器
+	 * 
+	 * @param servletContext ServletContext对象
+	 * @param request HttpServletRequest对象
+	 * @param response HttpServletResponse对象
+	 * @param requestContext WEBMVC请求上下文对象
+	 */
+	public WebContext(ServletContext servletContext, HttpServletRequest request, HttpServletResponse response, IWebRequestContext requestContext) {
+		super(null);
+		this.reset(servletContext, request, response, requestContext);
+	}
+
+	/**
+	 * 重置当前上下文对象的全部内容，用于对象复用
+	 * 
+	 * @param servletContext ServletContext对象
+	 * @param request HttpServletRequest对象
+	 * @param response HttpServletResponse对象
+	 * @param requestContext WEBMVC请求上下文对象
+	 */
+	protected void reset(ServletContext servletContext, HttpServletRequest request, HttpServletResponse response, IWebRequestContext requestContext) {
+		__requestContext = requestContext;
+		__request = request;
+		__response = response;
+		__servletContext = servletContext;
+		__pageContext = null;
+		__locale = null;
+		__parameters = null;
+		__requestMap = null;
+		__sessionMap = null;
+		__applicationMap = null;
+		if (__attributes != null) {
+			__attributes.clear();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.mvc.context.Context#get(java.lang.String)
+	 */
+	@Override
+	public Object get(String key) {
+		Integer _idx = __FIELD_KEYS.get(key);
+		if (_idx != null) {
+			switch (_idx) {
+				case 0: return __requestContext;
+				case 1: return __request;
+				case 2: return __response;
+				case 3: return __servletContext;
+				case 4: return __pageContext;
+				case 5: return __locale;
+				case 6: return getParameters();
+				case 7: return getRequestAttributes();
+				case 8: return getSession();
+				default: return getApplication();
+			}
+		}
+		return __attributes == null ? null : __attributes.get(key);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.mvc.context.Context#put(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void put(String key, Object value) {
+		Integer _idx = __FIELD_KEYS.get(key);
+		if (_idx != null) {
+			switch (_idx) {
+				case 0: __requestContext = (IWebRequestContext) value; break;
+				case 1:
+					__request = (HttpServletRequest) value;
+					// 请求对象被替换(如文件上传包装)时，与之相关的视图需重新创建
+					__parameters = null;
+					__requestMap = null;
+					__sessionMap = null;
+					break;
+				case 2: __response = (HttpServletResponse) value; break;
+				case 3: __servletContext = (ServletContext) value; __applicationMap = null; break;
+				case 4: __pageContext = (PageContext) value; break;
+				case 5: __locale = (Locale) value; break;
+				case 6: __parameters = value; break;
+				case 7: __requestMap = value; break;
+				case 8: __sessionMap = value; break;
+				default: __applicationMap = value;
+			}
+		} else {
+			if (__attributes == null) {
+				__attributes = new HashMap<String, Object>();
+			}
+			__attributes.put(key, value);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.mvc.context.Context#setContextMap(java.util.Map)
+	 */
+	@Override
+	public void setContextMap(Map<String, Object> contextMap) {
+		this.reset(null, null, null, null);
+		if (contextMap != null) {
+			for (Map.Entry<String, Object> _entry : contextMap.entrySet()) {
+				put(_entry.getKey(), _entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * @return 返回由当前上下文全部内容构成的Map对象副本，对其修改不会影响上下文
+	 */
+	@Override
+	public Map<String, Object> getContextMap() {
+		Map<String, Object> _contextMap = new HashMap<String, Object>();
+		if (__attributes != null) {
+			_contextMap.putAll(__attributes);
+		}
+		for (String _key : __FIELD_KEYS.keySet()) {
+			_contextMap.put(_key, get(_key));
+		}
+		return _contextMap;
+	}
+
+	/**
+	 * 为当前线程绑定新的WebContext对象，并记录此前已绑定的对象以便解除绑定时恢复
+	 * 
+	 * @param servletContext ServletContext对象
+	 * @param request HttpServletRequest对象
+	 * @param response HttpServletResponse对象
+	 * @param requestContext WEBMVC请求上下文对象
+	 * @return 返回已绑定的WebContext对象
+	 */
+	public static WebContext bindContext(ServletContext servletContext, HttpServletRequest request, HttpServletResponse response, IWebRequestContext requestContext) {
+		WebContext _context = new WebContext(servletContext, request, response, requestContext);
+		_context.__previous = __THREAD_LOCAL_CONTEXT.get();
+		__THREAD_LOCAL_CONTEXT.set(_context);
+		return _context;
+	}
+
+	/**
+	 * 解除当前线程绑定的WebContext对象并释放其持有的请求相关对象引用，若存在外层请求的上下文则恢复之，否则清除线程变量，避免线程池中的线程持有Web应用类加载器
+	 */
+	public static void releaseContext() {
+		Context _current = __THREAD_LOCAL_CONTEXT.get();
+		Context _previous = null;
+		if (_current instanceof WebContext) {
+			WebContext _context = (WebContext) _current;
+			_previous = _context.__previous;
+			_context.__previous = null;
+			_context.reset(null, null, null, null);
+		}
+		if (_previous != null) {
+			__THREAD_LOCAL_CONTEXT.set(_previous);
+		} else {
+			__THREAD_LOCAL_CONTEXT.remove();
+		}
+	}
+
 	// ------------------------------------------------------
 
 	/**
@@ -136,7 +334,7 @@ public class WebContext extends Context {
 	}
 
 	public static WebRequestContext getWebRequestContext() {
-		return (WebRequestContext) WebContext.getContext().get(WEB_REQUEST_CONTEXT);
+		return (WebRequestContext) WebContext.getContext().__requestContext;
 	}
 
 	/**
@@ -145,7 +343,7 @@ public class WebContext extends Context {
 	 * @return the HTTP page context.
 	 */
 	public static PageContext getPageContext() {
-		return (PageContext) WebContext.getContext().get(PAGE_CONTEXT);
+		return WebContext.getContext().__pageContext;
 	}
 
 	/**
@@ -163,7 +361,7 @@ public class WebContext extends Context {
 	 * @return the HTTP servlet request object.
 	 */
 	public static HttpServletRequest getRequest() {
-		return (HttpServletRequest) WebContext.getContext().get(HTTP_REQUEST);
+		return WebContext.getContext().__request;
 	}
 
 	/**
@@ -181,7 +379,7 @@ public class WebContext extends Context {
 	 * @return the HTTP servlet response object.
 	 */
 	public static HttpServletResponse getResponse() {
-		return (HttpServletResponse) WebContext.getContext().get(HTTP_RESPONSE);
+		return WebContext.getContext().__response;
 	}
 
 	/**
@@ -190,7 +388,7 @@ public class WebContext extends Context {
 	 * @return the servlet context.
 	 */
 	public static ServletContext getServletContext() {
-		return (ServletContext) WebContext.getContext().get(SERVLET_CONTEXT);
+		return WebContext.getContext().__servletContext;
 	}
 
 	/**
@@ -220,7 +418,10 @@ public class WebContext extends Context {
 	 */
 	@SuppressWarnings("unchecked")
 	public Map<String, Object> getApplication() {
-		return (Map<String, Object>) get(APPLICATION);
+		if (__applicationMap == null && __servletContext != null) {
+			__applicationMap = new ApplicationMap(__servletContext);
+		}
+		return (Map<String, Object>) __applicationMap;
 	}
 
 	/**
@@ -238,12 +439,17 @@ public class WebContext extends Context {
 	 * @return the Locale of the current action.
 	 */
 	public Locale getLocale() {
-		Locale locale = (Locale) get(LOCALE);
-		if (locale == null) {
-			locale = Locale.getDefault();
-			setLocale(locale);
+		if (__locale == null) {
+			if (WebMVC.getConfig() != null && WebMVC.getConfig().getLocale() != null) {
+				__locale = WebMVC.getConfig().getLocale();
+			} else if (__request != null) {
+				__locale = __request.getLocale();
+			}
+			if (__locale == null) {
+				__locale = Locale.getDefault();
+			}
 		}
-		return locale;
+		return __locale;
 	}
 
 	/**
@@ -262,7 +468,21 @@ public class WebContext extends Context {
 	 */
 	@SuppressWarnings("unchecked")
 	public Map<String, Object> getParameters() {
-		return (Map<String, Object>) get(PARAMETERS);
+		if (__parameters == null && __request != null) {
+			__parameters = new HashMap<String, Object>(__request.getParameterMap());
+		}
+		return (Map<String, Object>) __parameters;
+	}
+
+	/**
+	 * @return 返回HttpServletRequest属性的Map视图对象
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Object> getRequestAttributes() {
+		if (__requestMap == null && __request != null) {
+			__requestMap = new RequestMap(__request);
+		}
+		return (Map<String, Object>) __requestMap;
 	}
 
 	/**
@@ -281,7 +501,10 @@ public class WebContext extends Context {
 	 */
 	@SuppressWarnings("unchecked")
 	public Map<String, Object> getSession() {
-		return (Map<String, Object>) get(SESSION);
+		if (__sessionMap == null && __request != null) {
+			__sessionMap = new SessionMap<String, Object>(__request);
+		}
+		return (Map<String, Object>) __sessionMap;
 	}
 
 	/// ----------------------------------------------------
@@ -301,7 +524,7 @@ public class WebContext extends Context {
 		// request map wrapping the http request objects
 		Map requestMap = new RequestMap(request);
 		// parameters map wrapping the http parameters. ActionMapping parameters are now handled and applied separately
-		Map params = new HashMap(request.getParameterMap());
+		Map params = request.getParameterMap();
 		// session map wrapping the http session
 		Map session = new SessionMap(request);
 		// application map wrapping the ServletContext
@@ -15,14 +15,11 @@
  */
 package net.ymate.platform.mvc.web.filter;
 
-import java.util.HashMap;
-
 import net.ymate.platform.commons.beans.annotation.Bean;
-import net.ymate.platform.mvc.filter.IFilter;
+import net.ymate.platform.mvc.filter.IPreparableFilter;
 import net.ymate.platform.mvc.support.RequestMeta;
 import net.ymate.platform.mvc.view.IView;
 import net.ymate.platform.mvc.web.annotation.FileUpload;
-import net.ymate.platform.mvc.web.context.RequestMap;
 import net.ymate.platform.mvc.web.context.WebContext;
 import net.ymate.platform.mvc.web.support.MultipartRequestWrapper;
 
@@ -51,19 +48,29 @@ import net.ymate.platform.mvc.web.support.MultipartRequestWrapper;
  *          </table>
  */
 @Bean
-public class FileUploadFilter implements IFilter {
+public class FileUploadFilter implements IPreparableFilter {
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.mvc.filter.IPreparableFilter#prepare(net.ymate.platform.mvc.support.RequestMeta, java.lang.String)
+	 */
+	public boolean prepare(RequestMeta meta, String params) {
+		FileUpload _upload = meta.getMethod().getAnnotation(FileUpload.class);
+		meta.setAttribute(FileUpload.class.getName(), _upload);
+		return _upload != null;
+	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.mvc.filter.IFilter#doFilter(net.ymate.platform.mvc.support.RequestMeta, java.lang.String)
 	 */
 	public IView doFilter(RequestMeta meta, String params) throws Exception {
-		FileUpload _upload = meta.getMethod().getAnnotation(FileUpload.class);
+		FileUpload _upload = (FileUpload) meta.getAttribute(FileUpload.class.getName());
+		if (_upload == null) {
+			_upload = meta.getMethod().getAnnotation(FileUpload.class);
+		}
 		if (_upload != null) {
 			MultipartRequestWrapper _wrapper = new MultipartRequestWrapper(WebContext.getRequest(), _upload);
-			// 重置WebContext内容
+			// 重置WebContext内容，请求属性及参数视图将在首次访问时基于新的请求对象重新创建
 			WebContext.setRequest(_wrapper);
-			WebContext.getContext().put(WebContext.REQUEST, new RequestMap(_wrapper));
-			WebContext.getContext().put(WebContext.PARAMETERS, new HashMap<String, String[]>(_wrapper.getParameterMap()));
 		}
 		return null;
 	}
@@ -20,7 +20,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang.StringUtils;
 
 import net.ymate.platform.commons.beans.annotation.Bean;
-import net.ymate.platform.mvc.filter.IFilter;
+import net.ymate.platform.mvc.filter.IPreparableFilter;
 import net.ymate.platform.mvc.support.RequestMeta;
 import net.ymate.platform.mvc.view.IView;
 import net.ymate.platform.mvc.web.WebMVC;
@@ -54,7 +54,17 @@ import net.ymate.platform.mvc.web.view.impl.HttpStatusView;
  *          </table>
  */
 @Bean
-public class RequestMethodFilter implements IFilter {
+public class RequestMethodFilter implements IPreparableFilter {
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.mvc.filter.IPreparableFilter#prepare(net.ymate.platform.mvc.support.RequestMeta, java.lang.String)
+	 */
+	public boolean prepare(RequestMeta meta, String params) {
+		HttpRequestMeta _httpMeta = (HttpRequestMeta) meta;
+		// RESTful模式下请求方法已在映射匹配阶段处理，仅当存在请求方法、头或参数约束时才需要执行本拦截器
+		return (!WebMVC.getConfig().isRestfulModel() && !_httpMeta.getAllowHttpMethods().isEmpty())
+				|| !_httpMeta.getAllowHttpHeaders().isEmpty() || !_httpMeta.getAllowHttpParams().isEmpty();
+	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.mvc.filter.IFilter#doFilter(net.ymate.platform.mvc.support.RequestMeta, java.lang.String)
@@ -15,13 +15,12 @@
  */
 package net.ymate.platform.mvc.web.impl;
 
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import net.ymate.platform.base.YMP;
-import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.mvc.MVC;
 import net.ymate.platform.mvc.context.IRequestContext;
@@ -43,8 +42,6 @@ import net.ymate.platform.mvc.web.support.RequestMappingParser;
 import net.ymate.platform.mvc.web.support.WebControllerBeanFactory;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 /**
  * <p>
@@ -72,7 +69,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public class WebRequestProcessor extends DefaultRequestProcessor {
 
-	private static final Log _LOG = LogFactory.getLog(WebRequestProcessor.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, WebRequestProcessor.class);
 
 	protected final Map<String, RequestMeta> __REQUEST_MAPPING_MAP;
 
@@ -80,6 +77,8 @@ public class WebRequestProcessor extends DefaultRequestProcessor {
 
 	protected final RequestMappingParser __REQUEST_MAPPING_PARSER;
 
+	protected final Map<HttpMethod, RequestMappingParser> __RESTFUL_MAPPING_PARSERS;
+
 	/**
 	 * 构造器
 	 */
@@ -87,8 +86,10 @@ public class WebRequestProcessor extends DefaultRequestProcessor {
 		super();
 		__REQUEST_MAPPING_MAP = new HashMap<String, RequestMeta>();
 		__RESTFUL_MAPPING_MAP = new HashMap<HttpMethod, Map<String, RequestMeta>>();
+		__RESTFUL_MAPPING_PARSERS = new HashMap<HttpMethod, RequestMappingParser>();
 		for (HttpMethod _method : HttpMethod.values()) {
 			__RESTFUL_MAPPING_MAP.put(_method, new HashMap<String, RequestMeta>());
+			__RESTFUL_MAPPING_PARSERS.put(_method, new RequestMappingParser());
 		}
 		__REQUEST_MAPPING_PARSER = new RequestMappingParser();
 	}
@@ -126,22 +127,29 @@ public class WebRequestProcessor extends DefaultRequestProcessor {
 				Set<HttpMethod> _allowMethods = ((HttpRequestMeta) _meta).getAllowHttpMethods();
 				if (_allowMethods.isEmpty()) {
 					__RESTFUL_MAPPING_MAP.get(HttpMethod.GET).put(_meta.getRequestMapping(), _meta);
+					if (_meta.getRequestMapping().contains("{")) {
+						__RESTFUL_MAPPING_PARSERS.get(HttpMethod.GET).addMapping(_meta.getRequestMapping());
+					}
 				} else {
 					for (HttpMethod _method : _allowMethods) {
 						__RESTFUL_MAPPING_MAP.get(_method).put(_meta.getRequestMapping(), _meta);
+						if (_meta.getRequestMapping().contains("{")) {
+							__RESTFUL_MAPPING_PARSERS.get(_method).addMapping(_meta.getRequestMapping());
+						}
 					}
 				}
 			} else {
 				if (_meta.getRequestMapping().contains("{")) {
 					__REQUEST_MAPPING_MAP.put(_meta.getRequestMapping(), _meta);
+					__REQUEST_MAPPING_PARSER.addMapping(_meta.getRequestMapping());
 				} else {
 					__CONSTANT_REQUEST_MAPPING_MAP.put(_meta.getRequestMapping(), _meta);
 				}
 			}
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.register_controller", _meta.getRequestMapping(), _meta.getTarget().getClass().getName() + "#" + _meta.getMethod().getName()));
+			_LOG.info("ymp.mvc.register_controller", _meta.getRequestMapping(), _meta.getTarget().getClass().getName() + "#" + _meta.getMethod().getName());
 			// 注册拦截器
 			for (PairObject<Class<IFilter>, String> _c : _meta.getFilters()) {
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.register_filter", _meta.getRequestMapping(), _c.getKey().getSimpleName(), StringUtils.defaultIfEmpty(_c.getValue(), "null")));
+				_LOG.info("ymp.mvc.register_filter", _meta.getRequestMapping(), _c.getKey().getSimpleName(), StringUtils.defaultIfEmpty(_c.getValue(), "null"));
 				this.getControllerBeanFactory().add(_c.getKey());
 			}
 		}
@@ -156,7 +164,7 @@ public class WebRequestProcessor extends DefaultRequestProcessor {
 			HttpMethod _method = HttpMethod.valueOf(WebContext.getRequest().getMethod());
 			_meta = __RESTFUL_MAPPING_MAP.get(_method).get(context.getRequestMapping());
 			if (_meta == null) {
-				String _key = __REQUEST_MAPPING_PARSER.doParser(context, Collections.unmodifiableSet(__RESTFUL_MAPPING_MAP.get(_method).keySet()));
+				String _key = __RESTFUL_MAPPING_PARSERS.get(_method).doParser(context);
 				if (_key != null) {
 					_meta = __RESTFUL_MAPPING_MAP.get(_method).get(_key);
 				}
@@ -164,7 +172,7 @@ public class WebRequestProcessor extends DefaultRequestProcessor {
 		} else {
 			_meta = __CONSTANT_REQUEST_MAPPING_MAP.get(context.getRequestMapping());
 			if (_meta == null) {
-				String _key = __REQUEST_MAPPING_PARSER.doParser(context, Collections.unmodifiableSet(__REQUEST_MAPPING_MAP.keySet()));
+				String _key = __REQUEST_MAPPING_PARSER.doParser(context);
 				if (_key != null) {
 					_meta = __REQUEST_MAPPING_MAP.get(_key);
 				}
@@ -194,16 +202,25 @@ public class WebRequestProcessor extends DefaultRequestProcessor {
 	}
 
 	/* (non-Javadoc)
-	 * @see net.ymate.platform.mvc.impl.DefaultRequestProcessor#getRequestExecutor(net.ymate.platform.mvc.support.RequestMeta, net.ymate.platform.mvc.filter.IFilterChain)
+	 * @see net.ymate.platform.mvc.impl.DefaultRequestProcessor#getRequestFilters(net.ymate.platform.mvc.support.RequestMeta)
 	 */
-	protected RequestExecutor getRequestExecutor(RequestMeta meta, IFilterChain chain) {
+	@Override
+	protected List<PairObject<IFilter, String>> getRequestFilters(RequestMeta meta) {
+		List<PairObject<IFilter, String>> _filters = super.getRequestFilters(meta);
 		// 添加扩展拦截器
 		for (Class<IFilter> _extraFilter : WebMVC.getConfig().getExtraFilters()) {
-			chain.add(0, new PairObject<IFilter, String>(this.getControllerBeanFactory().get(_extraFilter)));
+			this.addRequestFilter(_filters, 0, meta, this.getControllerBeanFactory().get(_extraFilter), null);
 		}
-		// 添加请求方法拦截器
-		chain.add(0, new PairObject<IFilter, String>(this.getControllerBeanFactory().get(FileUploadFilter.class)));
-		chain.add(0, new PairObject<IFilter, String>(this.getControllerBeanFactory().get(RequestMethodFilter.class)));
+		// 添加请求方法拦截器，仅当控制器方法声明了相关约束时才会加入拦截器链
+		this.addRequestFilter(_filters, 0, meta, this.getControllerBeanFactory().get(FileUploadFilter.class), null);
+		this.addRequestFilter(_filters, 0, meta, this.getControllerBeanFactory().get(RequestMethodFilter.class), null);
+		return _filters;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.mvc.impl.DefaultRequestProcessor#getRequestExecutor(net.ymate.platform.mvc.support.RequestMeta, net.ymate.platform.mvc.filter.IFilterChain)
+	 */
+	protected RequestExecutor getRequestExecutor(RequestMeta meta, IFilterChain chain) {
 		return new HttpRequestExecutor((HttpRequestMeta) meta, chain);
 	}
 
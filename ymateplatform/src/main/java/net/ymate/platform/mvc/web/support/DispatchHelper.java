@@ -15,7 +15,7 @@
  */
 package net.ymate.platform.mvc.web.support;
 
-import net.ymate.platform.base.YMP;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.mvc.support.RequestExecutor;
@@ -28,8 +28,6 @@ import net.ymate.platform.mvc.web.context.impl.WebRequestContext;
 import net.ymate.platform.mvc.web.view.impl.FreeMarkerView;
 import net.ymate.platform.mvc.web.view.impl.JspView;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletConfig;
@@ -70,7 +68,7 @@ import java.util.Locale;
  */
 public class DispatchHelper {
 
-    private static final Log _LOG = LogFactory.getLog(DispatchHelper.class);
+    private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, DispatchHelper.class);
 
     public static final String DEFAULT_METHOD_PARAM = "_method";
 
@@ -113,7 +111,7 @@ public class DispatchHelper {
     public void doRequestProcess(IWebRequestContext context, ServletContext servletContext, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
         try {
             request = wrapperRequestForREST(request);
-            WebContext.setContext(new WebContext(WebContext.createWebContextMap(servletContext, request, response, null), context));
+            WebContext.bindContext(servletContext, request, response, context);
             // 触发请求接收事件接口回调
             if (WebMVC.getConfig().getEventHandlerClassImpl() != null) {
                 IView _view = WebMVC.getConfig().getEventHandlerClassImpl().onRequestReceived(context);
@@ -157,7 +155,7 @@ public class DispatchHelper {
                 for (String _fileType : _fileTypes) {
                     _targetFile = new File(getBaseViewFilePath(), _requestMapping + _fileType);
                     if (_targetFile.exists()) {
-                        _LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.convention_request_execute", _requestMapping));
+                        _LOG.info("ymp.mvc.convention_request_execute", _requestMapping);
                         if (".jsp".equals(_fileType)) {
                             new JspView(_requestMapping.substring(1)).render();
                             return;
@@ -183,7 +181,7 @@ public class DispatchHelper {
                 WebMVC.getConfig().getEventHandlerClassImpl().onRequestCompleted(context);
             }
             //
-            WebContext.setContext(null);
+            WebContext.releaseContext();
             I18N.cleanCurrent();
         }
     }
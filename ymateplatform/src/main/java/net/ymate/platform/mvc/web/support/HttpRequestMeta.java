@@ -63,6 +63,11 @@ public class HttpRequestMeta extends RequestMeta {
 	
 	protected final Map<String, String> allowHttpParams;
 
+	/**
+	 * 预编译的方法参数绑定器集合
+	 */
+	protected final RequestParameterBinder[] parameterBinders;
+
 	/**
 	 * 构造器
      *
@@ -73,6 +78,7 @@ public class HttpRequestMeta extends RequestMeta {
 	 */
 	public HttpRequestMeta(Object target, String rootMapping, Method method, List<PairObject<Class<IFilter>, String>> interceptors) {
 		super(target, rootMapping, method, interceptors);
+		parameterBinders = RequestParameterBinder.compile(method, methodParamNames);
 		RequestMethod _requestMethod = method.getAnnotation(RequestMethod.class);
 		if (_requestMethod == null) {
 			allowHttpMethods = Collections.emptySet();
@@ -112,6 +118,13 @@ public class HttpRequestMeta extends RequestMeta {
         return this.allowHttpMethods.isEmpty() || this.allowHttpMethods.contains(method);
     }
 
+	/**
+	 * @return 返回预编译的方法参数绑定器集合，未声明参数注解的位置为NULL
+	 */
+	public RequestParameterBinder[] getParameterBinders() {
+		return parameterBinders;
+	}
+
 	/**
 	 * @return the allowHttpMethods
 	 */
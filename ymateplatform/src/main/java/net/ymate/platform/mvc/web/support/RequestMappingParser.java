@@ -15,8 +15,11 @@
  */
 package net.ymate.platform.mvc.web.support;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,7 +34,8 @@ import org.apache.commons.lang.StringUtils;
  * RequestMappingParser
  * </p>
  * <p>
- * WebMVC请求映射处理分析器；
+ * WebMVC请求映射处理分析器，注册的参数化映射将被预编译为按'/'分段的前缀树（静态段优先，其次为'{var}'参数段），
+ * 匹配时仅需按请求路径深度逐段查找，与原有前缀比较方式一致，静态段及参数段的前后缀均不区分大小写；
  * </p>
  * 
  * @author 刘镇(suninformation@163.com)
@@ -52,6 +56,57 @@ import org.apache.commons.lang.StringUtils;
  */
 public class RequestMappingParser {
 
+	/**
+	 * 预编译映射前缀树的根节点
+	 */
+	private final MappingNode __root = new MappingNode(null);
+
+	/**
+	 * 将包含'{'参数定义的请求映射注册到前缀树中
+	 * 
+	 * @param mapping 请求映射
+	 */
+	public void addMapping(String mapping) {
+		String[] _segments = StringUtils.split(mapping, "/");
+		String[] _varNames = new String[_segments.length];
+		MappingNode _node = __root;
+		for (int _idx = 0; _idx < _segments.length; _idx++) {
+			String _segment = _segments[_idx];
+			int _begin = _segment.indexOf('{');
+			int _end = _segment.indexOf('}', _begin + 1);
+			if (_begin >= 0 && _end > _begin) {
+				_varNames[_idx] = _segment.substring(_begin + 1, _end);
+				_node = _node.addWildcardChild(_segment.substring(0, _begin), _segment.substring(_end + 1));
+			} else {
+				_node = _node.addStaticChild(_segment);
+			}
+		}
+		_node.mapping = mapping;
+		_node.varNames = _varNames;
+	}
+
+	/**
+	 * @param context 请求上下文对象
+	 * @return 在预编译的前缀树中查找与请求映射匹配的映射键值，同时处理请求串中的参数变量存入WebContext容器中的PathVariable参数池，若未匹配则返回NULL
+	 */
+	public String doParser(IRequestContext context) {
+		String[] _segments = StringUtils.split(context.getRequestMapping(), "/");
+		String[] _values = new String[_segments.length];
+		MappingNode _node = __root.match(_segments, 0, _values);
+		if (_node == null) {
+			return null;
+		}
+		if (WebContext.getContext() != null) {
+			// 参数变量存入WebContext容器中的PathVariable参数池
+			for (int _idx = 0; _idx < _node.varNames.length; _idx++) {
+				if (_node.varNames[_idx] != null) {
+					WebContext.getContext().put(_node.varNames[_idx], _values[_idx]);
+				}
+			}
+		}
+		return _node.mapping;
+	}
+
 	/**
 	 * @param partStr 参数段
 	 * @return 返回去掉首尾'/'字符的串
@@ -134,4 +189,107 @@ public class RequestMappingParser {
 		return null;
 	}
 
+	/**
+	 * 请求映射前缀树节点，静态段子节点通过散列表直接定位（键值统一转为小写），参数段子节点按静态前后缀长度降序排列
+	 */
+	private static class MappingNode {
+
+		/**
+		 * 参数段的静态前缀与后缀，如'view_{id}.html'中的'view_'与'.html'，静态段节点为NULL
+		 */
+		private final String[] wildcard;
+
+		private Map<String, MappingNode> staticChildren;
+
+		private List<MappingNode> wildcardChildren;
+
+		/**
+		 * 终结节点对应的原始映射键值
+		 */
+		private String mapping;
+
+		/**
+		 * 终结节点对应映射中每一段的参数名称，静态段为NULL
+		 */
+		private String[] varNames;
+
+		MappingNode(String[] wildcard) {
+			this.wildcard = wildcard;
+		}
+
+		MappingNode addStaticChild(String segment) {
+			if (staticChildren == null) {
+				staticChildren = new HashMap<String, MappingNode>();
+			}
+			String _key = segment.toLowerCase(Locale.ENGLISH);
+			MappingNode _child = staticChildren.get(_key);
+			if (_child == null) {
+				_child = new MappingNode(null);
+				staticChildren.put(_key, _child);
+			}
+			return _child;
+		}
+
+		MappingNode addWildcardChild(String prefix, String suffix) {
+			if (wildcardChildren == null) {
+				wildcardChildren = new ArrayList<MappingNode>();
+			}
+			int _pos = 0;
+			for (MappingNode _child : wildcardChildren) {
+				if (_child.wildcard[0].equalsIgnoreCase(prefix) && _child.wildcard[1].equalsIgnoreCase(suffix)) {
+					return _child;
+				}
+				if (_child.wildcard[0].length() + _child.wildcard[1].length() >= prefix.length() + suffix.length()) {
+					_pos++;
+				}
+			}
+			MappingNode _child = new MappingNode(new String[] { prefix, suffix });
+			wildcardChildren.add(_pos, _child);
+			return _child;
+		}
+
+		/**
+		 * @param segment 请求映射段
+		 * @return 判断参数段节点是否可匹配segment（前后缀不区分大小写），要求参数值非空
+		 */
+		boolean accept(String segment) {
+			return segment.length() > wildcard[0].length() + wildcard[1].length() && segment.regionMatches(true, 0, wildcard[0], 0, wildcard[0].length()) && segment.regionMatches(true, segment.length() - wildcard[1].length(), wildcard[1], 0, wildcard[1].length());
+		}
+
+		/**
+		 * @param segments 请求映射段集合
+		 * @param index 当前匹配段索引
+		 * @param values 参数段取值存储数组
+		 * @return 深度优先匹配（静态段优先，失败时回溯至参数段），返回匹配成功的终结节点或NULL
+		 */
+		MappingNode match(String[] segments, int index, String[] values) {
+			if (index == segments.length) {
+				return mapping != null ? this : null;
+			}
+			String _segment = segments[index];
+			if (staticChildren != null) {
+				MappingNode _child = staticChildren.get(_segment.toLowerCase(Locale.ENGLISH));
+				if (_child != null) {
+					MappingNode _result = _child.match(segments, index + 1, values);
+					if (_result != null) {
+						return _result;
+					}
+				}
+			}
+			if (wildcardChildren != null) {
+				for (MappingNode _child : wildcardChildren) {
+					if (_child.accept(_segment)) {
+						MappingNode _result = _child.match(segments, index + 1, values);
+						if (_result != null) {
+							values[index] = _segment.substring(_child.wildcard[0].length(), _segment.length() - _child.wildcard[1].length());
+							return _result;
+						}
+					}
+				}
+			}
+			return null;
+		}
+
+	}
+
 }
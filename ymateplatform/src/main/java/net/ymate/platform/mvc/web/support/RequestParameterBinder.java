@@ -0,0 +1,350 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.web.support;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import net.ymate.platform.base.FrameworkLog;
+import net.ymate.platform.base.YMP;
+import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.commons.lang.ITypeConverter;
+import net.ymate.platform.commons.lang.TypeConverters;
+import net.ymate.platform.commons.util.ClassUtils;
+import net.ymate.platform.mvc.web.IUploadFileWrapper;
+import net.ymate.platform.mvc.web.annotation.CookieValue;
+import net.ymate.platform.mvc.web.annotation.ModelBind;
+import net.ymate.platform.mvc.web.annotation.PathVariable;
+import net.ymate.platform.mvc.web.annotation.RequestHeader;
+import net.ymate.platform.mvc.web.annotation.RequestParam;
+import net.ymate.platform.mvc.web.context.WebContext;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.esotericsoftware.reflectasm.MethodAccess;
+
+/**
+ * <p>
+ * RequestParameterBinder
+ * </p>
+ * <p>
+ * 请求参数绑定器，在请求元数据注册时根据参数注解预先解析参数名称、默认值及目标类型，请求时仅需依次执行绑定；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月3日下午2:26:40</td>
+ *          </tr>
+ *          </table>
+ */
+public abstract class RequestParameterBinder {
+
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.MVC, RequestParameterBinder.class);
+
+	/**
+	 * 已解析的参数名称
+	 */
+	protected final String paramName;
+
+	/**
+	 * 参数默认值，未设置则为NULL
+	 */
+	protected final String defaultValue;
+
+	protected final boolean required;
+
+	/**
+	 * 参数目标类型
+	 */
+	protected final Class<?> type;
+
+	/**
+	 * 字符串到参数目标类型的转换器
+	 */
+	protected final ITypeConverter converter;
+
+	/**
+	 * 构造器
+	 * 
+	 * @param paramName 已解析的参数名称
+	 * @param defaultValue 参数默认值
+	 * @param required 是否为必须参数
+	 * @param type 参数目标类型
+	 */
+	protected RequestParameterBinder(String paramName, String defaultValue, boolean required, Class<?> type) {
+		this.paramName = paramName;
+		this.defaultValue = defaultValue;
+		this.required = required;
+		this.type = type;
+		this.converter = TypeConverters.get(String.class, type);
+	}
+
+	/**
+	 * @param request 当前请求对象
+	 * @param validateFieldValues 当前请求的参数验证取值映射
+	 * @param hasValidation 当前方法是否包含参数验证注解，若包含则放弃必须参数检查
+	 * @return 从请求中提取参数值并转换为目标类型
+	 * @throws Exception 可能产生的任何异常
+	 */
+	public abstract Object bind(HttpServletRequest request, Map<String, Object> validateFieldValues, boolean hasValidation) throws Exception;
+
+	public String getParamName() {
+		return paramName;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @param value 原始参数值
+	 * @param source 参数来源名称，用于日志输出
+	 * @param validateFieldValues 当前请求的参数验证取值映射
+	 * @param hasValidation 当前方法是否包含参数验证注解
+	 * @return 执行默认值及必须参数检查后，返回转换为目标类型的参数值
+	 */
+	protected Object processValue(String value, String source, Map<String, Object> validateFieldValues, boolean hasValidation) {
+		String _value = StringUtils.defaultIfEmpty(value, defaultValue);
+		_LOG.info("ymp.mvc.request_parameter_process", paramName, _value, source);
+		if (!hasValidation && required && StringUtils.isBlank(_value)) {
+			throw new NullPointerException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.request_parameter_null", paramName));
+		}
+		validateFieldValues.put(paramName, _value);
+		return converter.convert(_value);
+	}
+
+	/**
+	 * @param method 控制器方法对象
+	 * @param paramNames 方法参数名称集合
+	 * @return 根据方法参数声明的注解预编译参数绑定器集合，未声明参数注解的位置为NULL
+	 */
+	public static RequestParameterBinder[] compile(Method method, String[] paramNames) {
+		Class<?>[] _paramTypes = method.getParameterTypes();
+		Annotation[][] _paramAnnotations = method.getParameterAnnotations();
+		RequestParameterBinder[] _binders = new RequestParameterBinder[_paramTypes.length];
+		for (int _idx = 0; _idx < _binders.length; _idx++) {
+			_binders[_idx] = create(_paramAnnotations[_idx], _paramTypes[_idx], paramNames[_idx]);
+		}
+		return _binders;
+	}
+
+	/**
+	 * @param annotations 参数或成员声明的注解集合
+	 * @param type 参数或成员类型
+	 * @param defaultParamName 默认参数名称（即参数名或成员名）
+	 * @return 根据首个可识别的注解创建参数绑定器，若不存在则返回NULL
+	 */
+	public static RequestParameterBinder create(Annotation[] annotations, Class<?> type, String defaultParamName) {
+		for (Annotation _annotation : annotations) {
+			if (_annotation instanceof CookieValue) {
+				CookieValue _anno = (CookieValue) _annotation;
+				return new CookieValueBinder(StringUtils.defaultIfEmpty(_anno.value(), defaultParamName), StringUtils.defaultIfEmpty(_anno.defaultValue(), null), _anno.required(), type);
+			} else if (_annotation instanceof PathVariable) {
+				PathVariable _anno = (PathVariable) _annotation;
+				return new PathVariableBinder(StringUtils.defaultIfEmpty(_anno.value(), defaultParamName), StringUtils.defaultIfEmpty(_anno.defaultValue(), null), _anno.required(), type);
+			} else if (_annotation instanceof RequestHeader) {
+				RequestHeader _anno = (RequestHeader) _annotation;
+				return new RequestHeaderBinder(StringUtils.defaultIfEmpty(_anno.value(), defaultParamName), StringUtils.defaultIfEmpty(_anno.defaultValue(), null), _anno.required(), type);
+			} else if (_annotation instanceof RequestParam) {
+				RequestParam _anno = (RequestParam) _annotation;
+				return new RequestParamBinder(_anno.prefix() + StringUtils.defaultIfEmpty(_anno.value(), defaultParamName), StringUtils.defaultIfEmpty(_anno.defaultValue(), null), _anno.required(), type);
+			} else if (_annotation instanceof ModelBind) {
+				return new ModelBindBinder(type);
+			}
+		}
+		return null;
+	}
+
+	static class CookieValueBinder extends RequestParameterBinder {
+
+		CookieValueBinder(String paramName, String defaultValue, boolean required, Class<?> type) {
+			super(paramName, defaultValue, required, type);
+		}
+
+		public Object bind(HttpServletRequest request, Map<String, Object> validateFieldValues, boolean hasValidation) {
+			return processValue(CookieHelper.create().getCookie(paramName).toStringValue(), "Cookies", validateFieldValues, hasValidation);
+		}
+
+	}
+
+	static class PathVariableBinder extends RequestParameterBinder {
+
+		PathVariableBinder(String paramName, String defaultValue, boolean required, Class<?> type) {
+			super(paramName, defaultValue, required, type);
+		}
+
+		public Object bind(HttpServletRequest request, Map<String, Object> validateFieldValues, boolean hasValidation) {
+			return processValue((String) WebContext.getContext().get(paramName), "PathVariable", validateFieldValues, hasValidation);
+		}
+
+	}
+
+	static class RequestHeaderBinder extends RequestParameterBinder {
+
+		RequestHeaderBinder(String paramName, String defaultValue, boolean required, Class<?> type) {
+			super(paramName, defaultValue, required, type);
+		}
+
+		public Object bind(HttpServletRequest request, Map<String, Object> validateFieldValues, boolean hasValidation) {
+			return processValue(request.getHeader(paramName), "Header", validateFieldValues, hasValidation);
+		}
+
+	}
+
+	static class RequestParamBinder extends RequestParameterBinder {
+
+		/**
+		 * 数组类型参数的元素类型，非数组类型为NULL
+		 */
+		private final Class<?> componentType;
+
+		/**
+		 * 数组类型参数的默认值集合
+		 */
+		private final String[] defaultValues;
+
+		/**
+		 * 字符串到数组元素类型的转换器
+		 */
+		private final ITypeConverter componentConverter;
+
+		RequestParamBinder(String paramName, String defaultValue, boolean required, Class<?> type) {
+			super(paramName, defaultValue, required, type);
+			this.componentType = type.getComponentType();
+			this.defaultValues = StringUtils.split(defaultValue, ",");
+			this.componentConverter = componentType != null ? TypeConverters.get(String.class, componentType) : null;
+		}
+
+		public Object bind(HttpServletRequest request, Map<String, Object> validateFieldValues, boolean hasValidation) {
+			if (componentType != null) {
+				if (componentType.equals(IUploadFileWrapper.class)) {
+					IUploadFileWrapper[] _value = null;
+					if (request instanceof MultipartRequestWrapper) {
+						_value = ((MultipartRequestWrapper) request).getFiles(paramName);
+						_LOG.info("ymp.mvc.request_parameter_process", paramName, _value, "RequestParameter");
+					}
+					validateFieldValues.put(paramName, _value);
+					return _value;
+				}
+				String[] _values = request.getParameterValues(paramName);
+				if (_values == null || _values.length == 0) {
+					_values = defaultValues;
+				}
+				if (_values != null && _values.length > 0) {
+					Object _tempParams = Array.newInstance(componentType, _values.length);
+					for (int _tempIdx = 0; _tempIdx < _values.length; _tempIdx++) {
+						Array.set(_tempParams, _tempIdx, componentConverter.convert(_values[_tempIdx]));
+					}
+					_LOG.info("ymp.mvc.request_parameter_process", paramName, _tempParams.toString(), "RequestParameter");
+					validateFieldValues.put(paramName, _tempParams);
+					return _tempParams;
+				} else if (!hasValidation && required) {
+					throw new NullPointerException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.mvc.request_parameter_null", paramName));
+				}
+				validateFieldValues.put(paramName, null);
+				return null;
+			} else if (type.equals(IUploadFileWrapper.class)) {
+				IUploadFileWrapper _value = null;
+				if (request instanceof MultipartRequestWrapper) {
+					_value = ((MultipartRequestWrapper) request).getFile(paramName);
+					_LOG.info("ymp.mvc.request_parameter_process", paramName, (_value != null ? _value.getName() : ""), "RequestParameter");
+				}
+				validateFieldValues.put(paramName, _value);
+				return _value;
+			}
+			return processValue(request.getParameter(paramName), "RequestParameter", validateFieldValues, hasValidation);
+		}
+
+	}
+
+	/**
+	 * 模型对象参数绑定器，预先解析模型类中声明了参数注解的成员及其赋值方式
+	 */
+	static class ModelBindBinder extends RequestParameterBinder {
+
+		private final RequestParameterBinder[] fieldBinders;
+
+		/**
+		 * 成员对应的set方法索引，若不存在set方法则为-1并直接通过Field赋值
+		 */
+		private final int[] setterIndexes;
+
+		private final Field[] fields;
+
+		private final MethodAccess methodAccess;
+
+		ModelBindBinder(Class<?> type) {
+			super(null, null, false, type);
+			List<RequestParameterBinder> _binders = new ArrayList<RequestParameterBinder>();
+			List<Field> _fields = new ArrayList<Field>();
+			for (Field _field : ClassUtils.getFields(type, true)) {
+				if (Modifier.isStatic(_field.getModifiers())) {
+					continue;
+				}
+				RequestParameterBinder _binder = create(_field.getAnnotations(), _field.getType(), _field.getName());
+				if (_binder != null) {
+					_binders.add(_binder);
+					_fields.add(_field);
+				}
+			}
+			this.fieldBinders = _binders.toArray(new RequestParameterBinder[_binders.size()]);
+			this.fields = _fields.toArray(new Field[_fields.size()]);
+			this.setterIndexes = new int[this.fields.length];
+			this.methodAccess = MethodAccess.get(type);
+			for (int _idx = 0; _idx < this.fields.length; _idx++) {
+				try {
+					this.setterIndexes[_idx] = methodAccess.getIndex("set" + StringUtils.capitalize(this.fields[_idx].getName()), this.fields[_idx].getType());
+				} catch (IllegalArgumentException e) {
+					this.setterIndexes[_idx] = -1;
+					this.fields[_idx].setAccessible(true);
+				}
+			}
+		}
+
+		public Object bind(HttpServletRequest request, Map<String, Object> validateFieldValues, boolean hasValidation) throws Exception {
+			Object _target = type.newInstance();
+			for (int _idx = 0; _idx < fieldBinders.length; _idx++) {
+				Object _value = fieldBinders[_idx].bind(request, validateFieldValues, hasValidation);
+				if (setterIndexes[_idx] >= 0) {
+					methodAccess.invoke(_target, setterIndexes[_idx], _value);
+				} else {
+					fields[_idx].set(_target, _value);
+				}
+			}
+			return _target;
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.web.view;
+
+import net.ymate.platform.mvc.view.IView;
+
+/**
+ * <p>
+ * IViewResolver
+ * </p>
+ * <p>
+ * 视图解析器接口，用于将控制器方法返回的带前缀字符串(如"jsp:"、"json:"等)解析为视图对象；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月11日下午2:16:08</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IViewResolver {
+
+	/**
+	 * @param content 去除视图前缀后的视图内容字符串(保持原有大小写)
+	 * @return 返回解析后的视图对象
+	 * @throws Exception 可能产生的任何异常
+	 */
+	public IView resolve(String content) throws Exception;
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.web.view;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.ymate.platform.commons.lang.PairObject;
+import net.ymate.platform.mvc.view.IView;
+import net.ymate.platform.mvc.web.view.impl.BinaryView;
+import net.ymate.platform.mvc.web.view.impl.ForwardView;
+import net.ymate.platform.mvc.web.view.impl.FreeMarkerView;
+import net.ymate.platform.mvc.web.view.impl.HttpStatusView;
+import net.ymate.platform.mvc.web.view.impl.JsonView;
+import net.ymate.platform.mvc.web.view.impl.JspView;
+import net.ymate.platform.mvc.web.view.impl.RedirectView;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * <p>
+ * ViewResolvers
+ * </p>
+ * <p>
+ * 视图解析器注册表，按视图前缀(不区分大小写)查找对应的视图解析器，支持注册自定义前缀；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月11日下午2:24:37</td>
+ *          </tr>
+ *          </table>
+ */
+public class ViewResolvers {
+
+	/**
+	 * 已注册的视图解析器：小写视图前缀(包含":") -> 视图解析器
+	 */
+	private static final Map<String, IViewResolver> __VIEW_RESOLVERS = new ConcurrentHashMap<String, IViewResolver>();
+
+	static {
+		register(IWebView.VIEW_REDIRECT, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				return new RedirectView(content);
+			}
+		});
+		register(IWebView.VIEW_FORWARD, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				return new ForwardView(content);
+			}
+		});
+		register(IWebView.VIEW_HTTP_STATUS, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				String[] _statusContent = StringUtils.split(content, ",");
+				return new HttpStatusView(Integer.parseInt(_statusContent[0]), _statusContent.length >= 2 ? _statusContent[1] : null);
+			}
+		});
+		register(IWebView.VIEW_JSON, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				return new JsonView(content);
+			}
+		});
+		register(IWebView.VIEW_JSP, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				return new JspView(content);
+			}
+		});
+		register(IWebView.VIEW_FTL, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				return new FreeMarkerView(content);
+			}
+		});
+		register(IWebView.VIEW_INLINE_FILE, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				return BinaryView.loadFromFile(content, false);
+			}
+		});
+		register(IWebView.VIEW_FILE, new IViewResolver() {
+			public IView resolve(String content) throws Exception {
+				return BinaryView.loadFromFile(content, true);
+			}
+		});
+	}
+
+	/**
+	 * 注册视图解析器，将覆盖相同前缀的已有解析器
+	 * 
+	 * @param prefix 视图前缀，如"msgpack:"，结尾的":"可省略
+	 * @param resolver 视图解析器对象
+	 */
+	public static void register(String prefix, IViewResolver resolver) {
+		String _prefix = StringUtils.trimToEmpty(prefix).toLowerCase();
+		if (!_prefix.endsWith(":")) {
+			_prefix += ":";
+		}
+		__VIEW_RESOLVERS.put(_prefix, resolver);
+	}
+
+	/**
+	 * @param prefix 视图前缀(包含":")
+	 * @return 返回与视图前缀对应的视图解析器，未注册则返回null
+	 */
+	public static IViewResolver get(String prefix) {
+		return __VIEW_RESOLVERS.get(prefix.toLowerCase());
+	}
+
+	/**
+	 * 按首个":"之前的内容作为前缀查找视图解析器，仅前缀部分忽略大小写，视图内容保持原样
+	 * 
+	 * @param viewStr 视图字符串(已去除首尾空白)
+	 * @return 返回视图解析器与去除前缀后的视图内容，若无匹配的解析器则返回null
+	 */
+	public static PairObject<IViewResolver, String> lookup(String viewStr) {
+		int _idx = viewStr.indexOf(':');
+		if (_idx > 0) {
+			IViewResolver _resolver = get(viewStr.substring(0, _idx + 1));
+			if (_resolver != null) {
+				return new PairObject<IViewResolver, String>(_resolver, viewStr.substring(_idx + 1));
+			}
+		}
+		return null;
+	}
+
+}
@@ -26,9 +26,22 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * <p>
@@ -56,6 +69,11 @@ import java.net.URLEncoder;
  */
 public class BinaryView extends AbstractWebView {
 
+    /**
+     * 单次请求允许的最大Range数量，超出时忽略Range并返回完整内容，防止通过大量重叠Range放大输出
+     */
+    private static final int __MAX_RANGES = 16;
+
     protected String fileName;
     protected Object data;
 
@@ -98,7 +116,8 @@ public class BinaryView extends AbstractWebView {
     public static BinaryView loadFromFile(String fileName, boolean attachment) throws Exception {
         File _file = new File(fileName);
         if (_file.exists() && _file.isFile() && _file.canRead()) {
-            BinaryView _view = new BinaryView(new FileInputStream(_file));
+            // 直接使用文件对象，渲染时将通过FileChannel输出并支持断点续传与条件请求
+            BinaryView _view = new BinaryView(_file);
             _view.setContentType(FileUtils.MIME_TYPE_MAPS.get(FileUtils.getExtName(_file.getPath())));
             if (attachment) {
                 _view.setFileName(_file.getName());
@@ -119,7 +138,7 @@ public class BinaryView extends AbstractWebView {
         //
         if (StringUtils.isNotBlank(fileName)) {
             StringBuilder _dispositionSB = new StringBuilder("attachment;filename=");
-            if (request.getHeader("User-Agent").toLowerCase().contains("firefox")) {
+            if (StringUtils.containsIgnoreCase(request.getHeader("User-Agent"), "firefox")) {
                 _dispositionSB.append(new String(fileName.getBytes("UTF-8"), "ISO8859-1"));
             } else {
                 _dispositionSB.append(URLEncoder.encode(fileName, "UTF-8"));
@@ -132,45 +151,46 @@ public class BinaryView extends AbstractWebView {
         }
         // 文件
         if (this.data instanceof File) {
-            // 读取文件数据长度
-            maxLength = ((File) this.data).length();
-            // 尝试计算Range以配合断点续传
-            PairObject<Long, Long> _rangePO = __doParseRange(maxLength);
-            // 若为断点续传
-            if (_rangePO != null) {
-                __doSetRangeHeader(request, response, _rangePO);
-                // 开始续传文件流
-                IOUtils.copyLarge(new FileInputStream((File) this.data), response.getOutputStream(), _rangePO.getKey(), _rangePO.getValue());
-            } else {
-                // 正常下载
-                response.setContentLength((int) IOUtils.copyLarge(new FileInputStream((File) this.data), response.getOutputStream()));
-            }
+            __doRenderFile(request, response, (File) this.data);
         }
         // 字节数组
         else if (this.data instanceof byte[]) {
             byte[] _datas = (byte[]) this.data;
-            IOUtils.write(_datas, response.getOutputStream());
             response.setContentLength(_datas.length);
+            IOUtils.write(_datas, response.getOutputStream());
         }
         // 字符数组
         else if (this.data instanceof char[]) {
             char[] _datas = (char[]) this.data;
             IOUtils.write(_datas, response.getOutputStream());
-            response.setContentLength(_datas.length);
         }
         // 文本流
         else if (this.data instanceof Reader) {
             Reader r = (Reader) this.data;
-            IOUtils.copy(r, response.getOutputStream());
+            try {
+                IOUtils.copy(r, response.getOutputStream());
+            } finally {
+                IOUtils.closeQuietly(r);
+            }
         }
         // 二进制流
         else if (this.data instanceof InputStream) {
-            PairObject<Long, Long> _rangePO = __doParseRange(maxLength);
-            if (_rangePO != null) {
-                __doSetRangeHeader(request, response, _rangePO);
-                IOUtils.copyLarge((InputStream) this.data, response.getOutputStream(), _rangePO.getKey(), _rangePO.getValue());
-            } else {
-                response.setContentLength((int) IOUtils.copyLarge((InputStream) this.data, response.getOutputStream()));
+            InputStream _input = (InputStream) this.data;
+            try {
+                List<PairObject<Long, Long>> _ranges = maxLength > 0 ? __doParseRanges(request, maxLength) : null;
+                if (_ranges != null && !_ranges.isEmpty()) {
+                    // 数据流仅支持单个Range
+                    PairObject<Long, Long> _rangePO = _ranges.get(0);
+                    __doSetRangeHeader(response, _rangePO, maxLength);
+                    IOUtils.copyLarge(_input, response.getOutputStream(), _rangePO.getKey(), _rangePO.getValue() - _rangePO.getKey());
+                } else {
+                    if (maxLength > 0) {
+                        response.setHeader("Content-Length", String.valueOf(maxLength));
+                    }
+                    IOUtils.copyLarge(_input, response.getOutputStream());
+                }
+            } finally {
+                IOUtils.closeQuietly(_input);
             }
         }
         // 普通对象
@@ -179,72 +199,235 @@ public class BinaryView extends AbstractWebView {
         }
     }
 
-    private void __doSetRangeHeader(HttpServletRequest request, HttpServletResponse response, PairObject<Long, Long> range) {
+    /**
+     * 输出文件内容，支持ETag/Last-Modified条件请求、单个及多个Range断点续传，文件内容通过FileChannel.transferTo传输
+     *
+     * @param request  HttpServletRequest对象
+     * @param response HttpServletResponse对象
+     * @param file     文件对象
+     * @throws IOException 可能产生的异常
+     */
+    private void __doRenderFile(HttpServletRequest request, HttpServletResponse response, File file) throws IOException {
+        long _length = file.length();
+        long _lastModified = file.lastModified();
+        // 与If-Range配合使用时需为强校验值(RFC 7233)
+        String _eTag = "\"" + _length + "-" + _lastModified + "\"";
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", _eTag);
+        response.setDateHeader("Last-Modified", _lastModified);
+        // 条件请求，内容未变化时直接返回304
+        if (__isNotModified(request, _eTag, _lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        List<PairObject<Long, Long>> _ranges = null;
+        String _ifRange = request.getHeader("If-Range");
+        // If-Range可能为ETag或HTTP日期，不匹配时忽略Range并返回完整内容
+        if (_ifRange == null || _ifRange.equals(_eTag) || _ifRange.equals(__formatHttpDate(_lastModified))) {
+            _ranges = __doParseRanges(request, _length);
+        }
+        if (_ranges != null && _ranges.isEmpty()) {
+            // 所请求的Range均超出文件范围
+            response.setHeader("Content-Range", "bytes */" + _length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        // HEAD请求仅输出响应头
+        boolean _isHead = "HEAD".equalsIgnoreCase(request.getMethod());
+        if (_isHead && (_ranges == null || _ranges.size() == 1)) {
+            if (_ranges == null) {
+                response.setHeader("Content-Length", String.valueOf(_length));
+            } else {
+                __doSetRangeHeader(response, _ranges.get(0), _length);
+            }
+            return;
+        }
+        FileInputStream _input = new FileInputStream(file);
+        try {
+            FileChannel _channel = _input.getChannel();
+            OutputStream _output = response.getOutputStream();
+            WritableByteChannel _target = _output instanceof WritableByteChannel ? (WritableByteChannel) _output : Channels.newChannel(_output);
+            if (_ranges == null) {
+                // 正常下载
+                response.setHeader("Content-Length", String.valueOf(_length));
+                __doTransfer(_channel, 0, _length, _target);
+            } else if (_ranges.size() == 1) {
+                PairObject<Long, Long> _rangePO = _ranges.get(0);
+                __doSetRangeHeader(response, _rangePO, _length);
+                __doTransfer(_channel, _rangePO.getKey(), _rangePO.getValue() - _rangePO.getKey(), _target);
+            } else {
+                // 多个Range采用multipart/byteranges方式输出
+                String _boundary = Long.toHexString(System.nanoTime()) + Long.toHexString(_lastModified);
+                String _partContentType = StringUtils.defaultIfBlank(getContentType(), "application/octet-stream");
+                List<byte[]> _partHeaders = new ArrayList<byte[]>(_ranges.size());
+                byte[] _partEnd = ("\r\n--" + _boundary + "--\r\n").getBytes("ISO8859-1");
+                long _totalLength = _partEnd.length;
+                for (PairObject<Long, Long> _rangePO : _ranges) {
+                    byte[] _partHeader = ("\r\n--" + _boundary + "\r\nContent-Type: " + _partContentType + "\r\nContent-Range: bytes " + _rangePO.getKey() + "-" + (_rangePO.getValue() - 1) + "/" + _length + "\r\n\r\n").getBytes("ISO8859-1");
+                    _partHeaders.add(_partHeader);
+                    _totalLength += _partHeader.length + _rangePO.getValue() - _rangePO.getKey();
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setContentType("multipart/byteranges; boundary=" + _boundary);
+                response.setHeader("Content-Length", String.valueOf(_totalLength));
+                if (_isHead) {
+                    return;
+                }
+                for (int _idx = 0; _idx < _ranges.size(); _idx++) {
+                    PairObject<Long, Long> _rangePO = _ranges.get(_idx);
+                    _output.write(_partHeaders.get(_idx));
+                    __doTransfer(_channel, _rangePO.getKey(), _rangePO.getValue() - _rangePO.getKey(), _target);
+                }
+                _output.write(_partEnd);
+            }
+            _output.flush();
+        } finally {
+            IOUtils.closeQuietly(_input);
+        }
+    }
+
+    /**
+     * 将文件通道中指定区间的数据传输至目标通道，transferTo单次调用可能只传输部分数据，因此需循环执行
+     */
+    private void __doTransfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        while (count > 0) {
+            long _transferred = channel.transferTo(position, count, target);
+            if (_transferred <= 0) {
+                break;
+            }
+            position += _transferred;
+            count -= _transferred;
+        }
+    }
+
+    /**
+     * @return 根据If-None-Match与If-Modified-Since请求头判断客户端缓存内容是否仍然有效
+     */
+    private boolean __isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String _ifNoneMatch = request.getHeader("If-None-Match");
+        if (_ifNoneMatch != null) {
+            for (String _tag : StringUtils.split(_ifNoneMatch, ",")) {
+                _tag = _tag.trim();
+                // If-None-Match采用弱比较，忽略W/前缀
+                if ("*".equals(_tag) || eTag.equals(_tag.startsWith("W/") ? _tag.substring(2) : _tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long _ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            // HTTP日期仅精确到秒
+            return _ifModifiedSince != -1 && lastModified / 1000 <= _ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String __formatHttpDate(long time) {
+        SimpleDateFormat _format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        _format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return _format.format(new Date(time));
+    }
+
+    private void __doSetRangeHeader(HttpServletResponse response, PairObject<Long, Long> range, long length) {
         // 表示使用了断点续传（默认是“none”，可以不指定）
         response.setHeader("Accept-Ranges", "bytes");
-        // Content-Length: [文件的总大小] - [客户端请求的下载的文件块的开始字节]
-        long _totalLength = range.getValue() - range.getKey();
-        response.setHeader("Content-Length", _totalLength + "");
-        // Content-Range: bytes [文件块的开始字节]-[文件的总大小 - 1]/[文件的总大小]
-        response.setHeader("Content-Range", "bytes " + range.getKey() + "-" + (range.getValue() - 1) + "/" + maxLength);
+        // Content-Length: [文件块的结束字节] - [客户端请求的下载的文件块的开始字节]
+        response.setHeader("Content-Length", String.valueOf(range.getValue() - range.getKey()));
+        // Content-Range: bytes [文件块的开始字节]-[文件块的结束字节]/[文件的总大小]
+        response.setHeader("Content-Range", "bytes " + range.getKey() + "-" + (range.getValue() - 1) + "/" + length);
         // response.setHeader("Connection", "Close"); //如果有此句话不能用IE直接下载
         // Status: 206
         response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
     }
 
     /**
-     * 分析请求头中的Range参数，计算并返回本次数据的开始和结束位置
+     * 分析请求头中的Range参数，计算并返回每个数据块的开始位置和结束位置(不包含)
      *
+     * @param request   HttpServletRequest对象
      * @param maxLength 数据大小
-     * @return 若非断点续传则返回null
+     * @return 若非断点续传、Range格式无效或Range数量超出上限则返回null，若全部Range均超出数据范围则返回空集合；返回的Range已按起始位置排序并合并重叠或相邻的区间
      */
-    private PairObject<Long, Long> __doParseRange(long maxLength) {
-        PairObject<Long, Long> _returnValue = null;
+    private List<PairObject<Long, Long>> __doParseRanges(HttpServletRequest request, long maxLength) {
         // 通过请求头Range参数判断是否采用断点续传
-        String _rangeStr = WebContext.getRequest().getHeader("Range");
-        if (_rangeStr != null && _rangeStr.startsWith("bytes=") && _rangeStr.length() >= 7) {
-            _rangeStr = StringUtils.substringAfter(_rangeStr, "bytes=");
-            String[] _ranges = StringUtils.split(_rangeStr, ",");
-            // 可能存在多个Range，目前仅处理第一个...
-            for (String _range : _ranges) {
-                if (StringUtils.isBlank(_range)) {
+        String _rangeStr = request.getHeader("Range");
+        if (_rangeStr == null || !_rangeStr.startsWith("bytes=") || _rangeStr.length() < 7) {
+            return null;
+        }
+        String[] _rangeItems = StringUtils.split(StringUtils.substringAfter(_rangeStr, "bytes="), ",");
+        if (_rangeItems.length > __MAX_RANGES) {
+            return null;
+        }
+        List<PairObject<Long, Long>> _returnValue = new ArrayList<PairObject<Long, Long>>();
+        for (String _range : _rangeItems) {
+            _range = _range.trim();
+            if (_range.length() == 0) {
+                return null;
+            }
+            try {
+                long _start;
+                long _end;
+                int _idx = _range.indexOf('-');
+                if (_idx < 0) {
                     return null;
-                }
-                try {
+                } else if (_idx == 0) {
                     // bytes=-100
-                    if (_range.startsWith("-")) {
-                        long _end = Long.parseLong(_range);
-                        long _start = maxLength + _end;
-                        if (_start < 0) {
+                    long _suffixLength = Long.parseLong(_range.substring(1));
+                    _start = Math.max(maxLength - _suffixLength, 0);
+                    _end = maxLength;
+                } else {
+                    _start = Long.parseLong(_range.substring(0, _idx));
+                    if (_idx == _range.length() - 1) {
+                        // bytes=1024-
+                        _end = maxLength;
+                    } else {
+                        // bytes=10-1024
+                        _end = Long.parseLong(_range.substring(_idx + 1)) + 1;
+                        if (_end <= _start) {
                             return null;
                         }
-                        _returnValue = new PairObject<Long, Long>(_start, maxLength);
-                        break;
+                        _end = Math.min(_end, maxLength);
                     }
-                    // bytes=1024-
-                    if (_range.endsWith("-")) {
-                        long _start = Long.parseLong(StringUtils.substringBefore(_range, "-"));
-                        if (_start < 0) {
-                            return null;
-                        }
-                        _returnValue = new PairObject<Long, Long>(_start, maxLength);
-                        break;
-                    }
-                    // bytes=10-1024
-                    if (_range.contains("-")) {
-                        String[] _tmp = _range.split("-");
-                        long _start = Long.parseLong(_tmp[0]);
-                        long _end = Long.parseLong(_tmp[1]);
-                        if (_start > _end) {
-                            return null;
-                        }
-                        _returnValue = new PairObject<Long, Long>(_start, _end + 1);
-                    }
-                } catch (Throwable e) {
+                }
+                if (_start < 0) {
                     return null;
                 }
+                // 起始位置超出数据范围的Range将被忽略
+                if (_start < maxLength) {
+                    _returnValue.add(new PairObject<Long, Long>(_start, _end));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return __doMergeRanges(_returnValue);
+    }
+
+    /**
+     * 按起始位置排序并合并重叠或相邻的Range
+     */
+    private List<PairObject<Long, Long>> __doMergeRanges(List<PairObject<Long, Long>> ranges) {
+        if (ranges.size() <= 1) {
+            return ranges;
+        }
+        Collections.sort(ranges, new Comparator<PairObject<Long, Long>>() {
+            public int compare(PairObject<Long, Long> o1, PairObject<Long, Long> o2) {
+                return o1.getKey().compareTo(o2.getKey());
+            }
+        });
+        List<PairObject<Long, Long>> _returnValue = new ArrayList<PairObject<Long, Long>>(ranges.size());
+        PairObject<Long, Long> _current = ranges.get(0);
+        for (int _idx = 1; _idx < ranges.size(); _idx++) {
+            PairObject<Long, Long> _next = ranges.get(_idx);
+            if (_next.getKey() <= _current.getValue()) {
+                _current = new PairObject<Long, Long>(_current.getKey(), Math.max(_current.getValue(), _next.getValue()));
+            } else {
+                _returnValue.add(_current);
+                _current = _next;
             }
         }
+        _returnValue.add(_current);
         return _returnValue;
     }
 
@@ -15,13 +15,15 @@
  */
 package net.ymate.platform.mvc.web.view.impl;
 
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
 import javax.servlet.http.HttpServletResponse;
 
 import net.ymate.platform.mvc.web.WebMVC;
 import net.ymate.platform.mvc.web.context.WebContext;
 import net.ymate.platform.mvc.web.view.AbstractWebView;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 
 import com.alibaba.fastjson.JSON;
@@ -55,16 +57,24 @@ public class JsonView extends AbstractWebView {
 	public static final String JSON_CONTENT_TYPE = "application/json";
 	public static final String JAVASCRIPT_CONTENT_TYPE = "text/javascript";
 
+	/**
+	 * 待输出的Java对象或JSON字符串，在视图渲染时才进行序列化
+	 */
 	protected Object jsonObj;
 	protected boolean withContentType;
 	protected String jsonpCallback;
 
+	/**
+	 * jsonObj是否为JSON字符串，若是则渲染时直接输出，无需再次序列化
+	 */
+	protected boolean isJsonString;
+
 	/**
 	 * 构造器
 	 * @param obj Java对象
 	 */
 	public JsonView(Object obj) {
-		this.jsonObj = JSON.toJSON(obj);
+		this.jsonObj = obj;
 	}
 
 	/**
@@ -73,7 +83,8 @@ public class JsonView extends AbstractWebView {
 	 * @param jsonStr JSON字符串
 	 */
 	public JsonView(String jsonStr) {
-		this.jsonObj = JSON.parse(jsonStr);
+		this.jsonObj = jsonStr;
+		this.isJsonString = true;
 	}
 
 	/**
@@ -107,11 +118,21 @@ public class JsonView extends AbstractWebView {
 				response.setContentType(JAVASCRIPT_CONTENT_TYPE);
 			}
 		}
-		StringBuilder _jsonStr = new StringBuilder(jsonObj.toString());
+		// 直接将对象序列化至输出流，JSONP回调方法以前后缀形式输出，避免构建中间对象及字符串拷贝
+		Writer _writer = new OutputStreamWriter(response.getOutputStream(), StringUtils.defaultIfEmpty(WebMVC.getConfig().getCharsetEncoding(), response.getCharacterEncoding()));
+		if (this.jsonpCallback != null) {
+			_writer.write(this.jsonpCallback);
+			_writer.write('(');
+		}
+		if (this.isJsonString) {
+			_writer.write(StringUtils.defaultIfEmpty((String) this.jsonObj, "null"));
+		} else {
+			JSON.writeJSONStringTo(this.jsonObj, _writer);
+		}
 		if (this.jsonpCallback != null) {
-			_jsonStr.insert(0, this.jsonpCallback + "(").append(");");
+			_writer.write(");");
 		}
-		IOUtils.write(_jsonStr.toString(), response.getOutputStream(), StringUtils.defaultIfEmpty(WebMVC.getConfig().getCharsetEncoding(), response.getCharacterEncoding()));
+		_writer.flush();
 	}
 
 }
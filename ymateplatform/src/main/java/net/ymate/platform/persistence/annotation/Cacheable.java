@@ -0,0 +1,63 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Cacheable
+ * </p>
+ * <p>
+ * 声明实体对象开启二级缓存，按主键缓存由 selectById 加载的完整实体对象，插入、更新、删除操作将自动失效对应缓存(仅支持单主键实体)；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午9:40:18</td>
+ *          </tr>
+ *          </table>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target( { ElementType.TYPE })
+@Documented
+public @interface Cacheable {
+
+	/**
+	 * @return 缓存区域最大对象数量，超出时按LRU方式淘汰，默认1000
+	 */
+	int maxSize() default 1000;
+
+	/**
+	 * @return 缓存对象存活时间(毫秒)，小于等于0表示不过期，默认300000
+	 */
+	long timeToLive() default 300000L;
+
+}
@@ -16,10 +16,15 @@
 package net.ymate.platform.persistence.jdbc;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.ymate.platform.commons.util.RuntimeUtils;
+import net.ymate.platform.persistence.jdbc.base.StatementCache;
 import net.ymate.platform.persistence.jdbc.base.dialect.IDialect;
+import net.ymate.platform.persistence.jdbc.base.dialect.impl.SQLServer2005Dialect;
+import net.ymate.platform.persistence.jdbc.base.dialect.impl.SQLServer2008Dialect;
 import net.ymate.platform.persistence.jdbc.support.JdbcDataSourceCfgMeta;
 
 /**
@@ -52,6 +57,13 @@ public abstract class AbstractDataSourceAdapter implements IDataSourceAdapter {
 
 	protected IDialect dialect;
 
+	/**
+	 * 当前数据源全部连接的PreparedStatement缓存命中及未命中次数
+	 */
+	private final AtomicLong __statementCacheHits = new AtomicLong();
+
+	private final AtomicLong __statementCacheMisses = new AtomicLong();
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.IDataSourceAdapter#initialize(net.ymate.platform.persistence.jdbc.support.DataSourceCfgMeta)
 	 */
@@ -67,8 +79,7 @@ public abstract class AbstractDataSourceAdapter implements IDataSourceAdapter {
 			Connection _conn = null;
 			try {
 				_conn = this.getConnection();
-				String _prodName = _conn.getMetaData().getDatabaseProductName();
-				dialect = JDBC.getDialectClass(_prodName).newInstance();
+				return getDialect(_conn);
 			} catch (Exception e) {
 				throw new Error(RuntimeUtils.unwrapThrow(e));
 			} finally {
@@ -85,6 +96,64 @@ public abstract class AbstractDataSourceAdapter implements IDataSourceAdapter {
 		return dialect;
 	}
 
+	/**
+	 * 通过已获取的连接识别数据库方言，连接对象由调用者负责关闭
+	 *
+	 * @param conn 由当前数据源获取的连接对象
+	 * @return 返回数据库方言
+	 */
+	public IDialect getDialect(Connection conn) {
+		if (dialect == null) {
+			try {
+				DatabaseMetaData _metaData = conn.getMetaData();
+				Class<? extends IDialect> _dialectClass = JDBC.getDialectClass(_metaData.getDatabaseProductName());
+				// SQL Server 2008 (主版本号10)及以上版本支持 merge 语句
+				if (SQLServer2005Dialect.class.equals(_dialectClass) && _metaData.getDatabaseMajorVersion() >= 10) {
+					_dialectClass = SQLServer2008Dialect.class;
+				}
+				dialect = _dialectClass.newInstance();
+			} catch (Exception e) {
+				throw new Error(RuntimeUtils.unwrapThrow(e));
+			}
+		}
+		return dialect;
+	}
+
+	/**
+	 * @return 为新获取的连接创建PreparedStatement对象缓存，若数据源未开启缓存则返回null
+	 */
+	public StatementCache createStatementCache() {
+		if (cfgMeta != null && cfgMeta.getStatementCacheSize() > 0) {
+			return new StatementCache(cfgMeta.getStatementCacheSize(), __statementCacheHits, __statementCacheMisses);
+		}
+		return null;
+	}
+
+	/**
+	 * 获取与连接对象的物理连接绑定的PreparedStatement对象缓存，其生命周期与物理连接一致，
+	 * 连接持有者不负责关闭；默认返回null表示物理连接不会跨会话复用，由连接持有者通过createStatementCache()自行创建
+	 *
+	 * @param conn 由当前数据源获取的连接对象
+	 * @return 返回与物理连接绑定的PreparedStatement对象缓存
+	 */
+	public StatementCache getConnectionStatementCache(Connection conn) {
+		return null;
+	}
+
+	/**
+	 * @return 返回当前数据源PreparedStatement缓存命中次数
+	 */
+	public long getStatementCacheHitCount() {
+		return __statementCacheHits.get();
+	}
+
+	/**
+	 * @return 返回当前数据源PreparedStatement缓存未命中次数
+	 */
+	public long getStatementCacheMissCount() {
+		return __statementCacheMisses.get();
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.IDataSourceAdapter#destroy()
 	 */
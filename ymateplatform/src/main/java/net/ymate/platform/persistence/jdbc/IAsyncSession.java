@@ -0,0 +1,124 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import net.ymate.platform.persistence.jdbc.operator.IResultSetHandler;
+import net.ymate.platform.persistence.support.PageResultSet;
+
+/**
+ * <p>
+ * IAsyncSession
+ * </p>
+ * <p>
+ * 异步数据库操作会话接口，每个操作在数据源专属的有界线程池中使用独立的会话执行并立即返回Future对象，<br/>
+ * 便于并行执行多个相互独立的查询；当前线程处于事务中时操作将在当前线程使用事务绑定的连接同步执行；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月25日上午10:18:36</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IAsyncSession {
+
+	/**
+	 * @return 获取数据源名称
+	 */
+	public String getDataSourceName();
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象
+	 * @param id 主键值
+	 * @return 异步根据主键查询实体
+	 */
+	public <T> Future<T> find(Class<T> entity, Object id);
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象
+	 * @param cond 查询条件
+	 * @param params 条件参数
+	 * @return 异步根据实体执行SQL查询，返回全部结果数据
+	 */
+	public <T> Future<List<T>> findAll(Class<T> entity, String cond, Object[] params);
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象
+	 * @param cond 查询条件
+	 * @param fieldFilter 显示字段过滤集合
+	 * @param pageSize 分页大小
+	 * @param page 页号
+	 * @param params 条件参数
+	 * @return 异步根据实体执行SQL分页查询（执行总记录数统计）
+	 */
+	public <T> Future<PageResultSet<T>> findAll(Class<T> entity, String cond, String[] fieldFilter, int pageSize, int page, Object[] params);
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param sql SQL语句
+	 * @param handler 结果集数据处理器
+	 * @param params SQL参数集合
+	 * @return 异步执行SQL查询，返回全部结果数据
+	 */
+	public <T> Future<List<T>> findAll(String sql, IResultSetHandler<T> handler, Object[] params);
+
+	/**
+	 * @param sql SQL语句
+	 * @param params SQL参数集合
+	 * @return 异步执行数据库更新操作，返回受影响的记录行数
+	 */
+	public Future<Integer> executeForUpdate(String sql, Object[] params);
+
+	/**
+	 * @param <T> 指定实体类型
+	 * @param entityClass 实体对象
+	 * @param whereStr 查询条件
+	 * @param params 条件参数
+	 * @return 异步计算查询结果总数量
+	 */
+	public <T> Future<Long> getAmount(Class<T> entityClass, String whereStr, Object[] params);
+
+	/**
+	 * @param sql SQL语句
+	 * @param params SQL参数集合
+	 * @return 异步计算查询结果总数量
+	 */
+	public Future<Long> getAmount(String sql, Object[] params);
+
+	/**
+	 * @param <T> 指定结果数据类型
+	 * @param executor 会话执行器
+	 * @return 异步执行自定义会话处理过程
+	 */
+	public <T> Future<T> submit(ISessionExecutor<T> executor);
+
+}
@@ -17,6 +17,7 @@ package net.ymate.platform.persistence.jdbc;
 
 import java.sql.Connection;
 
+import net.ymate.platform.persistence.jdbc.base.StatementCache;
 import net.ymate.platform.persistence.jdbc.base.dialect.IDialect;
 
 /**
@@ -66,4 +67,9 @@ public interface IConnectionHolder {
 	 */
 	public IDialect getDialect();
 
+	/**
+	 * @return 获取当前连接的PreparedStatement对象缓存，未开启时返回null
+	 */
+	public StatementCache getStatementCache();
+
 }
@@ -65,6 +65,36 @@ public interface IJdbcConfig {
 	 */
 	public String[] getRepositoryPackages();
 
+	/**
+	 * @return 批量插入或更新时每批次提交的最大记录数，小于等于0时采用默认值1000
+	 */
+	public int getBatchSize();
+
+	/**
+	 * @return 批量插入时是否将同一批次的记录改写为一条多行插入语句(需数据库方言支持)，默认 false
+	 */
+	public boolean isBatchMultiRowInsert();
+
+	/**
+	 * @return 实体二级缓存提供者(IEntityCache接口实现)类名称，为空则采用进程内默认实现
+	 */
+	public String getEntityCacheClass();
+
+	/**
+	 * @return 通过配置开启二级缓存的实体类名称集合(未声明@Cacheable注解的实体)
+	 */
+	public String[] getCacheableEntities();
+
+	/**
+	 * @return 是否开启SQL执行统计(耗时分布、记录行数、错误次数、连接等待时间及慢查询)，默认 false
+	 */
+	public boolean isMetricsEnabled();
+
+	/**
+	 * @return 慢查询阈值(毫秒)，小于等于0时采用默认值1000
+	 */
+	public long getSlowQueryThreshold();
+
 	/**
 	 * @return 返回数据源配置对象集合
 	 */
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc;
+
+import net.ymate.platform.persistence.base.OperatorException;
+
+/**
+ * <p>
+ * IRowCallback
+ * </p>
+ * <p>
+ * 结果集逐行回调处理接口，用于以游标方式遍历记录；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月16日上午10:21:33</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IRowCallback<T> {
+
+	/**
+	 * 处理一行记录数据
+	 * 
+	 * @param row 当前行数据
+	 * @return 返回false将停止继续读取后续记录
+	 * @throws OperatorException
+	 */
+	public boolean handle(T row) throws OperatorException;
+
+}
@@ -18,7 +18,10 @@ package net.ymate.platform.persistence.jdbc;
 import java.util.List;
 
 import net.ymate.platform.persistence.base.OperatorException;
+import net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent;
+import net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler;
 import net.ymate.platform.persistence.jdbc.operator.IResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.ResultSetCursor;
 import net.ymate.platform.persistence.support.ISessionEvent;
 import net.ymate.platform.persistence.support.PageResultSet;
 
@@ -100,6 +103,25 @@ public interface ISession {
 	 */
 	public <T> List<T> findAll(Class<T> entity, String cond, Object[] params) throws OperatorException;
 
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象
+	 * @param ids 主键值集合
+	 * @return 根据主键值集合批量查询，结果顺序与传入主键顺序一致，不存在的记录将被忽略
+	 * @throws OperatorException
+	 */
+	public <T> List<T> findAll(Class<T> entity, Object[] ids) throws OperatorException;
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象
+	 * @param ids 主键值集合
+	 * @param fieldFilter 显示字段过滤集合
+	 * @return 根据主键值集合批量查询，结果顺序与传入主键顺序一致，不存在的记录将被忽略
+	 * @throws OperatorException
+	 */
+	public <T> List<T> findAllByIds(Class<T> entity, Object[] ids, String[] fieldFilter) throws OperatorException;
+
 	/**
 	 * @param <T> 指定结果集数据类型
 	 * @param entity 实体对象
@@ -163,6 +185,54 @@ public interface ISession {
 	 */
 	public <T> PageResultSet<T> findAll(Class<T> entity, String cond, String[] fieldFilter, int pageSize, int page, boolean count, Object[] params) throws OperatorException;
 
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param sql SQL语句
+	 * @param handler 结果集数据处理器，逐行调用其processRowData方法
+	 * @param event 访问器配置事件，可通过getFetchSize设置驱动程序获取数据的行数提示(如MySQL的Integer.MIN_VALUE)，可为空
+	 * @param params SQL参数集合
+	 * @return 以游标方式执行SQL查询，返回的游标须在使用完毕后关闭，且关闭前不要使用同一会话执行其它操作
+	 * @throws OperatorException
+	 */
+	public <T> ResultSetCursor<T> stream(String sql, AbstractResultSetHandler<T> handler, IAccessorCfgEvent event, Object[] params) throws OperatorException;
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象
+	 * @param cond 查询条件
+	 * @param fieldFilter 显示字段过滤集合
+	 * @param event 访问器配置事件，可为空
+	 * @param params 条件参数
+	 * @return 以游标方式根据实体执行SQL查询，逐行映射为实体对象，返回的游标须在使用完毕后关闭
+	 * @throws OperatorException
+	 */
+	public <T> ResultSetCursor<T> stream(Class<T> entity, String cond, String[] fieldFilter, IAccessorCfgEvent event, Object[] params) throws OperatorException;
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param sql SQL语句
+	 * @param handler 结果集数据处理器
+	 * @param event 访问器配置事件，可为空
+	 * @param params SQL参数集合
+	 * @param callback 逐行回调处理接口
+	 * @return 以游标方式执行SQL查询并逐行回调，返回已处理的记录数
+	 * @throws OperatorException
+	 */
+	public <T> int forEach(String sql, AbstractResultSetHandler<T> handler, IAccessorCfgEvent event, Object[] params, IRowCallback<T> callback) throws OperatorException;
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象
+	 * @param cond 查询条件
+	 * @param fieldFilter 显示字段过滤集合
+	 * @param event 访问器配置事件，可为空
+	 * @param params 条件参数
+	 * @param callback 逐行回调处理接口
+	 * @return 以游标方式根据实体执行SQL查询并逐行回调，返回已处理的记录数
+	 * @throws OperatorException
+	 */
+	public <T> int forEach(Class<T> entity, String cond, String[] fieldFilter, IAccessorCfgEvent event, Object[] params, IRowCallback<T> callback) throws OperatorException;
+
 	/**
 	 * @param <T> 指定结果集数据类型
 	 * @param sql SQL语句
@@ -289,6 +359,22 @@ public interface ISession {
 	 */
 	public <T> List<T> insertAll(List<T> entities) throws OperatorException;
 
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entity 实体对象(主键值需已赋值)
+	 * @return 根据主键执行记录插入，若记录已存在则更新其全部非主键字段，返回实体对象
+	 * @throws OperatorException
+	 */
+	public <T> T upsert(T entity) throws OperatorException;
+
+	/**
+	 * @param <T> 指定结果集数据类型
+	 * @param entities 实体对象集合(主键值需已赋值)
+	 * @return 根据主键执行记录批量插入，若记录已存在则更新其全部非主键字段，返回实体对象集合
+	 * @throws OperatorException
+	 */
+	public <T> List<T> upsertAll(List<T> entities) throws OperatorException;
+
 	/**
 	 * @param <T> 指定结果集数据类型
 	 * @param entity 实体对象
@@ -20,20 +20,32 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import net.ymate.platform.base.FrameworkLog;
+import net.ymate.platform.commons.lang.BlurObject;
 import net.ymate.platform.commons.util.ClassUtils;
 import net.ymate.platform.persistence.base.ConnectionException;
 import net.ymate.platform.persistence.base.OperatorException;
 import net.ymate.platform.persistence.jdbc.base.dialect.IDialect;
+import net.ymate.platform.persistence.jdbc.cache.EntityCaches;
+import net.ymate.platform.persistence.jdbc.cache.IEntityCache;
+import net.ymate.platform.persistence.jdbc.metrics.JdbcMetrics;
 import net.ymate.platform.persistence.jdbc.base.dialect.impl.MySqlDialect;
 import net.ymate.platform.persistence.jdbc.base.dialect.impl.OracleDialect;
+import net.ymate.platform.persistence.jdbc.base.dialect.impl.PostgreSQLDialect;
 import net.ymate.platform.persistence.jdbc.base.dialect.impl.SQLServer2005Dialect;
+import net.ymate.platform.persistence.jdbc.route.ReplicaNode;
+import net.ymate.platform.persistence.jdbc.route.ReplicaRouter;
+import net.ymate.platform.persistence.jdbc.support.AsyncSessionExecutor;
 import net.ymate.platform.persistence.jdbc.support.C3p0DataSourceAdapter;
 import net.ymate.platform.persistence.jdbc.support.DbcpDataSourceAdapter;
+import net.ymate.platform.persistence.jdbc.support.DefaultAsyncSession;
 import net.ymate.platform.persistence.jdbc.support.DefaultConnectionHolder;
 import net.ymate.platform.persistence.jdbc.support.DefaultDataSourceAdapter;
 import net.ymate.platform.persistence.jdbc.support.DefaultSession;
 import net.ymate.platform.persistence.jdbc.support.JdbcDataSourceCfgMeta;
 import net.ymate.platform.persistence.jdbc.support.JndiDataSourceAdapter;
+import net.ymate.platform.persistence.jdbc.support.PooledDataSourceAdapter;
+import net.ymate.platform.persistence.jdbc.support.ReplicaConnectionHolder;
 import net.ymate.platform.persistence.jdbc.transaction.ITransaction;
 import net.ymate.platform.persistence.jdbc.transaction.Trans;
 import net.ymate.platform.persistence.jdbc.transaction.support.DefaultTransactionProxyHandler;
@@ -82,8 +94,33 @@ public class JDBC {
 	 */
 	public static String DATASOURCE_DEFAULT_NAME;
 
+	/**
+	 * 批量插入或更新时每批次提交的最大记录数，默认为1000
+	 */
+	public static int BATCH_SIZE = 1000;
+
+	/**
+	 * 批量插入时是否改写为多行插入语句
+	 */
+	public static boolean isBatchMultiRowInsert;
+
 	protected static Map<String, IDataSourceAdapter> __DATASOURCE_CACHE = new ConcurrentHashMap<String, IDataSourceAdapter>();
 
+	/**
+	 * 数据源名称与序号的映射，事务中按序号直接定位连接持有者对象
+	 */
+	protected static Map<String, Integer> __DATASOURCE_ORDINALS = new ConcurrentHashMap<String, Integer>();
+
+	/**
+	 * 主数据源名称与读写分离路由器的映射
+	 */
+	protected static Map<String, ReplicaRouter> __REPLICA_ROUTERS = new ConcurrentHashMap<String, ReplicaRouter>();
+
+	/**
+	 * 数据源名称与异步会话执行器的映射，按需创建
+	 */
+	protected static Map<String, AsyncSessionExecutor> __ASYNC_EXECUTORS = new ConcurrentHashMap<String, AsyncSessionExecutor>();
+
 	protected static Map<String, String> __DEFAULT_ADAPTER_NAMES = new HashMap<String, String>();
 
 	protected static RepositoryBeanFactory __REPOSTORY_BEAN_FACTORY;
@@ -96,11 +133,13 @@ public class JDBC {
 		__DIALECT.put("oracle", OracleDialect.class);
 		__DIALECT.put("mysql", MySqlDialect.class);
 		__DIALECT.put("microsoft sql server", SQLServer2005Dialect.class);
-		//  { "default", "c3p0", "dbcp", "jndi" };
+		__DIALECT.put("postgresql", PostgreSQLDialect.class);
+		//  { "default", "c3p0", "dbcp", "jndi", "pooled" };
 		__DEFAULT_ADAPTER_NAMES.put("default", DefaultDataSourceAdapter.class.getName());
 		__DEFAULT_ADAPTER_NAMES.put("c3p0", C3p0DataSourceAdapter.class.getName());
 		__DEFAULT_ADAPTER_NAMES.put("dbcp", DbcpDataSourceAdapter.class.getName());
 		__DEFAULT_ADAPTER_NAMES.put("jndi", JndiDataSourceAdapter.class.getName());
+		__DEFAULT_ADAPTER_NAMES.put("pooled", PooledDataSourceAdapter.class.getName());
         //
         __DRIVER_CLASS.put("mysql", "com.mysql.jdbc.Driver");
         __DRIVER_CLASS.put("oracle", "oracle.jdbc.OracleDriver");
@@ -130,6 +169,10 @@ public class JDBC {
 			DATASOURCE_DEFAULT_NAME = StringUtils.defaultIfEmpty(config.getDefaultDataSourceName(), "default");
 			TABLE_PREFIX = StringUtils.trimToEmpty(config.getTablePrefix());
 			isShowSQL = config.isShowSql();
+			if (config.getBatchSize() > 0) {
+				BATCH_SIZE = config.getBatchSize();
+			}
+			isBatchMultiRowInsert = config.isBatchMultiRowInsert();
 			for (JdbcDataSourceCfgMeta _cfgMeta : config.getDataSourceCfgMetas()) {
 				String _adapterClassName = StringUtils.defaultIfEmpty(_cfgMeta.getAdapterClass(), "default");
 				if (__DEFAULT_ADAPTER_NAMES.containsKey(_adapterClassName.toLowerCase())) {
@@ -138,7 +181,25 @@ public class JDBC {
 				IDataSourceAdapter _adapter = ClassUtils.impl(_adapterClassName, IDataSourceAdapter.class, JDBC.class);
 				_adapter.initialize(_cfgMeta);
 				__DATASOURCE_CACHE.put(_cfgMeta.getName(), _adapter);
+				getDataSourceOrdinal(_cfgMeta.getName());
 			}
+			for (JdbcDataSourceCfgMeta _cfgMeta : config.getDataSourceCfgMetas()) {
+				if (StringUtils.isNotBlank(_cfgMeta.getReplicas())) {
+					ReplicaRouter _router = new ReplicaRouter(_cfgMeta);
+					for (ReplicaNode _node : _router.getNodes()) {
+						if (!__DATASOURCE_CACHE.containsKey(_node.getName())) {
+							throw new Error(FrameworkLog.formatMessage("ymp.jdbc.replica_not_found", _node.getName(), _cfgMeta.getName()));
+						}
+					}
+					__REPLICA_ROUTERS.put(_cfgMeta.getName(), _router);
+				}
+			}
+			IEntityCache _entityCache = null;
+			if (StringUtils.isNotBlank(config.getEntityCacheClass())) {
+				_entityCache = ClassUtils.impl(config.getEntityCacheClass(), IEntityCache.class, JDBC.class);
+			}
+			EntityCaches.initialize(_entityCache, config.getCacheableEntities());
+			JdbcMetrics.initialize(config.isMetricsEnabled(), config.getSlowQueryThreshold());
 			__REPOSTORY_BEAN_FACTORY = new RepositoryBeanFactory(config.getRepositoryPackages());
 			isInited = true;
 		}
@@ -160,6 +221,13 @@ public class JDBC {
 				_adapter.destroy();
 			}
 			__DATASOURCE_CACHE.clear();
+			__REPLICA_ROUTERS.clear();
+			for (AsyncSessionExecutor _executor : __ASYNC_EXECUTORS.values()) {
+				_executor.shutdown();
+			}
+			__ASYNC_EXECUTORS.clear();
+			EntityCaches.destroy();
+			JdbcMetrics.destroy();
 			__REPOSTORY_BEAN_FACTORY = null;
 			isInited = false;
 		}
@@ -207,6 +275,24 @@ public class JDBC {
 		__DEFAULT_ADAPTER_NAMES.put(adapterName, clazz.getName());
 	}
 
+	/**
+	 * @param dsName 数据源名称
+	 * @return 获取数据源序号，按数据源配置顺序从0开始分配，未配置的数据源名称将在首次访问时追加分配
+	 */
+	public static int getDataSourceOrdinal(String dsName) {
+		Integer _ordinal = __DATASOURCE_ORDINALS.get(dsName);
+		if (_ordinal == null) {
+			synchronized (__DATASOURCE_ORDINALS) {
+				_ordinal = __DATASOURCE_ORDINALS.get(dsName);
+				if (_ordinal == null) {
+					_ordinal = __DATASOURCE_ORDINALS.size();
+					__DATASOURCE_ORDINALS.put(dsName, _ordinal);
+				}
+			}
+		}
+		return _ordinal;
+	}
+
 	/**
 	 * @param dialectName 方言名称(将被toLowerCase方法转换小写字符)
 	 * @return 获取数据库IDialect接口实现类
@@ -238,7 +324,7 @@ public class JDBC {
 	 * @throws ConnectionException
 	 */
 	public static ISession openSession() throws ConnectionException {
-		return new DefaultSession(getConnectionHolder());
+		return openSession(DATASOURCE_DEFAULT_NAME);
 	}
 
 	/**
@@ -247,6 +333,11 @@ public class JDBC {
 	 * @throws ConnectionException
 	 */
 	public static ISession openSession(String dsName) throws ConnectionException {
+		ReplicaRouter _router = __REPLICA_ROUTERS.get(dsName);
+		if (_router != null) {
+			// 开启读写分离的数据源在首次操作时才按读写类型获取连接
+			return new DefaultSession(dsName, _router);
+		}
 		return new DefaultSession(getConnectionHolder(dsName));
 	}
 
@@ -284,6 +375,73 @@ public class JDBC {
 		}
 	}
 
+	/**
+	 * @return 采用默认数据源构建异步会话对象
+	 */
+	public static IAsyncSession openAsyncSession() {
+		return openAsyncSession(DATASOURCE_DEFAULT_NAME);
+	}
+
+	/**
+	 * @param dsName 数据源名称
+	 * @return 采用由dsName指定的数据源构建异步会话对象，每个异步操作使用独立的会话并自动关闭
+	 */
+	public static IAsyncSession openAsyncSession(String dsName) {
+		return new DefaultAsyncSession(dsName);
+	}
+
+	/**
+	 * 获取数据源的异步会话执行器，若不存在则按数据源参数创建：<br/>
+	 * async_threads - 最大并发任务数，默认与内置连接池的max_size一致(其它适配器默认为10)，<br/>
+	 * async_queue_size - 等待队列大小，默认为并发任务数的8倍，<br/>
+	 * async_virtual_threads - 运行环境支持时是否使用虚拟线程，默认为true
+	 * 
+	 * @param dsName 数据源名称
+	 * @return 异步会话执行器
+	 */
+	public static AsyncSessionExecutor getAsyncSessionExecutor(String dsName) throws ConnectionException {
+		AsyncSessionExecutor _executor = __ASYNC_EXECUTORS.get(dsName);
+		if (_executor == null) {
+			synchronized (__ASYNC_EXECUTORS) {
+				_executor = __ASYNC_EXECUTORS.get(dsName);
+				if (_executor == null) {
+					Map<String, String> _params = new HashMap<String, String>();
+					for (JdbcDataSourceCfgMeta _cfgMeta : __config.getDataSourceCfgMetas()) {
+						if (_cfgMeta.getName().equals(dsName) && _cfgMeta.getParams() != null) {
+							_params = _cfgMeta.getParams();
+							break;
+						}
+					}
+					IDataSourceAdapter _adapter = __doGetDataSourceAdapter(dsName);
+					// 预先确定数据库方言，避免并发任务在持有连接的同时再为获取方言争用连接
+					_adapter.getDialect();
+					int _threads = new BlurObject(_params.get("async_threads")).toIntValue();
+					if (_threads <= 0) {
+						_threads = _adapter instanceof PooledDataSourceAdapter ? ((PooledDataSourceAdapter) _adapter).getMaxSize() : 10;
+					}
+					int _queueSize = new BlurObject(_params.get("async_queue_size")).toIntValue();
+					boolean _virtual = StringUtils.isBlank(_params.get("async_virtual_threads")) || new BlurObject(_params.get("async_virtual_threads")).toBooleanValue();
+					_executor = new AsyncSessionExecutor(dsName, _threads, _queueSize > 0 ? _queueSize : _threads * 8, _virtual);
+					__ASYNC_EXECUTORS.put(dsName, _executor);
+				}
+			}
+		}
+		return _executor;
+	}
+
+	/**
+	 * @param dsName 数据源名称
+	 * @return 返回数据源适配器对象
+	 * @throws ConnectionException 数据源不存在时抛出
+	 */
+	private static IDataSourceAdapter __doGetDataSourceAdapter(String dsName) throws ConnectionException {
+		IDataSourceAdapter _adapter = __DATASOURCE_CACHE.get(dsName);
+		if (_adapter == null) {
+			throw new ConnectionException(FrameworkLog.formatMessage("ymp.jdbc.datasource_not_found", dsName));
+		}
+		return _adapter;
+	}
+
 	/**
 	 * @return 获取默认数据源连接持有者对象
 	 * @throws ConnectionException
@@ -303,15 +461,77 @@ public class JDBC {
 		if (_trans != null) {
 			_returnValue = _trans.getConnectionHolder(dsName);
 			if (_returnValue == null) {
-				_returnValue = new DefaultConnectionHolder(dsName, __DATASOURCE_CACHE.get(dsName));
+				_returnValue = new DefaultConnectionHolder(dsName, __doGetDataSourceAdapter(dsName));
 				_trans.registerTransactionConnectionHolder(_returnValue);
 			}
 		} else {
-			_returnValue = new DefaultConnectionHolder(dsName, __DATASOURCE_CACHE.get(dsName));
+			_returnValue = new DefaultConnectionHolder(dsName, __doGetDataSourceAdapter(dsName));
 		}
 		return _returnValue;
 	}
 
+	/**
+	 * @param dsName 主数据源名称
+	 * @return 获取数据源的读写分离路由器，未配置从库时返回null
+	 */
+	public static ReplicaRouter getReplicaRouter(String dsName) {
+		return __REPLICA_ROUTERS.get(dsName);
+	}
+
+	/**
+	 * 获取用于只读操作的连接持有者对象：
+	 * <p>处于非只读事务中或当前线程处于写操作后的读主库时间窗口内时返回null，表示应使用主库连接；</p>
+	 * <p>处于只读事务中时返回由事务管理的连接(优先使用从库)；</p>
+	 * <p>否则按路由策略选择可用从库，全部从库不可用时返回null；</p>
+	 * 
+	 * @param dsName 主数据源名称
+	 * @return 获取指定数据源的只读连接持有者对象
+	 * @throws ConnectionException
+	 */
+	public static IConnectionHolder getReadConnectionHolder(String dsName) throws ConnectionException {
+		ITransaction _trans = Trans.get();
+		if (_trans != null) {
+			if (!_trans.isReadOnly()) {
+				return null;
+			}
+			IConnectionHolder _returnValue = _trans.getConnectionHolder(dsName);
+			if (_returnValue == null) {
+				_returnValue = __doGetReplicaConnectionHolder(__REPLICA_ROUTERS.get(dsName));
+				if (_returnValue == null) {
+					_returnValue = new DefaultConnectionHolder(dsName, __doGetDataSourceAdapter(dsName));
+				}
+				_trans.registerTransactionConnectionHolder(_returnValue);
+			}
+			return _returnValue;
+		}
+		ReplicaRouter _router = __REPLICA_ROUTERS.get(dsName);
+		if (_router == null || _router.isSticky()) {
+			return null;
+		}
+		return __doGetReplicaConnectionHolder(_router);
+	}
+
+	/**
+	 * @param router 读写分离路由器
+	 * @return 按路由策略获取从库连接，获取失败的从库计入错误率并尝试其它从库，全部不可用时返回null
+	 */
+	private static ReplicaConnectionHolder __doGetReplicaConnectionHolder(ReplicaRouter router) {
+		if (router != null) {
+			for (int _idx = 0; _idx < router.getNodes().size(); _idx++) {
+				ReplicaNode _node = router.select();
+				if (_node == null) {
+					break;
+				}
+				try {
+					return new ReplicaConnectionHolder(router, _node, __DATASOURCE_CACHE.get(_node.getName()));
+				} catch (ConnectionException e) {
+					router.record(_node, false);
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * 关闭数据源的连接持有者
 	 * 
@@ -53,6 +53,11 @@ public abstract class AbstractAccessor implements IAccessor {
 
 	private IAccessorCfgEvent __eventObj;
 
+	/**
+	 * 从缓存中取出的PreparedStatement对象，释放时需归还缓存
+	 */
+	private PreparedStatement __cachedStatement;
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.base.IAccessor#getAccessorCfgEvent()
 	 */
@@ -64,12 +69,25 @@ public abstract class AbstractAccessor implements IAccessor {
 	 * @see net.ymate.platform.persistence.jdbc.base.IAccessor#getPreparedStatement(java.sql.Connection)
 	 */
 	public PreparedStatement getPreparedStatement(Connection conn) throws SQLException {
+		return getPreparedStatement(conn, null);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.IAccessor#getPreparedStatement(java.sql.Connection, net.ymate.platform.persistence.jdbc.base.StatementCache)
+	 */
+	public PreparedStatement getPreparedStatement(Connection conn, StatementCache cache) throws SQLException {
 		PreparedStatement _returnValue = null;
 		if (this.getAccessorCfgEvent() != null) {
+			// 由事件自定义创建的对象不参与缓存
 			_returnValue = this.getAccessorCfgEvent().getPreparedStatement(conn, this.getSqlStr());
 		}
 		if (_returnValue == null) {
-			_returnValue = conn.prepareStatement(this.getSqlStr());
+			if (cache != null) {
+				_returnValue = cache.take(conn, this.getSqlStr());
+				this.__cachedStatement = _returnValue;
+			} else {
+				_returnValue = conn.prepareStatement(this.getSqlStr());
+			}
 		}
 		//
 		processSqlParams(_returnValue);
@@ -77,6 +95,18 @@ public abstract class AbstractAccessor implements IAccessor {
 		return _returnValue;
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.IAccessor#releasePreparedStatement(java.sql.PreparedStatement, net.ymate.platform.persistence.jdbc.base.StatementCache)
+	 */
+	public void releasePreparedStatement(PreparedStatement statement, StatementCache cache) throws SQLException {
+		if (cache != null && statement == this.__cachedStatement) {
+			this.__cachedStatement = null;
+			cache.offer(this.getSqlStr(), statement);
+		} else {
+			statement.close();
+		}
+	}
+
 	/**
 	 * 处理 SQL 参数，由具体实现类完成
 	 * 
@@ -60,6 +60,23 @@ public interface IAccessor {
 	 * @throws SQLException
 	 */
 	public abstract PreparedStatement getPreparedStatement(Connection conn) throws SQLException;
+
+	/**
+	 * @param conn 访问数据库的连接对象
+	 * @param cache PreparedStatement对象缓存，为空则不使用缓存
+	 * @return 使用PerparedStatement（参数化）方式进行数据库访问操作，优先从缓存中获取；
+	 * @throws SQLException
+	 */
+	public abstract PreparedStatement getPreparedStatement(Connection conn, StatementCache cache) throws SQLException;
+
+	/**
+	 * 释放由getPreparedStatement方法获取的PreparedStatement对象，来自缓存的对象将被归还，否则直接关闭
+	 *
+	 * @param statement PreparedStatement对象
+	 * @param cache PreparedStatement对象缓存，为空则直接关闭
+	 * @throws SQLException
+	 */
+	public abstract void releasePreparedStatement(PreparedStatement statement, StatementCache cache) throws SQLException;
 	
 	/**
 	 * @param conn 访问数据库的连接对象
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * StatementCache
+ * </p>
+ * <p>
+ * 基于连接的PreparedStatement对象LRU缓存，按SQL语句复用已预编译的对象；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月13日上午10:12:36</td>
+ *          </tr>
+ *          </table>
+ */
+public class StatementCache {
+
+	/**
+	 * 缓存的最大PreparedStatement对象数量
+	 */
+	private final int __maxSize;
+
+	/**
+	 * 以SQL语句为键值、按访问顺序排列的缓存集合，超出容量时淘汰最久未使用的对象
+	 */
+	private final LinkedHashMap<String, PreparedStatement> __statements;
+
+	/**
+	 * 数据源级别的命中与未命中计数器，可为空
+	 */
+	private final AtomicLong __hitCounter;
+
+	private final AtomicLong __missCounter;
+
+	private long __hitCount;
+
+	private long __missCount;
+
+	private boolean __closed;
+
+	/**
+	 * 构造器
+	 *
+	 * @param maxSize 缓存的最大PreparedStatement对象数量
+	 */
+	public StatementCache(int maxSize) {
+		this(maxSize, null, null);
+	}
+
+	/**
+	 * 构造器
+	 *
+	 * @param maxSize 缓存的最大PreparedStatement对象数量
+	 * @param hitCounter 用于汇总统计的命中计数器，可为空
+	 * @param missCounter 用于汇总统计的未命中计数器，可为空
+	 */
+	public StatementCache(int maxSize, AtomicLong hitCounter, AtomicLong missCounter) {
+		this.__maxSize = maxSize;
+		this.__hitCounter = hitCounter;
+		this.__missCounter = missCounter;
+		this.__statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 4436392517163407566L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() > __maxSize) {
+					__doClose(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+
+		};
+	}
+
+	/**
+	 * 取出与SQL语句对应的PreparedStatement对象，若不存在则由连接对象创建；
+	 * 被取出的对象在归还之前不会被其它操作重复使用
+	 *
+	 * @param conn 数据库连接对象
+	 * @param sql SQL语句
+	 * @return 返回PreparedStatement对象
+	 * @throws SQLException
+	 */
+	public synchronized PreparedStatement take(Connection conn, String sql) throws SQLException {
+		PreparedStatement _statement = __closed ? null : __statements.remove(sql);
+		if (_statement != null) {
+			__hitCount++;
+			if (__hitCounter != null) {
+				__hitCounter.incrementAndGet();
+			}
+			return _statement;
+		}
+		__missCount++;
+		if (__missCounter != null) {
+			__missCounter.incrementAndGet();
+		}
+		return conn.prepareStatement(sql);
+	}
+
+	/**
+	 * 归还PreparedStatement对象，归还前将清除其参数及批处理命令；
+	 * 若缓存已关闭或已存在相同SQL语句的对象则直接关闭
+	 *
+	 * @param sql SQL语句
+	 * @param statement PreparedStatement对象
+	 */
+	public synchronized void offer(String sql, PreparedStatement statement) {
+		if (__closed || __statements.containsKey(sql)) {
+			__doClose(statement);
+			return;
+		}
+		try {
+			statement.clearParameters();
+			statement.clearBatch();
+			statement.clearWarnings();
+		} catch (SQLException e) {
+			__doClose(statement);
+			return;
+		}
+		__statements.put(sql, statement);
+	}
+
+	/**
+	 * 关闭并清除全部缓存的PreparedStatement对象，在连接释放之前调用
+	 */
+	public synchronized void close() {
+		__closed = true;
+		for (PreparedStatement _statement : __statements.values()) {
+			__doClose(_statement);
+		}
+		__statements.clear();
+	}
+
+	private void __doClose(PreparedStatement statement) {
+		try {
+			statement.close();
+		} catch (SQLException e) {
+			// ~~~
+		}
+	}
+
+	/**
+	 * @return 返回当前缓存的PreparedStatement对象数量
+	 */
+	public synchronized int size() {
+		return __statements.size();
+	}
+
+	/**
+	 * @return 返回缓存的最大PreparedStatement对象数量
+	 */
+	public int getMaxSize() {
+		return __maxSize;
+	}
+
+	/**
+	 * @return 返回缓存命中次数
+	 */
+	public synchronized long getHitCount() {
+		return __hitCount;
+	}
+
+	/**
+	 * @return 返回缓存未命中次数
+	 */
+	public synchronized long getMissCount() {
+		return __missCount;
+	}
+
+}
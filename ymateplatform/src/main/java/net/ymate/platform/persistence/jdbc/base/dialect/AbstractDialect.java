@@ -54,6 +54,27 @@ public abstract class AbstractDialect implements IDialect {
 		return source;
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.IDialect#getKeysetPaginationSql(java.lang.String, java.lang.String, boolean, boolean, int)
+	 */
+	public String getKeysetPaginationSql(String sql, String keyColumn, boolean descending, boolean hasSeekValue, int pageSize) {
+		return getPaginationSql(__doBuildKeysetSql(sql, keyColumn, descending, hasSeekValue), 0, pageSize);
+	}
+
+	/**
+	 * @return 构建按键值定位并排序的SQL语句(尚未限定返回行数)
+	 */
+	protected String __doBuildKeysetSql(String sql, String keyColumn, boolean descending, boolean hasSeekValue) {
+		String _keyColumn = wapperQuotedIdent(keyColumn);
+		StringBuilder _returnValue = new StringBuilder(sql.length() + 64);
+		_returnValue.append("select * from (").append(sql).append(") k_t");
+		if (hasSeekValue) {
+			_returnValue.append(" where ").append(_keyColumn).append(descending ? " < ?" : " > ?");
+		}
+		_returnValue.append(" order by ").append(_keyColumn).append(descending ? " desc" : " asc");
+		return _returnValue.toString();
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.base.IDialect#getGeneratedKey(java.sql.Statement)
 	 */
@@ -82,4 +103,107 @@ public abstract class AbstractDialect implements IDialect {
 		throw new UnsupportedOperationException();
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.IDialect#isMultiRowInsertSupported()
+	 */
+	public boolean isMultiRowInsertSupported() {
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.IDialect#getMaxInListSize()
+	 */
+	public int getMaxInListSize() {
+		return 1000;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.IDialect#isRowValueInSupported()
+	 */
+	public boolean isRowValueInSupported() {
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.IDialect#getUpsertSql(java.lang.String, java.lang.String[], java.lang.String[], java.lang.String[], int)
+	 */
+	public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, int rows) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @return 构建多行插入SQL语句(insert into ... values (...),(...))，作为 upsert 语句的前半部分
+	 */
+	protected String __doBuildInsertValuesSql(String tableName, String[] columnNames, int rows) {
+		StringBuilder _values = new StringBuilder(columnNames.length * 2 + 1);
+		_values.append("(");
+		for (int _idx = 0; _idx < columnNames.length; _idx++) {
+			_values.append(_idx > 0 ? ",?" : "?");
+		}
+		_values.append(")");
+		StringBuilder _returnValue = new StringBuilder(64 + columnNames.length * 16 + (_values.length() + 1) * rows);
+		_returnValue.append("insert into ").append(wapperQuotedIdent(tableName)).append(" (");
+		for (int _idx = 0; _idx < columnNames.length; _idx++) {
+			if (_idx > 0) {
+				_returnValue.append(",");
+			}
+			_returnValue.append(wapperQuotedIdent(columnNames[_idx]));
+		}
+		_returnValue.append(") values ").append(_values);
+		for (int _idx = 1; _idx < rows; _idx++) {
+			_returnValue.append(",").append(_values);
+		}
+		return _returnValue.toString();
+	}
+
+	/**
+	 * @param sourceSuffix 数据源子查询后缀，如 Oracle 需要 " from dual"
+	 * @param columnAlias 子查询字段别名关键字，如 " as "
+	 * @param tableAlias 表别名关键字，Oracle 不允许使用 as
+	 * @param tableHint 目标表锁提示，如 SQL Server 需要 " with (holdlock)" 使匹配与插入在同一范围锁内完成，无则为空串
+	 * @return 构建以单行参数为数据源的 merge 语句
+	 */
+	protected String __doBuildMergeSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, String sourceSuffix, String columnAlias, String tableAlias, String tableHint) {
+		StringBuilder _returnValue = new StringBuilder(128 + columnNames.length * 48);
+		_returnValue.append("merge into ").append(wapperQuotedIdent(tableName)).append(tableHint).append(tableAlias).append("t_ using (select ");
+		for (int _idx = 0; _idx < columnNames.length; _idx++) {
+			if (_idx > 0) {
+				_returnValue.append(",");
+			}
+			_returnValue.append("?").append(columnAlias).append(wapperQuotedIdent(columnNames[_idx]));
+		}
+		_returnValue.append(sourceSuffix).append(")").append(tableAlias).append("s_ on (");
+		for (int _idx = 0; _idx < primaryKeys.length; _idx++) {
+			if (_idx > 0) {
+				_returnValue.append(" and ");
+			}
+			String _pk = wapperQuotedIdent(primaryKeys[_idx]);
+			_returnValue.append("t_.").append(_pk).append("=s_.").append(_pk);
+		}
+		_returnValue.append(")");
+		if (updateColumnNames != null && updateColumnNames.length > 0) {
+			_returnValue.append(" when matched then update set ");
+			for (int _idx = 0; _idx < updateColumnNames.length; _idx++) {
+				if (_idx > 0) {
+					_returnValue.append(",");
+				}
+				String _column = wapperQuotedIdent(updateColumnNames[_idx]);
+				_returnValue.append("t_.").append(_column).append("=s_.").append(_column);
+			}
+		}
+		_returnValue.append(" when not matched then insert (");
+		StringBuilder _values = new StringBuilder(columnNames.length * 16);
+		for (int _idx = 0; _idx < columnNames.length; _idx++) {
+			if (_idx > 0) {
+				_returnValue.append(",");
+				_values.append(",");
+			}
+			String _column = wapperQuotedIdent(columnNames[_idx]);
+			_returnValue.append(_column);
+			_values.append("s_.").append(_column);
+		}
+		_returnValue.append(") values (").append(_values).append(")");
+		return _returnValue.toString();
+	}
+
 }
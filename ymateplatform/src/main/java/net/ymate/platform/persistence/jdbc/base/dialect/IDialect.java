@@ -57,12 +57,22 @@ public interface IDialect {
 
 	/**
 	 * @param sql 原SQL语句
-	 * @param limit
-	 * @param offset
+	 * @param limit 起始记录行号(从0开始)，当offset为0时表示返回的记录数量
+	 * @param offset 返回的记录数量(即分页大小)
 	 * @return 返回分页SQL语句，默认 null
 	 */
 	public abstract String getPaginationSql(String sql, int limit, int offset);
 
+	/**
+	 * @param sql 原SQL语句(不含 order by 子句)
+	 * @param keyColumn 用于定位的有序且唯一的字段名称
+	 * @param descending 是否按降序排列
+	 * @param hasSeekValue 是否存在上一页最后一条记录的键值，若存在则需为其预留一个参数占位符
+	 * @param pageSize 每页记录数
+	 * @return 返回键集(seek)分页SQL语句，按键值定位而非跳过 offset 行
+	 */
+	public abstract String getKeysetPaginationSql(String sql, String keyColumn, boolean descending, boolean hasSeekValue, int pageSize);
+
 	/**
 	 * @param statement
 	 * @return 返回主键值（按 long 类型返回），采用JDBC Statement对象获取自动生成的主键（仅处理单主键）
@@ -76,4 +86,29 @@ public interface IDialect {
 	 */
 	public abstract String getSequenceNextValSql(String sequenceName);
 
+	/**
+	 * @return 是否支持多行插入语法(即 insert into ... values (...),(...))，批量插入时可将多条记录合并为一条语句提交，默认 false
+	 */
+	public abstract boolean isMultiRowInsertSupported();
+
+	/**
+	 * @return 单条 in 条件语句允许的最大元素个数，按主键集合批量查询时以此进行分批，默认 1000
+	 */
+	public abstract int getMaxInListSize();
+
+	/**
+	 * @return 是否支持行值表达式的 in 条件(即 (a,b) in ((?,?),(?,?)))，不支持时复合主键将展开为 or 条件，默认 false
+	 */
+	public abstract boolean isRowValueInSupported();
+
+	/**
+	 * @param tableName 表名称
+	 * @param columnNames 插入的字段名称集合，语句参数按此顺序逐行绑定
+	 * @param primaryKeys 用于判断记录是否已存在的主键字段名称集合
+	 * @param updateColumnNames 记录已存在时需要更新的字段名称集合，为空则忽略已存在的记录
+	 * @param rows 单条语句合并提交的记录行数，大于1时需方言支持多行插入
+	 * @return 返回插入或更新(upsert)记录的SQL语句，默认抛出 UnsupportedOperationException
+	 */
+	public abstract String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, int rows);
+
 }
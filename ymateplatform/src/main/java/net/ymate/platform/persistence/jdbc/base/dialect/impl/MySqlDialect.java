@@ -70,4 +70,43 @@ public class MySqlDialect extends AbstractDialect {
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#isMultiRowInsertSupported()
+	 */
+	@Override
+	public boolean isMultiRowInsertSupported() {
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#isRowValueInSupported()
+	 */
+	@Override
+	public boolean isRowValueInSupported() {
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getUpsertSql(java.lang.String, java.lang.String[], java.lang.String[], java.lang.String[], int)
+	 */
+	@Override
+	public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, int rows) {
+		StringBuilder _returnValue = new StringBuilder(__doBuildInsertValuesSql(tableName, columnNames, rows));
+		_returnValue.append(" on duplicate key update ");
+		if (updateColumnNames == null || updateColumnNames.length == 0) {
+			// 无需更新的字段时以主键自赋值代替 insert ignore，避免吞掉其它错误
+			String _pk = wapperQuotedIdent(primaryKeys[0]);
+			_returnValue.append(_pk).append("=").append(_pk);
+		} else {
+			for (int _idx = 0; _idx < updateColumnNames.length; _idx++) {
+				if (_idx > 0) {
+					_returnValue.append(",");
+				}
+				String _column = wapperQuotedIdent(updateColumnNames[_idx]);
+				_returnValue.append(_column).append("=values(").append(_column).append(")");
+			}
+		}
+		return _returnValue.toString();
+	}
+
 }
@@ -66,6 +66,34 @@ public class OracleDialect extends AbstractDialect {
         return _returnValue.toString();
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getKeysetPaginationSql(java.lang.String, java.lang.String, boolean, boolean, int)
+	 */
+	@Override
+	public String getKeysetPaginationSql(String sql, String keyColumn, boolean descending, boolean hasSeekValue, int pageSize) {
+		return "select * from ( " + __doBuildKeysetSql(sql, keyColumn, descending, hasSeekValue) + " ) where rownum <= " + Integer.toString(pageSize);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#isRowValueInSupported()
+	 */
+	@Override
+	public boolean isRowValueInSupported() {
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getUpsertSql(java.lang.String, java.lang.String[], java.lang.String[], java.lang.String[], int)
+	 */
+	@Override
+	public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, int rows) {
+		if (rows > 1) {
+			throw new UnsupportedOperationException();
+		}
+		// merge 语句并非原子操作，并发插入同一新主键时其中之一将违反唯一约束(ORA-00001)，由 JdbcEntitySupport 重试一次
+		return __doBuildMergeSql(tableName, columnNames, primaryKeys, updateColumnNames, " from dual", " ", " ", "");
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getSequenceNextValSql(java.lang.String)
 	 */
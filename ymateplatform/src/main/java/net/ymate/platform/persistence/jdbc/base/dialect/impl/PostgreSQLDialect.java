@@ -0,0 +1,127 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base.dialect.impl;
+
+import net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect;
+
+/**
+ * <p>
+ * PostgreSQLDialect
+ * </p>
+ * <p>
+ * PostgreSQL 数据库方言接口实现类；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日下午2:18:40</td>
+ *          </tr>
+ *          </table>
+ */
+public class PostgreSQLDialect extends AbstractDialect {
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.IDialect#getDialectName()
+	 */
+	public String getDialectName() {
+		return "PostgreSQL";
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.IDialect#getPaginationSql(java.lang.String, int, int)
+	 */
+	public String getPaginationSql(String sql, int limit, int offset) {
+		// 与MySQL/Oracle方言一致：limit为起始行号，offset为记录数量，对应PostgreSQL的 limit <记录数量> offset <起始行号>
+		if (offset == 0) {
+			return sql + " limit " + Integer.toString(limit);
+		} else {
+			return sql + " limit " + Integer.toString(offset) + " offset " + Integer.toString(limit);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getSequenceNextValSql(java.lang.String)
+	 */
+	@Override
+	public String getSequenceNextValSql(String sequenceName) {
+		return "nextval('" + sequenceName + "')";
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#isMultiRowInsertSupported()
+	 */
+	@Override
+	public boolean isMultiRowInsertSupported() {
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getMaxInListSize()
+	 */
+	@Override
+	public int getMaxInListSize() {
+		// 单条语句最多绑定32767个参数
+		return 10000;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#isRowValueInSupported()
+	 */
+	@Override
+	public boolean isRowValueInSupported() {
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getUpsertSql(java.lang.String, java.lang.String[], java.lang.String[], java.lang.String[], int)
+	 */
+	@Override
+	public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, int rows) {
+		StringBuilder _returnValue = new StringBuilder(__doBuildInsertValuesSql(tableName, columnNames, rows));
+		_returnValue.append(" on conflict (");
+		for (int _idx = 0; _idx < primaryKeys.length; _idx++) {
+			if (_idx > 0) {
+				_returnValue.append(",");
+			}
+			_returnValue.append(wapperQuotedIdent(primaryKeys[_idx]));
+		}
+		_returnValue.append(")");
+		if (updateColumnNames == null || updateColumnNames.length == 0) {
+			_returnValue.append(" do nothing");
+		} else {
+			_returnValue.append(" do update set ");
+			for (int _idx = 0; _idx < updateColumnNames.length; _idx++) {
+				if (_idx > 0) {
+					_returnValue.append(",");
+				}
+				String _column = wapperQuotedIdent(updateColumnNames[_idx]);
+				_returnValue.append(_column).append("=excluded.").append(_column);
+			}
+		}
+		return _returnValue.toString();
+	}
+
+}
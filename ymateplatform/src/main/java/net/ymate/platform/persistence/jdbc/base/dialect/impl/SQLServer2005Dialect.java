@@ -81,6 +81,33 @@ public class SQLServer2005Dialect extends AbstractDialect {
         return _returnValue.toString();
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getKeysetPaginationSql(java.lang.String, java.lang.String, boolean, boolean, int)
+	 */
+	@Override
+	public String getKeysetPaginationSql(String sql, String keyColumn, boolean descending, boolean hasSeekValue, int pageSize) {
+		String _sql = __doBuildKeysetSql(sql, keyColumn, descending, hasSeekValue);
+		return new StringBuilder(_sql.length() + 16).append(_sql).insert(getSqlAfterSelectInsertPoint(_sql), " top " + pageSize).toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getMaxInListSize()
+	 */
+	@Override
+	public int getMaxInListSize() {
+		// 单条语句最多绑定2100个参数
+		return 2000;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.AbstractDialect#getUpsertSql(java.lang.String, java.lang.String[], java.lang.String[], java.lang.String[], int)
+	 */
+	@Override
+	public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, int rows) {
+		// merge 语句需 SQL Server 2008 及以上版本，由 SQLServer2008Dialect 提供
+		throw new UnsupportedOperationException("upsert requires the merge statement of sql server 2008 or later");
+	}
+
 	/**
 	 * @param sql SQL语句
 	 * @return 获取 SQL 中 select 子句位置
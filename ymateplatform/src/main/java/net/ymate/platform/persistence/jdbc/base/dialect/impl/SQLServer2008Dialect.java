@@ -0,0 +1,56 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base.dialect.impl;
+
+/**
+ * <p>
+ * SQLServer2008Dialect
+ * </p>
+ * <p>
+ * SQLServer 2008 及以上数据库方言接口实现类，在 SQLServer2005Dialect 基础上支持 merge 语句实现的插入或更新(upsert)；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日下午3:05:22</td>
+ *          </tr>
+ *          </table>
+ */
+public class SQLServer2008Dialect extends SQLServer2005Dialect {
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.base.dialect.impl.SQLServer2005Dialect#getUpsertSql(java.lang.String, java.lang.String[], java.lang.String[], java.lang.String[], int)
+	 */
+	@Override
+	public String getUpsertSql(String tableName, String[] columnNames, String[] primaryKeys, String[] updateColumnNames, int rows) {
+		if (rows > 1) {
+			throw new UnsupportedOperationException();
+		}
+		// 未加 holdlock 时并发插入同一新主键将同时进入 not matched 分支而违反主键约束；merge 语句必须以分号结束
+		return __doBuildMergeSql(tableName, columnNames, primaryKeys, updateColumnNames, "", " as ", " as ", " with (holdlock)") + ";";
+	}
+
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.cache;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.ymate.platform.commons.util.ClassUtils;
+import net.ymate.platform.persistence.annotation.Cacheable;
+import net.ymate.platform.persistence.jdbc.cache.impl.LocalEntityCache;
+import net.ymate.platform.persistence.jdbc.transaction.ITransSynchronization;
+import net.ymate.platform.persistence.jdbc.transaction.ITransaction;
+import net.ymate.platform.persistence.jdbc.transaction.Trans;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.esotericsoftware.reflectasm.MethodAccess;
+
+/**
+ * <p>
+ * EntityCaches
+ * </p>
+ * <p>
+ * 实体二级缓存管理类，负责按实体类型分配缓存区域，并在事务中延迟至提交后再发布缓存失效；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午10:36:09</td>
+ *          </tr>
+ *          </table>
+ */
+public class EntityCaches {
+
+	/**
+	 * 通过配置开启缓存的实体默认最大缓存对象数量
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	/**
+	 * 通过配置开启缓存的实体默认缓存对象存活时间(毫秒)
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE = 300000L;
+
+	private static IEntityCache __entityCache = new LocalEntityCache();
+
+	/**
+	 * 通过配置开启缓存的实体类名称集合
+	 */
+	private static Set<String> __cacheableClassNames = new HashSet<String>();
+
+	/**
+	 * 实体类与缓存区域的映射，未开启缓存的实体映射为 __NO_REGION
+	 */
+	private static Map<Class<?>, Object> __regions = new ConcurrentHashMap<Class<?>, Object>();
+
+	private static final Object __NO_REGION = new Object();
+
+	/**
+	 * 当前线程所在事务中已被修改的缓存键
+	 */
+	private static ThreadLocal<TransCacheState> __transState = new ThreadLocal<TransCacheState>();
+
+	/**
+	 * 失效版本号，每次失效缓存键时递增
+	 */
+	private static final AtomicLong __version = new AtomicLong();
+
+	/**
+	 * 按缓存键散列分段记录的最近失效版本号，用于拒绝在查询期间已被失效的旧数据；分段冲突仅导致多放弃一次缓存
+	 */
+	private static final AtomicLongArray __invalidations = new AtomicLongArray(1024);
+
+	/**
+	 * 实体类与其属性拷贝器的映射
+	 */
+	private static final Map<Class<?>, EntityCopier> __copiers = new ConcurrentHashMap<Class<?>, EntityCopier>();
+
+	/**
+	 * 初始化实体二级缓存
+	 * 
+	 * @param entityCache 缓存提供者，为 null 时采用进程内默认实现
+	 * @param cacheableClassNames 通过配置开启缓存的实体类名称集合
+	 */
+	public static synchronized void initialize(IEntityCache entityCache, String[] cacheableClassNames) {
+		destroy();
+		if (entityCache != null) {
+			__entityCache = entityCache;
+		}
+		if (cacheableClassNames != null) {
+			for (String _className : cacheableClassNames) {
+				__cacheableClassNames.add(_className.trim());
+			}
+		}
+	}
+
+	/**
+	 * 销毁实体二级缓存
+	 */
+	public static synchronized void destroy() {
+		__entityCache.destroy();
+		__entityCache = new LocalEntityCache();
+		__cacheableClassNames.clear();
+		__regions.clear();
+		__copiers.clear();
+	}
+
+	/**
+	 * @param entityClass 实体类型
+	 * @return 返回实体对应的缓存区域，若该实体未开启缓存则返回 null
+	 */
+	public static IEntityCacheRegion getRegion(Class<?> entityClass) {
+		Object _region = __regions.get(entityClass);
+		if (_region == null) {
+			synchronized (EntityCaches.class) {
+				_region = __regions.get(entityClass);
+				if (_region == null) {
+					Cacheable _cacheable = entityClass.getAnnotation(Cacheable.class);
+					if (_cacheable != null) {
+						_region = __entityCache.createRegion(entityClass.getName(), _cacheable.maxSize(), _cacheable.timeToLive());
+					} else if (__cacheableClassNames.contains(entityClass.getName())) {
+						_region = __entityCache.createRegion(entityClass.getName(), DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+					} else {
+						_region = __NO_REGION;
+					}
+					__regions.put(entityClass, _region);
+				}
+			}
+		}
+		return _region == __NO_REGION ? null : (IEntityCacheRegion) _region;
+	}
+
+	/**
+	 * @return 返回已创建的全部缓存区域，可用于获取命中统计信息
+	 */
+	public static Collection<IEntityCacheRegion> getRegions() {
+		Set<IEntityCacheRegion> _returnValue = new HashSet<IEntityCacheRegion>();
+		for (Object _region : __regions.values()) {
+			if (_region != __NO_REGION) {
+				_returnValue.add((IEntityCacheRegion) _region);
+			}
+		}
+		return _returnValue;
+	}
+
+	/**
+	 * @param dsName 数据源名称
+	 * @param id 主键值
+	 * @return 构建缓存键，主键值按字符串处理以避免 Integer 与 Long 等类型差异
+	 */
+	public static String buildKey(String dsName, Object id) {
+		return dsName + ":" + id;
+	}
+
+	/**
+	 * @param region 缓存区域
+	 * @param key 缓存键
+	 * @return 返回缓存实体对象的副本，若不存在或已在当前事务中被修改则返回 null
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(IEntityCacheRegion region, String key) {
+		if (__isModifiedInTrans(region, key)) {
+			return null;
+		}
+		Object _value = region.get(key);
+		return _value == null ? null : (T) __doCopy(_value);
+	}
+
+	/**
+	 * @return 返回当前失效版本号，须在查询数据库之前获取，并在将查询结果放入缓存时传入
+	 */
+	public static long currentVersion() {
+		return __version.get();
+	}
+
+	/**
+	 * 放入实体对象副本，若该键已在当前事务中被修改，或在 version 之后已被失效(查询期间其它线程提交了修改)则忽略，避免发布未提交或过期的数据
+	 * 
+	 * @param region 缓存区域
+	 * @param key 缓存键
+	 * @param entity 实体对象
+	 * @param version 查询数据库之前通过 currentVersion 获取的失效版本号
+	 */
+	public static void put(IEntityCacheRegion region, String key, Object entity, long version) {
+		if (entity == null || __isModifiedInTrans(region, key)) {
+			return;
+		}
+		int _slot = __doGetSlot(region, key);
+		if (__invalidations.get(_slot) > version) {
+			return;
+		}
+		Object _copy = __doCopy(entity);
+		if (_copy != null) {
+			region.put(key, _copy);
+			// 检查与放入之间若发生失效，由此处再次清除；否则失效操作必然晚于放入，同样会清除
+			if (__invalidations.get(_slot) > version) {
+				region.evict(key);
+			}
+		}
+	}
+
+	/**
+	 * 失效缓存对象，若当前存在事务则在事务完成后再次失效，保证其它线程在提交前重新加载的旧数据被清除
+	 * 
+	 * @param region 缓存区域
+	 * @param key 缓存键
+	 */
+	public static void evict(IEntityCacheRegion region, String key) {
+		__doInvalidate(region, key);
+		ITransaction _trans = Trans.get();
+		if (_trans != null) {
+			TransCacheState _state = __transState.get();
+			if (_state == null || !_state.transId.equals(_trans.getId())) {
+				_state = new TransCacheState(_trans.getId());
+				__transState.set(_state);
+				_trans.registerSynchronization(_state);
+			}
+			_state.addKey(region, key);
+		}
+	}
+
+	private static boolean __isModifiedInTrans(IEntityCacheRegion region, String key) {
+		TransCacheState _state = __transState.get();
+		if (_state != null) {
+			ITransaction _trans = Trans.get();
+			if (_trans != null && _state.transId.equals(_trans.getId())) {
+				return _state.containsKey(region, key);
+			}
+		}
+		return false;
+	}
+
+	private static int __doGetSlot(IEntityCacheRegion region, String key) {
+		int _hash = region.hashCode() * 31 + key.hashCode();
+		_hash ^= (_hash >>> 16);
+		return _hash & (__invalidations.length() - 1);
+	}
+
+	/**
+	 * 先记录失效版本号再清除缓存对象，与 put 中的两次检查配合，保证查询期间被失效的旧数据不会留在缓存中
+	 */
+	private static void __doInvalidate(IEntityCacheRegion region, String key) {
+		int _slot = __doGetSlot(region, key);
+		long _version = __version.incrementAndGet();
+		long _current = __invalidations.get(_slot);
+		while (_current < _version && !__invalidations.compareAndSet(_slot, _current, _version)) {
+			_current = __invalidations.get(_slot);
+		}
+		region.evict(key);
+	}
+
+	/**
+	 * @param entity 实体对象
+	 * @return 返回实体对象的浅拷贝，防止调用者修改缓存中的对象
+	 */
+	private static Object __doCopy(Object entity) {
+		EntityCopier _copier = __copiers.get(entity.getClass());
+		if (_copier == null) {
+			_copier = new EntityCopier(entity.getClass());
+			__copiers.put(entity.getClass(), _copier);
+		}
+		return _copier.copy(entity);
+	}
+
+	/**
+	 * 实体属性拷贝器，按实体类型预先解析成对的 get/set 方法索引，避免每次拷贝时重新反射分析类结构
+	 */
+	private static class EntityCopier {
+
+		private final Class<?> __entityClass;
+
+		private final MethodAccess __access;
+
+		private final int[] __getters;
+
+		private final int[] __setters;
+
+		EntityCopier(Class<?> entityClass) {
+			this.__entityClass = entityClass;
+			this.__access = MethodAccess.get(entityClass);
+			List<Integer> _getters = new ArrayList<Integer>();
+			List<Integer> _setters = new ArrayList<Integer>();
+			for (Field _field : ClassUtils.getFields(entityClass, true)) {
+				if (Modifier.isStatic(_field.getModifiers())) {
+					continue;
+				}
+				String _name = StringUtils.capitalize(_field.getName());
+				try {
+					int _getter = __access.getIndex("get" + _name);
+					int _setter = __access.getIndex("set" + _name);
+					_getters.add(_getter);
+					_setters.add(_setter);
+				} catch (IllegalArgumentException e) {
+					// 缺少成对的 get/set 方法的属性不参与拷贝
+				}
+			}
+			this.__getters = new int[_getters.size()];
+			this.__setters = new int[_setters.size()];
+			for (int _idx = 0; _idx < __getters.length; _idx++) {
+				__getters[_idx] = _getters.get(_idx);
+				__setters[_idx] = _setters.get(_idx);
+			}
+		}
+
+		Object copy(Object entity) {
+			Object _target;
+			try {
+				_target = __entityClass.newInstance();
+			} catch (Exception e) {
+				return null;
+			}
+			for (int _idx = 0; _idx < __getters.length; _idx++) {
+				__access.invoke(_target, __setters[_idx], __access.invoke(entity, __getters[_idx]));
+			}
+			return _target;
+		}
+
+	}
+
+	/**
+	 * 事务内缓存修改状态，事务完成后统一失效
+	 */
+	private static class TransCacheState implements ITransSynchronization {
+
+		final String transId;
+
+		final Map<IEntityCacheRegion, Set<String>> keys = new HashMap<IEntityCacheRegion, Set<String>>();
+
+		TransCacheState(String transId) {
+			this.transId = transId;
+		}
+
+		void addKey(IEntityCacheRegion region, String key) {
+			Set<String> _keys = keys.get(region);
+			if (_keys == null) {
+				_keys = new HashSet<String>();
+				keys.put(region, _keys);
+			}
+			_keys.add(key);
+		}
+
+		boolean containsKey(IEntityCacheRegion region, String key) {
+			Set<String> _keys = keys.get(region);
+			return _keys != null && _keys.contains(key);
+		}
+
+		public void afterCompletion(boolean committed) {
+			try {
+				for (Map.Entry<IEntityCacheRegion, Set<String>> _entry : keys.entrySet()) {
+					for (String _key : _entry.getValue()) {
+						__doInvalidate(_entry.getKey(), _key);
+					}
+				}
+			} finally {
+				keys.clear();
+				if (__transState.get() == this) {
+					__transState.remove();
+				}
+			}
+		}
+	}
+
+}
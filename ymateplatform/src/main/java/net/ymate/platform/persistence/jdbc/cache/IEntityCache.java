@@ -0,0 +1,57 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.cache;
+
+/**
+ * <p>
+ * IEntityCache
+ * </p>
+ * <p>
+ * 实体二级缓存提供者接口定义，负责创建和管理缓存区域，可通过配置替换为其它实现；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午9:48:55</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IEntityCache {
+
+	/**
+	 * @param name 区域名称(实体类名称)
+	 * @param maxSize 最大缓存对象数量
+	 * @param timeToLive 缓存对象存活时间(毫秒)，小于等于0表示不过期
+	 * @return 创建缓存区域
+	 */
+	public IEntityCacheRegion createRegion(String name, int maxSize, long timeToLive);
+
+	/**
+	 * 销毁缓存，释放全部区域
+	 */
+	public void destroy();
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.cache;
+
+/**
+ * <p>
+ * IEntityCacheRegion
+ * </p>
+ * <p>
+ * 实体缓存区域接口定义，每个开启缓存的实体类对应一个区域；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午9:52:06</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IEntityCacheRegion {
+
+	/**
+	 * @return 返回区域名称
+	 */
+	public String getName();
+
+	/**
+	 * @param key 缓存键
+	 * @return 返回缓存对象，若不存在或已过期则返回 null
+	 */
+	public Object get(Object key);
+
+	/**
+	 * 放入缓存对象
+	 * 
+	 * @param key 缓存键
+	 * @param value 缓存对象
+	 */
+	public void put(Object key, Object value);
+
+	/**
+	 * 移除指定的缓存对象
+	 * 
+	 * @param key 缓存键
+	 */
+	public void evict(Object key);
+
+	/**
+	 * 清空当前区域的全部缓存对象
+	 */
+	public void evictAll();
+
+	/**
+	 * @return 返回当前缓存对象数量
+	 */
+	public int size();
+
+	/**
+	 * @return 返回缓存命中次数
+	 */
+	public long getHitCount();
+
+	/**
+	 * @return 返回缓存未命中次数
+	 */
+	public long getMissCount();
+
+}
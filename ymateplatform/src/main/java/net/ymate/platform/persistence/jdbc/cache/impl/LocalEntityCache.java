@@ -0,0 +1,71 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.cache.impl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.ymate.platform.persistence.jdbc.cache.IEntityCache;
+import net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion;
+
+/**
+ * <p>
+ * LocalEntityCache
+ * </p>
+ * <p>
+ * 进程内实体二级缓存默认实现类，无需依赖外部缓存服务；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午10:15:27</td>
+ *          </tr>
+ *          </table>
+ */
+public class LocalEntityCache implements IEntityCache {
+
+	private List<LocalEntityCacheRegion> __regions = new CopyOnWriteArrayList<LocalEntityCacheRegion>();
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCache#createRegion(java.lang.String, int, long)
+	 */
+	public IEntityCacheRegion createRegion(String name, int maxSize, long timeToLive) {
+		LocalEntityCacheRegion _region = new LocalEntityCacheRegion(name, maxSize, timeToLive);
+		__regions.add(_region);
+		return _region;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCache#destroy()
+	 */
+	public void destroy() {
+		for (LocalEntityCacheRegion _region : __regions) {
+			_region.evictAll();
+		}
+		__regions.clear();
+	}
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.cache.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion;
+
+/**
+ * <p>
+ * LocalEntityCacheRegion
+ * </p>
+ * <p>
+ * 进程内实体缓存区域，按访问顺序LRU淘汰并限定对象数量及存活时间；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午10:18:43</td>
+ *          </tr>
+ *          </table>
+ */
+public class LocalEntityCacheRegion implements IEntityCacheRegion {
+
+	private final String __name;
+
+	private final long __timeToLive;
+
+	private final Map<Object, CacheEntry> __entries;
+
+	private final AtomicLong __hitCount = new AtomicLong();
+
+	private final AtomicLong __missCount = new AtomicLong();
+
+	/**
+	 * 构造器
+	 * 
+	 * @param name 区域名称
+	 * @param maxSize 最大缓存对象数量
+	 * @param timeToLive 缓存对象存活时间(毫秒)，小于等于0表示不过期
+	 */
+	public LocalEntityCacheRegion(String name, final int maxSize, long timeToLive) {
+		this.__name = name;
+		this.__timeToLive = timeToLive;
+		this.__entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 6375219582830537146L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#getName()
+	 */
+	public String getName() {
+		return __name;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#get(java.lang.Object)
+	 */
+	public Object get(Object key) {
+		CacheEntry _entry = null;
+		synchronized (__entries) {
+			_entry = __entries.get(key);
+			if (_entry != null && _entry.expireTime > 0 && _entry.expireTime <= System.currentTimeMillis()) {
+				__entries.remove(key);
+				_entry = null;
+			}
+		}
+		if (_entry == null) {
+			__missCount.incrementAndGet();
+			return null;
+		}
+		__hitCount.incrementAndGet();
+		return _entry.value;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#put(java.lang.Object, java.lang.Object)
+	 */
+	public void put(Object key, Object value) {
+		CacheEntry _entry = new CacheEntry(value, __timeToLive > 0 ? System.currentTimeMillis() + __timeToLive : 0);
+		synchronized (__entries) {
+			__entries.put(key, _entry);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#evict(java.lang.Object)
+	 */
+	public void evict(Object key) {
+		synchronized (__entries) {
+			__entries.remove(key);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#evictAll()
+	 */
+	public void evictAll() {
+		synchronized (__entries) {
+			__entries.clear();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#size()
+	 */
+	public int size() {
+		synchronized (__entries) {
+			return __entries.size();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#getHitCount()
+	 */
+	public long getHitCount() {
+		return __hitCount.get();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion#getMissCount()
+	 */
+	public long getMissCount() {
+		return __missCount.get();
+	}
+
+	private static class CacheEntry {
+
+		final Object value;
+
+		final long expireTime;
+
+		CacheEntry(Object value, long expireTime) {
+			this.value = value;
+			this.expireTime = expireTime;
+		}
+	}
+
+}
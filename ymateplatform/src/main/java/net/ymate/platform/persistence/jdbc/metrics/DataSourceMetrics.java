@@ -0,0 +1,175 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * DataSourceMetrics
+ * </p>
+ * <p>
+ * 按数据源汇总的执行统计，包括语句耗时与获取连接等待时间分布、错误次数、慢查询次数及返回/影响的记录行数；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午10:03:45</td>
+ *          </tr>
+ *          </table>
+ */
+public class DataSourceMetrics {
+
+	private final String __name;
+
+	private final LatencyHistogram __latency = new LatencyHistogram();
+
+	private final LatencyHistogram __connectionWait = new LatencyHistogram();
+
+	private final AtomicLong __errors = new AtomicLong();
+
+	private final AtomicLong __slowQueries = new AtomicLong();
+
+	private final AtomicLong __rowsReturned = new AtomicLong();
+
+	private final AtomicLong __rowsAffected = new AtomicLong();
+
+	public DataSourceMetrics(String name) {
+		__name = name;
+	}
+
+	/**
+	 * 记录一次成功执行
+	 * 
+	 * @param nanos 耗时(纳秒)
+	 * @param rows 返回或影响的记录行数，小于0表示未知
+	 * @param update 是否为更新操作
+	 */
+	public void record(long nanos, int rows, boolean update) {
+		__latency.record(nanos);
+		if (rows > 0) {
+			(update ? __rowsAffected : __rowsReturned).addAndGet(rows);
+		}
+	}
+
+	public void recordError() {
+		__errors.incrementAndGet();
+	}
+
+	public void recordSlowQuery() {
+		__slowQueries.incrementAndGet();
+	}
+
+	/**
+	 * @param nanos 获取数据库连接的等待时间(纳秒)
+	 */
+	public void recordConnectionWait(long nanos) {
+		__connectionWait.record(nanos);
+	}
+
+	public String getName() {
+		return __name;
+	}
+
+	public void reset() {
+		__latency.reset();
+		__connectionWait.reset();
+		__errors.set(0);
+		__slowQueries.set(0);
+		__rowsReturned.set(0);
+		__rowsAffected.set(0);
+	}
+
+	/**
+	 * @return 返回当前统计快照
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(__name, __latency.snapshot(), __connectionWait.snapshot(), __errors.get(), __slowQueries.get(), __rowsReturned.get(), __rowsAffected.get());
+	}
+
+	/**
+	 * <p>
+	 * 数据源执行统计快照
+	 * </p>
+	 */
+	public static class Snapshot {
+
+		private final String __name;
+		private final LatencyHistogram.Snapshot __latency;
+		private final LatencyHistogram.Snapshot __connectionWait;
+		private final long __errors;
+		private final long __slowQueries;
+		private final long __rowsReturned;
+		private final long __rowsAffected;
+
+		public Snapshot(String name, LatencyHistogram.Snapshot latency, LatencyHistogram.Snapshot connectionWait, long errors, long slowQueries, long rowsReturned, long rowsAffected) {
+			__name = name;
+			__latency = latency;
+			__connectionWait = connectionWait;
+			__errors = errors;
+			__slowQueries = slowQueries;
+			__rowsReturned = rowsReturned;
+			__rowsAffected = rowsAffected;
+		}
+
+		public String getName() {
+			return __name;
+		}
+
+		public LatencyHistogram.Snapshot getLatency() {
+			return __latency;
+		}
+
+		public LatencyHistogram.Snapshot getConnectionWait() {
+			return __connectionWait;
+		}
+
+		public long getErrors() {
+			return __errors;
+		}
+
+		public long getSlowQueries() {
+			return __slowQueries;
+		}
+
+		public long getRowsReturned() {
+			return __rowsReturned;
+		}
+
+		public long getRowsAffected() {
+			return __rowsAffected;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		public String toString() {
+			return __name + " [" + __latency + ", connectionWait: " + __connectionWait + ", errors=" + __errors + ", slowQueries=" + __slowQueries + ", rowsReturned=" + __rowsReturned + ", rowsAffected=" + __rowsAffected + "]";
+		}
+
+	}
+
+}
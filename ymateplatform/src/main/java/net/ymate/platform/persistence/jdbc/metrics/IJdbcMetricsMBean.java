@@ -0,0 +1,94 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+/**
+ * <p>
+ * IJdbcMetricsMBean
+ * </p>
+ * <p>
+ * JDBC执行统计的JMX管理接口；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午10:25:39</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IJdbcMetricsMBean {
+
+	/**
+	 * @return 是否已开启执行统计
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * @return 返回慢查询阈值(毫秒)
+	 */
+	public long getSlowQueryThreshold();
+
+	/**
+	 * @param slowQueryThreshold 慢查询阈值(毫秒)，小于等于0时采用默认值
+	 */
+	public void setSlowQueryThreshold(long slowQueryThreshold);
+
+	/**
+	 * @return 返回全部数据源的语句执行总次数
+	 */
+	public long getTotalExecutions();
+
+	/**
+	 * @return 返回全部数据源的语句执行错误总次数
+	 */
+	public long getTotalErrors();
+
+	/**
+	 * @return 返回全部数据源的慢查询总次数
+	 */
+	public long getTotalSlowQueries();
+
+	/**
+	 * @return 返回各数据源的统计描述
+	 */
+	public String[] getDataSourceStats();
+
+	/**
+	 * @return 返回累计耗时最高的前若干条SQL语句指纹的统计描述
+	 */
+	public String[] getTopStatements();
+
+	/**
+	 * @return 返回最近的慢查询记录
+	 */
+	public String[] getSlowQueries();
+
+	/**
+	 * 清空全部统计数据
+	 */
+	public void reset();
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import net.ymate.platform.base.FrameworkLog;
+
+/**
+ * <p>
+ * JdbcMetrics
+ * </p>
+ * <p>
+ * JDBC执行统计管理类，按数据源及SQL语句指纹记录耗时分布、记录行数、错误次数与连接等待时间，捕获慢查询，并通过JMX及统计快照对外提供；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午10:40:26</td>
+ *          </tr>
+ *          </table>
+ */
+public class JdbcMetrics {
+
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.JDBC, JdbcMetrics.class);
+
+	/**
+	 * 默认慢查询阈值(毫秒)
+	 */
+	public static final long DEFAULT_SLOW_QUERY_THRESHOLD = 1000;
+
+	/**
+	 * 超出指纹数量上限后，其余语句统一归入此统计项
+	 */
+	public static final String OTHER_STATEMENTS = "<other>";
+
+	/**
+	 * JMX 注册名称
+	 */
+	public static final String OBJECT_NAME = "net.ymate.platform.persistence.jdbc:type=JdbcMetrics";
+
+	/**
+	 * SQL语句指纹数量上限，防止拼接字面量的语句导致统计项无限增长
+	 */
+	private static final int __MAX_FINGERPRINTS = 1000;
+
+	/**
+	 * 原始SQL语句与统计项映射的缓存上限，达到上限后未缓存的语句仍计算指纹并归入已有的指纹统计项
+	 */
+	private static final int __MAX_SQL_CACHE = 4096;
+
+	/**
+	 * 保留的最近慢查询记录数量
+	 */
+	private static final int __SLOW_QUERY_CAPACITY = 100;
+
+	private static volatile boolean __enabled;
+
+	private static volatile long __slowQueryThresholdNanos = DEFAULT_SLOW_QUERY_THRESHOLD * 1000 * 1000;
+
+	/**
+	 * 原始SQL语句到统计项的映射，命中时无需重新计算指纹
+	 */
+	private static final ConcurrentMap<String, StatementMetrics> __bySql = new ConcurrentHashMap<String, StatementMetrics>();
+
+	private static final ConcurrentMap<String, StatementMetrics> __byFingerprint = new ConcurrentHashMap<String, StatementMetrics>();
+
+	private static final ConcurrentMap<String, DataSourceMetrics> __byDataSource = new ConcurrentHashMap<String, DataSourceMetrics>();
+
+	/**
+	 * 预先分配的溢出统计项，指纹数量达到上限后的新指纹语句直接归入此项，不再创建新的统计项
+	 */
+	private static final StatementMetrics __OTHER = new StatementMetrics(OTHER_STATEMENTS);
+
+	/**
+	 * 最近慢查询记录的环形缓冲区
+	 */
+	private static final AtomicReferenceArray<SlowQuery> __slowQueries = new AtomicReferenceArray<SlowQuery>(__SLOW_QUERY_CAPACITY);
+
+	private static final AtomicLong __slowQuerySeq = new AtomicLong();
+
+	private static ObjectName __objectName;
+
+	/**
+	 * 初始化执行统计
+	 * 
+	 * @param enabled 是否开启执行统计
+	 * @param slowQueryThreshold 慢查询阈值(毫秒)，小于等于0时采用默认值
+	 */
+	public static synchronized void initialize(boolean enabled, long slowQueryThreshold) {
+		destroy();
+		setSlowQueryThreshold(slowQueryThreshold);
+		if (enabled) {
+			__doRegisterMBean();
+			__enabled = true;
+		}
+	}
+
+	/**
+	 * 关闭执行统计并清空全部统计数据
+	 */
+	public static synchronized void destroy() {
+		__enabled = false;
+		if (__objectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(__objectName);
+			} catch (Exception e) {
+				_LOG.warn(e);
+			} finally {
+				__objectName = null;
+			}
+		}
+		__bySql.clear();
+		__byFingerprint.clear();
+		__byDataSource.clear();
+		__OTHER.reset();
+		__doClearSlowQueries();
+	}
+
+	/**
+	 * @return 是否已开启执行统计
+	 */
+	public static boolean isEnabled() {
+		return __enabled;
+	}
+
+	/**
+	 * @return 返回慢查询阈值(毫秒)
+	 */
+	public static long getSlowQueryThreshold() {
+		return __slowQueryThresholdNanos / 1000 / 1000;
+	}
+
+	/**
+	 * @param slowQueryThreshold 慢查询阈值(毫秒)，小于等于0时采用默认值
+	 */
+	public static void setSlowQueryThreshold(long slowQueryThreshold) {
+		__slowQueryThresholdNanos = (slowQueryThreshold > 0 ? slowQueryThreshold : DEFAULT_SLOW_QUERY_THRESHOLD) * 1000 * 1000;
+	}
+
+	/**
+	 * @param nanos 语句执行耗时(纳秒)
+	 * @return 是否达到慢查询阈值
+	 */
+	public static boolean isSlowQuery(long nanos) {
+		return nanos >= __slowQueryThresholdNanos;
+	}
+
+	/**
+	 * 记录一次成功执行的语句
+	 * 
+	 * @param dsName 数据源名称
+	 * @param sql SQL语句
+	 * @param nanos 耗时(纳秒)
+	 * @param rows 返回或影响的记录行数，小于0表示未知
+	 * @param update 是否为更新操作
+	 */
+	public static void recordExecution(String dsName, String sql, long nanos, int rows, boolean update) {
+		__doGetDataSourceMetrics(dsName).record(nanos, rows, update);
+		__doGetStatementMetrics(sql).record(nanos, rows);
+	}
+
+	/**
+	 * 记录一次执行错误的语句
+	 * 
+	 * @param dsName 数据源名称
+	 * @param sql SQL语句
+	 */
+	public static void recordError(String dsName, String sql) {
+		__doGetDataSourceMetrics(dsName).recordError();
+		__doGetStatementMetrics(sql).recordError();
+	}
+
+	/**
+	 * 记录一次慢查询，参数字符串仅在达到慢查询阈值时由调用者生成
+	 * 
+	 * @param dsName 数据源名称
+	 * @param sql SQL语句
+	 * @param parameters 本次执行的参数取值
+	 * @param nanos 耗时(纳秒)
+	 */
+	public static void recordSlowQuery(String dsName, String sql, String parameters, long nanos) {
+		__doGetDataSourceMetrics(dsName).recordSlowQuery();
+		int _idx = (int) (__slowQuerySeq.getAndIncrement() % __SLOW_QUERY_CAPACITY);
+		__slowQueries.set(_idx, new SlowQuery(dsName, sql, parameters, nanos, System.currentTimeMillis()));
+	}
+
+	/**
+	 * 记录一次获取数据库连接的等待时间
+	 * 
+	 * @param dsName 数据源名称
+	 * @param nanos 等待时间(纳秒)
+	 */
+	public static void recordConnectionWait(String dsName, long nanos) {
+		__doGetDataSourceMetrics(dsName).recordConnectionWait(nanos);
+	}
+
+	/**
+	 * @return 返回当前全部统计数据的快照
+	 */
+	public static MetricsSnapshot getSnapshot() {
+		List<DataSourceMetrics.Snapshot> _dataSources = new ArrayList<DataSourceMetrics.Snapshot>();
+		for (DataSourceMetrics _metrics : __byDataSource.values()) {
+			_dataSources.add(_metrics.snapshot());
+		}
+		List<StatementMetrics.Snapshot> _statements = new ArrayList<StatementMetrics.Snapshot>();
+		for (StatementMetrics _metrics : __byFingerprint.values()) {
+			_statements.add(_metrics.snapshot());
+		}
+		StatementMetrics.Snapshot _other = __OTHER.snapshot();
+		if (_other.getLatency().getCount() > 0 || _other.getErrors() > 0) {
+			_statements.add(_other);
+		}
+		Collections.sort(_statements, new Comparator<StatementMetrics.Snapshot>() {
+			public int compare(StatementMetrics.Snapshot o1, StatementMetrics.Snapshot o2) {
+				long _diff = o2.getLatency().getSum() - o1.getLatency().getSum();
+				return _diff > 0 ? 1 : (_diff < 0 ? -1 : 0);
+			}
+		});
+		List<SlowQuery> _slowQueries = new ArrayList<SlowQuery>();
+		long _seq = __slowQuerySeq.get();
+		for (long _idx = _seq - 1; _idx >= 0 && _idx >= _seq - __SLOW_QUERY_CAPACITY; _idx--) {
+			SlowQuery _slowQuery = __slowQueries.get((int) (_idx % __SLOW_QUERY_CAPACITY));
+			if (_slowQuery != null) {
+				_slowQueries.add(_slowQuery);
+			}
+		}
+		return new MetricsSnapshot(System.currentTimeMillis(), Collections.unmodifiableList(_dataSources), Collections.unmodifiableList(_statements), Collections.unmodifiableList(_slowQueries));
+	}
+
+	/**
+	 * 清空全部统计数据(保留已有统计项，仅将计数归零)
+	 */
+	public static void reset() {
+		for (DataSourceMetrics _metrics : __byDataSource.values()) {
+			_metrics.reset();
+		}
+		for (StatementMetrics _metrics : __byFingerprint.values()) {
+			_metrics.reset();
+		}
+		__OTHER.reset();
+		__doClearSlowQueries();
+	}
+
+	private static void __doClearSlowQueries() {
+		for (int _idx = 0; _idx < __SLOW_QUERY_CAPACITY; _idx++) {
+			__slowQueries.set(_idx, null);
+		}
+		__slowQuerySeq.set(0);
+	}
+
+	private static void __doRegisterMBean() {
+		try {
+			MBeanServer _server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName _name = new ObjectName(OBJECT_NAME);
+			if (!_server.isRegistered(_name)) {
+				_server.registerMBean(new StandardMBean(new JdbcMetricsExporter(), IJdbcMetricsMBean.class), _name);
+				__objectName = _name;
+			}
+		} catch (Exception e) {
+			_LOG.warn(e);
+		}
+	}
+
+	private static DataSourceMetrics __doGetDataSourceMetrics(String dsName) {
+		DataSourceMetrics _metrics = __byDataSource.get(dsName);
+		if (_metrics == null) {
+			_metrics = new DataSourceMetrics(dsName);
+			DataSourceMetrics _exists = __byDataSource.putIfAbsent(dsName, _metrics);
+			if (_exists != null) {
+				_metrics = _exists;
+			}
+		}
+		return _metrics;
+	}
+
+	private static StatementMetrics __doGetStatementMetrics(String sql) {
+		StatementMetrics _metrics = __bySql.get(sql);
+		if (_metrics == null) {
+			String _fingerprint = SqlFingerprint.normalize(sql);
+			_metrics = __byFingerprint.get(_fingerprint);
+			if (_metrics == null) {
+				if (__byFingerprint.size() >= __MAX_FINGERPRINTS) {
+					_metrics = __OTHER;
+				} else {
+					_metrics = new StatementMetrics(_fingerprint);
+					StatementMetrics _exists = __byFingerprint.putIfAbsent(_fingerprint, _metrics);
+					if (_exists != null) {
+						_metrics = _exists;
+					}
+				}
+			}
+			if (__bySql.size() < __MAX_SQL_CACHE) {
+				__bySql.put(sql, _metrics);
+			}
+		}
+		return _metrics;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import java.util.List;
+
+/**
+ * <p>
+ * JdbcMetricsExporter
+ * </p>
+ * <p>
+ * JDBC执行统计的JMX管理接口实现，所有数据均取自 JdbcMetrics 的统计快照；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午10:31:12</td>
+ *          </tr>
+ *          </table>
+ */
+public class JdbcMetricsExporter implements IJdbcMetricsMBean {
+
+	/**
+	 * JMX 中展示的SQL语句指纹数量上限
+	 */
+	private static final int __TOP_STATEMENTS = 20;
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#isEnabled()
+	 */
+	public boolean isEnabled() {
+		return JdbcMetrics.isEnabled();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#getSlowQueryThreshold()
+	 */
+	public long getSlowQueryThreshold() {
+		return JdbcMetrics.getSlowQueryThreshold();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#setSlowQueryThreshold(long)
+	 */
+	public void setSlowQueryThreshold(long slowQueryThreshold) {
+		JdbcMetrics.setSlowQueryThreshold(slowQueryThreshold);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#getTotalExecutions()
+	 */
+	public long getTotalExecutions() {
+		long _total = 0;
+		for (DataSourceMetrics.Snapshot _snapshot : JdbcMetrics.getSnapshot().getDataSources()) {
+			_total += _snapshot.getLatency().getCount();
+		}
+		return _total;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#getTotalErrors()
+	 */
+	public long getTotalErrors() {
+		long _total = 0;
+		for (DataSourceMetrics.Snapshot _snapshot : JdbcMetrics.getSnapshot().getDataSources()) {
+			_total += _snapshot.getErrors();
+		}
+		return _total;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#getTotalSlowQueries()
+	 */
+	public long getTotalSlowQueries() {
+		long _total = 0;
+		for (DataSourceMetrics.Snapshot _snapshot : JdbcMetrics.getSnapshot().getDataSources()) {
+			_total += _snapshot.getSlowQueries();
+		}
+		return _total;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#getDataSourceStats()
+	 */
+	public String[] getDataSourceStats() {
+		return __toStrings(JdbcMetrics.getSnapshot().getDataSources(), Integer.MAX_VALUE);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#getTopStatements()
+	 */
+	public String[] getTopStatements() {
+		return __toStrings(JdbcMetrics.getSnapshot().getStatements(), __TOP_STATEMENTS);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#getSlowQueries()
+	 */
+	public String[] getSlowQueries() {
+		return __toStrings(JdbcMetrics.getSnapshot().getSlowQueries(), Integer.MAX_VALUE);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.metrics.IJdbcMetricsMBean#reset()
+	 */
+	public void reset() {
+		JdbcMetrics.reset();
+	}
+
+	private static String[] __toStrings(List<?> items, int limit) {
+		String[] _results = new String[Math.min(items.size(), limit)];
+		for (int _idx = 0; _idx < _results.length; _idx++) {
+			_results[_idx] = items.get(_idx).toString();
+		}
+		return _results;
+	}
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * LatencyHistogram
+ * </p>
+ * <p>
+ * 无锁延迟直方图，按2的幂次分段并在每段内再均分8个子桶(相对误差不超过12.5%)，记录仅需数次原子累加；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午9:14:22</td>
+ *          </tr>
+ *          </table>
+ */
+public class LatencyHistogram {
+
+	private static final int __SUB_BITS = 3;
+
+	private static final int __SUB_COUNT = 1 << __SUB_BITS;
+
+	private static final int __BUCKET_COUNT = (64 - __SUB_BITS) * __SUB_COUNT;
+
+	private final AtomicLongArray __buckets = new AtomicLongArray(__BUCKET_COUNT);
+
+	private final AtomicLong __count = new AtomicLong();
+
+	private final AtomicLong __sum = new AtomicLong();
+
+	private final AtomicLong __max = new AtomicLong();
+
+	/**
+	 * 记录一次耗时
+	 * 
+	 * @param nanos 耗时(纳秒)
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		__buckets.incrementAndGet(__indexOf(nanos));
+		__count.incrementAndGet();
+		__sum.addAndGet(nanos);
+		long _max = __max.get();
+		while (nanos > _max && !__max.compareAndSet(_max, nanos)) {
+			_max = __max.get();
+		}
+	}
+
+	/**
+	 * @return 返回记录总次数
+	 */
+	public long getCount() {
+		return __count.get();
+	}
+
+	/**
+	 * @return 返回累计耗时(纳秒)
+	 */
+	public long getSum() {
+		return __sum.get();
+	}
+
+	/**
+	 * 清空全部记录
+	 */
+	public void reset() {
+		for (int _idx = 0; _idx < __BUCKET_COUNT; _idx++) {
+			__buckets.set(_idx, 0);
+		}
+		__count.set(0);
+		__sum.set(0);
+		__max.set(0);
+	}
+
+	/**
+	 * @return 返回当前直方图的统计快照，分位值由桶计数的副本计算，与并发写入互不阻塞
+	 */
+	public Snapshot snapshot() {
+		long[] _counts = new long[__BUCKET_COUNT];
+		long _total = 0;
+		for (int _idx = 0; _idx < __BUCKET_COUNT; _idx++) {
+			_counts[_idx] = __buckets.get(_idx);
+			_total += _counts[_idx];
+		}
+		long _max = __max.get();
+		return new Snapshot(_total, __sum.get(), _max, __valueAt(_counts, _total, _max, 50), __valueAt(_counts, _total, _max, 95), __valueAt(_counts, _total, _max, 99), __valueAt(_counts, _total, _max, 99.9));
+	}
+
+	private static int __indexOf(long value) {
+		if (value < __SUB_COUNT) {
+			return (int) value;
+		}
+		int _exp = 63 - Long.numberOfLeadingZeros(value);
+		int _sub = (int) (value >>> (_exp - __SUB_BITS)) & (__SUB_COUNT - 1);
+		return (_exp - __SUB_BITS + 1) * __SUB_COUNT + _sub;
+	}
+
+	/**
+	 * @return 返回桶内可表示的最大值，即该桶记录值的上界
+	 */
+	private static long __highestValueOf(int index) {
+		if (index < __SUB_COUNT) {
+			return index;
+		}
+		int _shift = index / __SUB_COUNT - 1;
+		long _lowest = ((long) (__SUB_COUNT + index % __SUB_COUNT)) << _shift;
+		return _lowest + (1L << _shift) - 1;
+	}
+
+	private static long __valueAt(long[] counts, long total, long max, double percentile) {
+		if (total <= 0) {
+			return 0;
+		}
+		long _target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long _accumulated = 0;
+		for (int _idx = 0; _idx < counts.length; _idx++) {
+			_accumulated += counts[_idx];
+			if (_accumulated >= _target) {
+				return Math.min(__highestValueOf(_idx), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * <p>
+	 * 直方图统计快照，时间单位均为纳秒
+	 * </p>
+	 */
+	public static class Snapshot {
+
+		private final long __count;
+		private final long __sum;
+		private final long __max;
+		private final long __p50;
+		private final long __p95;
+		private final long __p99;
+		private final long __p999;
+
+		public Snapshot(long count, long sum, long max, long p50, long p95, long p99, long p999) {
+			__count = count;
+			__sum = sum;
+			__max = max;
+			__p50 = p50;
+			__p95 = p95;
+			__p99 = p99;
+			__p999 = p999;
+		}
+
+		public long getCount() {
+			return __count;
+		}
+
+		public long getSum() {
+			return __sum;
+		}
+
+		public long getMean() {
+			return __count > 0 ? __sum / __count : 0;
+		}
+
+		public long getMax() {
+			return __max;
+		}
+
+		public long getP50() {
+			return __p50;
+		}
+
+		public long getP95() {
+			return __p95;
+		}
+
+		public long getP99() {
+			return __p99;
+		}
+
+		public long getP999() {
+			return __p999;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		public String toString() {
+			return "count=" + __count + ", mean=" + __toMillis(getMean()) + "ms, p50=" + __toMillis(__p50) + "ms, p95=" + __toMillis(__p95) + "ms, p99=" + __toMillis(__p99) + "ms, p999=" + __toMillis(__p999) + "ms, max=" + __toMillis(__max) + "ms";
+		}
+
+		private static String __toMillis(long nanos) {
+			return String.valueOf(nanos / 1000 / 1000d);
+		}
+
+	}
+
+}
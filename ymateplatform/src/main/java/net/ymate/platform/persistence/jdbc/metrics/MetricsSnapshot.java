@@ -0,0 +1,86 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import java.util.List;
+
+/**
+ * <p>
+ * MetricsSnapshot
+ * </p>
+ * <p>
+ * JDBC执行统计的整体快照，供外部监控系统按需拉取；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午10:18:04</td>
+ *          </tr>
+ *          </table>
+ */
+public class MetricsSnapshot {
+
+	private final long __timestamp;
+	private final List<DataSourceMetrics.Snapshot> __dataSources;
+	private final List<StatementMetrics.Snapshot> __statements;
+	private final List<SlowQuery> __slowQueries;
+
+	public MetricsSnapshot(long timestamp, List<DataSourceMetrics.Snapshot> dataSources, List<StatementMetrics.Snapshot> statements, List<SlowQuery> slowQueries) {
+		__timestamp = timestamp;
+		__dataSources = dataSources;
+		__statements = statements;
+		__slowQueries = slowQueries;
+	}
+
+	/**
+	 * @return 返回快照生成时间(毫秒)
+	 */
+	public long getTimestamp() {
+		return __timestamp;
+	}
+
+	/**
+	 * @return 返回各数据源的统计快照
+	 */
+	public List<DataSourceMetrics.Snapshot> getDataSources() {
+		return __dataSources;
+	}
+
+	/**
+	 * @return 返回各SQL语句指纹的统计快照，按累计耗时降序排列
+	 */
+	public List<StatementMetrics.Snapshot> getStatements() {
+		return __statements;
+	}
+
+	/**
+	 * @return 返回最近的慢查询记录，按发生时间由近及远排列
+	 */
+	public List<SlowQuery> getSlowQueries() {
+		return __slowQueries;
+	}
+
+}
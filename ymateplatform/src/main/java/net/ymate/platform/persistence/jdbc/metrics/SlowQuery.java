@@ -0,0 +1,88 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+/**
+ * <p>
+ * SlowQuery
+ * </p>
+ * <p>
+ * 慢查询记录，保存超过阈值的语句及其执行时的参数取值；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午10:11:30</td>
+ *          </tr>
+ *          </table>
+ */
+public class SlowQuery {
+
+	private final String __dataSourceName;
+	private final String __sql;
+	private final String __parameters;
+	private final long __elapsedNanos;
+	private final long __timestamp;
+
+	public SlowQuery(String dataSourceName, String sql, String parameters, long elapsedNanos, long timestamp) {
+		__dataSourceName = dataSourceName;
+		__sql = sql;
+		__parameters = parameters;
+		__elapsedNanos = elapsedNanos;
+		__timestamp = timestamp;
+	}
+
+	public String getDataSourceName() {
+		return __dataSourceName;
+	}
+
+	public String getSql() {
+		return __sql;
+	}
+
+	public String getParameters() {
+		return __parameters;
+	}
+
+	public long getElapsedNanos() {
+		return __elapsedNanos;
+	}
+
+	/**
+	 * @return 返回语句执行完成的时间(毫秒)
+	 */
+	public long getTimestamp() {
+		return __timestamp;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return "[" + __dataSourceName + "] " + (__elapsedNanos / 1000 / 1000d) + "ms at " + __timestamp + ": " + __sql + ", parameters: " + __parameters;
+	}
+
+}
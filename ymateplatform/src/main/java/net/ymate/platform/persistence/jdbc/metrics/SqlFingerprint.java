@@ -0,0 +1,115 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * SqlFingerprint
+ * </p>
+ * <p>
+ * SQL语句指纹工具，将字符串与数字字面量替换为"?"并合并变长参数列表，使同一语句的不同参数取值归入同一统计项；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午9:36:51</td>
+ *          </tr>
+ *          </table>
+ */
+public class SqlFingerprint {
+
+	/**
+	 * 形如 "?, ?, ?" 的参数列表
+	 */
+	private static final Pattern __VALUE_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+	/**
+	 * 形如 "(?), (?)" 的多行值列表
+	 */
+	private static final Pattern __ROW_LIST = Pattern.compile("\\(\\?\\)(\\s*,\\s*\\(\\?\\))+");
+
+	/**
+	 * @param sql SQL语句
+	 * @return 返回归一化后的SQL语句指纹
+	 */
+	public static String normalize(String sql) {
+		if (sql == null) {
+			return "";
+		}
+		int _len = sql.length();
+		StringBuilder _buf = new StringBuilder(_len);
+		int _idx = 0;
+		while (_idx < _len) {
+			char _c = sql.charAt(_idx);
+			if (_c == '\'') {
+				// 字符串字面量，'' 为转义的单引号
+				_idx++;
+				while (_idx < _len) {
+					if (sql.charAt(_idx) == '\'') {
+						if (_idx + 1 < _len && sql.charAt(_idx + 1) == '\'') {
+							_idx += 2;
+							continue;
+						}
+						break;
+					}
+					_idx++;
+				}
+				_idx++;
+				_buf.append('?');
+			} else if (_c == '"' || _c == '`') {
+				// 带引号的标识符原样保留
+				int _end = sql.indexOf(_c, _idx + 1);
+				_end = _end < 0 ? _len : _end + 1;
+				_buf.append(sql, _idx, _end);
+				_idx = _end;
+			} else if (Character.isWhitespace(_c)) {
+				while (_idx < _len && Character.isWhitespace(sql.charAt(_idx))) {
+					_idx++;
+				}
+				if (_buf.length() > 0) {
+					_buf.append(' ');
+				}
+			} else if (Character.isDigit(_c) && (_buf.length() == 0 || !__isIdentifierPart(_buf.charAt(_buf.length() - 1)))) {
+				while (_idx < _len && (Character.isDigit(sql.charAt(_idx)) || sql.charAt(_idx) == '.')) {
+					_idx++;
+				}
+				_buf.append('?');
+			} else {
+				_buf.append(_c);
+				_idx++;
+			}
+		}
+		String _fingerprint = __VALUE_LIST.matcher(_buf.toString().trim()).replaceAll("?");
+		return __ROW_LIST.matcher(_fingerprint).replaceAll("(?)");
+	}
+
+	private static boolean __isIdentifierPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * StatementMetrics
+ * </p>
+ * <p>
+ * 按SQL语句指纹汇总的执行统计，包括耗时分布、错误次数及返回/影响的记录行数；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午9:52:17</td>
+ *          </tr>
+ *          </table>
+ */
+public class StatementMetrics {
+
+	private final String __fingerprint;
+
+	private final LatencyHistogram __latency = new LatencyHistogram();
+
+	private final AtomicLong __errors = new AtomicLong();
+
+	private final AtomicLong __rows = new AtomicLong();
+
+	public StatementMetrics(String fingerprint) {
+		__fingerprint = fingerprint;
+	}
+
+	/**
+	 * 记录一次成功执行
+	 * 
+	 * @param nanos 耗时(纳秒)
+	 * @param rows 返回或影响的记录行数，小于0表示未知
+	 */
+	public void record(long nanos, int rows) {
+		__latency.record(nanos);
+		if (rows > 0) {
+			__rows.addAndGet(rows);
+		}
+	}
+
+	/**
+	 * 记录一次执行错误
+	 */
+	public void recordError() {
+		__errors.incrementAndGet();
+	}
+
+	public String getFingerprint() {
+		return __fingerprint;
+	}
+
+	public void reset() {
+		__latency.reset();
+		__errors.set(0);
+		__rows.set(0);
+	}
+
+	/**
+	 * @return 返回当前统计快照
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(__fingerprint, __latency.snapshot(), __errors.get(), __rows.get());
+	}
+
+	/**
+	 * <p>
+	 * SQL语句执行统计快照
+	 * </p>
+	 */
+	public static class Snapshot {
+
+		private final String __fingerprint;
+		private final LatencyHistogram.Snapshot __latency;
+		private final long __errors;
+		private final long __rows;
+
+		public Snapshot(String fingerprint, LatencyHistogram.Snapshot latency, long errors, long rows) {
+			__fingerprint = fingerprint;
+			__latency = latency;
+			__errors = errors;
+			__rows = rows;
+		}
+
+		public String getFingerprint() {
+			return __fingerprint;
+		}
+
+		/**
+		 * @return 返回执行耗时分布(仅统计成功的执行)
+		 */
+		public LatencyHistogram.Snapshot getLatency() {
+			return __latency;
+		}
+
+		public long getErrors() {
+			return __errors;
+		}
+
+		public long getRows() {
+			return __rows;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		public String toString() {
+			return __fingerprint + " [" + __latency + ", errors=" + __errors + ", rows=" + __rows + "]";
+		}
+
+	}
+
+}
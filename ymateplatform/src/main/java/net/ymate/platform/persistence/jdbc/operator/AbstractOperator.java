@@ -22,6 +22,7 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.base.YMP;
 import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.commons.util.RuntimeUtils;
@@ -32,11 +33,10 @@ import net.ymate.platform.persistence.jdbc.base.AccessorEventContext;
 import net.ymate.platform.persistence.jdbc.base.IAccessor;
 import net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent;
 import net.ymate.platform.persistence.jdbc.base.SqlParameter;
+import net.ymate.platform.persistence.jdbc.metrics.JdbcMetrics;
+import net.ymate.platform.persistence.jdbc.support.ReplicaConnectionHolder;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.time.StopWatch;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 /**
  * <p>
@@ -64,7 +64,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public abstract class AbstractOperator implements IOperator {
 
-	private static final Log _LOG = LogFactory.getLog(AbstractOperator.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.JDBC, AbstractOperator.class);
 
 	/**
 	 * 预执行的SQL语句串
@@ -139,15 +139,29 @@ public abstract class AbstractOperator implements IOperator {
 				throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.sql_null"));
 			} else {
 				try {
-					StopWatch _time = new StopWatch();
-					_time.start();
+					long _startTime = System.nanoTime();
 					int _recordSize = this.__execute();
-					_time.stop();
-					this.setExpenseTime(_time.getTime());
+					long _elapsed = System.nanoTime() - _startTime;
+					this.setExpenseTime(_elapsed / 1000000);
+					if (JdbcMetrics.isEnabled()) {
+						// 仅当达到慢查询阈值时才生成参数字符串
+						String _dsName = this.__currentConnection.getDataSourceName();
+						JdbcMetrics.recordExecution(_dsName, this.getSql(), _elapsed, _recordSize, this instanceof IUpdateOperator || this instanceof IUpdateBatchOperator);
+						if (JdbcMetrics.isSlowQuery(_elapsed)) {
+							JdbcMetrics.recordSlowQuery(_dsName, this.getSql(), __parametersToString(), _elapsed);
+						}
+					}
 					if (JDBC.isShowSQL) {
-						_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.show_sql", this.getSql(), __parametersToString(), _recordSize, this.getExpenseTime()));
+						_LOG.info("ymp.jdbc.show_sql", this.getSql(), __parametersToString(), _recordSize, this.getExpenseTime());
 					}
 				} catch (SQLException e) {
+					if (JdbcMetrics.isEnabled()) {
+						JdbcMetrics.recordError(this.__currentConnection.getDataSourceName(), this.getSql());
+					}
+					// 从库上的连接或可用性故障计入该从库的错误率
+					if (this.__currentConnection instanceof ReplicaConnectionHolder) {
+						((ReplicaConnectionHolder) this.__currentConnection).markError(e);
+					}
 					throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.sql_exception", this.getSql(), __parametersToString()), RuntimeUtils.unwrapThrow(e));
 				} finally {
 					this.__isExecuted = true;
@@ -292,7 +306,7 @@ public abstract class AbstractOperator implements IOperator {
 		ResultSet _rs = null;
 		AccessorEventContext _context = null;
 		try {
-			_statement = accessor.getPreparedStatement(conn.getConnection());
+			_statement = accessor.getPreparedStatement(conn.getConnection(), conn.getStatementCache());
 			if (accessor.getAccessorCfgEvent() != null) {
 				_context = new AccessorEventContext(_statement, false, false);
 				accessor.getAccessorCfgEvent().beforeStatementExecution(_context);
@@ -308,7 +322,7 @@ public abstract class AbstractOperator implements IOperator {
 				_rs = null;
 			}
 			if (_statement != null) {
-				_statement.close();
+				accessor.releasePreparedStatement(_statement, conn.getStatementCache());
 				_statement = null;
 			}
 			_context = null;
@@ -327,7 +341,7 @@ public abstract class AbstractOperator implements IOperator {
 		PreparedStatement _statement = null;
 		AccessorEventContext _context = null;
 		try {
-			_statement = accessor.getPreparedStatement(conn.getConnection());
+			_statement = accessor.getPreparedStatement(conn.getConnection(), conn.getStatementCache());
 			if (accessor.getAccessorCfgEvent() != null) {
 				_context = new AccessorEventContext(_statement, false, false);
 				accessor.getAccessorCfgEvent().beforeStatementExecution(_context);
@@ -339,7 +353,7 @@ public abstract class AbstractOperator implements IOperator {
 			return _returnValue;
 		} finally {
 			if (_statement != null) {
-				_statement.close();
+				accessor.releasePreparedStatement(_statement, conn.getStatementCache());
 				_statement = null;
 			}
 			_context = null;
@@ -358,7 +372,7 @@ public abstract class AbstractOperator implements IOperator {
 		PreparedStatement _statement = null;
 		AccessorEventContext _context = null;
 		try {
-			_statement = accessor.getPreparedStatement(conn.getConnection());
+			_statement = accessor.getPreparedStatement(conn.getConnection(), conn.getStatementCache());
 			if (accessor.getAccessorCfgEvent() != null) {
 				_context = new AccessorEventContext(_statement, false, false);
 				accessor.getAccessorCfgEvent().beforeStatementExecution(_context);
@@ -371,7 +385,7 @@ public abstract class AbstractOperator implements IOperator {
 			return _returnValue;
 		} finally {
 			if (_statement != null) {
-				_statement.close();
+				accessor.releasePreparedStatement(_statement, conn.getStatementCache());
 				_statement = null;
 			}
 			_context = null;
@@ -114,22 +114,32 @@ public abstract class AbstractResultSetHandler<T> implements IResultSetHandler<T
 	 */
 	public abstract void processRowData(ResultSet rs, List<T> result) throws OperatorException, SQLException;
 
+	/**
+	 * 读取结果集字段信息，在以游标方式逐行调用processRowData方法之前需先调用此方法
+	 * 
+	 * @param rs 数据结果集对象
+	 * @throws SQLException
+	 */
+	public void prepare(ResultSet rs) throws SQLException {
+		this.__isProcessed = true;
+		ResultSetMetaData _rsMeta = rs.getMetaData();
+		this.__columnCount = _rsMeta.getColumnCount();
+		this.__columnTypes = new int[this.__columnCount];
+		this.__columnNames = new String[this.__columnCount];
+		for (int i = 0; i < this.__columnCount; i++) {
+			this.__columnTypes[i] = _rsMeta.getColumnType(i + 1);
+			// 若不使用 getColumnLabel 方法，则可能出现部分数据库驱动无法处理 as 同名的 BUG。
+			this.__columnNames[i] = _rsMeta.getColumnLabel(i + 1);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.operator.IResultSetHandler#handle(java.sql.ResultSet, int)
 	 */
 	public void handle(ResultSet rs, int maxRow) throws OperatorException, SQLException {
-		this.__isProcessed = true;
 		List<T> _result = new ArrayList<T>();
 		if (this.__rowCount == 0) {
-			ResultSetMetaData _rsMeta = rs.getMetaData();
-			this.__columnCount = _rsMeta.getColumnCount();
-			this.__columnTypes = new int[this.__columnCount];
-			this.__columnNames = new String[this.__columnCount];
-			for (int i = 0; i < this.__columnCount; i++) {
-				this.__columnTypes[i] = _rsMeta.getColumnType(i + 1);
-				// 若不使用 getColumnLabel 方法，则可能出现部分数据库驱动无法处理 as 同名的 BUG。
-				this.__columnNames[i] = _rsMeta.getColumnLabel(i + 1);
-			}
+			this.prepare(rs);
 		}
 		if (maxRow <= 0) {
 			while (rs.next()) {
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.operator;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.ymate.platform.commons.lang.BlurObject;
+
+/**
+ * <p>
+ * ColumnarResultSet
+ * </p>
+ * <p>
+ * 按列存储的紧凑型结果集数据对象，字段名称仅存储一次，整数及浮点类型列采用基本类型数组存储；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月13日下午2:40:18</td>
+ *          </tr>
+ *          </table>
+ */
+public class ColumnarResultSet {
+
+	private static final int __KIND_OBJECT = 0, __KIND_INT = 1, __KIND_LONG = 2, __KIND_FLOAT = 3, __KIND_DOUBLE = 4;
+
+	private static final int __INITIAL_CAPACITY = 16;
+
+	private final String[] __columnNames;
+
+	private final int[] __columnTypes;
+
+	/**
+	 * 每列数据的存储类型
+	 */
+	private final int[] __columnKinds;
+
+	/**
+	 * 按列存储的数据，元素类型依存储类型分别为Object[]、int[]、long[]、float[]或double[]
+	 */
+	private final Object[] __columns;
+
+	/**
+	 * 数值类型列的空值位图，仅在出现空值时创建
+	 */
+	private final long[][] __nullBits;
+
+	/**
+	 * 字段名称(小写)与列索引的对应关系
+	 */
+	private final Map<String, Integer> __columnIndexes;
+
+	private int __rowCount;
+
+	private int __capacity;
+
+	/**
+	 * 构造器
+	 *
+	 * @param metaData 结果集元数据，用于确定字段名称及每列数据的存储类型
+	 * @throws SQLException
+	 */
+	public ColumnarResultSet(ResultSetMetaData metaData) throws SQLException {
+		int _columnCount = metaData.getColumnCount();
+		this.__columnNames = new String[_columnCount];
+		this.__columnTypes = new int[_columnCount];
+		this.__columnKinds = new int[_columnCount];
+		this.__columns = new Object[_columnCount];
+		this.__nullBits = new long[_columnCount][];
+		this.__columnIndexes = new HashMap<String, Integer>(_columnCount * 2);
+		this.__capacity = __INITIAL_CAPACITY;
+		for (int i = 0; i < _columnCount; i++) {
+			// 若不使用 getColumnLabel 方法，则可能出现部分数据库驱动无法处理 as 同名的 BUG。
+			this.__columnNames[i] = metaData.getColumnLabel(i + 1).trim();
+			this.__columnTypes[i] = metaData.getColumnType(i + 1);
+			this.__columnKinds[i] = __doGetColumnKind(this.__columnTypes[i], metaData.isSigned(i + 1));
+			this.__columns[i] = __doNewColumn(this.__columnKinds[i], this.__capacity);
+			String _key = this.__columnNames[i].toLowerCase();
+			if (!this.__columnIndexes.containsKey(_key)) {
+				this.__columnIndexes.put(_key, i);
+			}
+		}
+	}
+
+	private static int __doGetColumnKind(int sqlType, boolean signed) {
+		switch (sqlType) {
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+				return signed ? __KIND_INT : __KIND_LONG;
+			case Types.BIGINT:
+				// 无符号BIGINT可能超出long的取值范围
+				return signed ? __KIND_LONG : __KIND_OBJECT;
+			case Types.REAL:
+				return __KIND_FLOAT;
+			case Types.FLOAT:
+			case Types.DOUBLE:
+				return __KIND_DOUBLE;
+			default:
+				return __KIND_OBJECT;
+		}
+	}
+
+	private static Object __doNewColumn(int kind, int capacity) {
+		switch (kind) {
+			case __KIND_INT:
+				return new int[capacity];
+			case __KIND_LONG:
+				return new long[capacity];
+			case __KIND_FLOAT:
+				return new float[capacity];
+			case __KIND_DOUBLE:
+				return new double[capacity];
+			default:
+				return new Object[capacity];
+		}
+	}
+
+	/**
+	 * 读取结果集当前行数据并追加到末尾
+	 *
+	 * @param rs 数据结果集对象，仅读取当前行字段数据
+	 * @throws SQLException
+	 */
+	public void addRow(ResultSet rs) throws SQLException {
+		if (__rowCount == __capacity) {
+			__doResize(Math.max(__capacity << 1, __INITIAL_CAPACITY));
+		}
+		for (int i = 0; i < __columns.length; i++) {
+			switch (__columnKinds[i]) {
+				case __KIND_INT:
+					((int[]) __columns[i])[__rowCount] = rs.getInt(i + 1);
+					break;
+				case __KIND_LONG:
+					((long[]) __columns[i])[__rowCount] = rs.getLong(i + 1);
+					break;
+				case __KIND_FLOAT:
+					((float[]) __columns[i])[__rowCount] = rs.getFloat(i + 1);
+					break;
+				case __KIND_DOUBLE:
+					((double[]) __columns[i])[__rowCount] = rs.getDouble(i + 1);
+					break;
+				default:
+					((Object[]) __columns[i])[__rowCount] = rs.getObject(i + 1);
+					continue;
+			}
+			if (rs.wasNull()) {
+				__doSetNull(i, __rowCount);
+			}
+		}
+		__rowCount++;
+	}
+
+	private void __doSetNull(int column, int row) {
+		long[] _bits = __nullBits[column];
+		if (_bits == null) {
+			_bits = __nullBits[column] = new long[(__capacity + 63) >> 6];
+		}
+		_bits[row >> 6] |= 1L << (row & 63);
+	}
+
+	private void __doResize(int capacity) {
+		for (int i = 0; i < __columns.length; i++) {
+			Object _column = __doNewColumn(__columnKinds[i], capacity);
+			System.arraycopy(__columns[i], 0, _column, 0, __rowCount);
+			__columns[i] = _column;
+			if (__nullBits[i] != null) {
+				long[] _bits = new long[(capacity + 63) >> 6];
+				System.arraycopy(__nullBits[i], 0, _bits, 0, Math.min(_bits.length, __nullBits[i].length));
+				__nullBits[i] = _bits;
+			}
+		}
+		__capacity = capacity;
+	}
+
+	/**
+	 * 释放多余的存储空间，在数据读取完毕后调用
+	 */
+	public void trimToSize() {
+		if (__rowCount < __capacity) {
+			__doResize(__rowCount);
+		}
+	}
+
+	/**
+	 * @return 获取记录集行数
+	 */
+	public int getRowCount() {
+		return __rowCount;
+	}
+
+	/**
+	 * @return 获取每行字段数
+	 */
+	public int getColumnCount() {
+		return __columnNames.length;
+	}
+
+	/**
+	 * @return 获取字段名称集合
+	 */
+	public String[] getColumnNames() {
+		return __columnNames;
+	}
+
+	/**
+	 * @return 获取字段类型集合
+	 */
+	public int[] getColumnTypes() {
+		return __columnTypes;
+	}
+
+	/**
+	 * @param columnName 字段名称(忽略大小写)
+	 * @return 返回字段所在列索引，不存在则返回-1
+	 */
+	public int getColumnIndex(String columnName) {
+		Integer _index = columnName == null ? null : __columnIndexes.get(columnName.toLowerCase());
+		return _index == null ? -1 : _index;
+	}
+
+	/**
+	 * @param row 行索引
+	 * @param column 列索引
+	 * @return 判断指定字段值是否为NULL
+	 */
+	public boolean isNull(int row, int column) {
+		if (__columnKinds[column] == __KIND_OBJECT) {
+			return ((Object[]) __columns[column])[row] == null;
+		}
+		long[] _bits = __nullBits[column];
+		return _bits != null && (_bits[row >> 6] & (1L << (row & 63))) != 0;
+	}
+
+	/**
+	 * @param row 行索引
+	 * @param column 列索引
+	 * @return 获取字段值，数值类型列将返回其对应的包装类型对象
+	 */
+	public Object getValue(int row, int column) {
+		if (row < 0 || row >= __rowCount) {
+			throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + __rowCount);
+		}
+		if (isNull(row, column)) {
+			return null;
+		}
+		switch (__columnKinds[column]) {
+			case __KIND_INT:
+				return Integer.valueOf(((int[]) __columns[column])[row]);
+			case __KIND_LONG:
+				return Long.valueOf(((long[]) __columns[column])[row]);
+			case __KIND_FLOAT:
+				return Float.valueOf(((float[]) __columns[column])[row]);
+			case __KIND_DOUBLE:
+				return Double.valueOf(((double[]) __columns[column])[row]);
+			default:
+				return ((Object[]) __columns[column])[row];
+		}
+	}
+
+	/**
+	 * @param row 行索引
+	 * @param columnName 字段名称(忽略大小写)
+	 * @return 获取字段值，字段不存在则返回null
+	 */
+	public Object getValue(int row, String columnName) {
+		int _column = getColumnIndex(columnName);
+		return _column < 0 ? null : getValue(row, _column);
+	}
+
+	/**
+	 * @param row 行索引
+	 * @param column 列索引
+	 * @return 获取字段的long值，对于整数类型列将直接读取而不产生包装对象，NULL值返回0
+	 */
+	public long getLong(int row, int column) {
+		switch (__columnKinds[column]) {
+			case __KIND_INT:
+				return ((int[]) __columns[column])[row];
+			case __KIND_LONG:
+				return ((long[]) __columns[column])[row];
+			default:
+				Object _value = getValue(row, column);
+				return _value == null ? 0 : new BlurObject(_value).toLongValue();
+		}
+	}
+
+	/**
+	 * @param row 行索引
+	 * @param column 列索引
+	 * @return 获取字段的double值，对于数值类型列将直接读取而不产生包装对象，NULL值返回0
+	 */
+	public double getDouble(int row, int column) {
+		switch (__columnKinds[column]) {
+			case __KIND_INT:
+				return ((int[]) __columns[column])[row];
+			case __KIND_LONG:
+				return ((long[]) __columns[column])[row];
+			case __KIND_FLOAT:
+				return ((float[]) __columns[column])[row];
+			case __KIND_DOUBLE:
+				return ((double[]) __columns[column])[row];
+			default:
+				Object _value = getValue(row, column);
+				return _value == null ? 0 : new BlurObject(_value).toDoubleValue();
+		}
+	}
+
+	/**
+	 * @param row 行索引
+	 * @return 获取指定行的全部字段值
+	 */
+	public Object[] getRow(int row) {
+		Object[] _values = new Object[__columns.length];
+		for (int i = 0; i < _values.length; i++) {
+			_values[i] = getValue(row, i);
+		}
+		return _values;
+	}
+
+}
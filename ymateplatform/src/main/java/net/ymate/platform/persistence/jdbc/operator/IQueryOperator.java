@@ -56,6 +56,11 @@ public interface IQueryOperator<T> extends IOperator {
 	 */
 	public void setResultSetHandler(IResultSetHandler<T> handler);
 
+	/**
+	 * @return 获取结果集数据处理对象
+	 */
+	public IResultSetHandler<T> getResultSetHandler();
+
 	/**
 	 * @return 获取当前的结果集，若当前操作者对象尚未被执行将抛出运行时异常
 	 */
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.operator;
+
+import java.io.Closeable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import net.ymate.platform.commons.util.RuntimeUtils;
+import net.ymate.platform.persistence.base.OperatorException;
+
+/**
+ * <p>
+ * ResultSetCursor
+ * </p>
+ * <p>
+ * 结果集游标，按需逐行读取并通过结果集数据处理器转换数据，内存占用与记录总数无关；
+ * 游标在数据读取完毕后自动关闭，提前结束遍历时须调用close方法释放资源；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月16日上午9:47:25</td>
+ *          </tr>
+ *          </table>
+ */
+public class ResultSetCursor<T> implements Iterator<T>, Closeable {
+
+	private static final int __STATE_UNKNOWN = 0, __STATE_READY = 1, __STATE_DONE = 2;
+
+	private final Statement __statement;
+
+	private final ResultSet __resultSet;
+
+	private final AbstractResultSetHandler<T> __handler;
+
+	/**
+	 * 行数据缓冲，始终仅保存当前行
+	 */
+	private final List<T> __rowBuffer = new ArrayList<T>(1);
+
+	private int __state = __STATE_UNKNOWN;
+
+	private int __rowNumber;
+
+	private boolean __closed;
+
+	/**
+	 * 构造器
+	 *
+	 * @param statement 产生结果集的Statement对象，随游标一同关闭
+	 * @param resultSet 数据结果集对象
+	 * @param handler 结果集数据处理器，须已调用过prepare方法
+	 */
+	public ResultSetCursor(Statement statement, ResultSet resultSet, AbstractResultSetHandler<T> handler) {
+		this.__statement = statement;
+		this.__resultSet = resultSet;
+		this.__handler = handler;
+	}
+
+	/**
+	 * @return 读取并返回下一行数据，若已无数据则关闭游标并返回null
+	 * @throws OperatorException
+	 */
+	public T nextRow() throws OperatorException {
+		try {
+			if (!__doAdvance()) {
+				return null;
+			}
+			__state = __STATE_UNKNOWN;
+			__handler.processRowData(__resultSet, __rowBuffer);
+			__rowNumber++;
+			return __rowBuffer.isEmpty() ? null : __rowBuffer.get(0);
+		} catch (SQLException e) {
+			close();
+			throw new OperatorException(RuntimeUtils.unwrapThrow(e));
+		} catch (OperatorException e) {
+			close();
+			throw e;
+		} finally {
+			__rowBuffer.clear();
+		}
+	}
+
+	private boolean __doAdvance() throws SQLException {
+		if (__state == __STATE_UNKNOWN) {
+			if (!__closed && __resultSet.next()) {
+				__state = __STATE_READY;
+			} else {
+				__state = __STATE_DONE;
+				close();
+			}
+		}
+		return __state == __STATE_READY;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#hasNext()
+	 */
+	public boolean hasNext() {
+		try {
+			return __doAdvance();
+		} catch (SQLException e) {
+			close();
+			throw new RuntimeException(RuntimeUtils.unwrapThrow(e));
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#next()
+	 */
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		try {
+			return nextRow();
+		} catch (OperatorException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.Iterator#remove()
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @return 返回已读取的记录行数
+	 */
+	public int getRowNumber() {
+		return __rowNumber;
+	}
+
+	/**
+	 * @return 判断游标是否已关闭
+	 */
+	public boolean isClosed() {
+		return __closed;
+	}
+
+	/**
+	 * 关闭游标及其结果集和Statement对象，可重复调用
+	 */
+	public void close() {
+		if (!__closed) {
+			__closed = true;
+			try {
+				__resultSet.close();
+			} catch (SQLException e) {
+				// ~~~
+			}
+			try {
+				__statement.close();
+			} catch (SQLException e) {
+				// ~~~
+			}
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.operator.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import net.ymate.platform.persistence.base.OperatorException;
+import net.ymate.platform.persistence.jdbc.operator.ColumnarResultSet;
+import net.ymate.platform.persistence.jdbc.operator.IResultSetHandler;
+
+/**
+ * <p>
+ * ColumnarResultSetHandler
+ * </p>
+ * <p>
+ * 采用按列存储的 ColumnarResultSet 对象存储数据的结果集数据处理接口实现类，处理结果集合中仅包含一个元素；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月13日下午3:02:51</td>
+ *          </tr>
+ *          </table>
+ */
+public class ColumnarResultSetHandler implements IResultSetHandler<ColumnarResultSet> {
+
+	private ColumnarResultSet __resultSet;
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.IResultSetHandler#handle(java.sql.ResultSet, int)
+	 */
+	public void handle(ResultSet rs, int maxRow) throws OperatorException, SQLException {
+		ColumnarResultSet _resultSet = new ColumnarResultSet(rs.getMetaData());
+		while ((maxRow <= 0 || _resultSet.getRowCount() < maxRow) && rs.next()) {
+			_resultSet.addRow(rs);
+		}
+		_resultSet.trimToSize();
+		this.__resultSet = _resultSet;
+	}
+
+	/**
+	 * @return 获取处理后的按列存储的结果集对象
+	 */
+	public ColumnarResultSet getResultSet() {
+		return this.__resultSet;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.IResultSetHandler#getRowCount()
+	 */
+	public int getRowCount() {
+		return this.__resultSet != null ? this.__resultSet.getRowCount() : 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.IResultSetHandler#getColumnCount()
+	 */
+	public int getColumnCount() {
+		return this.__resultSet != null ? this.__resultSet.getColumnCount() : 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.IResultSetHandler#getColumnNames()
+	 */
+	public String[] getColumnNames() {
+		return this.__resultSet != null ? this.__resultSet.getColumnNames() : null;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.IResultSetHandler#getColumnTypes()
+	 */
+	public int[] getColumnTypes() {
+		return this.__resultSet != null ? this.__resultSet.getColumnTypes() : null;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.IResultSetHandler#getResultDataSet()
+	 */
+	public List<ColumnarResultSet> getResultDataSet() {
+		if (this.__resultSet == null) {
+			return Collections.emptyList();
+		}
+		return Collections.singletonList(this.__resultSet);
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.operator.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import net.ymate.platform.base.YMP;
+import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.persistence.base.OperatorException;
+import net.ymate.platform.persistence.jdbc.IConnectionHolder;
+import net.ymate.platform.persistence.jdbc.base.AccessorEventContext;
+import net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent;
+import net.ymate.platform.persistence.jdbc.base.SqlParameter;
+import net.ymate.platform.persistence.jdbc.base.StatementCache;
+import net.ymate.platform.persistence.jdbc.base.impl.GenericAccessor;
+import net.ymate.platform.persistence.jdbc.operator.AbstractOperator;
+import net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.ResultSetCursor;
+
+/**
+ * <p>
+ * CursorOperator
+ * </p>
+ * <p>
+ * 数据库游标查询操作器实现类，执行查询后保持结果集打开，由 ResultSetCursor 逐行读取数据；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月16日上午10:05:12</td>
+ *          </tr>
+ *          </table>
+ */
+public class CursorOperator<T> extends AbstractOperator {
+
+	private AbstractResultSetHandler<T> __handler;
+
+	private ResultSetCursor<T> __cursor;
+
+	/**
+	 * 构造器
+	 * 
+	 * @param handler 结果集数据处理对象
+	 */
+	public CursorOperator(AbstractResultSetHandler<T> handler) {
+		this.__handler = handler;
+	}
+
+	/**
+	 * 构造器
+	 * 
+	 * @param sql SQL 语句
+	 * @param handler 结果集数据处理对象
+	 * @param conn 数据库连接对象
+	 */
+	public CursorOperator(String sql, AbstractResultSetHandler<T> handler, IConnectionHolder conn) {
+		this.setSql(sql);
+		this.setConnection(conn);
+		this.__handler = handler;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.AbstractOperator#__execute()
+	 */
+	protected int __execute() throws OperatorException, SQLException {
+		IAccessorCfgEvent _event = this.getAccessorCfgEvent();
+		PreparedStatement _statement = new CursorAccessor(this.getSql(), this.getParameters(), _event).getPreparedStatement(this.getConnection().getConnection());
+		try {
+			if (_event != null) {
+				// 驱动程序获取数据的行数提示，如MySQL可设置为Integer.MIN_VALUE以开启逐行流式读取
+				if (_event.getFetchSize() != 0) {
+					_statement.setFetchSize(_event.getFetchSize());
+				}
+				if (_event.getMaxRows() > 0) {
+					_statement.setMaxRows(_event.getMaxRows());
+				}
+				if (_event.getQueryTimeout() > 0) {
+					_statement.setQueryTimeout(_event.getQueryTimeout());
+				}
+				AccessorEventContext _context = new AccessorEventContext(_statement, false, false);
+				_event.beforeStatementExecution(_context);
+				ResultSet _rs = _statement.executeQuery();
+				_event.afterStatementExecution(_context);
+				this.__doOpenCursor(_statement, _rs);
+			} else {
+				this.__doOpenCursor(_statement, _statement.executeQuery());
+			}
+		} catch (SQLException e) {
+			_statement.close();
+			throw e;
+		}
+		return -1;
+	}
+
+	private void __doOpenCursor(PreparedStatement statement, ResultSet rs) throws SQLException {
+		try {
+			this.__handler.prepare(rs);
+		} catch (SQLException e) {
+			rs.close();
+			throw e;
+		}
+		this.__cursor = new ResultSetCursor<T>(statement, rs, this.__handler);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.AbstractOperator#__parametersToString()
+	 */
+	protected String __parametersToString() {
+		return this.getParameters().toString();
+	}
+
+	/**
+	 * @return 获取已打开的结果集游标
+	 */
+	public ResultSetCursor<T> getCursor() {
+		if (!this.isExecuted()) {
+			throw new Error(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.need_execute"));
+		}
+		return this.__cursor;
+	}
+
+	/**
+	 * 游标访问器，默认创建只进且只读的PreparedStatement对象，且不使用Statement缓存
+	 */
+	private static class CursorAccessor extends GenericAccessor {
+
+		CursorAccessor(String sql, List<SqlParameter> params, IAccessorCfgEvent eventObj) {
+			super(sql, params, eventObj);
+		}
+
+		/* (non-Javadoc)
+		 * @see net.ymate.platform.persistence.jdbc.base.AbstractAccessor#getPreparedStatement(java.sql.Connection, net.ymate.platform.persistence.jdbc.base.StatementCache)
+		 */
+		public PreparedStatement getPreparedStatement(Connection conn, StatementCache cache) throws SQLException {
+			PreparedStatement _returnValue = null;
+			if (this.getAccessorCfgEvent() != null) {
+				_returnValue = this.getAccessorCfgEvent().getPreparedStatement(conn, this.getSqlStr());
+			}
+			if (_returnValue == null) {
+				_returnValue = conn.prepareStatement(this.getSqlStr(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			}
+			processSqlParams(_returnValue);
+			return _returnValue;
+		}
+
+	}
+
+}
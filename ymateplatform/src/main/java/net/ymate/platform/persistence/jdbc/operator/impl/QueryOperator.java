@@ -122,6 +122,13 @@ public class QueryOperator<T> extends AbstractOperator implements IQueryOperator
 		this.__handler = handler;
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.IQueryOperator#getResultSetHandler()
+	 */
+	public IResultSetHandler<T> getResultSetHandler() {
+		return this.__handler;
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.operator.IQueryOperator#isResultSetAvailable()
 	 */
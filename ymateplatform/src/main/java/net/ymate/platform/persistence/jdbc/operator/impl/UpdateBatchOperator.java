@@ -88,6 +88,17 @@ public class UpdateBatchOperator extends AbstractOperator implements IUpdateBatc
 		this.setConnection(conn);
 	}
 
+	/**
+	 * 构造器
+	 * 
+	 * @param sql SQL 语句
+	 * @param batchParameters 批更新时使用的SQL参数集合(直接引用，不做复制，便于调用者分批次复用同一参数缓冲区)
+	 */
+	public UpdateBatchOperator(String sql, List<List<SqlParameter>> batchParameters) {
+		this.setSql(sql);
+		this.__batchParameters = batchParameters;
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.operator.AbstractOperator#__execute()
 	 */
@@ -15,16 +15,26 @@
  */
 package net.ymate.platform.persistence.jdbc.query;
 
-import net.ymate.platform.commons.lang.BlurObject;
+import net.ymate.platform.base.YMP;
+import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.persistence.base.OperatorException;
 import net.ymate.platform.persistence.jdbc.IConnectionHolder;
 import net.ymate.platform.persistence.jdbc.base.SqlParameter;
+import net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.ColumnarResultSet;
 import net.ymate.platform.persistence.jdbc.operator.IQueryOperator;
 import net.ymate.platform.persistence.jdbc.operator.IResultSetHandler;
-import net.ymate.platform.persistence.jdbc.operator.impl.ArrayResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.impl.ColumnarResultSetHandler;
 import net.ymate.platform.persistence.jdbc.operator.impl.QueryOperator;
 import net.ymate.platform.persistence.support.PageResultSet;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang.StringUtils;
 
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -68,6 +78,26 @@ public class PageQuery<T> {
 	 */
 	private boolean __allowRecordCountFlag = true;
 
+	/**
+	 * 总记录数缓存存活时间(毫秒)，默认0表示不缓存，每次分页均重新统计
+	 */
+	private long __recordCountCacheTime;
+
+	/**
+	 * 键集分页字段名称，为空表示采用 offset 方式分页
+	 */
+	private String __keyColumn;
+
+	/**
+	 * 键集分页是否按降序排列
+	 */
+	private boolean __keyDescending;
+
+	/**
+	 * 键集分页的续查标识，由上一页查询结果返回
+	 */
+	private String __continuationToken;
+
 	private IQueryOperator<T> __queryOpt;
 
 	/**
@@ -137,6 +167,35 @@ public class PageQuery<T> {
 		return this;
 	}
 
+	public long getRecordCountCacheTime() {
+		return __recordCountCacheTime;
+	}
+
+	/**
+	 * @param timeToLive 总记录数缓存存活时间(毫秒)，相同SQL及参数的统计结果在此时间内将被复用，小于等于0表示不缓存
+	 * @return 当前分页查询对象
+	 */
+	public PageQuery<T> setRecordCountCacheTime(long timeToLive) {
+		this.__recordCountCacheTime = timeToLive;
+		return this;
+	}
+
+	/**
+	 * 开启键集(seek)分页模式，按键值定位而非跳过 offset 行，翻页代价与页号无关；
+	 * 此模式下页号仅作为返回结果的标记，原SQL中的 order by 子句将被剔除并按键字段重新排序
+	 * 
+	 * @param keyColumn 有序且唯一的字段名称，必须出现在查询结果字段中(不含表别名前缀)
+	 * @param descending 是否按降序排列
+	 * @param continuationToken 上一页返回的续查标识(PageResultSet.getContinuationToken())，为空表示查询第一页
+	 * @return 当前分页查询对象
+	 */
+	public PageQuery<T> setKeyset(String keyColumn, boolean descending, String continuationToken) {
+		this.__keyColumn = keyColumn;
+		this.__keyDescending = descending;
+		this.__continuationToken = continuationToken;
+		return this;
+	}
+
 	public IConnectionHolder getConnection() {
 		return this.__queryOpt.getConnection();
 	}
@@ -188,6 +247,9 @@ public class PageQuery<T> {
 	}
 
 	public PageResultSet<T> execute() throws OperatorException {
+		if (StringUtils.isNotBlank(this.__keyColumn)) {
+			return __doKeysetExecute();
+		}
 		int _limit = ((this.__pageNumber - 1) * this.__pageSize);
 		String _sourceSql = this.getSql();
 		String _pageSql = this.getConnection().getDialect().getPaginationSql(_sourceSql, _limit, this.__pageSize);
@@ -202,32 +264,207 @@ public class PageQuery<T> {
 		return this.execute();
 	}
 
+	/**
+	 * @return 执行键集分页查询，并生成下一页的续查标识
+	 * @throws OperatorException
+	 */
+	protected PageResultSet<T> __doKeysetExecute() throws OperatorException {
+		IResultSetHandler<T> _handler = this.__queryOpt.getResultSetHandler();
+		if (!(_handler instanceof AbstractResultSetHandler)) {
+			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.keyset_handler_unsupported"));
+		}
+		String _sourceSql = __doRemoveOrderBy(this.getSql());
+		List<SqlParameter> _sourceParams = new ArrayList<SqlParameter>(this.getParameters());
+		Object _seekValue = null;
+		if (StringUtils.isNotBlank(this.__continuationToken)) {
+			_seekValue = __doDecodeToken(this.__continuationToken);
+			this.__queryOpt.addParameter(_seekValue);
+		}
+		KeysetResultSetHandler<T> _keysetHandler = new KeysetResultSetHandler<T>((AbstractResultSetHandler<T>) _handler, this.__keyColumn);
+		this.__queryOpt.setResultSetHandler(_keysetHandler);
+		this.__queryOpt.setSql(this.getConnection().getDialect().getKeysetPaginationSql(_sourceSql, this.__keyColumn, this.__keyDescending, _seekValue != null, this.__pageSize));
+		this.__queryOpt.execute();
+		//
+		List<T> _result = this.__queryOpt.getResultSet();
+		// 不足一页说明已无后续数据
+		String _nextToken = _result.size() >= this.__pageSize ? __doEncodeToken(_keysetHandler.getLastKeyValue()) : null;
+		return new PageResultSet<T>(_result, this.__pageNumber, this.__pageSize, this.__allowRecordCountFlag ? __doRecordCount(_sourceSql, _sourceParams) : -1, _nextToken);
+	}
+
 	/**
 	 * @param sql 需要统计的SQL语句
 	 * @return 执行SQL查询，计算记录总数
 	 * @throws OperatorException
 	 */
 	protected int __doRecordCount(String sql) throws OperatorException {
-		IQueryOperator<Object[]> _query = new QueryOperator<Object[]>(new ArrayResultSetHandler());
+		return __doRecordCount(sql, this.getParameters());
+	}
+
+	/**
+	 * @param sql 需要统计的SQL语句
+	 * @param params SQL参数集合
+	 * @return 执行SQL查询，计算记录总数，若开启了总记录数缓存则优先从缓存中获取
+	 * @throws OperatorException
+	 */
+	protected int __doRecordCount(String sql, List<SqlParameter> params) throws OperatorException {
+		String _countSql = "select count(1) from (" + __doRemoveOrderBy(sql) + ") c_t";
+		String _cacheKey = null;
+		if (this.__recordCountCacheTime > 0) {
+			_cacheKey = RecordCountCache.buildKey(this.getConnection().getDataSourceName(), _countSql, params);
+			int _count = RecordCountCache.get(_cacheKey);
+			if (_count >= 0) {
+				return _count;
+			}
+		}
+		IQueryOperator<ColumnarResultSet> _query = new QueryOperator<ColumnarResultSet>(new ColumnarResultSetHandler());
 		_query.setConnection(this.getConnection());
-		_query.getParameters().addAll(this.getParameters());
-//		_query.setSql("select count(1) from (" + __doRemoveOrderBy(sql) + ") c_t");
-		_query.setSql("select count(1) from (" + sql + ") c_t");
+		_query.getParameters().addAll(params);
+		_query.setSql(_countSql);
 		_query.execute();
-		Object[] _ct = (Object[]) _query.getResultSet().get(0)[0];
-		return new BlurObject(_ct[1]).toIntValue();
-	}
-
-//	/**
-//	 * @param sql 目标SQL语句
-//	 * @return 移除 SQL 中的 order by 子句
-//	 */
-//	protected String __doRemoveOrderBy(String sql) {
-//		int orderByIndex = sql.toLowerCase().lastIndexOf("order by");
-//		if (orderByIndex > 0) {
-//			return sql.substring(0, orderByIndex);
-//		}
-//		return sql;
-//	}
+		int _count = (int) _query.getResultSet().get(0).getLong(0, 0);
+		if (_cacheKey != null) {
+			RecordCountCache.put(_cacheKey, _count, this.__recordCountCacheTime);
+		}
+		return _count;
+	}
+
+	/**
+	 * @param sql 目标SQL语句
+	 * @return 移除 SQL 中最外层的 order by 子句(忽略子查询及字符串中的内容)，
+	 *         若其后仍存在 limit、top 等限定返回行数的子句则原样返回
+	 */
+	protected String __doRemoveOrderBy(String sql) {
+		String _lowerSql = sql.toLowerCase();
+		int _length = _lowerSql.length();
+		int _depth = 0;
+		int _orderByIndex = -1;
+		char _quote = 0;
+		for (int _idx = 0; _idx < _length; _idx++) {
+			char _c = _lowerSql.charAt(_idx);
+			if (_quote != 0) {
+				if (_c == _quote) {
+					_quote = 0;
+				}
+				continue;
+			}
+			if (_c == '\'' || _c == '"' || _c == '`') {
+				_quote = _c;
+			} else if (_c == '(') {
+				_depth++;
+			} else if (_c == ')') {
+				_depth--;
+			} else if (_c == 'o' && _depth == 0 && _lowerSql.startsWith("order", _idx) && (_idx == 0 || !Character.isJavaIdentifierPart(_lowerSql.charAt(_idx - 1)))) {
+				int _next = _idx + 5;
+				while (_next < _length && Character.isWhitespace(_lowerSql.charAt(_next))) {
+					_next++;
+				}
+				if (_next > _idx + 5 && _lowerSql.startsWith("by", _next) && (_next + 2 == _length || !Character.isJavaIdentifierPart(_lowerSql.charAt(_next + 2)))) {
+					_orderByIndex = _idx;
+				}
+			}
+		}
+		if (_orderByIndex > 0 && !_lowerSql.substring(_orderByIndex).matches("(?s).*\\b(limit|offset|fetch|top|rows|for)\\b.*")) {
+			return sql.substring(0, _orderByIndex);
+		}
+		return sql;
+	}
+
+	/**
+	 * @param keyValue 当前页最后一条记录的键值
+	 * @return 将键值连同其类型编码为不透明的续查标识
+	 */
+	protected static String __doEncodeToken(Object keyValue) {
+		if (keyValue == null) {
+			return null;
+		}
+		String _token = null;
+		if (keyValue instanceof Long || keyValue instanceof Integer || keyValue instanceof Short || keyValue instanceof Byte) {
+			_token = "L" + ((Number) keyValue).longValue();
+		} else if (keyValue instanceof Number) {
+			_token = "N" + new BigDecimal(keyValue.toString()).toPlainString();
+		} else if (keyValue instanceof java.util.Date) {
+			_token = "T" + ((java.util.Date) keyValue).getTime() + "." + (keyValue instanceof Timestamp ? ((Timestamp) keyValue).getNanos() : 0);
+		} else {
+			_token = "S" + keyValue.toString();
+		}
+		return Base64.encodeBase64URLSafeString(org.apache.commons.codec.binary.StringUtils.getBytesUtf8(_token));
+	}
+
+	/**
+	 * @param token 续查标识
+	 * @return 解码续查标识并还原键值
+	 * @throws OperatorException
+	 */
+	protected static Object __doDecodeToken(String token) throws OperatorException {
+		try {
+			String _token = org.apache.commons.codec.binary.StringUtils.newStringUtf8(Base64.decodeBase64(token));
+			String _value = _token.substring(1);
+			switch (_token.charAt(0)) {
+				case 'L':
+					return Long.valueOf(_value);
+				case 'N':
+					return new BigDecimal(_value);
+				case 'T':
+					Timestamp _timestamp = new Timestamp(Long.parseLong(StringUtils.substringBefore(_value, ".")));
+					_timestamp.setNanos(Integer.parseInt(StringUtils.substringAfter(_value, ".")));
+					return _timestamp;
+				case 'S':
+					return _value;
+				default:
+					break;
+			}
+		} catch (RuntimeException e) {
+			// 标识被篡改或格式错误，统一按无效标识处理
+		}
+		throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.keyset_token_invalid", token));
+	}
+
+	/**
+	 * <p>
+	 * KeysetResultSetHandler
+	 * </p>
+	 * <p>
+	 * 键集分页结果集处理器，委派原处理器处理每行数据并记录最后一行的键值；
+	 * </p>
+	 */
+	private static class KeysetResultSetHandler<T> extends AbstractResultSetHandler<T> {
+
+		private AbstractResultSetHandler<T> __handler;
+
+		private String __keyColumn;
+
+		private int __keyIndex;
+
+		private Object __lastKeyValue;
+
+		public KeysetResultSetHandler(AbstractResultSetHandler<T> handler, String keyColumn) {
+			this.__handler = handler;
+			this.__keyColumn = keyColumn;
+		}
+
+		@Override
+		public void prepare(ResultSet rs) throws SQLException {
+			super.prepare(rs);
+			this.__handler.prepare(rs);
+			String[] _columnNames = this.getColumnNames();
+			for (int _idx = 0; _idx < _columnNames.length; _idx++) {
+				if (_columnNames[_idx].equalsIgnoreCase(this.__keyColumn)) {
+					this.__keyIndex = _idx + 1;
+					return;
+				}
+			}
+			throw new SQLException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.keyset_column_not_found", this.__keyColumn));
+		}
+
+		@Override
+		public void processRowData(ResultSet rs, List<T> result) throws OperatorException, SQLException {
+			this.__lastKeyValue = rs.getObject(this.__keyIndex);
+			this.__handler.processRowData(rs, result);
+		}
+
+		public Object getLastKeyValue() {
+			return __lastKeyValue;
+		}
+	}
 
 }
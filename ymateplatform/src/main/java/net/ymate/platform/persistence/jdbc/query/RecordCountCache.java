@@ -0,0 +1,158 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.query;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.ymate.platform.persistence.jdbc.base.SqlParameter;
+
+/**
+ * <p>
+ * RecordCountCache
+ * </p>
+ * <p>
+ * 分页查询总记录数缓存类，以数据源名称、规范化后的SQL语句及参数值作为键，按指定的存活时间缓存记录总数；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月20日下午3:12:46</td>
+ *          </tr>
+ *          </table>
+ */
+public class RecordCountCache {
+
+	/**
+	 * 缓存条目数上限，超出时先清理过期条目，仍超出则整体清空
+	 */
+	private static final int __MAX_SIZE = 1024;
+
+	private static final Map<String, CountEntry> __CACHE = new ConcurrentHashMap<String, CountEntry>();
+
+	/**
+	 * @param dsName 数据源名称
+	 * @param sql 统计的SQL语句
+	 * @param params SQL参数集合
+	 * @return 构建缓存键，SQL语句中引号之外连续的空白字符被压缩为单个空格，字面量及带引号标识符保持原样
+	 */
+	public static String buildKey(String dsName, String sql, List<SqlParameter> params) {
+		StringBuilder _key = new StringBuilder(sql.length() + 64);
+		_key.append(dsName).append('\n');
+		boolean _isBlank = true;
+		char _quote = 0;
+		for (int _idx = 0; _idx < sql.length(); _idx++) {
+			char _c = sql.charAt(_idx);
+			if (_quote != 0) {
+				if (_c == _quote) {
+					_quote = 0;
+				}
+				_key.append(_c);
+				continue;
+			}
+			if (_c == '\'' || _c == '"' || _c == '`') {
+				_quote = _c;
+			}
+			if (Character.isWhitespace(_c)) {
+				if (!_isBlank) {
+					_key.append(' ');
+					_isBlank = true;
+				}
+			} else {
+				_key.append(_c);
+				_isBlank = false;
+			}
+		}
+		if (params != null) {
+			for (SqlParameter _param : params) {
+				_key.append('\n').append(_param.getType()).append(':').append(_param.getValue());
+			}
+		}
+		return _key.toString();
+	}
+
+	/**
+	 * @param key 缓存键
+	 * @return 返回缓存的记录总数，若不存在或已过期则返回-1
+	 */
+	public static int get(String key) {
+		CountEntry _entry = __CACHE.get(key);
+		if (_entry != null) {
+			if (_entry.expireTime > System.currentTimeMillis()) {
+				return _entry.count;
+			}
+			__CACHE.remove(key);
+		}
+		return -1;
+	}
+
+	/**
+	 * 缓存记录总数
+	 * 
+	 * @param key 缓存键
+	 * @param count 记录总数
+	 * @param timeToLive 存活时间(毫秒)
+	 */
+	public static void put(String key, int count, long timeToLive) {
+		if (timeToLive <= 0) {
+			return;
+		}
+		if (__CACHE.size() >= __MAX_SIZE) {
+			long _now = System.currentTimeMillis();
+			for (Iterator<CountEntry> _it = __CACHE.values().iterator(); _it.hasNext();) {
+				if (_it.next().expireTime <= _now) {
+					_it.remove();
+				}
+			}
+			if (__CACHE.size() >= __MAX_SIZE) {
+				__CACHE.clear();
+			}
+		}
+		__CACHE.put(key, new CountEntry(count, System.currentTimeMillis() + timeToLive));
+	}
+
+	/**
+	 * 清空全部缓存的记录总数，通常在大批量数据变更后调用
+	 */
+	public static void clear() {
+		__CACHE.clear();
+	}
+
+	private static class CountEntry {
+
+		final int count;
+
+		final long expireTime;
+
+		CountEntry(int count, long expireTime) {
+			this.count = count;
+			this.expireTime = expireTime;
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.route;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * ReplicaNode
+ * </p>
+ * <p>
+ * 从库节点，记录权重、正在执行的操作数量以及最近一段时间内的错误率，错误率过高时暂时摘除；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月24日下午3:20:18</td>
+ *          </tr>
+ *          </table>
+ */
+public class ReplicaNode {
+
+	private final String __name;
+
+	private final int __weight;
+
+	private final AtomicInteger __inFlight = new AtomicInteger();
+
+	/**
+	 * 平滑加权轮询算法的当前权重，由选择策略在同步块内维护
+	 */
+	private int __currentWeight;
+
+	private long __windowStart;
+
+	private int __requests;
+
+	private int __errors;
+
+	private volatile long __ejectedUntil;
+
+	/**
+	 * 构造器
+	 * 
+	 * @param name 从库数据源名称
+	 * @param weight 权重，小于1时按1处理
+	 */
+	public ReplicaNode(String name, int weight) {
+		this.__name = name;
+		this.__weight = Math.max(weight, 1);
+	}
+
+	/**
+	 * @return 从库数据源名称
+	 */
+	public String getName() {
+		return __name;
+	}
+
+	/**
+	 * @return 权重
+	 */
+	public int getWeight() {
+		return __weight;
+	}
+
+	/**
+	 * @return 平滑加权轮询算法的当前权重
+	 */
+	public int getCurrentWeight() {
+		return __currentWeight;
+	}
+
+	public void setCurrentWeight(int currentWeight) {
+		this.__currentWeight = currentWeight;
+	}
+
+	/**
+	 * @return 当前正在使用该节点连接的操作数量
+	 */
+	public int getInFlight() {
+		return __inFlight.get();
+	}
+
+	/**
+	 * @param now 当前时间
+	 * @return 节点是否可用(未处于摘除期内)
+	 */
+	public boolean isAvailable(long now) {
+		return now >= __ejectedUntil;
+	}
+
+	/**
+	 * 开始使用该节点连接
+	 */
+	public void acquire() {
+		__inFlight.incrementAndGet();
+	}
+
+	/**
+	 * 结束使用该节点连接
+	 */
+	public void release() {
+		__inFlight.decrementAndGet();
+	}
+
+	/**
+	 * 记录一次操作结果，统计窗口内请求数达到最小值且错误率达到阈值时将节点摘除
+	 * 
+	 * @param success 操作是否成功
+	 * @param router 所属路由器，提供统计窗口及摘除参数
+	 * @return 本次记录是否导致节点被摘除
+	 */
+	public synchronized boolean record(boolean success, ReplicaRouter router) {
+		long _now = System.currentTimeMillis();
+		if (_now - __windowStart > router.getErrorWindow()) {
+			__windowStart = _now;
+			__requests = 0;
+			__errors = 0;
+		}
+		__requests++;
+		if (!success) {
+			__errors++;
+			if (__requests >= router.getMinRequests() && __errors >= __requests * router.getErrorRate()) {
+				__ejectedUntil = _now + router.getEjectTime();
+				__windowStart = _now;
+				__requests = 0;
+				__errors = 0;
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
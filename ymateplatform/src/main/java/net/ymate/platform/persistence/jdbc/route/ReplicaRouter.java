@@ -0,0 +1,203 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.route;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import net.ymate.platform.base.FrameworkLog;
+import net.ymate.platform.commons.lang.BlurObject;
+import net.ymate.platform.commons.util.ClassUtils;
+import net.ymate.platform.persistence.jdbc.JDBC;
+import net.ymate.platform.persistence.jdbc.route.impl.LeastInFlightSelector;
+import net.ymate.platform.persistence.jdbc.route.impl.WeightedRoundRobinSelector;
+import net.ymate.platform.persistence.jdbc.support.JdbcDataSourceCfgMeta;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * <p>
+ * ReplicaRouter
+ * </p>
+ * <p>
+ * 读写分离路由器，负责为主数据源选择可用的从库节点、统计节点错误率，并在当前线程执行写操作后的一段时间内保持读主库；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月24日下午2:56:33</td>
+ *          </tr>
+ *          </table>
+ */
+public class ReplicaRouter {
+
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.JDBC, ReplicaRouter.class);
+
+	private final String __name;
+
+	private final List<ReplicaNode> __nodes;
+
+	private final IReplicaSelector __selector;
+
+	/**
+	 * 当前线程最近一次执行写操作的时间
+	 */
+	private final ThreadLocal<Long> __lastWriteTime = new ThreadLocal<Long>();
+
+	private long stickyTime;
+	private long errorWindow;
+	private int minRequests;
+	private double errorRate;
+	private long ejectTime;
+
+	/**
+	 * 构造器
+	 * 
+	 * @param cfgMeta 主数据源配置，从库列表格式为"从库名称[:权重]|..."
+	 */
+	public ReplicaRouter(JdbcDataSourceCfgMeta cfgMeta) {
+		this.__name = cfgMeta.getName();
+		List<ReplicaNode> _nodes = new ArrayList<ReplicaNode>();
+		for (String _replica : StringUtils.split(StringUtils.trimToEmpty(cfgMeta.getReplicas()), "|")) {
+			String _replicaName = StringUtils.trim(StringUtils.substringBefore(_replica, ":"));
+			int _weight = _replica.indexOf(':') > 0 ? new BlurObject(StringUtils.trim(StringUtils.substringAfter(_replica, ":"))).toIntValue() : 1;
+			_nodes.add(new ReplicaNode(_replicaName, _weight));
+		}
+		this.__nodes = Collections.unmodifiableList(_nodes);
+		Map<String, String> _params = cfgMeta.getRoutingParams();
+		this.stickyTime = __getParam(_params, "sticky_time", 2000L);
+		this.errorWindow = __getParam(_params, "error_window", 10000L);
+		this.minRequests = __getParam(_params, "min_requests", 10L).intValue();
+		this.errorRate = StringUtils.isBlank(_params.get("error_rate")) ? 0.5d : new BlurObject(_params.get("error_rate").trim()).toDoubleValue();
+		this.ejectTime = __getParam(_params, "eject_time", 30000L);
+		String _strategy = StringUtils.defaultIfEmpty(StringUtils.trimToEmpty(_params.get("strategy")), "weighted");
+		if ("weighted".equalsIgnoreCase(_strategy)) {
+			this.__selector = new WeightedRoundRobinSelector();
+		} else if ("least_in_flight".equalsIgnoreCase(_strategy)) {
+			this.__selector = new LeastInFlightSelector();
+		} else {
+			this.__selector = ClassUtils.impl(_strategy, IReplicaSelector.class, JDBC.class);
+		}
+	}
+
+	private static Long __getParam(Map<String, String> params, String name, long defaultValue) {
+		String _value = params.get(name);
+		return StringUtils.isBlank(_value) ? defaultValue : new BlurObject(_value.trim()).toLongValue();
+	}
+
+	/**
+	 * @return 主数据源名称
+	 */
+	public String getName() {
+		return __name;
+	}
+
+	/**
+	 * @return 全部从库节点
+	 */
+	public List<ReplicaNode> getNodes() {
+		return __nodes;
+	}
+
+	/**
+	 * @return 选择一个当前可用的从库节点，若全部不可用则返回null
+	 */
+	public ReplicaNode select() {
+		long _now = System.currentTimeMillis();
+		List<ReplicaNode> _available = new ArrayList<ReplicaNode>(__nodes.size());
+		for (ReplicaNode _node : __nodes) {
+			if (_node.isAvailable(_now)) {
+				_available.add(_node);
+			}
+		}
+		return _available.isEmpty() ? null : __selector.select(_available);
+	}
+
+	/**
+	 * 记录从库节点的一次操作结果，错误率超过阈值时摘除该节点
+	 * 
+	 * @param node 从库节点
+	 * @param success 操作是否成功
+	 */
+	public void record(ReplicaNode node, boolean success) {
+		if (node.record(success, this)) {
+			_LOG.warn("ymp.jdbc.replica_ejected", node.getName(), __name, ejectTime);
+		}
+	}
+
+	/**
+	 * 标记当前线程执行了写操作，此后 stickyTime 时间内的读操作将使用主库
+	 */
+	public void markWrite() {
+		if (stickyTime > 0) {
+			__lastWriteTime.set(System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * 清除当前线程的写操作标记
+	 */
+	public void clearWrite() {
+		__lastWriteTime.remove();
+	}
+
+	/**
+	 * @return 当前线程是否处于写操作后的读主库时间窗口内
+	 */
+	public boolean isSticky() {
+		Long _lastWriteTime = __lastWriteTime.get();
+		if (_lastWriteTime != null) {
+			if (System.currentTimeMillis() - _lastWriteTime < stickyTime) {
+				return true;
+			}
+			__lastWriteTime.remove();
+		}
+		return false;
+	}
+
+	public long getStickyTime() {
+		return stickyTime;
+	}
+
+	public long getErrorWindow() {
+		return errorWindow;
+	}
+
+	public int getMinRequests() {
+		return minRequests;
+	}
+
+	public double getErrorRate() {
+		return errorRate;
+	}
+
+	public long getEjectTime() {
+		return ejectTime;
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.route.impl;
+
+import java.util.List;
+
+import net.ymate.platform.persistence.jdbc.route.IReplicaSelector;
+import net.ymate.platform.persistence.jdbc.route.ReplicaNode;
+
+/**
+ * <p>
+ * LeastInFlightSelector
+ * </p>
+ * <p>
+ * 最少执行中操作从库选择策略，优先选择正在执行的操作数与权重之比最小的节点；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月24日下午3:41:27</td>
+ *          </tr>
+ *          </table>
+ */
+public class LeastInFlightSelector implements IReplicaSelector {
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.route.IReplicaSelector#select(java.util.List)
+	 */
+	public ReplicaNode select(List<ReplicaNode> nodes) {
+		ReplicaNode _selected = null;
+		for (ReplicaNode _node : nodes) {
+			// 比较 inFlight/weight，转换为乘法避免精度问题
+			if (_selected == null || (long) _node.getInFlight() * _selected.getWeight() < (long) _selected.getInFlight() * _node.getWeight()) {
+				_selected = _node;
+			}
+		}
+		return _selected;
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.route.impl;
+
+import java.util.List;
+
+import net.ymate.platform.persistence.jdbc.route.IReplicaSelector;
+import net.ymate.platform.persistence.jdbc.route.ReplicaNode;
+
+/**
+ * <p>
+ * WeightedRoundRobinSelector
+ * </p>
+ * <p>
+ * 平滑加权轮询从库选择策略，按权重比例交替分配读操作；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月24日下午3:35:02</td>
+ *          </tr>
+ *          </table>
+ */
+public class WeightedRoundRobinSelector implements IReplicaSelector {
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.route.IReplicaSelector#select(java.util.List)
+	 */
+	public synchronized ReplicaNode select(List<ReplicaNode> nodes) {
+		ReplicaNode _selected = null;
+		int _totalWeight = 0;
+		for (ReplicaNode _node : nodes) {
+			_node.setCurrentWeight(_node.getCurrentWeight() + _node.getWeight());
+			_totalWeight += _node.getWeight();
+			if (_selected == null || _node.getCurrentWeight() > _selected.getCurrentWeight()) {
+				_selected = _node;
+			}
+		}
+		_selected.setCurrentWeight(_selected.getCurrentWeight() - _totalWeight);
+		return _selected;
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * AsyncSessionExecutor
+ * </p>
+ * <p>
+ * 数据源专属的异步会话有界执行器，线程数不超过连接池大小，任务队列已满时阻塞提交线程以形成背压，<br/>
+ * 运行环境支持虚拟线程时可使用虚拟线程执行任务；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月25日上午10:42:07</td>
+ *          </tr>
+ *          </table>
+ */
+public class AsyncSessionExecutor {
+
+	private final ThreadPoolExecutor __executor;
+
+	private final boolean __virtual;
+
+	/**
+	 * 构造器
+	 * 
+	 * @param dsName 数据源名称
+	 * @param threads 最大并发执行的任务数量
+	 * @param queueSize 等待执行的任务队列大小
+	 * @param virtualThreads 运行环境支持时是否使用虚拟线程
+	 */
+	public AsyncSessionExecutor(final String dsName, int threads, int queueSize, boolean virtualThreads) {
+		ThreadFactory _factory = virtualThreads ? __doCreateVirtualThreadFactory("ymp-jdbc-async-" + dsName + "-") : null;
+		this.__virtual = _factory != null;
+		if (_factory == null) {
+			_factory = new ThreadFactory() {
+				private final AtomicInteger __counter = new AtomicInteger();
+
+				public Thread newThread(Runnable r) {
+					Thread _thread = new Thread(r, "ymp-jdbc-async-" + dsName + "-" + __counter.incrementAndGet());
+					_thread.setDaemon(true);
+					return _thread;
+				}
+			};
+		}
+		__executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(Math.max(queueSize, 1)), _factory, new RejectedExecutionHandler() {
+			public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+				// 队列已满时阻塞提交线程，直到有任务执行完毕
+				if (executor.isShutdown()) {
+					throw new RejectedExecutionException();
+				}
+				try {
+					executor.getQueue().put(r);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RejectedExecutionException(e);
+				}
+			}
+		});
+		__executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @param prefix 线程名称前缀
+	 * @return 通过反射创建虚拟线程工厂(Thread.ofVirtual().name(prefix, 1).factory())，运行环境不支持时返回null
+	 */
+	private static ThreadFactory __doCreateVirtualThreadFactory(String prefix) {
+		try {
+			Class<?> _builderClass = Class.forName("java.lang.Thread$Builder");
+			Object _builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			_builder = _builderClass.getMethod("name", String.class, long.class).invoke(_builder, prefix, 1L);
+			Method _factoryMethod = _builderClass.getMethod("factory");
+			return (ThreadFactory) _factoryMethod.invoke(_builder);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param task 任务
+	 * @return 提交任务，队列已满时阻塞直到可以提交
+	 */
+	public <T> Future<T> submit(Callable<T> task) {
+		return __executor.submit(task);
+	}
+
+	/**
+	 * @return 是否使用虚拟线程执行任务
+	 */
+	public boolean isVirtual() {
+		return __virtual;
+	}
+
+	/**
+	 * @return 正在执行的任务数量
+	 */
+	public int getActiveCount() {
+		return __executor.getActiveCount();
+	}
+
+	/**
+	 * @return 等待执行的任务数量
+	 */
+	public int getQueueSize() {
+		BlockingQueue<Runnable> _queue = __executor.getQueue();
+		return _queue.size();
+	}
+
+	/**
+	 * 关闭执行器，已提交的任务将继续执行
+	 */
+	public void shutdown() {
+		__executor.shutdown();
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import net.ymate.platform.persistence.base.ConnectionException;
+import net.ymate.platform.persistence.base.OperatorException;
+import net.ymate.platform.persistence.jdbc.IAsyncSession;
+import net.ymate.platform.persistence.jdbc.ISession;
+import net.ymate.platform.persistence.jdbc.ISessionExecutor;
+import net.ymate.platform.persistence.jdbc.JDBC;
+import net.ymate.platform.persistence.jdbc.operator.IResultSetHandler;
+import net.ymate.platform.persistence.jdbc.route.ReplicaRouter;
+import net.ymate.platform.persistence.jdbc.transaction.Trans;
+import net.ymate.platform.persistence.support.PageResultSet;
+
+/**
+ * <p>
+ * DefaultAsyncSession
+ * </p>
+ * <p>
+ * 默认异步数据库操作会话接口实现类；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月25日上午11:05:53</td>
+ *          </tr>
+ *          </table>
+ */
+public class DefaultAsyncSession implements IAsyncSession {
+
+	private final String __dsName;
+
+	/**
+	 * 构造器
+	 * 
+	 * @param dsName 数据源名称
+	 */
+	public DefaultAsyncSession(String dsName) {
+		this.__dsName = dsName;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#getDataSourceName()
+	 */
+	public String getDataSourceName() {
+		return __dsName;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#find(java.lang.Class, java.lang.Object)
+	 */
+	public <T> Future<T> find(final Class<T> entity, final Object id) {
+		return submit(new ISessionExecutor<T>() {
+			public T execute(ISession session) throws OperatorException {
+				return session.find(entity, id);
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#findAll(java.lang.Class, java.lang.String, java.lang.Object[])
+	 */
+	public <T> Future<List<T>> findAll(final Class<T> entity, final String cond, final Object[] params) {
+		return submit(new ISessionExecutor<List<T>>() {
+			public List<T> execute(ISession session) throws OperatorException {
+				return session.findAll(entity, cond, params);
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#findAll(java.lang.Class, java.lang.String, java.lang.String[], int, int, java.lang.Object[])
+	 */
+	public <T> Future<PageResultSet<T>> findAll(final Class<T> entity, final String cond, final String[] fieldFilter, final int pageSize, final int page, final Object[] params) {
+		return submit(new ISessionExecutor<PageResultSet<T>>() {
+			public PageResultSet<T> execute(ISession session) throws OperatorException {
+				return session.findAll(entity, cond, fieldFilter, pageSize, page, params);
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#findAll(java.lang.String, net.ymate.platform.persistence.jdbc.operator.IResultSetHandler, java.lang.Object[])
+	 */
+	public <T> Future<List<T>> findAll(final String sql, final IResultSetHandler<T> handler, final Object[] params) {
+		return submit(new ISessionExecutor<List<T>>() {
+			public List<T> execute(ISession session) throws OperatorException {
+				return session.findAll(sql, handler, params);
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#executeForUpdate(java.lang.String, java.lang.Object[])
+	 */
+	public Future<Integer> executeForUpdate(final String sql, final Object[] params) {
+		// 提交线程随后的读操作同样需要读到本次写入的数据
+		ReplicaRouter _router = JDBC.getReplicaRouter(__dsName);
+		if (_router != null) {
+			_router.markWrite();
+		}
+		return submit(new ISessionExecutor<Integer>() {
+			public Integer execute(ISession session) throws OperatorException {
+				return session.executeForUpdate(sql, params);
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#getAmount(java.lang.Class, java.lang.String, java.lang.Object[])
+	 */
+	public <T> Future<Long> getAmount(final Class<T> entityClass, final String whereStr, final Object[] params) {
+		return submit(new ISessionExecutor<Long>() {
+			public Long execute(ISession session) throws OperatorException {
+				return session.getAmount(entityClass, whereStr, params);
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#getAmount(java.lang.String, java.lang.Object[])
+	 */
+	public Future<Long> getAmount(final String sql, final Object[] params) {
+		return submit(new ISessionExecutor<Long>() {
+			public Long execute(ISession session) throws OperatorException {
+				return session.getAmount(sql, params);
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IAsyncSession#submit(net.ymate.platform.persistence.jdbc.ISessionExecutor)
+	 */
+	public <T> Future<T> submit(final ISessionExecutor<T> executor) {
+		if (Trans.get() != null) {
+			// 事务中的操作必须使用当前线程绑定的连接，因此在当前线程同步执行
+			FutureTask<T> _future = new FutureTask<T>(new Callable<T>() {
+				public T call() throws Exception {
+					return JDBC.openSession(__dsName, executor);
+				}
+			});
+			_future.run();
+			return _future;
+		}
+		AsyncSessionExecutor _asyncExecutor;
+		try {
+			_asyncExecutor = JDBC.getAsyncSessionExecutor(__dsName);
+		} catch (final ConnectionException e) {
+			// 数据源不存在时通过Future返回异常
+			FutureTask<T> _future = new FutureTask<T>(new Callable<T>() {
+				public T call() throws Exception {
+					throw e;
+				}
+			});
+			_future.run();
+			return _future;
+		}
+		final ReplicaRouter _router = JDBC.getReplicaRouter(__dsName);
+		// 将提交线程的读主库时间窗口传递给执行线程
+		final boolean _sticky = _router != null && _router.isSticky();
+		return _asyncExecutor.submit(new Callable<T>() {
+			public T call() throws Exception {
+				if (_sticky) {
+					_router.markWrite();
+				}
+				try {
+					return JDBC.openSession(__dsName, executor);
+				} finally {
+					// 执行线程由多个提交线程共享，不保留写操作标记
+					if (_router != null) {
+						_router.clearWrite();
+					}
+				}
+			}
+		});
+	}
+
+}
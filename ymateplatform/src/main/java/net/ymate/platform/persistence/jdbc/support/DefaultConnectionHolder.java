@@ -19,9 +19,12 @@ import java.sql.Connection;
 import java.sql.SQLException;
 
 import net.ymate.platform.persistence.base.ConnectionException;
+import net.ymate.platform.persistence.jdbc.AbstractDataSourceAdapter;
 import net.ymate.platform.persistence.jdbc.IConnectionHolder;
 import net.ymate.platform.persistence.jdbc.IDataSourceAdapter;
+import net.ymate.platform.persistence.jdbc.base.StatementCache;
 import net.ymate.platform.persistence.jdbc.base.dialect.IDialect;
+import net.ymate.platform.persistence.jdbc.metrics.JdbcMetrics;
 
 /**
  * <p>
@@ -52,11 +55,35 @@ public class DefaultConnectionHolder implements IConnectionHolder {
 	protected String dataSourceName;
 	protected Connection connection;
 	protected IDialect dialect;
+	protected StatementCache statementCache;
+
+	/**
+	 * 当前PreparedStatement对象缓存是否由本持有者创建，仅此时在释放连接时关闭缓存
+	 */
+	protected boolean statementCacheOwner;
 
 	public DefaultConnectionHolder(String dataSourceName, IDataSourceAdapter adapter) throws ConnectionException {
 		this.dataSourceName = dataSourceName;
-		this.connection = adapter.getConnection();
-		this.dialect = adapter.getDialect();
+		if (JdbcMetrics.isEnabled()) {
+			long _startTime = System.nanoTime();
+			this.connection = adapter.getConnection();
+			JdbcMetrics.recordConnectionWait(dataSourceName, System.nanoTime() - _startTime);
+		} else {
+			this.connection = adapter.getConnection();
+		}
+		if (adapter instanceof AbstractDataSourceAdapter) {
+			AbstractDataSourceAdapter _adapter = (AbstractDataSourceAdapter) adapter;
+			// 使用已持有的连接识别方言，避免连接池仅剩一个连接时因再次借用而相互等待
+			this.dialect = _adapter.getDialect(this.connection);
+			// 优先使用与物理连接绑定的缓存，使其在非事务的多个会话之间得以复用
+			this.statementCache = _adapter.getConnectionStatementCache(this.connection);
+			if (this.statementCache == null) {
+				this.statementCache = _adapter.createStatementCache();
+				this.statementCacheOwner = this.statementCache != null;
+			}
+		} else {
+			this.dialect = adapter.getDialect();
+		}
 	}
 
 	/* (non-Javadoc)
@@ -78,6 +105,9 @@ public class DefaultConnectionHolder implements IConnectionHolder {
 	 */
 	public void release() {
 		try {
+			if (this.statementCache != null && this.statementCacheOwner) {
+				this.statementCache.close();
+			}
 			if (this.connection != null && !this.connection.isClosed()) {
 				this.connection.close();
 			}
@@ -85,6 +115,7 @@ public class DefaultConnectionHolder implements IConnectionHolder {
 			// ~~~
 		} finally {
 			this.connection = null;
+			this.statementCache = null;
 		}
 	}
 
@@ -95,4 +126,11 @@ public class DefaultConnectionHolder implements IConnectionHolder {
 		return dialect;
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IConnectionHolder#getStatementCache()
+	 */
+	public StatementCache getStatementCache() {
+		return statementCache;
+	}
+
 }
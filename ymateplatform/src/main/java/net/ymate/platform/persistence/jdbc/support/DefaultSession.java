@@ -18,20 +18,30 @@ package net.ymate.platform.persistence.jdbc.support;
 import java.util.Arrays;
 import java.util.List;
 
+import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.commons.util.UUIDUtils;
+import net.ymate.platform.persistence.base.ConnectionException;
 import net.ymate.platform.persistence.base.OperatorException;
 import net.ymate.platform.persistence.jdbc.IConnectionHolder;
+import net.ymate.platform.persistence.jdbc.IRowCallback;
 import net.ymate.platform.persistence.jdbc.ISession;
+import net.ymate.platform.persistence.jdbc.JDBC;
+import net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent;
 import net.ymate.platform.persistence.jdbc.base.SqlBatchParameter;
+import net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.ColumnarResultSet;
 import net.ymate.platform.persistence.jdbc.operator.IQueryOperator;
 import net.ymate.platform.persistence.jdbc.operator.IResultSetHandler;
 import net.ymate.platform.persistence.jdbc.operator.IUpdateBatchOperator;
 import net.ymate.platform.persistence.jdbc.operator.IUpdateOperator;
-import net.ymate.platform.persistence.jdbc.operator.impl.ArrayResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.ResultSetCursor;
+import net.ymate.platform.persistence.jdbc.operator.impl.ColumnarResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.impl.CursorOperator;
 import net.ymate.platform.persistence.jdbc.operator.impl.QueryOperator;
 import net.ymate.platform.persistence.jdbc.operator.impl.UpdateBatchOperator;
 import net.ymate.platform.persistence.jdbc.operator.impl.UpdateOperator;
 import net.ymate.platform.persistence.jdbc.query.PageQuery;
+import net.ymate.platform.persistence.jdbc.route.ReplicaRouter;
 import net.ymate.platform.persistence.jdbc.transaction.Trans;
 import net.ymate.platform.persistence.support.ISessionEvent;
 import net.ymate.platform.persistence.support.PageResultSet;
@@ -67,6 +77,18 @@ public class DefaultSession implements ISession {
 
 	private IConnectionHolder __conn;
 
+	/**
+	 * 开启读写分离时的主数据源名称及路由器，主库连接在首次写操作时获取
+	 */
+	private String __dsName;
+
+	private ReplicaRouter __router;
+
+	/**
+	 * 只读操作使用的连接，为null时使用主库连接
+	 */
+	private IConnectionHolder __readConn;
+
 	private JdbcEntitySupport __entitySupport;
 
 	private ISessionEvent __sessionEvent;
@@ -81,15 +103,77 @@ public class DefaultSession implements ISession {
 	}
 
 	/**
-	 * @return 获取实体操作支持类对象
+	 * 构造器，开启读写分离，只读操作将按路由策略使用从库连接
+	 * 
+	 * @param dsName 主数据源名称
+	 * @param router 读写分离路由器
 	 */
-	private JdbcEntitySupport getEntitySupport() {
+	public DefaultSession(String dsName, ReplicaRouter router) {
+		this.__id = UUIDUtils.uuid();
+		this.__dsName = dsName;
+		this.__router = router;
+	}
+
+	/**
+	 * @return 获取使用主库连接的实体操作支持类对象(用于写操作)
+	 */
+	private JdbcEntitySupport getEntitySupport() throws OperatorException {
+		return __doGetEntitySupport(this.__doGetWriteConnection());
+	}
+
+	/**
+	 * @return 获取用于只读操作的实体操作支持类对象
+	 */
+	private JdbcEntitySupport getReadEntitySupport() throws OperatorException {
+		return __doGetEntitySupport(this.__doGetReadConnection());
+	}
+
+	private JdbcEntitySupport __doGetEntitySupport(IConnectionHolder conn) {
 		if (__entitySupport == null) {
-			__entitySupport = new JdbcEntitySupport(this.getConnection());
+			__entitySupport = new JdbcEntitySupport(conn);
+		} else if (__entitySupport.getConnection() != conn) {
+			__entitySupport.setConnection(conn);
 		}
 		return __entitySupport;
 	}
 
+	/**
+	 * @return 获取主库连接，并标记当前线程执行了写操作
+	 */
+	private IConnectionHolder __doGetWriteConnection() throws OperatorException {
+		try {
+			if (__conn == null) {
+				__conn = JDBC.getConnectionHolder(__dsName);
+			}
+		} catch (ConnectionException e) {
+			throw new OperatorException(RuntimeUtils.unwrapThrow(e));
+		}
+		if (__router != null) {
+			__router.markWrite();
+		}
+		return __conn;
+	}
+
+	/**
+	 * @return 获取只读操作使用的连接，当前会话已持有主库连接(如已执行过写操作)时继续使用主库
+	 */
+	private IConnectionHolder __doGetReadConnection() throws OperatorException {
+		try {
+			if (__router != null && __conn == null) {
+				if (__readConn == null) {
+					__readConn = JDBC.getReadConnectionHolder(__dsName);
+				}
+				if (__readConn != null) {
+					return __readConn;
+				}
+				__conn = JDBC.getConnectionHolder(__dsName);
+			}
+		} catch (ConnectionException e) {
+			throw new OperatorException(RuntimeUtils.unwrapThrow(e));
+		}
+		return __conn;
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#getId()
 	 */
@@ -101,6 +185,13 @@ public class DefaultSession implements ISession {
 	 * @see net.ymate.platform.persistence.jdbc.ISession#getConnection()
 	 */
 	public IConnectionHolder getConnection() {
+		if (__conn == null && __dsName != null) {
+			try {
+				__conn = JDBC.getConnectionHolder(__dsName);
+			} catch (ConnectionException e) {
+				throw RuntimeUtils.wrapRuntimeThrow(e);
+			}
+		}
 		return __conn;
 	}
 
@@ -117,10 +208,13 @@ public class DefaultSession implements ISession {
 	 */
 	public void close() {
 		// 同时需要判断当前连接是否参与事务，若存在事务则不进行关闭操作
-		if (__conn != null) {
-			if (Trans.get() == null) {
+		if (Trans.get() == null) {
+			if (__conn != null) {
 				__conn.release();
 			}
+			if (__readConn != null) {
+				__readConn.release();
+			}
 		}
 	}
 
@@ -164,7 +258,7 @@ public class DefaultSession implements ISession {
 				}
 			}
 		}
-		_opt.execute(this.getConnection());
+		_opt.execute(this.__doGetWriteConnection());
 		return _opt.getEffectCounts();
 	}
 
@@ -187,7 +281,7 @@ public class DefaultSession implements ISession {
 				}
 			}
 		}
-		_opt.execute(this.getConnection());
+		_opt.execute(this.__doGetWriteConnection());
 		return _opt.getBatchEffectCounts();
 	}
 
@@ -195,14 +289,14 @@ public class DefaultSession implements ISession {
 	 * @see net.ymate.platform.persistence.jdbc.ISession#findAll(java.lang.Class, java.lang.String, java.lang.String[], int, int, java.lang.Object[])
 	 */
 	public <T> PageResultSet<T> findAll(Class<T> entity, String cond, String[] fieldFilter, int pageSize, int page, Object[] params) throws OperatorException {
-		return this.getEntitySupport().selectByCondWithPage(entity, cond, params, pageSize, page, fieldFilter);
+		return this.getReadEntitySupport().selectByCondWithPage(entity, cond, params, pageSize, page, fieldFilter);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#findAll(java.lang.Class, java.lang.String, java.lang.String[], int, int, boolean, java.lang.Object[])
 	 */
 	public <T> PageResultSet<T> findAll(Class<T> entity, String cond, String[] fieldFilter, int pageSize, int page, boolean count, Object[] params) throws OperatorException {
-		return this.getEntitySupport().selectByCondWithPage(entity, cond, params, pageSize, page, fieldFilter, count);
+		return this.getReadEntitySupport().selectByCondWithPage(entity, cond, params, pageSize, page, fieldFilter, count);
 	}
 
 	/* (non-Javadoc)
@@ -217,29 +311,95 @@ public class DefaultSession implements ISession {
 				}
 			}
 		}
-		_opt.execute(this.getConnection());
+		_opt.execute(this.__doGetReadConnection());
 		return _opt.getResultSet();
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#stream(java.lang.String, net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler, net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent, java.lang.Object[])
+	 */
+	public <T> ResultSetCursor<T> stream(String sql, AbstractResultSetHandler<T> handler, IAccessorCfgEvent event, Object[] params) throws OperatorException {
+		CursorOperator<T> _opt = new CursorOperator<T>(sql, handler, this.__doGetReadConnection());
+		_opt.setAccessorCfgEvent(event);
+		if (params != null && params.length > 0) {
+			if (sql.indexOf("?") > 0) {
+				for (Object _param : params) {
+					_opt.addParameter(_param);
+				}
+			}
+		}
+		_opt.execute();
+		return _opt.getCursor();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#stream(java.lang.Class, java.lang.String, java.lang.String[], net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent, java.lang.Object[])
+	 */
+	public <T> ResultSetCursor<T> stream(Class<T> entity, String cond, String[] fieldFilter, IAccessorCfgEvent event, Object[] params) throws OperatorException {
+		return this.getReadEntitySupport().streamByCond(entity, cond, params, fieldFilter, event);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#forEach(java.lang.String, net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler, net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent, java.lang.Object[], net.ymate.platform.persistence.jdbc.IRowCallback)
+	 */
+	public <T> int forEach(String sql, AbstractResultSetHandler<T> handler, IAccessorCfgEvent event, Object[] params, IRowCallback<T> callback) throws OperatorException {
+		return __doForEach(this.stream(sql, handler, event, params), callback);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#forEach(java.lang.Class, java.lang.String, java.lang.String[], net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent, java.lang.Object[], net.ymate.platform.persistence.jdbc.IRowCallback)
+	 */
+	public <T> int forEach(Class<T> entity, String cond, String[] fieldFilter, IAccessorCfgEvent event, Object[] params, IRowCallback<T> callback) throws OperatorException {
+		return __doForEach(this.stream(entity, cond, fieldFilter, event, params), callback);
+	}
+
+	private <T> int __doForEach(ResultSetCursor<T> cursor, IRowCallback<T> callback) throws OperatorException {
+		try {
+			T _row;
+			while ((_row = cursor.nextRow()) != null) {
+				if (!callback.handle(_row)) {
+					break;
+				}
+			}
+			return cursor.getRowNumber();
+		} finally {
+			cursor.close();
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#findAll(java.lang.Class)
 	 */
 	public <T> List<T> findAll(Class<T> entity) throws OperatorException {
-		return this.getEntitySupport().selectByCond(entity, null, null);
+		return this.getReadEntitySupport().selectByCond(entity, null, null);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#findAll(java.lang.Class, java.lang.String, java.lang.Object[])
 	 */
 	public <T> List<T> findAll(Class<T> entity, String cond, Object[] params) throws OperatorException {
-		return this.getEntitySupport().selectByCond(entity, cond, params);
+		return this.getReadEntitySupport().selectByCond(entity, cond, params);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#findAll(java.lang.Class, java.lang.Object[])
+	 */
+	public <T> List<T> findAll(Class<T> entity, Object[] ids) throws OperatorException {
+		return this.getReadEntitySupport().selectByIds(entity, ids);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#findAllByIds(java.lang.Class, java.lang.Object[], java.lang.String[])
+	 */
+	public <T> List<T> findAllByIds(Class<T> entity, Object[] ids, String[] fieldFilter) throws OperatorException {
+		return this.getReadEntitySupport().selectByIds(entity, ids, fieldFilter);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#findAll(java.lang.Class, java.lang.String, java.lang.String[], java.lang.Object[])
 	 */
 	public <T> List<T> findAll(Class<T> entity, String cond, String[] fieldFilter, Object[] params) throws OperatorException {
-		return this.getEntitySupport().selectByCond(entity, cond, params, fieldFilter);
+		return this.getReadEntitySupport().selectByCond(entity, cond, params, fieldFilter);
 	}
 
 	/* (non-Javadoc)
@@ -254,7 +414,7 @@ public class DefaultSession implements ISession {
 				}
 			}
 		}
-		return _opt.execute(this.getConnection());
+		return _opt.execute(this.__doGetReadConnection());
 	}
 
 	/* (non-Javadoc)
@@ -270,7 +430,7 @@ public class DefaultSession implements ISession {
 				}
 			}
 		}
-		return _opt.execute(this.getConnection());
+		return _opt.execute(this.__doGetReadConnection());
 	}
 
 	/* (non-Javadoc)
@@ -287,7 +447,7 @@ public class DefaultSession implements ISession {
 				}
 			}
 		}
-		PageResultSet<T> _results = _opt.execute(this.getConnection());
+		PageResultSet<T> _results = _opt.execute(this.__doGetReadConnection());
 		return _results.getResultSet().isEmpty() ? null : _results.getResultSet().get(0);
 	}
 
@@ -295,7 +455,7 @@ public class DefaultSession implements ISession {
 	 * @see net.ymate.platform.persistence.jdbc.ISession#findFirst(java.lang.Class, java.lang.String, java.lang.String[], java.lang.Object[])
 	 */
 	public <T> T findFirst(Class<T> entity, String cond, String[] fieldFilter, Object[] params) throws OperatorException {
-		PageResultSet<T> _results = this.getEntitySupport().selectByCondWithPage(entity, cond, params, 1, 1, fieldFilter, false);
+		PageResultSet<T> _results = this.getReadEntitySupport().selectByCondWithPage(entity, cond, params, 1, 1, fieldFilter, false);
 		return _results.getResultSet().isEmpty() ? null : _results.getResultSet().get(0);
 	}
 
@@ -303,14 +463,14 @@ public class DefaultSession implements ISession {
 	 * @see net.ymate.platform.persistence.jdbc.ISession#find(java.lang.Class, java.lang.Object)
 	 */
 	public <T> T find(Class<T> entity, Object id) throws OperatorException {
-		return this.getEntitySupport().selectById(entity, id);
+		return this.getReadEntitySupport().selectById(entity, id);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#find(java.lang.Class, java.lang.Object, java.lang.String[])
 	 */
 	public <T> T find(Class<T> entity, Object id, String[] fieldFilter) throws OperatorException {
-		return this.getEntitySupport().selectById(entity, id, fieldFilter);
+		return this.getReadEntitySupport().selectById(entity, id, fieldFilter);
 	}
 
 	/* (non-Javadoc)
@@ -327,6 +487,20 @@ public class DefaultSession implements ISession {
 		return this.getEntitySupport().insertBatch(entities, __sessionEvent);
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#upsert(java.lang.Object)
+	 */
+	public <T> T upsert(T entity) throws OperatorException {
+		return this.getEntitySupport().upsert(entity);
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.ISession#upsertAll(java.util.List)
+	 */
+	public <T> List<T> upsertAll(List<T> entities) throws OperatorException {
+		return this.getEntitySupport().upsertBatch(entities);
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#update(java.lang.Object)
 	 */
@@ -367,15 +541,15 @@ public class DefaultSession implements ISession {
      * @see net.ymate.platform.persistence.jdbc.ISession#getAmount(java.lang.Class, java.lang.String, java.lang.Object[])
      */
 	public <T> long getAmount(Class<T> entityClass, String whereStr, Object[] params) throws OperatorException {
-		return this.getEntitySupport().getAmount(entityClass, whereStr, params);
+		return this.getReadEntitySupport().getAmount(entityClass, whereStr, params);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.ISession#getAmount(java.lang.String, java.lang.Object[])
 	 */
 	public long getAmount(String sql, Object[] params) throws OperatorException {
-		IQueryOperator<Object[]> _query = new QueryOperator<Object[]>(new ArrayResultSetHandler());
-		_query.setConnection(this.getConnection());
+		IQueryOperator<ColumnarResultSet> _query = new QueryOperator<ColumnarResultSet>(new ColumnarResultSetHandler());
+		_query.setConnection(this.__doGetReadConnection());
 		if (params != null && params.length > 0) {
 			if (sql.indexOf("?") > 0) {
 				for (Object _param : params) {
@@ -385,7 +559,7 @@ public class DefaultSession implements ISession {
 		}
 		_query.setSql("select count(1) from (" + sql + ") c_t");
 		_query.execute();
-		return ResultSetHelper.bind(_query.getResultSet()).getAsLong(0);
+		return _query.getResultSet().get(0).getLong(0, 0);
 	}
 
 }
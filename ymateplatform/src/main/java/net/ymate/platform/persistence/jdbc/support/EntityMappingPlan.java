@@ -0,0 +1,316 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.ymate.platform.base.YMP;
+import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.commons.lang.ITypeConverter;
+import net.ymate.platform.commons.lang.TypeConverters;
+import net.ymate.platform.commons.util.ClassUtils;
+import net.ymate.platform.commons.util.RuntimeUtils;
+import net.ymate.platform.persistence.base.OperatorException;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.esotericsoftware.reflectasm.ConstructorAccess;
+import com.esotericsoftware.reflectasm.MethodAccess;
+
+/**
+ * <p>
+ * EntityMappingPlan
+ * </p>
+ * <p>
+ * 结果集到实体对象的映射计划，按实体及结果集字段组合预先编译，将字段索引直接绑定到属性的设置方法及类型转换器，逐行映射时不再创建包裹器及Map对象；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月13日下午4:18:07</td>
+ *          </tr>
+ *          </table>
+ */
+public class EntityMappingPlan<T> {
+
+	private static final int __READ_OBJECT = 0, __READ_STRING = 1, __READ_INT = 2, __READ_LONG = 3, __READ_DOUBLE = 4, __READ_FLOAT = 5, __READ_SHORT = 6, __READ_BYTE = 7;
+
+	private final Class<T> __entityClass;
+
+	private final ConstructorAccess<T> __entityConstructor;
+
+	private final MethodAccess __entityAccess;
+
+	/**
+	 * 联合主键对象类型及其访问器，非联合主键时为空
+	 */
+	private final Class<?> __pkClass;
+
+	private final MethodAccess __pkAccess;
+
+	private final int __idSetterIndex;
+
+	private final ColumnMapping[] __mappings;
+
+	/**
+	 * 构造器
+	 *
+	 * @param entityClass 实体类对象
+	 * @param meta 实体模型元数据描述
+	 * @param columnLabels 结果集字段名称集合
+	 * @param columnTypes 结果集字段类型集合
+	 */
+	@SuppressWarnings("unchecked")
+	public EntityMappingPlan(Class<T> entityClass, JdbcEntityMeta meta, String[] columnLabels, int[] columnTypes) {
+		this.__entityClass = entityClass;
+		ConstructorAccess<T> _constructor = null;
+		try {
+			_constructor = ConstructorAccess.get(entityClass);
+		} catch (RuntimeException e) {
+			// 无法生成构造访问器时采用反射方式创建实例
+		}
+		this.__entityConstructor = _constructor;
+		this.__entityAccess = MethodAccess.get(entityClass);
+		Map<String, Field> _entityFields = __doGetFields(entityClass);
+		//
+		Map<String, Field> _pkFields = null;
+		if (meta.isCompositeKey()) {
+			this.__pkClass = meta.getPrimaryKeyClass();
+			this.__pkAccess = MethodAccess.get(this.__pkClass);
+			this.__idSetterIndex = __doGetSetterIndex(this.__entityAccess, "setId", this.__pkClass);
+			_pkFields = __doGetFields(this.__pkClass);
+		} else {
+			this.__pkClass = null;
+			this.__pkAccess = null;
+			this.__idSetterIndex = -1;
+		}
+		// 忽略大小写匹配结果集字段与实体字段
+		Map<String, String> _columnNames = new HashMap<String, String>();
+		for (String _columnName : meta.getColumnNames()) {
+			_columnNames.put(_columnName.toLowerCase(), _columnName);
+		}
+		List<ColumnMapping> _mappings = new ArrayList<ColumnMapping>(columnLabels.length);
+		for (int i = 0; i < columnLabels.length; i++) {
+			String _columnName = _columnNames.get(columnLabels[i].trim().toLowerCase());
+			if (_columnName == null) {
+				continue;
+			}
+			String _classAttr = meta.getClassAttributeMap().get(_columnName);
+			boolean _isPk = meta.isCompositeKey() && meta.isPrimaryKey(_columnName);
+			Field _field = (_isPk ? _pkFields : _entityFields).get(StringUtils.uncapitalize(_classAttr));
+			if (_field == null) {
+				continue;
+			}
+			int _setterIndex = __doGetSetterIndex(_isPk ? this.__pkAccess : this.__entityAccess, "set" + StringUtils.capitalize(_classAttr), _field.getType());
+			_mappings.add(new ColumnMapping(i + 1, _isPk, _setterIndex, _field.getType(), __doGetReadKind(_field.getType(), columnTypes[i])));
+		}
+		this.__mappings = _mappings.toArray(new ColumnMapping[_mappings.size()]);
+	}
+
+	private static Map<String, Field> __doGetFields(Class<?> clazz) {
+		Map<String, Field> _fields = new HashMap<String, Field>();
+		for (Field _field : ClassUtils.getFields(clazz, true)) {
+			if (!Modifier.isStatic(_field.getModifiers())) {
+				_fields.put(_field.getName(), _field);
+			}
+		}
+		return _fields;
+	}
+
+	private static int __doGetSetterIndex(MethodAccess access, String methodName, Class<?> paramType) {
+		try {
+			return access.getIndex(methodName, paramType);
+		} catch (IllegalArgumentException e) {
+			return access.getIndex(methodName);
+		}
+	}
+
+	/**
+	 * @param fieldType 实体属性类型
+	 * @param sqlType 结果集字段类型
+	 * @return 返回读取方式，仅当字段类型与属性类型均为数值或字符串时直接按类型读取，否则读取对象并转换
+	 */
+	private static int __doGetReadKind(Class<?> fieldType, int sqlType) {
+		switch (sqlType) {
+			case Types.CHAR:
+			case Types.VARCHAR:
+			case Types.LONGVARCHAR:
+				return String.class.equals(fieldType) ? __READ_STRING : __READ_OBJECT;
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+			case Types.BIGINT:
+			case Types.REAL:
+			case Types.FLOAT:
+			case Types.DOUBLE:
+			case Types.NUMERIC:
+			case Types.DECIMAL:
+				if (int.class.equals(fieldType) || Integer.class.equals(fieldType)) {
+					return __READ_INT;
+				} else if (long.class.equals(fieldType) || Long.class.equals(fieldType)) {
+					return __READ_LONG;
+				} else if (double.class.equals(fieldType) || Double.class.equals(fieldType)) {
+					return __READ_DOUBLE;
+				} else if (float.class.equals(fieldType) || Float.class.equals(fieldType)) {
+					return __READ_FLOAT;
+				} else if (short.class.equals(fieldType) || Short.class.equals(fieldType)) {
+					return __READ_SHORT;
+				} else if (byte.class.equals(fieldType) || Byte.class.equals(fieldType)) {
+					return __READ_BYTE;
+				}
+				return __READ_OBJECT;
+			default:
+				return __READ_OBJECT;
+		}
+	}
+
+	/**
+	 * 将结果集当前行数据映射到新的实体对象
+	 *
+	 * @param rs 数据结果集对象，仅读取当前行字段数据
+	 * @return 返回实体对象
+	 * @throws OperatorException
+	 * @throws SQLException
+	 */
+	public T map(ResultSet rs) throws OperatorException, SQLException {
+		T _entity = __doNewInstance(__entityClass, __entityConstructor);
+		Object _pk = null;
+		for (ColumnMapping _mapping : __mappings) {
+			Object _value = _mapping.read(rs);
+			if (_value == null) {
+				continue;
+			}
+			if (_mapping.isPk) {
+				if (_pk == null) {
+					_pk = __doNewInstance(__pkClass, null);
+					__entityAccess.invoke(_entity, __idSetterIndex, _pk);
+				}
+				__pkAccess.invoke(_pk, _mapping.setterIndex, _value);
+			} else {
+				__entityAccess.invoke(_entity, _mapping.setterIndex, _value);
+			}
+		}
+		return _entity;
+	}
+
+	private <E> E __doNewInstance(Class<E> clazz, ConstructorAccess<E> constructor) throws OperatorException {
+		try {
+			return constructor != null ? constructor.newInstance() : clazz.newInstance();
+		} catch (Exception e) {
+			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, clazz == __entityClass ? "ymp.jdbc.entity_init_exception" : "ymp.jdbc.pk_init_exception", clazz.getName()), RuntimeUtils.unwrapThrow(e));
+		}
+	}
+
+	/**
+	 * 结果集字段与实体属性的绑定关系
+	 */
+	private static class ColumnMapping {
+
+		final int columnIndex;
+
+		final boolean isPk;
+
+		final int setterIndex;
+
+		final Class<?> fieldType;
+
+		final int readKind;
+
+		/**
+		 * 最近一次使用的转换器，绝大多数情况下同一字段的值类型保持不变
+		 */
+		volatile ConverterHolder converter;
+
+		ColumnMapping(int columnIndex, boolean isPk, int setterIndex, Class<?> fieldType, int readKind) {
+			this.columnIndex = columnIndex;
+			this.isPk = isPk;
+			this.setterIndex = setterIndex;
+			this.fieldType = fieldType;
+			this.readKind = readKind;
+		}
+
+		Object read(ResultSet rs) throws SQLException {
+			Object _value;
+			switch (readKind) {
+				case __READ_STRING:
+					return rs.getString(columnIndex);
+				case __READ_INT:
+					_value = Integer.valueOf(rs.getInt(columnIndex));
+					break;
+				case __READ_LONG:
+					_value = Long.valueOf(rs.getLong(columnIndex));
+					break;
+				case __READ_DOUBLE:
+					_value = Double.valueOf(rs.getDouble(columnIndex));
+					break;
+				case __READ_FLOAT:
+					_value = Float.valueOf(rs.getFloat(columnIndex));
+					break;
+				case __READ_SHORT:
+					_value = Short.valueOf(rs.getShort(columnIndex));
+					break;
+				case __READ_BYTE:
+					_value = Byte.valueOf(rs.getByte(columnIndex));
+					break;
+				default:
+					_value = rs.getObject(columnIndex);
+					if (_value == null) {
+						return null;
+					}
+					ConverterHolder _holder = this.converter;
+					if (_holder == null || _holder.sourceClass != _value.getClass()) {
+						_holder = new ConverterHolder(_value.getClass(), TypeConverters.get(_value.getClass(), fieldType));
+						this.converter = _holder;
+					}
+					return _holder.converter.convert(_value);
+			}
+			return rs.wasNull() ? null : _value;
+		}
+
+	}
+
+	private static class ConverterHolder {
+
+		final Class<?> sourceClass;
+
+		final ITypeConverter converter;
+
+		ConverterHolder(Class<?> sourceClass, ITypeConverter converter) {
+			this.sourceClass = sourceClass;
+			this.converter = converter;
+		}
+
+	}
+
+}
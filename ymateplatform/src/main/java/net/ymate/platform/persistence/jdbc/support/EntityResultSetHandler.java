@@ -0,0 +1,78 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import net.ymate.platform.persistence.base.OperatorException;
+import net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler;
+
+/**
+ * <p>
+ * EntityResultSetHandler
+ * </p>
+ * <p>
+ * 采用实体映射计划将结果集直接转换为实体对象的结果集数据处理接口实现类；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月13日下午4:31:42</td>
+ *          </tr>
+ *          </table>
+ */
+public class EntityResultSetHandler<T> extends AbstractResultSetHandler<T> {
+
+	private final Class<T> __entityClass;
+
+	private final JdbcEntityMeta __meta;
+
+	private EntityMappingPlan<T> __plan;
+
+	/**
+	 * 构造器
+	 *
+	 * @param entityClass 实体类对象
+	 * @param meta 实体模型元数据描述
+	 */
+	public EntityResultSetHandler(Class<T> entityClass, JdbcEntityMeta meta) {
+		this.__entityClass = entityClass;
+		this.__meta = meta;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler#processRowData(java.sql.ResultSet, java.util.List)
+	 */
+	public void processRowData(ResultSet rs, List<T> result) throws OperatorException, SQLException {
+		if (this.__plan == null) {
+			this.__plan = this.__meta.getMappingPlan(this.__entityClass, getColumnNames(), getColumnTypes());
+		}
+		result.add(this.__plan.map(rs));
+	}
+
+}
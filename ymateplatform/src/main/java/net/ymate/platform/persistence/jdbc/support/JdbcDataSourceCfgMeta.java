@@ -15,6 +15,7 @@
  */
 package net.ymate.platform.persistence.jdbc.support;
 
+import java.util.Collections;
 import java.util.Map;
 
 import net.ymate.platform.persistence.jdbc.JDBC;
@@ -50,8 +51,34 @@ public class JdbcDataSourceCfgMeta extends DataSourceCfgMeta {
 
 	private String driverClass;
 
+	/**
+	 * 每个连接缓存的PreparedStatement对象数量，小于等于0表示不开启
+	 */
+	private int statementCacheSize;
+
+	/**
+	 * 读写分离的从库数据源列表，格式为"从库名称[:权重]|..."，为空表示不开启
+	 */
+	private String replicas;
+
+	/**
+	 * 读写分离路由参数
+	 */
+	private Map<String, String> routingParams;
+
 	public JdbcDataSourceCfgMeta(String name, String adapterClass, String driverClass, String connectionUrl, String userName, String password, Map<String, String> params) {
+		this(name, adapterClass, driverClass, connectionUrl, userName, password, 0, params);
+	}
+
+	public JdbcDataSourceCfgMeta(String name, String adapterClass, String driverClass, String connectionUrl, String userName, String password, int statementCacheSize, Map<String, String> params) {
+		this(name, adapterClass, driverClass, connectionUrl, userName, password, statementCacheSize, params, null, null);
+	}
+
+	public JdbcDataSourceCfgMeta(String name, String adapterClass, String driverClass, String connectionUrl, String userName, String password, int statementCacheSize, Map<String, String> params, String replicas, Map<String, String> routingParams) {
 		super(name, connectionUrl, userName, password, params);
+		this.statementCacheSize = statementCacheSize;
+		this.replicas = replicas;
+		this.routingParams = routingParams != null ? routingParams : Collections.<String, String>emptyMap();
 		this.adapterClass = adapterClass;
         //
 		this.driverClass = JDBC.getDriverClassName(driverClass.toLowerCase());
@@ -74,4 +101,25 @@ public class JdbcDataSourceCfgMeta extends DataSourceCfgMeta {
 		return driverClass;
 	}
 
+	/**
+	 * @return the statementCacheSize
+	 */
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * @return the replicas
+	 */
+	public String getReplicas() {
+		return replicas;
+	}
+
+	/**
+	 * @return the routingParams
+	 */
+	public Map<String, String> getRoutingParams() {
+		return routingParams;
+	}
+
 }
@@ -22,7 +22,11 @@ import org.apache.commons.lang.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -50,6 +54,38 @@ import java.util.List;
  */
 public class JdbcEntityMeta extends EntityMeta {
 
+	private static final int __SQL_SELECT_BY_PK = 1, __SQL_SELECT_ALL = 2, __SQL_INSERT = 3, __SQL_UPDATE_BY_PK = 4, __SQL_DELETE_BY_PK = 5, __SQL_UPSERT = 6;
+
+	/**
+	 * 已生成的SQL语句缓存，键值由SQL类型、数据库方言类型及字段过滤条件构成
+	 */
+	private final Map<SqlCacheKey, String> __sqlCache = new ConcurrentHashMap<SqlCacheKey, String>();
+
+	/**
+	 * 结果集到实体对象的映射计划缓存，键值为结果集字段名称集合
+	 */
+	private final Map<List<String>, EntityMappingPlan<?>> __mappingPlans = new ConcurrentHashMap<List<String>, EntityMappingPlan<?>>();
+
+	/**
+	 * 主键字段集合，用于替代在字段循环中对主键列表的逐个查找
+	 */
+	private Set<String> __primaryKeySet;
+
+	/**
+	 * 插入记录时需要绑定参数的字段(即非自动生成的字段)
+	 */
+	private String[] __insertParamColumnNames;
+
+	/**
+	 * 插入记录时SQL语句中包含的字段(剔除了未指定序列的自动生成字段)
+	 */
+	private String[] __insertColumnNames;
+
+	/**
+	 * 根据主键更新记录时需要更新的字段(即非主键字段)
+	 */
+	private String[] __updateColumnNames;
+
 	/**
 	 * 构造器
 	 *
@@ -57,6 +93,7 @@ public class JdbcEntityMeta extends EntityMeta {
 	 */
 	public JdbcEntityMeta(Class<?> entityClass) {
 		super(entityClass, JDBC.TABLE_PREFIX);
+		__doInitColumnIndexes();
 	}
 
 	/**
@@ -66,6 +103,85 @@ public class JdbcEntityMeta extends EntityMeta {
 	 */
 	public JdbcEntityMeta(Class<?> entityClass, boolean simple) {
 		super(entityClass, JDBC.TABLE_PREFIX, simple);
+		__doInitColumnIndexes();
+	}
+
+	private void __doInitColumnIndexes() {
+		__primaryKeySet = new HashSet<String>(this.getPrimaryKeys());
+		List<String> _insertParamColumns = new ArrayList<String>();
+		List<String> _insertColumns = new ArrayList<String>();
+		List<String> _updateColumns = new ArrayList<String>();
+		for (String _columnName : this.getColumnNames()) {
+			if (this.isAutoIncrementColumn(_columnName)) {
+				// 剔除自动生成的主键字段, 如果指定的序列需要将序列添加到字段集合中
+				if (StringUtils.isNotBlank(this.getColumnMap().get(_columnName).getSequenceName())) {
+					_insertColumns.add(_columnName);
+				}
+			} else {
+				_insertParamColumns.add(_columnName);
+				_insertColumns.add(_columnName);
+			}
+			if (!__primaryKeySet.contains(_columnName)) {
+				_updateColumns.add(_columnName);
+			}
+		}
+		__insertParamColumnNames = _insertParamColumns.toArray(new String[_insertParamColumns.size()]);
+		__insertColumnNames = _insertColumns.toArray(new String[_insertColumns.size()]);
+		__updateColumnNames = _updateColumns.toArray(new String[_updateColumns.size()]);
+	}
+
+	/**
+	 * @param columnName 字段名称
+	 * @return 判断字段是否为主键字段
+	 */
+	public boolean isPrimaryKey(String columnName) {
+		return __primaryKeySet.contains(columnName);
+	}
+
+	/**
+	 * @return 返回插入记录时需要绑定参数的字段名称集合(不包含自动生成的字段)，与createInsertSql(dialect)生成的参数顺序一致
+	 */
+	public String[] getInsertParamColumnNames() {
+		return __insertParamColumnNames;
+	}
+
+	/**
+	 * @return 返回根据主键更新记录时需要更新的字段名称集合(不包含主键字段)
+	 */
+	public String[] getUpdateColumnNames() {
+		return __updateColumnNames;
+	}
+
+	/**
+	 * @param entityClass 实体类对象
+	 * @param columnLabels 结果集字段名称集合
+	 * @param columnTypes 结果集字段类型集合
+	 * @return 获取与结果集字段组合对应的实体映射计划，若缓存中不存在则创建它
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> EntityMappingPlan<T> getMappingPlan(Class<T> entityClass, String[] columnLabels, int[] columnTypes) {
+		List<String> _key = Arrays.asList(columnLabels);
+		EntityMappingPlan<T> _plan = (EntityMappingPlan<T>) __mappingPlans.get(_key);
+		if (_plan == null) {
+			_plan = new EntityMappingPlan<T>(entityClass, this, columnLabels, columnTypes);
+			__mappingPlans.put(_key, _plan);
+		}
+		return _plan;
+	}
+
+	/**
+	 * 从缓存中获取SQL语句
+	 */
+	private String __getCachedSql(int type, IDialect dialect, String[] fieldFilter, String[] pkFieldFilter) {
+		return __sqlCache.get(new SqlCacheKey(type, dialect.getClass(), fieldFilter, pkFieldFilter));
+	}
+
+	/**
+	 * 将生成的SQL语句放入缓存
+	 */
+	private String __putCachedSql(int type, IDialect dialect, String[] fieldFilter, String[] pkFieldFilter, String sql) {
+		__sqlCache.put(new SqlCacheKey(type, dialect.getClass(), fieldFilter, pkFieldFilter), sql);
+		return sql;
 	}
 
 	/**
@@ -77,6 +193,14 @@ public class JdbcEntityMeta extends EntityMeta {
 	}
 
 	public String createSelectByPkSql(IDialect dialect, String[] fieldFilter, String[] pkFieldFilter) {
+		String _sql = __getCachedSql(__SQL_SELECT_BY_PK, dialect, fieldFilter, pkFieldFilter);
+		if (_sql == null) {
+			_sql = __putCachedSql(__SQL_SELECT_BY_PK, dialect, fieldFilter, pkFieldFilter, __doCreateSelectByPkSql(dialect, fieldFilter, pkFieldFilter));
+		}
+		return _sql;
+	}
+
+	private String __doCreateSelectByPkSql(IDialect dialect, String[] fieldFilter, String[] pkFieldFilter) {
 		String _sql = "select #FIELDS from #TABLENAME where #PK";
 		_sql = _sql.replaceAll("#FIELDS", __doGenerateFieldsFormatStr(dialect, fieldFilter != null && fieldFilter.length > 0 ? Arrays.asList(fieldFilter) : this.getColumnNames()));
 		if (dialect.getDialectName().equals("Oracle")) {
@@ -88,6 +212,44 @@ public class JdbcEntityMeta extends EntityMeta {
 		return _sql;
 	}
 
+	/**
+	 * @param dialect 数据库方言
+	 * @param fieldFilter 字段过滤集合
+	 * @param count 主键值个数
+	 * @return 构建根据多个主键值批量检索的SQL，单一主键使用 in 条件，复合主键依据方言能力使用行值 in 条件或展开为 or 条件，
+	 *         参数顺序为逐个主键值按getPrimaryKeys()排列
+	 */
+	public String createSelectByPksSql(IDialect dialect, String[] fieldFilter, int count) {
+		List<String> _pks = this.getPrimaryKeys();
+		StringBuilder _sqlSB = new StringBuilder(createSelectAllSql(dialect, fieldFilter)).append("where ");
+		if (_pks.size() == 1) {
+			_sqlSB.append(dialect.wapperQuotedIdent(_pks.get(0))).append(" in (");
+			for (int _idx = 0; _idx < count; _idx++) {
+				_sqlSB.append(_idx > 0 ? ",?" : "?");
+			}
+			_sqlSB.append(")");
+		} else if (dialect.isRowValueInSupported()) {
+			StringBuilder _valueSB = new StringBuilder("(");
+			_sqlSB.append("(");
+			for (int _idx = 0; _idx < _pks.size(); _idx++) {
+				_sqlSB.append(_idx > 0 ? "," : "").append(dialect.wapperQuotedIdent(_pks.get(_idx)));
+				_valueSB.append(_idx > 0 ? ",?" : "?");
+			}
+			_valueSB.append(")");
+			_sqlSB.append(") in (");
+			for (int _idx = 0; _idx < count; _idx++) {
+				_sqlSB.append(_idx > 0 ? "," : "").append(_valueSB);
+			}
+			_sqlSB.append(")");
+		} else {
+			String _pkStr = "(" + __doGeneratePrimaryKeyFormatStr(dialect, _pks) + ")";
+			for (int _idx = 0; _idx < count; _idx++) {
+				_sqlSB.append(_idx > 0 ? " or " : "").append(_pkStr);
+			}
+		}
+		return _sqlSB.toString();
+	}
+
 	/**
 	 * @return 构建检索数据库全部记录的SQL
 	 */
@@ -96,6 +258,14 @@ public class JdbcEntityMeta extends EntityMeta {
 	}
 
 	public String createSelectAllSql(IDialect dialect, String[] fieldFilter) {
+		String _sql = __getCachedSql(__SQL_SELECT_ALL, dialect, fieldFilter, null);
+		if (_sql == null) {
+			_sql = __putCachedSql(__SQL_SELECT_ALL, dialect, fieldFilter, null, __doCreateSelectAllSql(dialect, fieldFilter));
+		}
+		return _sql;
+	}
+
+	private String __doCreateSelectAllSql(IDialect dialect, String[] fieldFilter) {
 		String _sql = "select #FIELDS from #TABLENAME ";
 		_sql = _sql.replaceAll("#FIELDS", __doGenerateFieldsFormatStr(dialect, fieldFilter != null && fieldFilter.length > 0 ? Arrays.asList(fieldFilter) : this.getColumnNames()));
 		if (dialect.getDialectName().equals("Oracle")) {
@@ -112,23 +282,60 @@ public class JdbcEntityMeta extends EntityMeta {
 	public String createInsertSql(IDialect dialect) {
 		if (this.hasAutoIncrementColumn()) {
 			// 剔除自动生成的主键字段
-			List<String> _fieldFilter = new ArrayList<String>();
-			for (String _columnName : this.getColumnNames()) {
-				// 剔除自动生成的主键字段, 如果指定的序列需要将序列添加到字段集合中
-                if (this.isAutoIncrementColumn(_columnName)) {
-                    String _seqName = this.getColumnMap().get(_columnName).getSequenceName();
-                    if (StringUtils.isBlank(_seqName)) {
-                        continue;
-                    }
-                }
-                _fieldFilter.add(_columnName);
-			}
-			return createInsertSql(dialect, _fieldFilter.toArray(new String[_fieldFilter.size()]));
+			return createInsertSql(dialect, __insertColumnNames);
 		}
 		return createInsertSql(dialect, null);
 	}
 
 	public String createInsertSql(IDialect dialect, String[] fieldFilter) {
+		String _sql = __getCachedSql(__SQL_INSERT, dialect, fieldFilter, null);
+		if (_sql == null) {
+			_sql = __putCachedSql(__SQL_INSERT, dialect, fieldFilter, null, __doCreateInsertSql(dialect, fieldFilter));
+		}
+		return _sql;
+	}
+
+	/**
+	 * @param dialect 数据库方言
+	 * @param rows 合并插入的记录行数
+	 * @return 构建多行记录插入的SQL(insert into ... values (...),(...))，参数顺序为逐行按getInsertParamColumnNames()排列
+	 */
+	public String createMultiRowInsertSql(IDialect dialect, int rows) {
+		String _sql = createInsertSql(dialect);
+		if (rows <= 1) {
+			return _sql;
+		}
+		String _values = _sql.substring(_sql.lastIndexOf(" values ") + 8);
+		StringBuilder _returnValue = new StringBuilder(_sql.length() + (_values.length() + 1) * (rows - 1));
+		_returnValue.append(_sql);
+		for (int _idx = 1; _idx < rows; _idx++) {
+			_returnValue.append(",").append(_values);
+		}
+		return _returnValue.toString();
+	}
+
+	/**
+	 * @param dialect 数据库方言
+	 * @param rows 合并提交的记录行数，大于1时需方言支持多行插入
+	 * @return 构建插入或更新(upsert)记录的SQL，以主键判断记录是否存在，已存在时更新全部非主键字段，参数顺序为逐行按getColumnNames()排列
+	 */
+	public String createUpsertSql(IDialect dialect, int rows) {
+		if (rows > 1) {
+			return __doCreateUpsertSql(dialect, rows);
+		}
+		String _sql = __getCachedSql(__SQL_UPSERT, dialect, null, null);
+		if (_sql == null) {
+			_sql = __putCachedSql(__SQL_UPSERT, dialect, null, null, __doCreateUpsertSql(dialect, 1));
+		}
+		return _sql;
+	}
+
+	private String __doCreateUpsertSql(IDialect dialect, int rows) {
+		List<String> _pks = this.getPrimaryKeys();
+		return dialect.getUpsertSql(this.getTableName(), this.getColumnNames().toArray(new String[this.getColumnNames().size()]), _pks.toArray(new String[_pks.size()]), __updateColumnNames, rows);
+	}
+
+	private String __doCreateInsertSql(IDialect dialect, String[] fieldFilter) {
 		String sql = "insert into #TABLENAME (#FIELDS) values (#VALUES)";
 		if (dialect.getDialectName().equals("Oracle")) {
 			sql = sql.replaceAll("#TABLENAME", this.getTableName());
@@ -148,6 +355,14 @@ public class JdbcEntityMeta extends EntityMeta {
 	}
 
 	public String createUpdateByPkSql(IDialect dialect, String[] fieldFilter, String[] pkFieldFilter) {
+		String _sql = __getCachedSql(__SQL_UPDATE_BY_PK, dialect, fieldFilter, pkFieldFilter);
+		if (_sql == null) {
+			_sql = __putCachedSql(__SQL_UPDATE_BY_PK, dialect, fieldFilter, pkFieldFilter, __doCreateUpdateByPkSql(dialect, fieldFilter, pkFieldFilter));
+		}
+		return _sql;
+	}
+
+	private String __doCreateUpdateByPkSql(IDialect dialect, String[] fieldFilter, String[] pkFieldFilter) {
 		String _sql = "update #TABLENAME set #FIELDS where #PK";
 		_sql = _sql.replaceAll("#FIELDS", __doGenerateFieldsValueUpdateFormatStr(dialect, fieldFilter != null && fieldFilter.length > 0 ? Arrays.asList(fieldFilter) : this.getColumnNames()));
 		if (dialect.getDialectName().equals("Oracle")) {
@@ -167,6 +382,14 @@ public class JdbcEntityMeta extends EntityMeta {
 	}
 
 	public String createDeleteByPkSql(IDialect dialect, String[] pkFieldFilter) {
+		String _sql = __getCachedSql(__SQL_DELETE_BY_PK, dialect, null, pkFieldFilter);
+		if (_sql == null) {
+			_sql = __putCachedSql(__SQL_DELETE_BY_PK, dialect, null, pkFieldFilter, __doCreateDeleteByPkSql(dialect, pkFieldFilter));
+		}
+		return _sql;
+	}
+
+	private String __doCreateDeleteByPkSql(IDialect dialect, String[] pkFieldFilter) {
 		String sql = "delete from #TABLENAME where #PK";
 		if (dialect.getDialectName().equals("Oracle")) {
 			sql = sql.replaceAll("#TABLENAME", this.getTableName());
@@ -219,7 +442,7 @@ public class JdbcEntityMeta extends EntityMeta {
 	private String __doGenerateFieldsValueUpdateFormatStr(IDialect dialect, List<String> fields) {
 		StringBuilder _returnValue = new StringBuilder();
 		for (String _field : fields) {
-			if (this.getPrimaryKeys().contains(_field)) {
+			if (this.isPrimaryKey(_field)) {
 				continue;
 			}
 			_returnValue.append(dialect.wapperQuotedIdent(_field)).append("=?");
@@ -250,4 +473,44 @@ public class JdbcEntityMeta extends EntityMeta {
 		return null;
 	}
 
+	/**
+	 * SQL语句缓存键，空的字段过滤条件与null等同
+	 */
+	private static final class SqlCacheKey {
+
+		private final int type;
+		private final Class<?> dialectClass;
+		private final String[] fieldFilter;
+		private final String[] pkFieldFilter;
+		private final int hash;
+
+		SqlCacheKey(int type, Class<?> dialectClass, String[] fieldFilter, String[] pkFieldFilter) {
+			this.type = type;
+			this.dialectClass = dialectClass;
+			// 复制调用方传入的数组，避免其在放入缓存后被修改而破坏键值的一致性
+			this.fieldFilter = fieldFilter != null && fieldFilter.length > 0 ? fieldFilter.clone() : null;
+			this.pkFieldFilter = pkFieldFilter != null && pkFieldFilter.length > 0 ? pkFieldFilter.clone() : null;
+			this.hash = ((type * 31 + dialectClass.hashCode()) * 31 + Arrays.hashCode(this.fieldFilter)) * 31 + Arrays.hashCode(this.pkFieldFilter);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SqlCacheKey)) {
+				return false;
+			}
+			SqlCacheKey _other = (SqlCacheKey) obj;
+			return type == _other.type && hash == _other.hash && dialectClass == _other.dialectClass
+					&& Arrays.equals(fieldFilter, _other.fieldFilter) && Arrays.equals(pkFieldFilter, _other.pkFieldFilter);
+		}
+
+	}
+
 }
@@ -17,26 +17,33 @@ package net.ymate.platform.persistence.jdbc.support;
 
 import net.ymate.platform.base.YMP;
 import net.ymate.platform.commons.i18n.I18N;
-import net.ymate.platform.commons.lang.BlurObject;
+import net.ymate.platform.commons.lang.TypeConverters;
 import net.ymate.platform.commons.util.ClassUtils;
 import net.ymate.platform.commons.util.ClassUtils.ClassBeanWrapper;
 import net.ymate.platform.persistence.base.OperatorException;
 import net.ymate.platform.persistence.jdbc.IConnectionHolder;
+import net.ymate.platform.persistence.jdbc.JDBC;
 import net.ymate.platform.persistence.jdbc.base.AbstractAccessorCfgEvent;
 import net.ymate.platform.persistence.jdbc.base.AccessorEventContext;
+import net.ymate.platform.persistence.jdbc.base.IAccessorCfgEvent;
 import net.ymate.platform.persistence.jdbc.base.SqlBatchParameter;
 import net.ymate.platform.persistence.jdbc.base.SqlParameter;
 import net.ymate.platform.persistence.jdbc.base.dialect.impl.OracleDialect;
-import net.ymate.platform.persistence.jdbc.operator.AbstractResultSetHandler;
+import net.ymate.platform.persistence.jdbc.cache.EntityCaches;
+import net.ymate.platform.persistence.jdbc.cache.IEntityCacheRegion;
+import net.ymate.platform.persistence.jdbc.operator.IOperator;
 import net.ymate.platform.persistence.jdbc.operator.IQueryOperator;
 import net.ymate.platform.persistence.jdbc.operator.IUpdateBatchOperator;
 import net.ymate.platform.persistence.jdbc.operator.IUpdateOperator;
+import net.ymate.platform.persistence.jdbc.operator.ResultSetCursor;
 import net.ymate.platform.persistence.jdbc.operator.impl.ArrayResultSetHandler;
+import net.ymate.platform.persistence.jdbc.operator.impl.CursorOperator;
 import net.ymate.platform.persistence.jdbc.operator.impl.QueryOperator;
 import net.ymate.platform.persistence.jdbc.operator.impl.UpdateBatchOperator;
 import net.ymate.platform.persistence.jdbc.operator.impl.UpdateOperator;
 import net.ymate.platform.persistence.jdbc.query.PageQuery;
 import net.ymate.platform.persistence.support.EntityMeta;
+import net.ymate.platform.persistence.support.IBatchProgressEvent;
 import net.ymate.platform.persistence.support.ISessionEvent;
 import net.ymate.platform.persistence.support.PageResultSet;
 import net.ymate.platform.persistence.support.SessionEventObject;
@@ -78,6 +85,11 @@ public class JdbcEntitySupport {
 	 */
 	private static Map<String, JdbcEntityMeta> __cacheEntityMetas = new ConcurrentHashMap<String, JdbcEntityMeta>();
 
+	/**
+	 * 多行插入时单条SQL语句允许绑定的最大参数个数(取常见数据库驱动限制的较小值)
+	 */
+	private static final int __MAX_STATEMENT_PARAMS = 32767;
+
 	private IConnectionHolder __conn;
 
 	/**
@@ -120,7 +132,20 @@ public class JdbcEntitySupport {
 
 	public <T> T selectById(Class<T> entityClass, Object id, String[] fieldFilter) throws OperatorException {
 		JdbcEntityMeta _meta = this.getEntityMeta(entityClass);
-		IQueryOperator<Object[]> _opt = new QueryOperator<Object[]>(new ArrayResultSetHandler());
+		// 仅缓存未经字段过滤的完整实体对象
+		IEntityCacheRegion _region = fieldFilter == null || fieldFilter.length == 0 ? __doGetCacheRegion(_meta, entityClass) : null;
+		String _cacheKey = null;
+		long _cacheVersion = 0;
+		if (_region != null && id != null) {
+			// 须在查询之前获取失效版本号，查询期间被其它线程失效的结果将不会放入缓存
+			_cacheVersion = EntityCaches.currentVersion();
+			_cacheKey = EntityCaches.buildKey(__conn.getDataSourceName(), id);
+			T _cached = EntityCaches.get(_region, _cacheKey);
+			if (_cached != null) {
+				return _cached;
+			}
+		}
+		IQueryOperator<T> _opt = new QueryOperator<T>(new EntityResultSetHandler<T>(entityClass, _meta));
 		List<String> _pkFieldFilter = new ArrayList<String>();
 		for (String _pkField : _meta.getPrimaryKeys()) {
 			if (_meta.isCompositeKey()) {
@@ -138,32 +163,124 @@ public class JdbcEntitySupport {
 			}
 		}
 		T _returnValue = null;
-		ResultSetHelper _helper = null;
 		try {
 			_opt.setSql(_meta.createSelectByPkSql(__conn.getDialect(), fieldFilter, _pkFieldFilter.toArray(new String[_pkFieldFilter.size()])));
 			_opt.execute(this.getConnection());
 			if (_opt.isResultSetAvailable()) {
-				// 处理结果集->对象
-				_helper = ResultSetHelper.bind(_opt.getResultSet());
-				_returnValue = __doRenderToEntity(entityClass, _meta, _helper);
+				// 结果集已由映射计划直接转换为对象
+				_returnValue = _opt.getResultSet().get(0);
+				if (_cacheKey != null && !__isReplicaRead()) {
+					EntityCaches.put(_region, _cacheKey, _returnValue, _cacheVersion);
+				}
 			}
 			return _returnValue;
 		} finally {
-			if (_helper != null) {
-				_helper.clearAll();
-				_helper = null;
-			}
 			_opt = null;
 		}
 	}
 
+	public <T> List<T> selectByIds(Class<T> entityClass, Object[] ids) throws OperatorException {
+		return selectByIds(entityClass, ids, null);
+	}
+
+	/**
+	 * @param entityClass 实体类对象
+	 * @param ids 主键值集合，复合主键时为主键类对象
+	 * @param fieldFilter 显示字段过滤集合
+	 * @return 根据主键值集合批量检索实体对象，按方言允许的 in 条件长度分批查询，结果顺序与传入主键顺序一致，不存在的记录将被忽略
+	 * @throws OperatorException
+	 */
+	public <T> List<T> selectByIds(Class<T> entityClass, Object[] ids, String[] fieldFilter) throws OperatorException {
+		List<T> _returnValue = new ArrayList<T>();
+		if (ids == null || ids.length == 0) {
+			return _returnValue;
+		}
+		JdbcEntityMeta _meta = this.getEntityMeta(entityClass);
+		// 去除重复及为NULL的主键值，同时保留传入顺序
+		Map<String, Object> _idMap = new LinkedHashMap<String, Object>();
+		for (Object _id : ids) {
+			if (_id != null) {
+				String _key = __doBuildPkKey(_meta, _id);
+				if (!_idMap.containsKey(_key)) {
+					_idMap.put(_key, _id);
+				}
+			}
+		}
+		Map<String, T> _resultMap = new HashMap<String, T>(_idMap.size());
+		// 仅缓存未经字段过滤的完整实体对象
+		IEntityCacheRegion _region = fieldFilter == null || fieldFilter.length == 0 ? __doGetCacheRegion(_meta, entityClass) : null;
+		long _cacheVersion = EntityCaches.currentVersion();
+		List<Object> _fetchIds = new ArrayList<Object>(_idMap.size());
+		for (Map.Entry<String, Object> _entry : _idMap.entrySet()) {
+			if (_region != null) {
+				T _cached = EntityCaches.get(_region, EntityCaches.buildKey(__conn.getDataSourceName(), _entry.getValue()));
+				if (_cached != null) {
+					_resultMap.put(_entry.getKey(), _cached);
+					continue;
+				}
+			}
+			_fetchIds.add(_entry.getValue());
+		}
+		if (!_fetchIds.isEmpty()) {
+			// 需保证查询字段包含主键，用于将结果与传入主键对应
+			String[] _fieldFilter = fieldFilter;
+			if (_fieldFilter != null && _fieldFilter.length > 0) {
+				List<String> _fields = new ArrayList<String>(Arrays.asList(_fieldFilter));
+				for (String _pkField : _meta.getPrimaryKeys()) {
+					if (!_fields.contains(_pkField)) {
+						_fields.add(_pkField);
+					}
+				}
+				_fieldFilter = _fields.toArray(new String[_fields.size()]);
+			}
+			List<String> _pks = _meta.getPrimaryKeys();
+			int _chunkSize = Math.max(1, __conn.getDialect().getMaxInListSize() / _pks.size());
+			for (int _offset = 0; _offset < _fetchIds.size(); _offset += _chunkSize) {
+				List<Object> _chunk = _fetchIds.subList(_offset, Math.min(_offset + _chunkSize, _fetchIds.size()));
+				IQueryOperator<T> _opt = new QueryOperator<T>(new EntityResultSetHandler<T>(entityClass, _meta));
+				for (Object _id : _chunk) {
+					if (_meta.isCompositeKey()) {
+						ClassBeanWrapper<?> _wrapperId = ClassUtils.wrapper(_id);
+						for (String _pkField : _pks) {
+							_opt.addParameter(_wrapperId.getValue(_meta.getClassAttributeMap().get(_pkField)));
+						}
+					} else {
+						_opt.addParameter(_id);
+					}
+				}
+				try {
+					_opt.setSql(_meta.createSelectByPksSql(__conn.getDialect(), _fieldFilter, _chunk.size()));
+					_opt.execute(this.getConnection());
+					if (_opt.isResultSetAvailable()) {
+						for (T _entity : _opt.getResultSet()) {
+							Object _id = ClassUtils.wrapper(_entity).getValue("id");
+							_resultMap.put(__doBuildPkKey(_meta, _id), _entity);
+							if (_region != null && !__isReplicaRead()) {
+								EntityCaches.put(_region, EntityCaches.buildKey(__conn.getDataSourceName(), _id), _entity, _cacheVersion);
+							}
+						}
+					}
+				} finally {
+					_opt = null;
+				}
+			}
+		}
+		for (String _key : _idMap.keySet()) {
+			T _entity = _resultMap.get(_key);
+			if (_entity != null) {
+				_returnValue.add(_entity);
+			}
+		}
+		return _returnValue;
+	}
+
 	public <T> List<T> selectByCond(Class<T> entityClass, String whereStr, Object[] values) throws OperatorException {
 		return selectByCond(entityClass, whereStr, values, null);
 	}
 
 	public <T> List<T> selectByCond(Class<T> entityClass, String whereStr, Object[] values, String[] fieldFilter) throws OperatorException {
 		JdbcEntityMeta _meta = this.getEntityMeta(entityClass);
-		IQueryOperator<Object[]> _opt = new QueryOperator<Object[]>(new ArrayResultSetHandler());
+		IQueryOperator<T> _opt = new QueryOperator<T>(new EntityResultSetHandler<T>(entityClass, _meta));
 		String _sql = _meta.createSelectAllSql(__conn.getDialect(), fieldFilter);
 		// 拼装SQL
 		if (StringUtils.isNotBlank(whereStr)) {
@@ -182,29 +299,52 @@ public class JdbcEntitySupport {
 				}
 			}
 		}
-		List<T> _returnValue = new ArrayList<T>();
-		ResultSetHelper _helper = null;
 		try {
 			_opt.setSql(_sql);
 			_opt.execute(this.getConnection());
-			if (_opt.isResultSetAvailable()) {
-				// 处理结果集->对象
-				_helper = ResultSetHelper.bind(_opt.getResultSet());
-				for (int _idx = 0; _idx < _helper.getRowCount(); _idx++) {
-					_helper.move(_idx);
-					_returnValue.add(__doRenderToEntity(entityClass, _meta, _helper));
-				}
-			}
-			return _returnValue;
+			// 结果集已由映射计划直接转换为对象
+			return _opt.getResultSet();
 		} finally {
-			if (_helper != null) {
-				_helper.clearAll();
-				_helper = null;
-			}
 			_opt = null;
 		}
 	}
 
+	/**
+	 * @param entityClass 实体类对象
+	 * @param whereStr 查询条件
+	 * @param values 条件参数
+	 * @param fieldFilter 显示字段过滤集合
+	 * @param event 访问器配置事件，可通过getFetchSize设置驱动程序获取数据的行数提示，可为空
+	 * @return 以游标方式执行查询，逐行将记录映射为实体对象
+	 * @throws OperatorException
+	 */
+	public <T> ResultSetCursor<T> streamByCond(Class<T> entityClass, String whereStr, Object[] values, String[] fieldFilter, IAccessorCfgEvent event) throws OperatorException {
+		JdbcEntityMeta _meta = this.getEntityMeta(entityClass);
+		CursorOperator<T> _opt = new CursorOperator<T>(new EntityResultSetHandler<T>(entityClass, _meta));
+		_opt.setAccessorCfgEvent(event);
+		String _sql = _meta.createSelectAllSql(__conn.getDialect(), fieldFilter);
+		// 拼装SQL
+		if (StringUtils.isNotBlank(whereStr)) {
+			if (!StringUtils.trim(whereStr).toLowerCase().startsWith("where")) {
+				_sql += " where " + whereStr;
+			} else {
+				_sql += " " + whereStr;
+			}
+			// 添加参数值
+			if (values != null && values.length > 0) {
+				int i = _sql.indexOf("?");
+				if (i > 0) {
+					for (int j = 0; j < values.length; j++) {
+						_opt.addParameter(values[j]);
+					}
+				}
+			}
+		}
+		_opt.setSql(_sql);
+		_opt.execute(this.getConnection());
+		return _opt.getCursor();
+	}
+
 	public <T> PageResultSet<T> selectByCondWithPage(Class<T> entityClass, String whereStr, Object values[], int pageSize, int currentPage) throws OperatorException {
 		return selectByCondWithPage(entityClass, whereStr, values, pageSize, currentPage, null, true);
 	}
@@ -217,13 +357,9 @@ public class JdbcEntitySupport {
 		return selectByCondWithPage(entityClass, whereStr, values, pageSize, currentPage, null, allowRecordCount);
 	}
 
-	public <T> PageResultSet<T> selectByCondWithPage(final Class<T> entityClass, String whereStr, Object values[], int pageSize, int currentPage, final String[] fieldFilter, boolean allowRecordCount) throws OperatorException {
-		final JdbcEntityMeta _meta = this.getEntityMeta(entityClass);
-		PageQuery<T> _page = new PageQuery<T>(new AbstractResultSetHandler<T>() {
-			public void processRowData(ResultSet rs, List<T> result) throws OperatorException, SQLException {
-				result.add(__doRenderToEntity(entityClass, _meta, rs, fieldFilter));
-			}
-		}, currentPage, pageSize);
+	public <T> PageResultSet<T> selectByCondWithPage(Class<T> entityClass, String whereStr, Object values[], int pageSize, int currentPage, String[] fieldFilter, boolean allowRecordCount) throws OperatorException {
+		JdbcEntityMeta _meta = this.getEntityMeta(entityClass);
+		PageQuery<T> _page = new PageQuery<T>(new EntityResultSetHandler<T>(entityClass, _meta), currentPage, pageSize);
 		String _sql = _meta.createSelectAllSql(__conn.getDialect(), fieldFilter);
 		// 拼装SQL
 		if (StringUtils.isNotBlank(whereStr)) {
@@ -264,27 +400,15 @@ public class JdbcEntitySupport {
 		Map<String, AttributeInfo>  _entityMap = __doRenderEntityToMap(_meta, entity);
 		IUpdateOperator _update = new UpdateOperator(_meta.createInsertSql(__conn.getDialect()));
 		if (_meta.hasAutoIncrementColumn()) {
-            if (__conn.getDialect() instanceof OracleDialect) {
-                final String[] _ids = _meta.getPrimaryKeys().toArray(new String[_meta.getPrimaryKeys().size()]);
-                _update.setAccessorCfgEvent(new EntitryAccessorCfgEvent(_meta, entity) {
-                    @Override
-                    public PreparedStatement getPreparedStatement(Connection conn, String sql) throws SQLException {
-                        return conn.prepareStatement(sql, _ids);
-                    }
-                });
-            } else {
-                _update.setAccessorCfgEvent(new EntitryAccessorCfgEvent(_meta, entity));
-            }
+			_update.setAccessorCfgEvent(__doCreateInsertAccessorCfgEvent(_meta, Arrays.asList(entity)));
 		}
-		for (String _columnName : _meta.getColumnNames()) {
-			// 剔除自动生成的主键字段
-			if (_meta.hasAutoIncrementColumn() && _meta.isAutoIncrementColumn(_columnName)) {
-				continue;
-			}
+		// 已剔除自动生成的主键字段
+		for (String _columnName : _meta.getInsertParamColumnNames()) {
 			this.__addUpdateParam(_entityMap.get(_columnName), _update);
 		}
 		try {
 			_update.execute(this.getConnection());
+			__doEvictCache(_meta, Arrays.asList(entity));
 			//
 			if (event != null) {
 				event.onInsertAfter(SessionEventObject.createInsertEvent(entity));
@@ -301,54 +425,187 @@ public class JdbcEntitySupport {
 		if (entityList == null || entityList.isEmpty()) {
 			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.entity_list_null"));
 		}
+		Class<?> _entityClass = entityList.get(0).getClass();
 		//
 		if (event != null) {
-			event.onInsertBefore(SessionEventObject.createInsertBatchEvent(entityList.get(0).getClass(), entityList));
+			event.onInsertBefore(SessionEventObject.createInsertBatchEvent(_entityClass, entityList));
 		}
 		//
-		final JdbcEntityMeta _meta = this.getEntityMeta(entityList.get(0).getClass());
-		IUpdateBatchOperator _update = new UpdateBatchOperator(_meta.createInsertSql(__conn.getDialect()));
-		if (_meta.hasAutoIncrementColumn()) {
-            if (__conn.getDialect() instanceof OracleDialect) {
-				final String[] _ids = _meta.getPrimaryKeys().toArray(new String[_meta.getPrimaryKeys().size()]);
-                _update.setAccessorCfgEvent(new EntitryAccessorCfgEvent(_meta, entityList) {
-                    @Override
-                    public PreparedStatement getPreparedStatement(Connection conn, String sql) throws SQLException {
-                        return conn.prepareStatement(sql, _ids);
-                    }
-                });
-            } else {
-                _update.setAccessorCfgEvent(new EntitryAccessorCfgEvent(_meta, entityList));
-            }
+		final JdbcEntityMeta _meta = this.getEntityMeta(_entityClass);
+		// 已剔除自动生成的主键字段
+		String[] _columnNames = _meta.getInsertParamColumnNames();
+		// 若开启多行插入且方言支持，则每个批次合并为一条 insert into ... values (...),(...) 语句提交
+		boolean _isMultiRow = JDBC.isBatchMultiRowInsert && __conn.getDialect().isMultiRowInsertSupported();
+		int _total = entityList.size();
+		int _batchSize = __doGetBatchSize(_isMultiRow ? _columnNames.length : 0);
+		// 实体属性映射与批参数缓冲区在各批次间复用，避免整体列表一次性展开为参数集合
+		Map<String, AttributeInfo> _entityMap = new HashMap<String, AttributeInfo>();
+		List<List<SqlParameter>> _batchParams = new ArrayList<List<SqlParameter>>(Math.min(_batchSize, _total));
+		try {
+			for (int _from = 0; _from < _total; _from += _batchSize) {
+				List<T> _chunk = entityList.subList(_from, Math.min(_from + _batchSize, _total));
+				IOperator _operator = null;
+				if (_isMultiRow) {
+					IUpdateOperator _update = new UpdateOperator(_meta.createMultiRowInsertSql(__conn.getDialect(), _chunk.size()));
+					for (T _entity : _chunk) {
+						__doRenderEntityToMap(_meta, _entity, _entityMap);
+						for (String _columnName : _columnNames) {
+							this.__addUpdateParam(_entityMap.get(_columnName), _update);
+						}
+						_entityMap.clear();
+					}
+					_operator = _update;
+				} else {
+					for (T _entity : _chunk) {
+						SqlBatchParameter _batchParam = new SqlBatchParameter();
+						__doRenderEntityToMap(_meta, _entity, _entityMap);
+						for (String _columnName : _columnNames) {
+							this.__addBatchParam(_batchParam, _entityMap.get(_columnName));
+						}
+						_batchParams.add(_batchParam.getSqlParameterSet());
+						_entityMap.clear();
+					}
+					_operator = new UpdateBatchOperator(_meta.createInsertSql(__conn.getDialect()), _batchParams);
+				}
+				if (_meta.hasAutoIncrementColumn()) {
+					// 按批次回填自动生成的主键值
+					_operator.setAccessorCfgEvent(__doCreateInsertAccessorCfgEvent(_meta, _chunk));
+				}
+				_operator.execute(this.getConnection());
+				_batchParams.clear();
+				__doEvictCache(_meta, _chunk);
+				//
+				if (event instanceof IBatchProgressEvent) {
+					((IBatchProgressEvent) event).onBatchProgress(SessionEventObject.createBatchProgressEvent(_entityClass, SessionEventObject.EventType.INSERT_BATCH, _chunk, _from + _chunk.size(), _total));
+				}
+			}
+			//
+			if (event != null) {
+				event.onInsertAfter(SessionEventObject.createInsertBatchEvent(_entityClass, entityList));
+			}
+			//
+			return entityList;
+		} finally {
+			_entityMap.clear();
+			_entityMap = null;
+			_batchParams.clear();
+			_batchParams = null;
 		}
-		Map<String, AttributeInfo>  _entityMap = null;
-		for (T _entity : entityList) {
-			SqlBatchParameter _batchParam = new SqlBatchParameter();
-			_entityMap = __doRenderEntityToMap(_meta, _entity);
-			for (String _columnName : _meta.getColumnNames()) {
-                // 剔除自动生成的主键字段
-                if (_meta.hasAutoIncrementColumn() && _meta.isAutoIncrementColumn(_columnName)) {
-                    continue;
-                }
-				this.__addBatchParam(_batchParam, _entityMap.get(_columnName));
+	}
+
+	/**
+	 * 根据主键插入或更新记录(upsert)，记录已存在时更新全部非主键字段，仅需一次数据库交互；实体主键值需由调用者赋值
+	 * 
+	 * @param entity 实体对象
+	 * @return 返回实体对象
+	 * @throws OperatorException
+	 */
+	public <T> T upsert(T entity) throws OperatorException {
+		if (entity == null) {
+			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.entity_null"));
+		}
+		JdbcEntityMeta _meta = this.getEntityMeta(entity.getClass());
+		Map<String, AttributeInfo> _entityMap = __doRenderEntityToMap(_meta, entity);
+		String _sql = _meta.createUpsertSql(__conn.getDialect(), 1);
+		try {
+			for (int _attempt = 0; ; _attempt++) {
+				IUpdateOperator _update = new UpdateOperator(_sql);
+				for (String _columnName : _meta.getColumnNames()) {
+					this.__addUpdateParam(_entityMap.get(_columnName), _update);
+				}
+				try {
+					_update.execute(this.getConnection());
+					break;
+				} catch (OperatorException e) {
+					if (_attempt > 0 || !__isUpsertConflict(e)) {
+						throw e;
+					}
+				}
 			}
-			_update.addBatchParameter(_batchParam);
+			__doEvictCache(_meta, Arrays.asList(entity));
+			return entity;
+		} finally {
 			_entityMap.clear();
 		}
+	}
+
+	/**
+	 * 根据主键批量插入或更新记录(upsert)，按批次提交，若开启多行插入且方言支持则每个批次合并为一条语句
+	 * 
+	 * @param entityList 实体对象集合
+	 * @return 返回实体对象集合
+	 * @throws OperatorException
+	 */
+	public <T> List<T> upsertBatch(List<T> entityList) throws OperatorException {
+		if (entityList == null || entityList.isEmpty()) {
+			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.entity_list_null"));
+		}
+		JdbcEntityMeta _meta = this.getEntityMeta(entityList.get(0).getClass());
+		List<String> _columnNames = _meta.getColumnNames();
+		boolean _isMultiRow = JDBC.isBatchMultiRowInsert && __conn.getDialect().isMultiRowInsertSupported();
+		int _total = entityList.size();
+		int _batchSize = __doGetBatchSize(_isMultiRow ? _columnNames.size() : 0);
+		Map<String, AttributeInfo> _entityMap = new HashMap<String, AttributeInfo>();
+		List<List<SqlParameter>> _batchParams = new ArrayList<List<SqlParameter>>(Math.min(_batchSize, _total));
 		try {
-			_update.execute(this.getConnection());
-			//
-			if (event != null) {
-				event.onInsertAfter(SessionEventObject.createInsertBatchEvent(entityList.get(0).getClass(), entityList));
+			for (int _from = 0; _from < _total; _from += _batchSize) {
+				List<T> _chunk = entityList.subList(_from, Math.min(_from + _batchSize, _total));
+				IOperator _operator = null;
+				if (_isMultiRow) {
+					IUpdateOperator _update = new UpdateOperator(_meta.createUpsertSql(__conn.getDialect(), _chunk.size()));
+					for (T _entity : _chunk) {
+						__doRenderEntityToMap(_meta, _entity, _entityMap);
+						for (String _columnName : _columnNames) {
+							this.__addUpdateParam(_entityMap.get(_columnName), _update);
+						}
+						_entityMap.clear();
+					}
+					_operator = _update;
+				} else {
+					for (T _entity : _chunk) {
+						SqlBatchParameter _batchParam = new SqlBatchParameter();
+						__doRenderEntityToMap(_meta, _entity, _entityMap);
+						for (String _columnName : _columnNames) {
+							this.__addBatchParam(_batchParam, _entityMap.get(_columnName));
+						}
+						_batchParams.add(_batchParam.getSqlParameterSet());
+						_entityMap.clear();
+					}
+					_operator = new UpdateBatchOperator(_meta.createUpsertSql(__conn.getDialect(), 1), _batchParams);
+				}
+				try {
+					_operator.execute(this.getConnection());
+				} catch (OperatorException e) {
+					if (_isMultiRow || !__isUpsertConflict(e)) {
+						throw e;
+					}
+					// merge 语句幂等，冲突时整批重试一次，已写入的记录将走更新分支
+					new UpdateBatchOperator(_meta.createUpsertSql(__conn.getDialect(), 1), _batchParams).execute(this.getConnection());
+				}
+				_batchParams.clear();
+				__doEvictCache(_meta, _chunk);
 			}
-			//
 			return entityList;
 		} finally {
-			_update = null;
+			_entityMap.clear();
 			_entityMap = null;
+			_batchParams.clear();
+			_batchParams = null;
 		}
 	}
 
+	/**
+	 * @param e 执行 upsert 语句时产生的异常
+	 * @return 判断是否为 Oracle merge 语句并发插入同一新主键导致的唯一约束冲突(ORA-00001)，此时记录已存在，重试将走更新分支
+	 */
+	private boolean __isUpsertConflict(OperatorException e) {
+		if (__conn.getDialect() instanceof OracleDialect) {
+			Throwable _cause = e.getCause();
+			return _cause instanceof SQLException && ((SQLException) _cause).getErrorCode() == 1;
+		}
+		return false;
+	}
+
 	public <T> T update(T entity, ISessionEvent event) throws OperatorException {
 		return update(entity, null, false, event);
 	}
@@ -370,7 +627,7 @@ public class JdbcEntitySupport {
                 _fieldFilter = new ArrayList<String>();
                 List<String> _excludedField = Arrays.asList(fieldFilter);
                 for (String _columnName : _meta.getColumnNames()) {
-                    if (_meta.getPrimaryKeys().contains(_columnName) || _excludedField.contains(_columnName)) {
+                    if (_meta.isPrimaryKey(_columnName) || _excludedField.contains(_columnName)) {
                         continue;
                     }
                     _fieldFilter.add(_columnName);
@@ -378,17 +635,14 @@ public class JdbcEntitySupport {
                 }
             } else {
                 for (String _columnName : fieldFilter) {
-                    if (_meta.getPrimaryKeys().contains(_columnName)) {
+                    if (_meta.isPrimaryKey(_columnName)) {
                         continue;
                     }
                     this.__addUpdateParam(_entityMap.get(_columnName), _update);
                 }
             }
 		} else {
-			for (String _columnName : _meta.getColumnNames()) {
-				if (_meta.getPrimaryKeys().contains(_columnName)) {
-					continue;
-				}
+			for (String _columnName : _meta.getUpdateColumnNames()) {
 				this.__addUpdateParam(_entityMap.get(_columnName), _update);
 			}
 		}
@@ -417,6 +671,7 @@ public class JdbcEntitySupport {
 		try {
 			_update.setSql(_meta.createUpdateByPkSql(__conn.getDialect(), _fieldFilter != null ? _fieldFilter.toArray(new String[0]) : fieldFilter, _pkFieldFilter.toArray(new String[_pkFieldFilter.size()])));
 			_update.execute(this.getConnection());
+			__doEvictCache(_meta, Arrays.asList(entity));
 			//
 			if (event != null) {
 				event.onUpdateAfter(SessionEventObject.createUpdateEvent(entity, fieldFilter));
@@ -440,90 +695,101 @@ public class JdbcEntitySupport {
 		if (entityList == null || entityList.isEmpty()) {
 			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.entity_list_null"));
 		}
+		Class<?> _entityClass = entityList.get(0).getClass();
 		//
 		if (event != null) {
-			event.onUpdateBefore(SessionEventObject.createUpdateBatchEvent(entityList.get(0).getClass(), entityList, fieldFilter));
+			event.onUpdateBefore(SessionEventObject.createUpdateBatchEvent(_entityClass, entityList, fieldFilter));
 		}
 		//
-		JdbcEntityMeta _meta = this.getEntityMeta(entityList.get(0).getClass());
-		IUpdateBatchOperator _update = new UpdateBatchOperator();
-		//
-		Map<String, AttributeInfo>  _entityMap = null;
-		List<String> _pkFieldFilter = new ArrayList<String>();
-
-        List<String> _fieldFilter = null;
-
-		for (T entity : entityList) {
-			SqlBatchParameter _batchParam = new SqlBatchParameter();
-			_entityMap = __doRenderEntityToMap(_meta, entity);
-			if (fieldFilter != null && fieldFilter.length > 0) {
-                if (isExcluded) {
-                    _fieldFilter = new ArrayList<String>();
-                    List<String> _excludedField = Arrays.asList(fieldFilter);
-                    for (String _columnName : _meta.getColumnNames()) {
-                        if (_meta.getPrimaryKeys().contains(_columnName) || _excludedField.contains(_columnName)) {
-                            continue;
-                        }
-                        _fieldFilter.add(_columnName);
-                        this.__addBatchParam(_batchParam, _entityMap.get(_columnName));
-                    }
-                } else {
-                    for (String _columnName : fieldFilter) {
-                        if (_meta.getPrimaryKeys().contains(_columnName)) {
-                            continue;
-                        }
-                        this.__addBatchParam(_batchParam, _entityMap.get(_columnName));
-                    }
-                }
-			} else {
+		JdbcEntityMeta _meta = this.getEntityMeta(_entityClass);
+		// 待更新的字段集合与实体无关，仅需计算一次
+		String[] _updateColumnNames = null;
+		String[] _sqlFieldFilter = fieldFilter;
+		if (fieldFilter != null && fieldFilter.length > 0) {
+			List<String> _fieldFilter = new ArrayList<String>();
+			if (isExcluded) {
+				List<String> _excludedField = Arrays.asList(fieldFilter);
 				for (String _columnName : _meta.getColumnNames()) {
-					if (_meta.getPrimaryKeys().contains(_columnName)) {
+					if (_meta.isPrimaryKey(_columnName) || _excludedField.contains(_columnName)) {
 						continue;
 					}
-					this.__addBatchParam(_batchParam, _entityMap.get(_columnName));
+					_fieldFilter.add(_columnName);
 				}
-			}
-			//
-			ClassBeanWrapper<T> _wrapperEntity = ClassUtils.wrapper(entity);
-			ClassBeanWrapper<?> _wrapperId = null;
-			for (String _pkField : _meta.getPrimaryKeys()) {
-				if (_meta.isCompositeKey()) {
-					if (_wrapperId == null) {
-						_wrapperId = ClassUtils.wrapper(_wrapperEntity.getValue("id"));
-					}
-					Object _pkFieldValue = _wrapperId.getValue( _meta.getClassAttributeMap().get(_pkField));
-					// 仅处理主键值不为NULL的字段
-					if (_pkFieldValue != null) {
-						_batchParam.addParameter(_pkFieldValue);
-                        if (!_pkFieldFilter.contains(_pkField)) {
-                            _pkFieldFilter.add(_pkField);
-                        }
+				_updateColumnNames = _sqlFieldFilter = _fieldFilter.toArray(new String[_fieldFilter.size()]);
+			} else {
+				for (String _columnName : fieldFilter) {
+					if (_meta.isPrimaryKey(_columnName)) {
+						continue;
 					}
-				} else {
-					_batchParam.addParameter(_wrapperEntity.getValue("id"));
-					break;
+					_fieldFilter.add(_columnName);
 				}
+				_updateColumnNames = _fieldFilter.toArray(new String[_fieldFilter.size()]);
 			}
-			_update.addBatchParameter(_batchParam);
-			_entityMap.clear();
+		} else {
+			_updateColumnNames = _meta.getUpdateColumnNames();
 		}
+		//
+		int _total = entityList.size();
+		int _batchSize = __doGetBatchSize(0);
+		Map<String, AttributeInfo> _entityMap = new HashMap<String, AttributeInfo>();
+		List<List<SqlParameter>> _batchParams = new ArrayList<List<SqlParameter>>(Math.min(_batchSize, _total));
+		List<String> _pkFieldFilter = new ArrayList<String>();
 		try {
-			_update.setSql(_meta.createUpdateByPkSql(__conn.getDialect(), _fieldFilter != null ? _fieldFilter.toArray(new String[0]) : fieldFilter, _pkFieldFilter.toArray(new String[_pkFieldFilter.size()])));
-			_update.execute(this.getConnection());
+			for (int _from = 0; _from < _total; _from += _batchSize) {
+				List<T> _chunk = entityList.subList(_from, Math.min(_from + _batchSize, _total));
+				for (T entity : _chunk) {
+					SqlBatchParameter _batchParam = new SqlBatchParameter();
+					__doRenderEntityToMap(_meta, entity, _entityMap);
+					for (String _columnName : _updateColumnNames) {
+						this.__addBatchParam(_batchParam, _entityMap.get(_columnName));
+					}
+					//
+					ClassBeanWrapper<T> _wrapperEntity = ClassUtils.wrapper(entity);
+					ClassBeanWrapper<?> _wrapperId = null;
+					for (String _pkField : _meta.getPrimaryKeys()) {
+						if (_meta.isCompositeKey()) {
+							if (_wrapperId == null) {
+								_wrapperId = ClassUtils.wrapper(_wrapperEntity.getValue("id"));
+							}
+							Object _pkFieldValue = _wrapperId.getValue( _meta.getClassAttributeMap().get(_pkField));
+							// 仅处理主键值不为NULL的字段
+							if (_pkFieldValue != null) {
+								_batchParam.addParameter(_pkFieldValue);
+								if (!_pkFieldFilter.contains(_pkField)) {
+									_pkFieldFilter.add(_pkField);
+								}
+							}
+						} else {
+							_batchParam.addParameter(_wrapperEntity.getValue("id"));
+							break;
+						}
+					}
+					_batchParams.add(_batchParam.getSqlParameterSet());
+					_entityMap.clear();
+				}
+				IUpdateBatchOperator _update = new UpdateBatchOperator(_meta.createUpdateByPkSql(__conn.getDialect(), _sqlFieldFilter, _pkFieldFilter.toArray(new String[_pkFieldFilter.size()])), _batchParams);
+				_update.execute(this.getConnection());
+				_batchParams.clear();
+				_pkFieldFilter.clear();
+				__doEvictCache(_meta, _chunk);
+				//
+				if (event instanceof IBatchProgressEvent) {
+					((IBatchProgressEvent) event).onBatchProgress(SessionEventObject.createBatchProgressEvent(_entityClass, SessionEventObject.EventType.UPDATE_BATCH, _chunk, _from + _chunk.size(), _total));
+				}
+			}
 			//
 			if (event != null) {
-				event.onUpdateAfter(SessionEventObject.createUpdateBatchEvent(entityList.get(0).getClass(), entityList, fieldFilter));
+				event.onUpdateAfter(SessionEventObject.createUpdateBatchEvent(_entityClass, entityList, fieldFilter));
 			}
 			//
 			return entityList;
 		} finally {
 			_pkFieldFilter.clear();
 			_pkFieldFilter = null;
-			_update = null;
-            if (_entityMap != null) {
-                _entityMap.clear();
-			    _entityMap = null;
-            }
+			_entityMap.clear();
+			_entityMap = null;
+			_batchParams.clear();
+			_batchParams = null;
 		}
 	}
 
@@ -579,6 +845,7 @@ public class JdbcEntitySupport {
 		try {
 			_update.setSql(_meta.createDeleteByPkSql(__conn.getDialect(), _pkFieldFilter.toArray(new String[_pkFieldFilter.size()])));
 			_update.execute(this.getConnection());
+			__doEvictCacheByIds(_meta, entityClass, ids);
 			//
 			if (event != null) {
 				event.onRemoveAfter(SessionEventObject.createRemoveBatchEvent(entityClass, ids));
@@ -634,6 +901,7 @@ public class JdbcEntitySupport {
 		try {
 			_update.setSql(_meta.createDeleteByPkSql(__conn.getDialect(), _pkFieldFilter.toArray(new String[_pkFieldFilter.size()])));
 			_update.execute(this.getConnection());
+			__doEvictCacheByIds(_meta, entityClass, Arrays.asList(id));
 			//
 			if (event != null) {
 				event.onRemoveAfter(SessionEventObject.createRemoveEvent(entityClass, id));
@@ -680,67 +948,108 @@ public class JdbcEntitySupport {
 	// =-=================================
 
 	/**
-	 * @param <T> 实体类型
-	 * @param entityClass 实体类对象
-	 * @param meta 实体模型元数据描述
-	 * @param recordSet 结果集
-	 * @return 将数据库记录映射到实体对象
-	 * @throws OperatorException
+	 * @param meta 实体描述对象
+	 * @param entities 待插入的实体对象集合
+	 * @return 创建用于回填自动生成主键值的访问器配置事件对象
 	 */
-	private <T> T __doRenderToEntity(Class<T> entityClass, JdbcEntityMeta meta, ResultSetHelper recordSet) throws OperatorException {
-		ClassBeanWrapper<T> _returnValue = ClassUtils.wrapper(entityClass);
-		if (_returnValue == null) {
-			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.entity_init_exception", entityClass.getName()));
+	private IAccessorCfgEvent __doCreateInsertAccessorCfgEvent(JdbcEntityMeta meta, List<?> entities) {
+		if (__conn.getDialect() instanceof OracleDialect) {
+			final String[] _ids = meta.getPrimaryKeys().toArray(new String[meta.getPrimaryKeys().size()]);
+			return new EntitryAccessorCfgEvent(meta, entities) {
+				@Override
+				public PreparedStatement getPreparedStatement(Connection conn, String sql) throws SQLException {
+					return conn.prepareStatement(sql, _ids);
+				}
+			};
 		}
-		ClassBeanWrapper<?> _wrapperId = null;
-		for (String key : meta.getColumnNames()) {
-			Object value = recordSet.getFieldValue(key);
-			if (value == null) {
-				continue;
+		return new EntitryAccessorCfgEvent(meta, entities);
+	}
+
+	/**
+	 * @param meta 实体描述对象
+	 * @param entityClass 实体类型
+	 * @return 返回实体对应的二级缓存区域，未开启缓存或复合主键实体返回 null
+	 */
+	/**
+	 * @return 当前是否通过从库读取，从库可能存在复制延迟，其读取结果不得写入二级缓存，以免将已失效的旧数据重新发布
+	 */
+	private boolean __isReplicaRead() {
+		return __conn instanceof ReplicaConnectionHolder;
+	}
+
+	private IEntityCacheRegion __doGetCacheRegion(JdbcEntityMeta meta, Class<?> entityClass) {
+		if (meta.isCompositeKey()) {
+			return null;
+		}
+		return EntityCaches.getRegion(entityClass);
+	}
+
+	/**
+	 * 失效实体对象集合对应的二级缓存
+	 * 
+	 * @param meta 实体描述对象
+	 * @param entities 实体对象集合
+	 */
+	private void __doEvictCache(JdbcEntityMeta meta, List<?> entities) {
+		IEntityCacheRegion _region = __doGetCacheRegion(meta, entities.get(0).getClass());
+		if (_region != null) {
+			for (Object _entity : entities) {
+				Object _id = ClassUtils.wrapper(_entity).getValue("id");
+				if (_id != null) {
+					EntityCaches.evict(_region, EntityCaches.buildKey(__conn.getDataSourceName(), _id));
+				}
 			}
-			String _classAttr = meta.getClassAttributeMap().get(key);
-			if (meta.isCompositeKey() && meta.getPrimaryKeys().contains(key)) {
-                if (_wrapperId == null) {
-                    _wrapperId = ClassUtils.wrapper(meta.getPrimaryKeyClass());
-                    if (_wrapperId == null) {
-                        throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.pk_init_exception", meta.getPrimaryKeyClass().getName()));
-                    }
-                    _returnValue.setValue("id", _wrapperId.getTarget());
-                }
-				_wrapperId.setValue(_classAttr, new BlurObject(value).toObjectValue(_wrapperId.getFieldType(_classAttr)));
-			} else {
-				_returnValue.setValue(_classAttr, new BlurObject(value).toObjectValue(_returnValue.getFieldType(_classAttr)));
+		}
+	}
+
+	/**
+	 * 失效主键集合对应的二级缓存
+	 * 
+	 * @param meta 实体描述对象
+	 * @param entityClass 实体类型
+	 * @param ids 主键值集合
+	 */
+	private void __doEvictCacheByIds(JdbcEntityMeta meta, Class<?> entityClass, List<?> ids) {
+		IEntityCacheRegion _region = __doGetCacheRegion(meta, entityClass);
+		if (_region != null) {
+			for (Object _id : ids) {
+				if (_id != null) {
+					EntityCaches.evict(_region, EntityCaches.buildKey(__conn.getDataSourceName(), _id));
+				}
 			}
 		}
-		return _returnValue.getTarget();
 	}
 
-	private <T> T __doRenderToEntity(Class<T> entityClass, JdbcEntityMeta meta, ResultSet record, String[] fieldFilter) throws OperatorException, SQLException {
-		ClassBeanWrapper<T> _returnValue = ClassUtils.wrapper(entityClass);
-		if (_returnValue == null) {
-			throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.entity_init_exception", entityClass.getName()));
+	/**
+	 * @param meta 实体描述对象
+	 * @param id 主键值，复合主键时为主键类对象
+	 * @return 返回主键值的规范化字符串形式，用于批量检索时将结果与传入主键对应
+	 */
+	private String __doBuildPkKey(JdbcEntityMeta meta, Object id) {
+		if (id == null) {
+			return null;
 		}
-		ClassBeanWrapper<?> _wrapperId = null;
-		for (String key : (fieldFilter != null && fieldFilter.length > 0 ? Arrays.asList(fieldFilter) : meta.getColumnNames())) {
-			Object value = record.getObject(key);
-			if (value == null) {
-				continue;
-			}
-			String _classAttr = meta.getClassAttributeMap().get(key);
-			if (meta.isCompositeKey() && meta.getPrimaryKeys().contains(key)) {
-                if (_wrapperId == null) {
-                    _wrapperId = ClassUtils.wrapper(meta.getPrimaryKeyClass());
-                    if (_wrapperId == null) {
-                        throw new OperatorException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.pk_init_exception", meta.getPrimaryKeyClass().getName()));
-                    }
-                    _returnValue.setValue("id", _wrapperId.getTarget());
-                }
-				_wrapperId.setValue(_classAttr, new BlurObject(value).toObjectValue(_wrapperId.getFieldType(_classAttr)));
-			} else {
-				_returnValue.setValue(_classAttr, new BlurObject(value).toObjectValue(_returnValue.getFieldType(_classAttr)));
-			}
+		if (!meta.isCompositeKey()) {
+			return id.toString();
+		}
+		StringBuilder _keySB = new StringBuilder();
+		ClassBeanWrapper<?> _wrapperId = ClassUtils.wrapper(id);
+		for (String _pkField : meta.getPrimaryKeys()) {
+			_keySB.append(_wrapperId.getValue(meta.getClassAttributeMap().get(_pkField))).append('\u0001');
 		}
-		return _returnValue.getTarget();
+		return _keySB.toString();
+	}
+
+	/**
+	 * @param paramCount 多行插入时每条记录的参数个数，为0表示按普通批处理计算
+	 * @return 返回每批次提交的记录数，多行插入时需保证单条语句参数个数不超过__MAX_STATEMENT_PARAMS
+	 */
+	private int __doGetBatchSize(int paramCount) {
+		int _batchSize = JDBC.BATCH_SIZE > 0 ? JDBC.BATCH_SIZE : 1000;
+		if (paramCount > 0) {
+			_batchSize = Math.max(1, Math.min(_batchSize, __MAX_STATEMENT_PARAMS / paramCount));
+		}
+		return _batchSize;
 	}
 
 	/**
@@ -750,12 +1059,16 @@ public class JdbcEntitySupport {
 	 * @return 将实体对象映射到MAP对象
 	 */
 	private <T> Map<String, AttributeInfo> __doRenderEntityToMap(JdbcEntityMeta meta, T entity) {
-		Map<String, AttributeInfo> _returnValue = new HashMap<String, AttributeInfo>();
+		return __doRenderEntityToMap(meta, entity, new HashMap<String, AttributeInfo>());
+	}
+
+	private <T> Map<String, AttributeInfo> __doRenderEntityToMap(JdbcEntityMeta meta, T entity, Map<String, AttributeInfo> target) {
+		Map<String, AttributeInfo> _returnValue = target;
 		ClassBeanWrapper<?> _wrapperEntity = ClassUtils.wrapper(entity);
 		ClassBeanWrapper<?> _wrapperId = null;
 		for (String fn : meta.getColumnNames()) {
             String _attrFnName = meta.getClassAttributeMap().get(fn);
-			if (meta.isCompositeKey() && meta.getPrimaryKeys().contains(fn)) {
+			if (meta.isCompositeKey() && meta.isPrimaryKey(fn)) {
                 if (_wrapperId == null) {
                     _wrapperId = ClassUtils.wrapper(_wrapperEntity.getValue("id"));
                 }
@@ -927,12 +1240,12 @@ public class JdbcEntitySupport {
                                 ClassBeanWrapper<?> _wrapperId = ClassUtils.wrapper(_wrapperEntity.getValue("id"));
                                 // 若执行插入操作时已为自生成主键赋值则将不再自动填充
                                 if (_wrapperId.getValue(_columnInfo.getFieldName()) == null) {
-                                    _wrapperId.setValue(_columnInfo.getFieldName(), new BlurObject(_genKeyValue[_idx]).toObjectValue(_wrapperId.getFieldType(_columnInfo.getFieldName())));
+                                    _wrapperId.setValue(_columnInfo.getFieldName(), TypeConverters.convert(_genKeyValue[_idx], _wrapperId.getFieldType(_columnInfo.getFieldName())));
                                 }
                             } else {
                                 ClassBeanWrapper<?> _wrapperEntity = ClassUtils.wrapper(this.__entities.get(_idx));
                                 if (_wrapperEntity.getValue("id") == null) {
-                                    _wrapperEntity.setValue("id", new BlurObject(_genKeyValue[_idx]).toObjectValue(_wrapperEntity.getFieldType(_columnInfo.getFieldName())));
+                                    _wrapperEntity.setValue("id", TypeConverters.convert(_genKeyValue[_idx], _wrapperEntity.getFieldType(_columnInfo.getFieldName())));
                                 }
                             }
                         }
@@ -0,0 +1,668 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.ymate.platform.base.FrameworkLog;
+import net.ymate.platform.commons.lang.BlurObject;
+import net.ymate.platform.commons.util.RuntimeUtils;
+import net.ymate.platform.persistence.base.ConnectionException;
+import net.ymate.platform.persistence.jdbc.AbstractDataSourceAdapter;
+import net.ymate.platform.persistence.jdbc.base.StatementCache;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * <p>
+ * PooledDataSourceAdapter
+ * </p>
+ * <p>
+ * 框架内置的数据库连接池数据源适配器接口实现类，连接的借出与归还过程无锁(线程本地亲和+并发集合)，仅对空闲超时的连接进行有效性检查，支持连接泄漏检测、最大生命周期轮换及连接池运行指标；<br/>
+ * 连接池参数通过数据源配置的params设置，如：ymp.configs.jdbc.datasource.default.params.max_size=30
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月12日上午9:36:25</td>
+ *          </tr>
+ *          </table>
+ */
+public class PooledDataSourceAdapter extends AbstractDataSourceAdapter {
+
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.JDBC, PooledDataSourceAdapter.class);
+
+	private static final int __STATE_IDLE = 0, __STATE_IN_USE = 1, __STATE_REMOVED = -1;
+
+	private static final Method __CLOSE_METHOD, __IS_CLOSED_METHOD;
+
+	static {
+		try {
+			__CLOSE_METHOD = Connection.class.getMethod("close");
+			__IS_CLOSED_METHOD = Connection.class.getMethod("isClosed");
+		} catch (NoSuchMethodException e) {
+			throw new Error(e);
+		}
+	}
+
+	/**
+	 * 连接池中的全部连接
+	 */
+	private final CopyOnWriteArrayList<PooledConnection> __connections = new CopyOnWriteArrayList<PooledConnection>();
+
+	/**
+	 * 当前线程最近归还的连接，优先从中借出以减少竞争
+	 */
+	private final ThreadLocal<List<WeakReference<PooledConnection>>> __threadConnections = new ThreadLocal<List<WeakReference<PooledConnection>>>();
+
+	/**
+	 * 用于将归还的连接直接交给等待中的线程
+	 */
+	private final SynchronousQueue<PooledConnection> __handoffQueue = new SynchronousQueue<PooledConnection>(true);
+
+	private final AtomicInteger __totalCount = new AtomicInteger();
+
+	private final AtomicInteger __waitingCount = new AtomicInteger();
+
+	private final AtomicLong __borrowCount = new AtomicLong();
+
+	private final AtomicLong __timeoutCount = new AtomicLong();
+
+	private final AtomicLong __waitTimeNanos = new AtomicLong();
+
+	private final AtomicLong __leakCount = new AtomicLong();
+
+	private ScheduledExecutorService __housekeeper;
+
+	private volatile boolean __closed;
+
+	private int minSize;
+	private int maxSize;
+	private long maxWait;
+	private long idleTimeout;
+	private long maxLifetime;
+	private long validationInterval;
+	private long leakDetectionThreshold;
+	private long housekeepingInterval;
+	private String validationQuery;
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.AbstractDataSourceAdapter#initialize(net.ymate.platform.persistence.jdbc.support.JdbcDataSourceCfgMeta)
+	 */
+	public void initialize(JdbcDataSourceCfgMeta cfgMeta) {
+		super.initialize(cfgMeta);
+		try {
+			Class.forName(cfgMeta.getDriverClass());
+		} catch (ClassNotFoundException e) {
+			throw new Error(RuntimeUtils.unwrapThrow(e));
+		}
+		Map<String, String> _params = cfgMeta.getParams();
+		this.minSize = __getParam(_params, "min_size", 5).intValue();
+		this.maxSize = Math.max(__getParam(_params, "max_size", 20).intValue(), Math.max(this.minSize, 1));
+		this.maxWait = __getParam(_params, "max_wait", 30000L);
+		this.idleTimeout = __getParam(_params, "idle_timeout", 600000L);
+		this.maxLifetime = __getParam(_params, "max_lifetime", 1800000L);
+		this.validationInterval = __getParam(_params, "validation_interval", 5000L);
+		this.leakDetectionThreshold = __getParam(_params, "leak_detection_threshold", 0L);
+		this.validationQuery = StringUtils.trimToNull(_params.get("validation_query"));
+		this.housekeepingInterval = Math.max(__getParam(_params, "housekeeping_interval", 30000L), 1L);
+		//
+		__housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread _thread = new Thread(r, "ymp-jdbc-pool-" + PooledDataSourceAdapter.this.cfgMeta.getName());
+				_thread.setDaemon(true);
+				return _thread;
+			}
+		});
+		__housekeeper.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				__doHousekeeping();
+			}
+		}, 0, housekeepingInterval, TimeUnit.MILLISECONDS);
+	}
+
+	private static Long __getParam(Map<String, String> params, String name, long defaultValue) {
+		String _value = params.get(name);
+		return StringUtils.isBlank(_value) ? defaultValue : new BlurObject(_value.trim()).toLongValue();
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.IDataSourceAdapter#getConnection()
+	 */
+	public Connection getConnection() throws ConnectionException {
+		if (__closed) {
+			throw new ConnectionException(FrameworkLog.formatMessage("ymp.jdbc.pool_closed", cfgMeta.getName()));
+		}
+		long _startTime = System.nanoTime();
+		try {
+			PooledConnection _conn = __doBorrow(_startTime);
+			__borrowCount.incrementAndGet();
+			return _conn.borrow();
+		} catch (SQLException e) {
+			throw new ConnectionException(RuntimeUtils.unwrapThrow(e));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ConnectionException(e);
+		} finally {
+			__waitTimeNanos.addAndGet(System.nanoTime() - _startTime);
+		}
+	}
+
+	private PooledConnection __doBorrow(long startTime) throws SQLException, InterruptedException, ConnectionException {
+		// 优先尝试当前线程最近归还的连接
+		List<WeakReference<PooledConnection>> _threadConns = __threadConnections.get();
+		if (_threadConns != null) {
+			for (int _idx = _threadConns.size() - 1; _idx >= 0; _idx--) {
+				PooledConnection _conn = _threadConns.remove(_idx).get();
+				if (_conn != null && _conn.state.compareAndSet(__STATE_IDLE, __STATE_IN_USE) && __checkAlive(_conn)) {
+					return _conn;
+				}
+			}
+		}
+		long _deadline = startTime + TimeUnit.MILLISECONDS.toNanos(maxWait);
+		do {
+			for (PooledConnection _conn : __connections) {
+				if (_conn.state.compareAndSet(__STATE_IDLE, __STATE_IN_USE) && __checkAlive(_conn)) {
+					return _conn;
+				}
+			}
+			PooledConnection _conn = __doCreateIfAllowed();
+			if (_conn != null) {
+				return _conn;
+			}
+			// 等待其它线程归还连接
+			__waitingCount.incrementAndGet();
+			try {
+				_conn = __handoffQueue.poll(Math.min(_deadline - System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(100)), TimeUnit.NANOSECONDS);
+			} finally {
+				__waitingCount.decrementAndGet();
+			}
+			if (_conn != null && _conn.state.compareAndSet(__STATE_IDLE, __STATE_IN_USE) && __checkAlive(_conn)) {
+				return _conn;
+			}
+		} while (System.nanoTime() < _deadline && !__closed);
+		__timeoutCount.incrementAndGet();
+		throw new ConnectionException(FrameworkLog.formatMessage("ymp.jdbc.pool_timeout", cfgMeta.getName(), maxWait, getActiveCount(), getIdleCount(), getWaitingCount()));
+	}
+
+	/**
+	 * 在连接总数未达上限时创建新连接并直接标记为使用中
+	 */
+	private PooledConnection __doCreateIfAllowed() throws SQLException {
+		while (true) {
+			int _total = __totalCount.get();
+			if (_total >= maxSize) {
+				return null;
+			}
+			if (__totalCount.compareAndSet(_total, _total + 1)) {
+				break;
+			}
+		}
+		Connection _physical = null;
+		boolean _isCreated = false;
+		try {
+			_physical = DriverManager.getConnection(cfgMeta.getConnectionUrl(), cfgMeta.getUserName(), cfgMeta.getPassword());
+			// 包装时需读取连接初始状态，若失败则须关闭已建立的物理连接
+			PooledConnection _conn = new PooledConnection(_physical, __STATE_IN_USE);
+			__connections.add(_conn);
+			_isCreated = true;
+			return _conn;
+		} finally {
+			if (!_isCreated) {
+				__totalCount.decrementAndGet();
+				if (_physical != null) {
+					try {
+						_physical.close();
+					} catch (SQLException e) {
+						// ~~~
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * 检查已标记为使用中的连接是否可用，超过最大生命周期或检查失败的连接将被移除
+	 * 
+	 * @return 连接可用返回true
+	 */
+	private boolean __checkAlive(PooledConnection conn) {
+		long _now = System.currentTimeMillis();
+		if (maxLifetime > 0 && _now - conn.createTime > maxLifetime) {
+			__doRemove(conn);
+			return false;
+		}
+		// 仅对空闲时间超过检查间隔的连接进行有效性检查
+		if (_now - conn.lastAccessTime > validationInterval && !__doValidate(conn.connection)) {
+			__doRemove(conn);
+			return false;
+		}
+		return true;
+	}
+
+	private boolean __doValidate(Connection conn) {
+		try {
+			if (validationQuery != null) {
+				Statement _stmt = conn.createStatement();
+				try {
+					_stmt.execute(validationQuery);
+				} finally {
+					_stmt.close();
+				}
+				return true;
+			}
+			return conn.isValid((int) Math.max(TimeUnit.MILLISECONDS.toSeconds(maxWait), 1));
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	private void __doRemove(PooledConnection conn) {
+		conn.state.set(__STATE_REMOVED);
+		if (__connections.remove(conn)) {
+			__totalCount.decrementAndGet();
+		}
+		conn.closeStatementCache();
+		try {
+			conn.connection.close();
+		} catch (SQLException e) {
+			// ~~~
+		}
+	}
+
+	/**
+	 * 归还连接，若有线程正在等待则直接交给等待线程
+	 */
+	private void __doReturn(PooledConnection conn) {
+		conn.lastAccessTime = System.currentTimeMillis();
+		if (__closed || conn.state.get() == __STATE_REMOVED || (maxLifetime > 0 && conn.lastAccessTime - conn.createTime > maxLifetime)) {
+			__doRemove(conn);
+			return;
+		}
+		conn.state.set(__STATE_IDLE);
+		if (__waitingCount.get() > 0 && __handoffQueue.offer(conn)) {
+			return;
+		}
+		List<WeakReference<PooledConnection>> _threadConns = __threadConnections.get();
+		if (_threadConns == null) {
+			_threadConns = new ArrayList<WeakReference<PooledConnection>>(4);
+			__threadConnections.set(_threadConns);
+		}
+		if (_threadConns.size() >= 8) {
+			_threadConns.remove(0);
+		}
+		_threadConns.add(new WeakReference<PooledConnection>(conn));
+	}
+
+	/**
+	 * 定时维护：回收空闲超时及超过最大生命周期的连接、检测连接泄漏并补足最小连接数
+	 */
+	private void __doHousekeeping() {
+		try {
+			long _now = System.currentTimeMillis();
+			for (PooledConnection _conn : __connections) {
+				int _state = _conn.state.get();
+				if (_state == __STATE_IDLE) {
+					boolean _expired = maxLifetime > 0 && _now - _conn.createTime > maxLifetime;
+					boolean _idleOut = idleTimeout > 0 && _now - _conn.lastAccessTime > idleTimeout && __totalCount.get() > minSize;
+					if ((_expired || _idleOut) && _conn.state.compareAndSet(__STATE_IDLE, __STATE_REMOVED)) {
+						__doRemove(_conn);
+					}
+				} else if (_state == __STATE_IN_USE && leakDetectionThreshold > 0 && !_conn.leakReported && _now - _conn.borrowTime > leakDetectionThreshold) {
+					_conn.leakReported = true;
+					__leakCount.incrementAndGet();
+					_LOG.warn("ymp.jdbc.pool_connection_leak", cfgMeta.getName(), _now - _conn.borrowTime);
+					if (_conn.borrowStack != null) {
+						_LOG.warn(_conn.borrowStack);
+					}
+				}
+			}
+			while (!__closed && __totalCount.get() < minSize) {
+				PooledConnection _conn = __doCreateIfAllowed();
+				if (_conn == null) {
+					break;
+				}
+				_conn.lastAccessTime = _now;
+				__doReturn(_conn);
+			}
+		} catch (Throwable e) {
+			_LOG.warn(e);
+		}
+	}
+
+	/**
+	 * @return 当前使用中的连接数
+	 */
+	public int getActiveCount() {
+		int _count = 0;
+		for (PooledConnection _conn : __connections) {
+			if (_conn.state.get() == __STATE_IN_USE) {
+				_count++;
+			}
+		}
+		return _count;
+	}
+
+	/**
+	 * @return 当前空闲的连接数
+	 */
+	public int getIdleCount() {
+		int _count = 0;
+		for (PooledConnection _conn : __connections) {
+			if (_conn.state.get() == __STATE_IDLE) {
+				_count++;
+			}
+		}
+		return _count;
+	}
+
+	/**
+	 * @return 连接池允许的最大连接数
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return 当前连接总数
+	 */
+	public int getTotalCount() {
+		return __totalCount.get();
+	}
+
+	/**
+	 * @return 当前等待获取连接的线程数
+	 */
+	public int getWaitingCount() {
+		return __waitingCount.get();
+	}
+
+	/**
+	 * @return 累计借出连接次数
+	 */
+	public long getBorrowCount() {
+		return __borrowCount.get();
+	}
+
+	/**
+	 * @return 累计获取连接超时次数
+	 */
+	public long getTimeoutCount() {
+		return __timeoutCount.get();
+	}
+
+	/**
+	 * @return 累计检测到的疑似泄漏连接数
+	 */
+	public long getLeakCount() {
+		return __leakCount.get();
+	}
+
+	/**
+	 * @return 累计获取连接等待时间(毫秒)
+	 */
+	public long getTotalWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(__waitTimeNanos.get());
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.AbstractDataSourceAdapter#getConnectionStatementCache(java.sql.Connection)
+	 */
+	public StatementCache getConnectionStatementCache(Connection conn) {
+		if (conn != null && Proxy.isProxyClass(conn.getClass())) {
+			InvocationHandler _handler = Proxy.getInvocationHandler(conn);
+			if (_handler instanceof PooledConnection) {
+				return ((PooledConnection) _handler).getStatementCache();
+			}
+		}
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.AbstractDataSourceAdapter#destroy()
+	 */
+	public void destroy() {
+		__closed = true;
+		if (__housekeeper != null) {
+			__housekeeper.shutdownNow();
+			__housekeeper = null;
+		}
+		for (PooledConnection _conn : __connections) {
+			__doRemove(_conn);
+		}
+		super.destroy();
+	}
+
+	/**
+	 * 连接池中的连接对象，通过动态代理将Connection.close()转换为归还操作
+	 */
+	private class PooledConnection implements InvocationHandler {
+
+		final Connection connection;
+
+		final AtomicInteger state;
+
+		final long createTime;
+
+		volatile long lastAccessTime;
+
+		volatile long borrowTime;
+
+		volatile Throwable borrowStack;
+
+		volatile boolean leakReported;
+
+		/**
+		 * 与物理连接绑定的PreparedStatement对象缓存，首次使用时创建，随物理连接一同关闭
+		 */
+		private StatementCache __statementCache;
+
+		private boolean __statementCacheClosed;
+
+		/**
+		 * 当前借出的代理对象，每次借出均创建新的代理，保证重复close不会影响下一次借出
+		 */
+		private volatile Connection __proxy;
+
+		private final boolean __defaultAutoCommit;
+
+		private final int __defaultIsolation;
+
+		/**
+		 * 物理连接当前的事务相关属性，避免重复调用驱动程序获取或设置
+		 */
+		private boolean __autoCommit;
+
+		private int __isolation;
+
+		private boolean __readOnly;
+
+		/**
+		 * 当前借出者期望的事务相关属性，借出时重置为默认值，在首次执行其它操作前才同步到物理连接
+		 */
+		private boolean __targetAutoCommit;
+
+		private int __targetIsolation;
+
+		private boolean __targetReadOnly;
+
+		/**
+		 * 非自动提交状态下是否存在未提交或回滚的操作，归还时需要回滚
+		 */
+		private boolean __pending;
+
+		PooledConnection(Connection connection, int state) throws SQLException {
+			this.connection = connection;
+			this.state = new AtomicInteger(state);
+			this.createTime = this.lastAccessTime = System.currentTimeMillis();
+			this.__defaultAutoCommit = this.__autoCommit = connection.getAutoCommit();
+			this.__defaultIsolation = this.__isolation = connection.getTransactionIsolation();
+			this.__readOnly = connection.isReadOnly();
+		}
+
+		synchronized StatementCache getStatementCache() {
+			if (__statementCache == null && !__statementCacheClosed) {
+				__statementCache = createStatementCache();
+			}
+			return __statementCache;
+		}
+
+		synchronized void closeStatementCache() {
+			__statementCacheClosed = true;
+			if (__statementCache != null) {
+				__statementCache.close();
+				__statementCache = null;
+			}
+		}
+
+		Connection borrow() {
+			borrowTime = System.currentTimeMillis();
+			leakReported = false;
+			borrowStack = leakDetectionThreshold > 0 ? new Exception("Connection borrowed from pool [" + cfgMeta.getName() + "]") : null;
+			__targetAutoCommit = __defaultAutoCommit;
+			__targetIsolation = __defaultIsolation;
+			__targetReadOnly = false;
+			__proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+			return __proxy;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (__CLOSE_METHOD.equals(method)) {
+				if (__proxy == proxy) {
+					__proxy = null;
+					__doRelease();
+				}
+				return null;
+			} else if (__IS_CLOSED_METHOD.equals(method)) {
+				return __proxy != proxy || connection.isClosed();
+			} else if ("equals".equals(method.getName()) && method.getParameterTypes().length == 1) {
+				return proxy == args[0];
+			} else if ("hashCode".equals(method.getName()) && method.getParameterTypes().length == 0) {
+				return System.identityHashCode(proxy);
+			}
+			if (__proxy != proxy) {
+				throw new SQLException("Connection has been closed.");
+			}
+			String _name = method.getName();
+			// 事务相关属性优先使用缓存状态，与物理连接一致时不再调用驱动程序
+			if ("getAutoCommit".equals(_name)) {
+				return __targetAutoCommit;
+			} else if ("getTransactionIsolation".equals(_name)) {
+				return __targetIsolation;
+			} else if ("isReadOnly".equals(_name)) {
+				return __targetReadOnly;
+			} else if ("setAutoCommit".equals(_name)) {
+				__targetAutoCommit = (Boolean) args[0];
+				if (__autoCommit != __targetAutoCommit) {
+					__doSyncState();
+				}
+				return null;
+			} else if ("setTransactionIsolation".equals(_name)) {
+				__targetIsolation = (Integer) args[0];
+				if (__isolation != __targetIsolation) {
+					__doSyncState();
+				}
+				return null;
+			} else if ("setReadOnly".equals(_name)) {
+				__targetReadOnly = (Boolean) args[0];
+				if (__readOnly != __targetReadOnly) {
+					__doSyncState();
+				}
+				return null;
+			}
+			__doSyncState();
+			boolean _completion = "commit".equals(_name) || "rollback".equals(_name);
+			if (!_completion && !__autoCommit) {
+				__pending = true;
+			}
+			try {
+				Object _result = method.invoke(connection, args);
+				if (_completion && (args == null || args.length == 0)) {
+					__pending = false;
+				}
+				return _result;
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+
+		/**
+		 * 将借出者期望的事务相关属性同步到物理连接，仅在状态不一致时调用驱动程序
+		 */
+		private void __doSyncState() throws SQLException {
+			if (__isolation != __targetIsolation) {
+				connection.setTransactionIsolation(__targetIsolation);
+				__isolation = __targetIsolation;
+			}
+			if (__readOnly != __targetReadOnly) {
+				connection.setReadOnly(__targetReadOnly);
+				__readOnly = __targetReadOnly;
+			}
+			if (__autoCommit != __targetAutoCommit) {
+				connection.setAutoCommit(__targetAutoCommit);
+				__autoCommit = __targetAutoCommit;
+				__pending = false;
+			}
+		}
+
+		private void __doRelease() {
+			borrowStack = null;
+			// 事务相关属性不在归还时重置，由下一次借出后首次操作前按需同步
+			if (__pending) {
+				try {
+					connection.rollback();
+				} catch (SQLException e) {
+					// 无法回滚的连接不再复用
+					state.set(__STATE_REMOVED);
+				} finally {
+					__pending = false;
+				}
+			}
+			__doReturn(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+import net.ymate.platform.persistence.base.ConnectionException;
+import net.ymate.platform.persistence.jdbc.IDataSourceAdapter;
+import net.ymate.platform.persistence.jdbc.route.ReplicaNode;
+import net.ymate.platform.persistence.jdbc.route.ReplicaRouter;
+
+/**
+ * <p>
+ * ReplicaConnectionHolder
+ * </p>
+ * <p>
+ * 从库数据库连接持有者，对外以主数据源名称出现(保证缓存等按数据源区分的功能在主从之间共享)，释放时向路由器报告操作结果；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月24日下午4:05:51</td>
+ *          </tr>
+ *          </table>
+ */
+public class ReplicaConnectionHolder extends DefaultConnectionHolder {
+
+	private final ReplicaRouter __router;
+
+	private final ReplicaNode __node;
+
+	private boolean __failed;
+
+	private boolean __released;
+
+	public ReplicaConnectionHolder(ReplicaRouter router, ReplicaNode node, IDataSourceAdapter adapter) throws ConnectionException {
+		super(router.getName(), adapter);
+		this.__router = router;
+		this.__node = node;
+		node.acquire();
+	}
+
+	/**
+	 * @return 从库数据源名称
+	 */
+	public String getReplicaName() {
+		return __node.getName();
+	}
+
+	/**
+	 * 标记通过当前连接执行的操作出现错误，仅连接或可用性故障在释放时计入从库节点错误率，
+	 * 语法错误、约束冲突及参数错误等与从库健康无关的异常将被忽略，避免个别错误语句摘除全部从库
+	 * 
+	 * @param e 执行操作时产生的异常
+	 */
+	public void markError(SQLException e) {
+		if (isAvailabilityFailure(e)) {
+			this.__failed = true;
+		}
+	}
+
+	/**
+	 * @param e SQL异常对象
+	 * @return 判断异常是否属于连接或可用性故障：SQLState 为08类(连接异常)、连接类瞬时异常、可恢复异常或超时
+	 */
+	public static boolean isAvailabilityFailure(SQLException e) {
+		for (Throwable _cause = e; _cause != null; _cause = _cause.getCause()) {
+			if (_cause instanceof SQLTransientConnectionException || _cause instanceof SQLRecoverableException || _cause instanceof SQLTimeoutException) {
+				return true;
+			}
+			if (_cause instanceof SQLException) {
+				String _state = ((SQLException) _cause).getSQLState();
+				if (_state != null && _state.startsWith("08")) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.support.DefaultConnectionHolder#release()
+	 */
+	@Override
+	public void release() {
+		try {
+			super.release();
+		} finally {
+			if (!__released) {
+				__released = true;
+				__node.release();
+				__router.record(__node, !__failed);
+			}
+		}
+	}
+
+}
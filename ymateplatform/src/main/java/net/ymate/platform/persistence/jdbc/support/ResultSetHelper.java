@@ -29,6 +29,7 @@ import net.ymate.platform.commons.util.ClassUtils;
 import net.ymate.platform.commons.util.ClassUtils.ClassBeanWrapper;
 import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.persistence.base.OperatorException;
+import net.ymate.platform.persistence.jdbc.operator.ColumnarResultSet;
 
 /**
  * <p>
@@ -36,7 +37,7 @@ import net.ymate.platform.persistence.base.OperatorException;
  * </p>
  * <p>
  * 数据结果集处理助手类，用于帮助开发人员便捷的读取数据内容；
- * 注：此助手类仅支持结果集类型为 List&lt;Map&lt;String, Object&gt;&gt; 或 List&lt;Object[]&gt; 的数据；
+ * 注：此助手类仅支持结果集类型为 List&lt;Map&lt;String, Object&gt;&gt;、List&lt;Object[]&gt; 或 ColumnarResultSet 的数据；
  * </p>
  * 
  * @author 刘镇(suninformation@163.com)
@@ -83,16 +84,24 @@ public class ResultSetHelper {
 
 	private boolean __isObjectArray = false;
 
+	/**
+	 * 按列存储的结果集数据，不为空时将替代__dataSet
+	 */
+	private ColumnarResultSet __columnarSet;
+
 	private int __rowCount;
 
 	private int __colCount;
 
 	private int __position = 0;
 
-	private boolean __clearFlag = false;
-
 	private String __columnNames[] = null;
 
+	/**
+	 * 字段名称(小写)与列索引的对应关系，用于忽略大小写的字段查找
+	 */
+	private Map<String, Integer> __columnIndexes;
+
     public static ResultSetHelper bind(Object[] data) {
         List<Object[]> _data = new ArrayList<Object[]>();
         _data.add(data);
@@ -105,6 +114,17 @@ public class ResultSetHelper {
         return bind(_data);
     }
 
+	/**
+	 * @param dataSet 按列存储的结果集数据
+	 * @return 绑定结果集数据（若参数为空，则返回null）
+	 */
+	public static ResultSetHelper bind(ColumnarResultSet dataSet) {
+		if (dataSet != null && dataSet.getRowCount() > 0) {
+			return new ResultSetHelper(dataSet);
+		}
+		return null;
+	}
+
 	/**
 	 * @param dataSet 结果数据集合
 	 * @return 绑定结果集数据（若参数为空，则返回null）
@@ -112,7 +132,9 @@ public class ResultSetHelper {
 	public static ResultSetHelper bind(List<?> dataSet) {
 		if (dataSet != null && !dataSet.isEmpty()) {
 			Object _value = dataSet.get(0);
-			if (_value instanceof Map) {
+			if (_value instanceof ColumnarResultSet) {
+				return bind((ColumnarResultSet) _value);
+			} else if (_value instanceof Map) {
 				return new ResultSetHelper(dataSet, false);
 			} else if (_value instanceof Object[]) {
 				return new ResultSetHelper(dataSet, true);
@@ -146,6 +168,19 @@ public class ResultSetHelper {
 		}
 	}
 
+	/**
+	 * 构造器
+	 *
+	 * @param resultSet 按列存储的结果集数据
+	 */
+	private ResultSetHelper(ColumnarResultSet resultSet) {
+		this.__columnarSet = resultSet;
+		this.__dataSet = Collections.emptyList();
+		this.__rowCount = resultSet.getRowCount();
+		this.__colCount = resultSet.getColumnCount();
+		this.__columnNames = resultSet.getColumnNames();
+	}
+
 	/**
 	 * 按列名顺序获取字段值
 	 * 
@@ -159,7 +194,11 @@ public class ResultSetHelper {
 	@SuppressWarnings("unchecked")
 	private Object __getFieldVauleImp(int index) {
 		Object _returnValue = null;
-		if (!this.__dataSet.isEmpty()) {
+		if (this.__columnarSet != null) {
+			if (this.__position >= 0 && this.__position < this.__rowCount && index >= 0 && index < this.__colCount) {
+				_returnValue = this.__columnarSet.getValue(this.__position, index);
+			}
+		} else if (!this.__dataSet.isEmpty()) {
 			if (this.__position >= 0 && this.__position < this.__rowCount) {
 				if (index >= 0 && index < this.__colCount) {
 					if (this.__isObjectArray) {
@@ -199,26 +238,26 @@ public class ResultSetHelper {
 	@SuppressWarnings("unchecked")
 	private Object __getFieldValueImp(String columnName) {
 		Object _returnValue = null;
-		if (!this.__dataSet.isEmpty()) {
+		if (this.__columnarSet != null) {
+			if (this.__position >= 0 && this.__position < this.__rowCount) {
+				_returnValue = this.__columnarSet.getValue(this.__position, columnName);
+			}
+		} else if (!this.__dataSet.isEmpty()) {
 			if (this.__position >= 0 && this.__position < this.__rowCount) {
 				if (this.__isObjectArray) {
-					Object[] _obj = (Object[]) this.__dataSet.get(this.__position);
-					for (int i = 0; i < this.getColumnNames().length; i++) {
-						if (this.__columnNames[i].equalsIgnoreCase(columnName)) {
-							Object[] _object = (Object[]) _obj[i];
-							_returnValue = _object[1];
-							break;
-						}
+					int _index = __getColumnIndex(columnName);
+					if (_index >= 0) {
+						Object[] _obj = (Object[]) this.__dataSet.get(this.__position);
+						Object[] _object = (Object[]) _obj[_index];
+						_returnValue = _object[1];
 					}
 				} else {
 					Map<String, Object> map = (Map<String, Object>) this.__dataSet.get(this.__position);
 					_returnValue = map.get(columnName);
 					if (_returnValue == null) {
-						for (int i = 0; i < this.getColumnNames().length; i++) {
-							if (this.__columnNames[i].equalsIgnoreCase(columnName)) {
-								_returnValue = map.get(this.__columnNames[i]);
-								break;
-							}
+						int _index = __getColumnIndex(columnName);
+						if (_index >= 0) {
+							_returnValue = map.get(this.__columnNames[_index]);
 						}
 					}
 				}
@@ -227,6 +266,26 @@ public class ResultSetHelper {
 		return _returnValue;
 	}
 
+	/**
+	 * @param columnName 字段名称
+	 * @return 忽略大小写查找字段所在列索引，不存在则返回-1
+	 */
+	private int __getColumnIndex(String columnName) {
+		if (this.__columnIndexes == null) {
+			String[] _columnNames = this.getColumnNames();
+			if (_columnNames == null || columnName == null) {
+				return -1;
+			}
+			Map<String, Integer> _indexes = new HashMap<String, Integer>(_columnNames.length * 2);
+			for (int i = _columnNames.length - 1; i >= 0; i--) {
+				_indexes.put(_columnNames[i].toLowerCase(), i);
+			}
+			this.__columnIndexes = _indexes;
+		}
+		Integer _index = columnName == null ? null : this.__columnIndexes.get(columnName.toLowerCase());
+		return _index == null ? -1 : _index;
+	}
+
 	/**
 	 * 获取结果集的列名
 	 * 
@@ -266,22 +325,14 @@ public class ResultSetHelper {
 	 */
 	public void clearAll() {
 		if (this.__dataSet != null) {
-			this.__dataSet.clear();
+			if (this.__columnarSet == null) {
+				this.__dataSet.clear();
+			}
 			this.__dataSet = null;
 		}
+		this.__columnarSet = null;
 		this.__columnNames = null;
-		this.__clearFlag = true;
-	}
-
-	/* (non-Javadoc)
-	 * @see java.lang.Object#finalize()
-	 */
-	@Override
-	protected void finalize() throws Throwable {
-		if (!this.__clearFlag) {
-			clearAll();
-		}
-		super.finalize();
+		this.__columnIndexes = null;
 	}
 
 	// ---------------------------- Data Iterator Methods
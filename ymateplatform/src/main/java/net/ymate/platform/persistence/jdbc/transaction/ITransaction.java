@@ -135,6 +135,18 @@ public interface ITransaction {
 	 */
 	public abstract void setLevel(TransactionLevel level);
 
+	/**
+	 * @return 是否为只读事务，只读事务中的操作将被路由到从库执行
+	 */
+	public abstract boolean isReadOnly();
+
+	/**
+	 * 设置是否为只读事务
+	 * 
+	 * @param readOnly 是否只读
+	 */
+	public abstract void setReadOnly(boolean readOnly);
+
 	/**
 	 * @return 获取事务Id
 	 */
@@ -164,6 +176,13 @@ public interface ITransaction {
 	 */
 	public abstract void registerTransactionConnectionHolder(IConnectionHolder connectionHolder) throws ConnectionException;
 
+	/**
+	 * 注册事务同步回调，在事务提交、回滚或未提交即关闭后被调用一次
+	 * 
+	 * @param synchronization 事务同步回调对象
+	 */
+	public abstract void registerSynchronization(ITransSynchronization synchronization);
+
 	/**
 	 * 关闭事务（连接）
 	 */
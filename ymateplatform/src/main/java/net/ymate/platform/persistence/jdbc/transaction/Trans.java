@@ -15,14 +15,11 @@
  */
 package net.ymate.platform.persistence.jdbc.transaction;
 
-import net.ymate.platform.base.YMP;
-import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.util.RuntimeUtils;
 import net.ymate.platform.persistence.jdbc.transaction.ITransaction.TransactionLevel;
 import net.ymate.platform.persistence.jdbc.transaction.impl.DefaultTransaction;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 
 /**
@@ -55,7 +52,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public class Trans {
 
-	private static final Log _LOG = LogFactory.getLog(Trans.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.JDBC, Trans.class);
 
 	private static Class<ITransaction> __implClass;
 
@@ -86,13 +83,19 @@ public class Trans {
 	 * @throws Exception
 	 */
 	static void __begin(TransactionLevel level) throws Exception {
+		__begin(level, false);
+	}
+
+	static void __begin(TransactionLevel level, boolean readOnly) throws Exception {
 		if (null == __trans.get()) {
 			ITransaction tn = null == __implClass ? new DefaultTransaction() : __implClass.newInstance();
 			tn.setLevel(level);
+			// 嵌套事务沿用外层事务的只读属性
+			tn.setReadOnly(readOnly);
 			__trans.set(tn);
 			__count.set(0);
 			//
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.trans_begin"));
+			_LOG.info("ymp.jdbc.trans_begin");
 		}
 		__count.set(__count.get() + 1);
 	}
@@ -108,7 +111,7 @@ public class Trans {
 		}
 		if (__count.get() == 0) {
 			__trans.get().commit();
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.trans_commit"));
+			_LOG.info("ymp.jdbc.trans_commit");
 		}
 	}
 
@@ -121,7 +124,7 @@ public class Trans {
 		__count.set(num);
 		if (__count.get() == 0) {
 			__trans.get().rollback();
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.trans_rollback"));
+			_LOG.info("ymp.jdbc.trans_rollback");
 		} else {
 			__count.set(__count.get() - 1);
 		}
@@ -134,7 +137,7 @@ public class Trans {
 		if (__count.get() == 0) {
 			try {
 				__trans.get().close();
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.jdbc.trans_close"));
+				_LOG.info("ymp.jdbc.trans_close");
 			} finally {
 				__trans.set(null);
 			}
@@ -225,6 +228,18 @@ public class Trans {
 		Trans.__begin(level);
 	}
 
+	/**
+	 * 开始一个指定级别的事务，只读事务中的操作将被路由到从库执行
+	 * <p>需要手工用 try...catch...finally 来保证你提交和关闭这个事务</p>
+	 * 
+	 * @param level 事务级别
+	 * @param readOnly 是否只读
+	 * @throws Exception
+	 */
+	public static void begin(TransactionLevel level, boolean readOnly) throws Exception {
+		Trans.__begin(level, readOnly);
+	}
+
 	/**
 	 * 提交事务，执行前必需保证已经手工开始了一个事务
 	 * 
@@ -53,4 +53,9 @@ import net.ymate.platform.persistence.jdbc.transaction.ITransaction.TransactionL
 public @interface Transaction {
 
 	TransactionLevel value() default TransactionLevel.TRANSACTION_READ_COMMITTED;
+
+	/**
+	 * @return 是否为只读事务，开启读写分离时只读事务将使用从库连接
+	 */
+	boolean readOnly() default false;
 }
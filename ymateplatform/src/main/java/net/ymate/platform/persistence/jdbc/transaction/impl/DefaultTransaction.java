@@ -18,11 +18,13 @@ package net.ymate.platform.persistence.jdbc.transaction.impl;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.ymate.platform.commons.util.RuntimeUtils;
-import net.ymate.platform.commons.util.UUIDUtils;
 import net.ymate.platform.persistence.base.ConnectionException;
 import net.ymate.platform.persistence.jdbc.IConnectionHolder;
+import net.ymate.platform.persistence.jdbc.JDBC;
+import net.ymate.platform.persistence.jdbc.transaction.ITransSynchronization;
 import net.ymate.platform.persistence.jdbc.transaction.ITransaction;
 
 /**
@@ -51,18 +53,43 @@ import net.ymate.platform.persistence.jdbc.transaction.ITransaction;
  */
 public class DefaultTransaction implements ITransaction {
 
-	private List<TransactionInfo> __transList;
+	/**
+	 * 事务序号生成器，用于替代UUID生成事务ID
+	 */
+	private static final AtomicLong __ID_SEQUENCE = new AtomicLong();
+
+	private static final TransactionInfo[] __EMPTY_TRANS = new TransactionInfo[0];
+
+	/**
+	 * 按数据源序号存放的事务信息，用于直接定位连接持有者对象
+	 */
+	private TransactionInfo[] __transSlots;
+
+	/**
+	 * 按注册顺序存放的事务信息，用于提交、回滚及释放
+	 */
+	private TransactionInfo[] __transList;
+
+	private int __transCount;
 
 	private TransactionLevel __level;
 
-	private String __id;
+	private boolean __readOnly;
+
+	private long __id;
+
+	/**
+	 * 事务同步回调集合，按需创建
+	 */
+	private List<ITransSynchronization> __synchronizations;
 
 	/**
 	 * 构造器
 	 */
 	public DefaultTransaction() {
-		this.__id = UUIDUtils.uuid();
-		this.__transList = new ArrayList<TransactionInfo>();
+		this.__id = __ID_SEQUENCE.incrementAndGet();
+		this.__transSlots = __EMPTY_TRANS;
+		this.__transList = __EMPTY_TRANS;
 	}
 
 	/* (non-Javadoc)
@@ -70,12 +97,16 @@ public class DefaultTransaction implements ITransaction {
 	 */
 	public void close() throws SQLException {
 		try {
-			for (TransactionInfo p : __transList) {
-				p.release();
+			for (int _idx = 0; _idx < __transCount; _idx++) {
+				__transList[_idx].release();
 			}
 		} finally {
 			// 清除数据源记录
-			__transList.clear();
+			__transSlots = __EMPTY_TRANS;
+			__transList = __EMPTY_TRANS;
+			__transCount = 0;
+			// 未提交即关闭的事务按回滚处理
+			__doAfterCompletion(false);
 		}
 	}
 
@@ -83,20 +114,23 @@ public class DefaultTransaction implements ITransaction {
 	 * @see net.ymate.platform.persistence.jdbc.transaction.ITransaction#commit()
 	 */
 	public void commit() throws SQLException {
-		for (TransactionInfo p : __transList) {
+		for (int _idx = 0; _idx < __transCount; _idx++) {
 			// 提交事务
-			p.__conn.getConnection().commit();
+			__transList[_idx].__conn.getConnection().commit();
 		}
+		__doAfterCompletion(true);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.transaction.ITransaction#getConnectionHolder(java.lang.String)
 	 */
 	public IConnectionHolder getConnectionHolder(String dsName) {
-		for (TransactionInfo p : __transList) {
-			if (p.__dsName.equals(dsName)) {
-				return p.__conn;
-			}
+		if (__transCount == 0) {
+			return null;
+		}
+		int _ordinal = JDBC.getDataSourceOrdinal(dsName);
+		if (_ordinal < __transSlots.length && __transSlots[_ordinal] != null) {
+			return __transSlots[_ordinal].__conn;
 		}
 		return null;
 	}
@@ -106,28 +140,88 @@ public class DefaultTransaction implements ITransaction {
 	 */
 	public void registerTransactionConnectionHolder(IConnectionHolder connectionHolder) throws ConnectionException {
 		try {
+			// 连接池适配器已缓存连接的事务相关属性，此处的获取操作不会产生额外的驱动程序调用
 			if (connectionHolder.getConnection().getAutoCommit()) {
 				connectionHolder.getConnection().setAutoCommit(false);
 			}
-			__transList.add(new TransactionInfo(connectionHolder.getDataSourceName(), connectionHolder, getLevel()));
+			if (__readOnly) {
+				connectionHolder.getConnection().setReadOnly(true);
+			}
+			TransactionInfo _info = new TransactionInfo(connectionHolder.getDataSourceName(), connectionHolder, getLevel());
+			int _ordinal = JDBC.getDataSourceOrdinal(_info.__dsName);
+			if (_ordinal >= __transSlots.length) {
+				TransactionInfo[] _slots = new TransactionInfo[Math.max(_ordinal + 1, 4)];
+				System.arraycopy(__transSlots, 0, _slots, 0, __transSlots.length);
+				__transSlots = _slots;
+			}
+			__transSlots[_ordinal] = _info;
+			if (__transCount == __transList.length) {
+				TransactionInfo[] _list = new TransactionInfo[Math.max(__transCount * 2, 4)];
+				System.arraycopy(__transList, 0, _list, 0, __transCount);
+				__transList = _list;
+			}
+			__transList[__transCount++] = _info;
 		} catch (SQLException e) {
 			throw new ConnectionException(RuntimeUtils.unwrapThrow(e));
 		}
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.transaction.ITransaction#isReadOnly()
+	 */
+	public boolean isReadOnly() {
+		return __readOnly;
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.transaction.ITransaction#setReadOnly(boolean)
+	 */
+	public void setReadOnly(boolean readOnly) {
+		this.__readOnly = readOnly;
+	}
+
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.transaction.ITransaction#getId()
 	 */
 	public String getId() {
-		return __id;
+		return String.valueOf(__id);
 	}
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.jdbc.transaction.ITransaction#rollback()
 	 */
 	public void rollback() throws SQLException {
-		for (TransactionInfo p : __transList) {
-			p.__conn.getConnection().rollback();
+		try {
+			for (int _idx = 0; _idx < __transCount; _idx++) {
+				__transList[_idx].__conn.getConnection().rollback();
+			}
+		} finally {
+			__doAfterCompletion(false);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.jdbc.transaction.ITransaction#registerSynchronization(net.ymate.platform.persistence.jdbc.transaction.ITransSynchronization)
+	 */
+	public void registerSynchronization(ITransSynchronization synchronization) {
+		if (__synchronizations == null) {
+			__synchronizations = new ArrayList<ITransSynchronization>();
+		}
+		__synchronizations.add(synchronization);
+	}
+
+	/**
+	 * 回调并清除已注册的事务同步对象
+	 * 
+	 * @param committed 事务是否已提交
+	 */
+	private void __doAfterCompletion(boolean committed) {
+		if (__synchronizations != null) {
+			List<ITransSynchronization> _synchronizations = __synchronizations;
+			__synchronizations = null;
+			for (ITransSynchronization _sync : _synchronizations) {
+				_sync.afterCompletion(committed);
+			}
 		}
 	}
 
@@ -187,9 +281,12 @@ public class DefaultTransaction implements ITransaction {
 		TransactionInfo(String dsName, IConnectionHolder conn, TransactionLevel level) throws SQLException {
 			this.__dsName = dsName;
 			this.__conn = conn;
-			__level = conn.getConnection().getTransactionIsolation();
-			if (level != null && __level != level.getLevel()) {
-				conn.getConnection().setTransactionIsolation(level.getLevel());
+			// 未指定有效事务级别时无需读取或设置连接的隔离级别
+			if (level != null && level.getLevel() > 0) {
+				__level = conn.getConnection().getTransactionIsolation();
+				if (__level != level.getLevel()) {
+					conn.getConnection().setTransactionIsolation(level.getLevel());
+				}
 			}
 		}
 
@@ -65,7 +65,7 @@ public class DefaultTransactionProxyHandler implements InvocationHandler {
 		Object _resultObj = null;
 		Transaction _transAnno = method.getAnnotation(Transaction.class);
 		if (_transAnno != null) {
-			Trans.begin(_transAnno.value());
+			Trans.begin(_transAnno.value(), _transAnno.readOnly());
 			try {
 				_resultObj = method.invoke(this.targetObj, args);
 				Trans.commit();
@@ -39,7 +39,7 @@ package net.ymate.platform.persistence.support;
  *          </tr>
  *          </table>
  */
-public abstract class AbstractSessionEvent implements ISessionEvent {
+public abstract class AbstractSessionEvent implements ISessionEvent, IBatchProgressEvent {
 
 	/* (non-Javadoc)
 	 * @see net.ymate.platform.persistence.support.ISessionEvent#onInsertBefore(net.ymate.platform.persistence.support.SessionEventObject)
@@ -77,4 +77,10 @@ public abstract class AbstractSessionEvent implements ISessionEvent {
 	public void onRemoveAfter(SessionEventObject event) {
 	}
 
+	/* (non-Javadoc)
+	 * @see net.ymate.platform.persistence.support.IBatchProgressEvent#onBatchProgress(net.ymate.platform.persistence.support.SessionEventObject)
+	 */
+	public void onBatchProgress(SessionEventObject event) {
+	}
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.support;
+
+/**
+ * <p>
+ * IBatchProgressEvent
+ * </p>
+ * <p>
+ * 批量操作进度事件处理接口定义类，会话事件对象可选择实现此接口以接收批量插入或更新操作的批次提交通知；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月27日下午2:08:35</td>
+ *          </tr>
+ *          </table>
+ */
+public interface IBatchProgressEvent {
+
+	/**
+	 * 批量插入或更新操作每提交完成一个批次后事件调用
+	 * 
+	 * @param event
+	 */
+	public void onBatchProgress(SessionEventObject event);
+
+}
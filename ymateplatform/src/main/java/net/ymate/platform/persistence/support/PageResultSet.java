@@ -69,6 +69,11 @@ public class PageResultSet<T> {
 	 */
 	private List<T> __resultSet;
 
+	/**
+	 * 键集分页时用于获取下一页的续查标识
+	 */
+	private String __continuationToken;
+
 	/**
 	 * 构造器
 	 * 
@@ -94,6 +99,20 @@ public class PageResultSet<T> {
 		}
 	}
 
+	/**
+	 * 构造器
+	 * 
+	 * @param resultSet 结果数据集合
+	 * @param pageNumber 页号
+	 * @param pageSize 页记录数
+	 * @param recordCount 总计录数
+	 * @param continuationToken 下一页的续查标识，为null表示已无后续数据
+	 */
+	public PageResultSet(List<T> resultSet, int pageNumber, int pageSize, int recordCount, String continuationToken) {
+		this(resultSet, pageNumber, pageSize, recordCount);
+		this.__continuationToken = continuationToken;
+	}
+
 	/**
 	 * @return the pageNumber
 	 */
@@ -129,4 +148,11 @@ public class PageResultSet<T> {
 		return __resultSet;
 	}
 
+	/**
+	 * @return 键集分页时返回获取下一页的续查标识，若为 null 表示已无后续数据或未采用键集分页
+	 */
+	public String getContinuationToken() {
+		return __continuationToken;
+	}
+
 }
@@ -151,4 +151,16 @@ public class SessionEventObject extends EventObject {
 		return new SessionEventObject(entities).setEventType(EventType.INSERT_BATCH).setSourceClass(entityClass);
 	}
 
+	/**
+	 * @param entityClass 实体类型
+	 * @param eventType 批量操作类型(INSERT_BATCH、UPDATE_BATCH)
+	 * @param entities 当前已提交批次的实体对象集合
+	 * @param processed 截止当前批次已处理的记录数
+	 * @param total 总记录数
+	 * @return 创建批量操作进度事件对象，扩展参数依次为已处理记录数和总记录数
+	 */
+	public static SessionEventObject createBatchProgressEvent(Class<?> entityClass, EventType eventType, List<? extends Object> entities, int processed, int total) {
+		return new SessionEventObject(entities).setEventType(eventType).setSourceClass(entityClass).addExtraParam(processed).addExtraParam(total);
+	}
+
 }
@@ -15,6 +15,7 @@
  */
 package net.ymate.platform.plugin.impl;
 
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.base.YMP;
 import net.ymate.platform.commons.i18n.I18N;
 import net.ymate.platform.commons.logger.Logs;
@@ -25,8 +26,6 @@ import net.ymate.platform.configuration.IConfigurable;
 import net.ymate.platform.plugin.*;
 import net.ymate.platform.plugin.util.PluginUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 import java.io.File;
 import java.net.MalformedURLException;
@@ -61,7 +60,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DefaultPluginFactory implements IPluginFactory {
 
-	private static final Log _LOG = LogFactory.getLog(DefaultPluginFactory.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.PLUGIN, DefaultPluginFactory.class);
 
 	/**
 	 * 排除的接口集合，被包含的接口将不被插件工厂管理
@@ -123,17 +122,17 @@ public class DefaultPluginFactory implements IPluginFactory {
 			if (_pluginMeta == null || StringUtils.isBlank(_pluginMeta.getInitClass())) {
 				throw new PluginInstanceException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_impl_exception", _pluginMeta.getInitClass()));
 			} else {
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_plugin_impl", _pluginMeta.getInitClass()));
+				_LOG.info("ymp.plugin.create_plugin_impl", _pluginMeta.getInitClass());
 				IPlugin _pluginObj = (IPlugin) _pluginMeta.getClassLoader().loadClass(_pluginMeta.getInitClass()).newInstance();
 				if (_pluginObj != null) {
-					_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.plugin_impl_init", _pluginMeta.getInitClass()));
+					_LOG.info("ymp.plugin.plugin_impl_init", _pluginMeta.getInitClass());
 					_pluginObj.doInit(new PluginContext(this, _pluginMeta)); // 注：执行初始化时，其config对象还没有被填充
 					// 判断当前组件类是否实现了配置接口
 					if (Cfgs.isInited() && _pluginObj instanceof IConfigurable) {
 						// 获取当前组件的配置对象并尝试直接加载组件配置
 						PluginUtils.fillCfg(((IConfigurable) _pluginObj).getConfig(), _pluginObj);
 					}
-					_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.plugin_impl_startup", _pluginMeta.getInitClass()));
+					_LOG.info("ymp.plugin.plugin_impl_startup", _pluginMeta.getInitClass());
 					_pluginObj.doStart();
 					__PLUGIN_MAPS.put(_pluginMeta.getId(), _pluginObj);
 					//
@@ -145,7 +144,7 @@ public class DefaultPluginFactory implements IPluginFactory {
 						__PLUGIN_INTERFACE_WITH_PID.put(_interfaceName, _pluginMeta.getId());
 					}
 				}
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_plugin_impl_final", _pluginMeta.getInitClass()));
+				_LOG.info("ymp.plugin.create_plugin_impl_final", _pluginMeta.getInitClass());
 				return _pluginObj;
 			}
 		} catch (ClassNotFoundException e) {
@@ -180,7 +179,7 @@ public class DefaultPluginFactory implements IPluginFactory {
 	public synchronized ClassLoader getPluginClassLoader() {
 		if (__PLUGIN_CLASSLOADER == null) {
 			if (StringUtils.isNotBlank(__PLUGIN_CONFIG.getPluginHomePath())) {
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_factory_loader"));
+				_LOG.info("ymp.plugin.create_factory_loader");
 				ArrayList<URL> _commonLibs = new ArrayList<URL>();
 				// 扫描并分析插件通用类路径
 				File _pluginCommonFile = new File(__PLUGIN_CONFIG.getPluginHomePath(), ".plugin");
@@ -192,7 +191,7 @@ public class DefaultPluginFactory implements IPluginFactory {
                             File[] _libFiles = _tempFile.listFiles();
 							for (File _libFile : _libFiles != null ? _libFiles : new File[0]) {
 								if (_libFile.getPath().endsWith("jar")) {
-									_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.factory_load_jar_file", _libFile.getPath()));
+									_LOG.info("ymp.plugin.factory_load_jar_file", _libFile.getPath());
 									_commonLibs.add(_libFile.toURI().toURL());
 								}
 							}
@@ -200,7 +199,7 @@ public class DefaultPluginFactory implements IPluginFactory {
 						// 设置通用类文件路径
 						_tempFile = new File(_pluginCommonFile, "classes");
 						if (_tempFile.exists() && _tempFile.isDirectory()) {
-							_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.factory_load_classpath", _tempFile.getPath()));
+							_LOG.info("ymp.plugin.factory_load_classpath", _tempFile.getPath());
 							_commonLibs.add(_tempFile.toURI().toURL());
 						}
 					} catch (MalformedURLException e) {
@@ -211,7 +210,7 @@ public class DefaultPluginFactory implements IPluginFactory {
 					URL[] urls = _commonLibs.toArray(new URL[_commonLibs.size()]);
 					__PLUGIN_CLASSLOADER = new PluginClassLoader(urls, PluginMeta.class.getClassLoader());
 				}
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_factory_loader_final"));
+				_LOG.info("ymp.plugin.create_factory_loader_final");
 			}
 			// 若未找到插件通用类路径导致ClassLoader为空，则返回系统默认类加载器
 			if (__PLUGIN_CLASSLOADER == null) {
@@ -226,10 +225,10 @@ public class DefaultPluginFactory implements IPluginFactory {
 	 */
 	public void initialize(IPluginConfig config) throws PluginException {
 		__PLUGIN_CONFIG = config;
-		_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_default_factory_impl"));
+		_LOG.info("ymp.plugin.create_default_factory_impl");
 		IPluginParser _parser = config.getPluginParserClassImpl();
 		if (_parser != null) {
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_plugin_parser_impl", _parser.getClass().getName()));
+			_LOG.info("ymp.plugin.create_plugin_parser_impl", _parser.getClass().getName());
 			_parser.setPluginFactory(this);
 			 Map<String, PluginMeta> _metas = _parser.doParser();
 			 if (_metas != null && !_metas.isEmpty()) {
@@ -239,7 +238,7 @@ public class DefaultPluginFactory implements IPluginFactory {
 			throw new PluginException(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_default_factory_impl_exception"));
 		}
 		__IS_INITED = true;
-		_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_default_factory_final"));
+		_LOG.info("ymp.plugin.create_default_factory_final");
 	}
 
 	/* (non-Javadoc)
@@ -266,7 +265,7 @@ public class DefaultPluginFactory implements IPluginFactory {
 			IPlugin _p = null;
 			try {
 				_p = this.__PLUGIN_MAPS.get(pluginId);
-				_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.destory_plugin", _p.getPluginMeta().getInitClass()));
+				_LOG.info("ymp.plugin.destory_plugin", _p.getPluginMeta().getInitClass());
 				_p.destroy();
 			} catch (Exception e) {
 				Logs.warn(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.destory_plugin_exception", _p.getPluginMeta().getInitClass()), RuntimeUtils.unwrapThrow(e));
@@ -30,8 +30,7 @@ import java.util.Map;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
-import net.ymate.platform.base.YMP;
-import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.lang.BlurObject;
 import net.ymate.platform.commons.util.FileUtils;
 import net.ymate.platform.commons.util.ResourceUtils;
@@ -44,8 +43,6 @@ import net.ymate.platform.plugin.PluginMeta;
 import net.ymate.platform.plugin.PluginParserException;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -79,7 +76,7 @@ import org.xml.sax.SAXException;
  */
 public class DefaultPluginParser implements IPluginParser {
 
-	private static final Log _LOG = LogFactory.getLog(DefaultPluginParser.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.PLUGIN, DefaultPluginParser.class);
 
 	private static final String PLUGIN_TAG = "plugin";
 	
@@ -164,7 +161,7 @@ public class DefaultPluginParser implements IPluginParser {
      * @throws MalformedURLException
      */
     private ClassLoader __doCreatePluginClassLoader(String path) throws MalformedURLException {
-        _LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_plugin_loader", path));
+        _LOG.info("ymp.plugin.create_plugin_loader", path);
         ArrayList<URL> _libList = new ArrayList<URL>();
         // 设置JAR包路径
         File _pluginLibDir = new File(FileUtils.fixSeparator(path) + "lib");
@@ -173,7 +170,7 @@ public class DefaultPluginParser implements IPluginParser {
             for (File _libFile : _libFiles != null ? _libFiles : new File[0]) {
                 if (_libFile.isFile() && _libFile.getAbsolutePath().endsWith("jar")) {
                     _libList.add(_libFile.toURI().toURL());
-                    _LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.plugin_load_jar_file", path, _libFile.getPath()));
+                    _LOG.info("ymp.plugin.plugin_load_jar_file", path, _libFile.getPath());
                 }
             }
         }
@@ -181,9 +178,9 @@ public class DefaultPluginParser implements IPluginParser {
         _pluginLibDir = new File(FileUtils.fixSeparator(path) + "classes");
         if (_pluginLibDir.exists() && _pluginLibDir.isDirectory()) {
             _libList.add(_pluginLibDir.toURI().toURL());
-            _LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.plugin_load_classpath", path, _pluginLibDir.getPath()));
+            _LOG.info("ymp.plugin.plugin_load_classpath", path, _pluginLibDir.getPath());
         }
-        _LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.create_plugin_loader_final", path));
+        _LOG.info("ymp.plugin.create_plugin_loader_final", path);
         return new PluginClassLoader(_libList.toArray(new URL[0]), __pluginFactory.getPluginClassLoader());
     }
 
@@ -199,7 +196,7 @@ public class DefaultPluginParser implements IPluginParser {
 	 * @throws ParserConfigurationException
 	 */
 	private List<PluginMeta> __doManifestFileProcess(ClassLoader classLoader, String pluginPath, URL configFileUrl) throws IOException, SAXException, ParserConfigurationException {
-		_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.parse_plugin_file", configFileUrl.getFile()));
+		_LOG.info("ymp.plugin.parse_plugin_file", configFileUrl.getFile());
 		List<PluginMeta> _returnValue = new ArrayList<PluginMeta>();
 		//
 		List<Element> _pluginElements = new ArrayList<Element>();
@@ -258,7 +255,7 @@ public class DefaultPluginParser implements IPluginParser {
 		String version = pluginElement.getAttribute(ATTR_VERSION);
         String initClass = pluginElement.getAttribute(ATTR_CLASS);
 		if ((StringUtils.isBlank(alias) || StringUtils.isBlank(name)) && StringUtils.isBlank(initClass)) {
-			_LOG.warn(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.plugin_will_be_ignored", configFileUrl.getFile()));
+			_LOG.warn("ymp.plugin.plugin_will_be_ignored", configFileUrl.getFile());
 			return null;
 		}
         if (StringUtils.isBlank(id)) {
@@ -273,7 +270,7 @@ public class DefaultPluginParser implements IPluginParser {
 			disabled = new BlurObject(_node.getTextContent()).toBooleanValue();
 		}
 		if (disabled) {
-			_LOG.warn(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.plugin.plugin_will_be_disabled", configFileUrl.getFile()));
+			_LOG.warn("ymp.plugin.plugin_will_be_disabled", configFileUrl.getFile());
 			return null;
 		}
 		String author = pluginElement.getAttribute(ATTR_AUTHOR);
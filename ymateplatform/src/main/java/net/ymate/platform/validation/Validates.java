@@ -24,8 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import net.ymate.platform.base.YMP;
-import net.ymate.platform.commons.i18n.I18N;
+import net.ymate.platform.base.FrameworkLog;
 import net.ymate.platform.commons.lang.PairObject;
 import net.ymate.platform.commons.util.ClassUtils;
 import net.ymate.platform.commons.util.RuntimeUtils;
@@ -41,8 +40,6 @@ import net.ymate.platform.validation.impl.RegexValidator;
 import net.ymate.platform.validation.impl.RequriedValidator;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
 /**
  * <p>
@@ -70,7 +67,7 @@ import org.apache.commons.logging.LogFactory;
  */
 public class Validates {
 
-	private static final Log _LOG = LogFactory.getLog(Validates.class);
+	private static final FrameworkLog _LOG = FrameworkLog.getLog(FrameworkLog.VALIDATION, Validates.class);
 
 	/**
 	 * 注册的验证器映射
@@ -96,7 +93,7 @@ public class Validates {
 	public static void registerValidatorClass(Class<? extends IValidator> validatorClass) throws ValidationException {
 		IValidator _targetObj = null;
 		try {
-			_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.validation.register_validator", validatorClass.getName()));
+			_LOG.info("ymp.validation.register_validator", validatorClass.getName());
 			_targetObj = validatorClass.newInstance();
 			__VALIDATOR_MAPS.put(_targetObj.getName(), _targetObj);
 		} catch (Exception e) {
@@ -197,7 +194,7 @@ public class Validates {
 							}
 							
 						});
-						_LOG.info(I18N.formatMessage(YMP.__LSTRING_FILE, null, null, "ymp.validation.execute_validator", _validator.getName(), _fieldName, StringUtils.isBlank(_result)));
+						_LOG.info("ymp.validation.execute_validator", _validator.getName(), _fieldName, StringUtils.isBlank(_result));
 						if (StringUtils.isNotBlank(_result)) {
 							_resultValue.add(new ValidateResult(_fieldName, _result));
 							break;
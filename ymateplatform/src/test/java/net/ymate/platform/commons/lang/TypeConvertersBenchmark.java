@@ -0,0 +1,137 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.commons.lang;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+/**
+ * <p>
+ * TypeConvertersBenchmark
+ * </p>
+ * <p>
+ * 类型转换基准测试：对比 BlurObject.toObjectValue、TypeConverters.convert 及预先解析的 ITypeConverter 在请求参数绑定与 JDBC 结果映射常见类型组合下的平均耗时及内存分配量；直接运行 main 方法，不参与单元测试；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月28日上午11:48:33</td>
+ *          </tr>
+ *          </table>
+ */
+public class TypeConvertersBenchmark {
+
+	private static final int __OPERATIONS = 1000000;
+
+	/**
+	 * 转换方式
+	 */
+	private interface Strategy {
+
+		Object convert(Object value, Class<?> targetClass, ITypeConverter converter);
+
+	}
+
+	private static final Strategy __BLUR = new Strategy() {
+		public Object convert(Object value, Class<?> targetClass, ITypeConverter converter) {
+			return new BlurObject(value).toObjectValue(targetClass);
+		}
+	};
+
+	private static final Strategy __CONVERT = new Strategy() {
+		public Object convert(Object value, Class<?> targetClass, ITypeConverter converter) {
+			return TypeConverters.convert(value, targetClass);
+		}
+	};
+
+	private static final Strategy __RESOLVED = new Strategy() {
+		public Object convert(Object value, Class<?> targetClass, ITypeConverter converter) {
+			return converter.convert(value);
+		}
+	};
+
+	private static long __doAllocatedBytes() {
+		java.lang.management.ThreadMXBean _bean = ManagementFactory.getThreadMXBean();
+		if (_bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) _bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	private static int __doRun(Strategy strategy, Object[] values, Class<?> targetClass, ITypeConverter converter, int operations) {
+		int _hash = 0;
+		for (int _idx = 0; _idx < operations; _idx++) {
+			Object _result = strategy.convert(values[_idx & (values.length - 1)], targetClass, converter);
+			_hash += _result == null ? 0 : 1;
+		}
+		return _hash;
+	}
+
+	private static void __doMeasure(String name, Object[] values, Class<?> targetClass) {
+		ITypeConverter _converter = TypeConverters.get(values[0].getClass(), targetClass);
+		String[] _names = { "blur", "convert", "resolved" };
+		Strategy[] _strategies = { __BLUR, __CONVERT, __RESOLVED };
+		StringBuilder _line = new StringBuilder(String.format("%-22s", name));
+		for (int _idx = 0; _idx < _strategies.length; _idx++) {
+			// 预热
+			__doRun(_strategies[_idx], values, targetClass, _converter, __OPERATIONS);
+			long _allocated = __doAllocatedBytes();
+			long _startTime = System.nanoTime();
+			int _hash = __doRun(_strategies[_idx], values, targetClass, _converter, __OPERATIONS);
+			long _elapsed = System.nanoTime() - _startTime;
+			_allocated = __doAllocatedBytes() - _allocated;
+			if (_hash < 0) {
+				throw new IllegalStateException();
+			}
+			_line.append(String.format("  %s %6.1f ns %5.1f B", _names[_idx], (double) _elapsed / __OPERATIONS, (double) _allocated / __OPERATIONS));
+		}
+		System.out.println(_line);
+	}
+
+	/**
+	 * @return 返回长度为 2 的幂次的样本数组
+	 */
+	private static Object[] __doSamples(Object... values) {
+		return values;
+	}
+
+	public static void main(String[] args) {
+		for (int _round = 0; _round < 3; _round++) {
+			System.out.println("round " + (_round + 1));
+			// 请求参数绑定
+			__doMeasure("String -> int", __doSamples("1", "42", "-7", "1024"), int.class);
+			__doMeasure("String -> Long", __doSamples("1", "42", "-7", "1024"), Long.class);
+			__doMeasure("String -> boolean", __doSamples("true", "on", "0", "false"), boolean.class);
+			__doMeasure("String -> Double", __doSamples("1.5", "42", "-7.25", "0"), Double.class);
+			__doMeasure("String -> String", __doSamples("a", "bb", "ccc", "dddd"), String.class);
+			// JDBC 结果映射
+			__doMeasure("Integer -> Long", __doSamples(1, 42, -7, 1024), Long.class);
+			__doMeasure("BigDecimal -> double", __doSamples(new BigDecimal("1.5"), new BigDecimal("42"), new BigDecimal("-7.25"), BigDecimal.ZERO), double.class);
+			__doMeasure("Long -> Long", __doSamples(1L, 42L, -7L, 1024L), Long.class);
+		}
+	}
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.commons.lang;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>
+ * TypeConvertersTest
+ * </p>
+ * <p>
+ * 类型转换器测试：以原 BlurObject.toObjectValue 的转换结果为基准，固定字符、空白字符串及数值类型的转换行为，并列出有意修正的差异；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月28日上午11:05:17</td>
+ *          </tr>
+ *          </table>
+ */
+public class TypeConvertersTest extends TestCase {
+
+	private static final Object[] __VALUES = { null, "", "  ", "0", "12", "-7", "1.5", "true", "on", "1", "abc", "300", //
+			Integer.valueOf(5), Integer.valueOf(-3), Integer.valueOf(300), Long.valueOf(1L << 40), Double.valueOf(1.5), Float.valueOf(2.5f), //
+			new BigDecimal("3.75"), new BigDecimal("4"), BigInteger.valueOf(9), Short.valueOf((short) 4), Byte.valueOf((byte) 2), Boolean.FALSE, Character.valueOf('z') };
+
+	private static final Class<?>[] __TARGETS = { int.class, Integer.class, long.class, Long.class, double.class, Double.class, float.class, Float.class, //
+			short.class, Short.class, byte.class, Byte.class, boolean.class, Boolean.class, char.class, Character.class, String.class, BigInteger.class, BigDecimal.class };
+
+	private static Object __doBlur(Object value, Class<?> targetClass) {
+		try {
+			return new BlurObject(value).toObjectValue(targetClass);
+		} catch (RuntimeException e) {
+			return e.getClass();
+		}
+	}
+
+	private static Object __doConvert(Object value, Class<?> targetClass) {
+		try {
+			return TypeConverters.convert(value, targetClass);
+		} catch (RuntimeException e) {
+			return e.getClass();
+		}
+	}
+
+	/**
+	 * @return 判断是否为有意修正的差异：BlurObject 不支持 short 类型（返回NULL）、非 Character 对象转换为字符时恒为'\0'，
+	 *         以及 Boolean 对象转换为 boolean 时恒为 false
+	 */
+	private static boolean __isIntendedDifference(Object value, Class<?> targetClass) {
+		if (targetClass == short.class) {
+			return true;
+		}
+		if (value == null) {
+			return false;
+		}
+		if (targetClass == Short.class && !(value instanceof Short)) {
+			return true;
+		}
+		if ((targetClass == char.class || targetClass == Character.class) && !(value instanceof Character)) {
+			return true;
+		}
+		return targetClass == boolean.class && value instanceof Boolean;
+	}
+
+	public void testMatchesBlurObject() {
+		for (Object _value : __VALUES) {
+			for (Class<?> _target : __TARGETS) {
+				Object _expected = __doBlur(_value, _target);
+				if (_expected instanceof Class || __isIntendedDifference(_value, _target)) {
+					// BlurObject 抛出异常或存在缺陷的组合由其它测试单独固定
+					continue;
+				}
+				assertEquals(_value + " -> " + _target.getName(), _expected, __doConvert(_value, _target));
+			}
+		}
+	}
+
+	public void testCharConversions() {
+		// BlurObject 对非 Character 对象恒返回'\0'，现取字符串首字符或数值对应的字符
+		assertEquals(Character.valueOf(Character.MIN_VALUE), __doBlur("x", char.class));
+		assertEquals(Character.valueOf('x'), TypeConverters.convert("x", char.class));
+		assertEquals(Character.valueOf('a'), TypeConverters.convert("abc", Character.class));
+		assertEquals(Character.valueOf(' '), TypeConverters.convert("  ", char.class));
+		assertEquals(Character.valueOf(Character.MIN_VALUE), TypeConverters.convert("", char.class));
+		assertEquals(Character.valueOf('A'), TypeConverters.convert(Integer.valueOf(65), char.class));
+		// 与 BlurObject 一致的部分
+		assertEquals(__doBlur(null, char.class), TypeConverters.convert(null, char.class));
+		assertNull(TypeConverters.convert(null, Character.class));
+		assertEquals(__doBlur(Character.valueOf('z'), char.class), TypeConverters.convert(Character.valueOf('z'), char.class));
+		assertEquals("z", TypeConverters.convert(Character.valueOf('z'), String.class));
+	}
+
+	public void testBlankStringConversions() {
+		for (String _blank : new String[] { "", "  " }) {
+			// 与 BlurObject 一致：空白字符串视为0或false
+			for (Class<?> _target : new Class<?>[] { int.class, Integer.class, long.class, Long.class, double.class, Double.class, float.class, Float.class, boolean.class, Boolean.class, String.class }) {
+				assertEquals("'" + _blank + "' -> " + _target.getName(), __doBlur(_blank, _target), TypeConverters.convert(_blank, _target));
+			}
+			assertEquals(Integer.valueOf(0), TypeConverters.convert(_blank, int.class));
+			assertEquals(Boolean.FALSE, TypeConverters.convert(_blank, Boolean.class));
+			// BlurObject 对以下类型抛出 NumberFormatException 或返回NULL，现与 int 保持一致视为0
+			assertEquals(NumberFormatException.class, __doBlur(_blank, byte.class));
+			assertEquals(Byte.valueOf((byte) 0), TypeConverters.convert(_blank, byte.class));
+			assertEquals(Short.valueOf((short) 0), TypeConverters.convert(_blank, short.class));
+			// 大数类型视为NULL，不再抛出异常
+			assertEquals(NumberFormatException.class, __doBlur(_blank, BigDecimal.class));
+			assertNull(TypeConverters.convert(_blank, BigInteger.class));
+			assertNull(TypeConverters.convert(_blank, BigDecimal.class));
+		}
+		// 空值
+		assertEquals(Integer.valueOf(0), TypeConverters.convert(null, int.class));
+		assertNull(TypeConverters.convert(null, Integer.class));
+		assertEquals(Boolean.FALSE, TypeConverters.convert(null, boolean.class));
+		assertNull(TypeConverters.convert(null, String.class));
+		assertNull(TypeConverters.convert(null, BigDecimal.class));
+	}
+
+	public void testNumericConversions() {
+		BigDecimal _decimal = new BigDecimal("3.75");
+		// JDBC 驱动返回的数值类型到实体属性类型，与 BlurObject 一致
+		assertEquals(Integer.valueOf(3), TypeConverters.convert(_decimal, int.class));
+		assertEquals(Long.valueOf(3L), TypeConverters.convert(_decimal, Long.class));
+		assertEquals(Double.valueOf(3.75d), TypeConverters.convert(_decimal, double.class));
+		assertEquals(Float.valueOf(3.75f), TypeConverters.convert(_decimal, Float.class));
+		assertEquals(Boolean.TRUE, TypeConverters.convert(_decimal, boolean.class));
+		assertEquals(__doBlur(Long.valueOf(1L << 40), int.class), TypeConverters.convert(Long.valueOf(1L << 40), int.class));
+		assertEquals(Long.valueOf(5L), TypeConverters.convert(Integer.valueOf(5), Long.class));
+		assertEquals(BigDecimal.valueOf(5L), TypeConverters.convert(Integer.valueOf(5), BigDecimal.class));
+		assertEquals(BigInteger.valueOf(9L), TypeConverters.convert(Long.valueOf(9L), BigInteger.class));
+		assertEquals("3.75", TypeConverters.convert(_decimal, String.class));
+		// 字符串解析，非法格式与 BlurObject 一样抛出 NumberFormatException
+		assertEquals(Integer.valueOf(-7), TypeConverters.convert("-7", Integer.class));
+		assertEquals(Double.valueOf(1.5d), TypeConverters.convert("1.5", double.class));
+		assertEquals(NumberFormatException.class, __doBlur("1.5", int.class));
+		assertEquals(NumberFormatException.class, __doConvert("1.5", int.class));
+		assertEquals(NumberFormatException.class, __doConvert("abc", long.class));
+		assertEquals(Boolean.TRUE, TypeConverters.convert("on", boolean.class));
+		assertEquals(Boolean.TRUE, TypeConverters.convert("1", Boolean.class));
+		assertEquals(Boolean.FALSE, TypeConverters.convert("yes", boolean.class));
+		// BlurObject 不支持 short 类型，现按 int 解析后截断
+		assertNull(__doBlur("12", short.class));
+		assertEquals(Short.valueOf((short) 12), TypeConverters.convert("12", short.class));
+		assertEquals(Short.valueOf((short) 4), TypeConverters.convert(_decimal.add(BigDecimal.ONE), Short.class));
+		// BlurObject 经字符串解析 byte 及 BigInteger，遇小数或越界时抛出异常，现与 int 一致按数值截断
+		assertEquals(NumberFormatException.class, __doBlur(Integer.valueOf(300), byte.class));
+		assertEquals(Byte.valueOf((byte) 300), TypeConverters.convert(Integer.valueOf(300), byte.class));
+		assertEquals(NumberFormatException.class, __doBlur(_decimal, BigInteger.class));
+		assertEquals(BigInteger.valueOf(3L), TypeConverters.convert(_decimal, BigInteger.class));
+		// BlurObject 对 Boolean 对象转换为 boolean 恒返回 false
+		assertEquals(Boolean.FALSE, __doBlur(Boolean.TRUE, boolean.class));
+		assertEquals(Boolean.TRUE, TypeConverters.convert(Boolean.TRUE, boolean.class));
+	}
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.support;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+import net.ymate.platform.commons.lang.PairObject;
+import net.ymate.platform.mvc.annotation.RequestMapping;
+import net.ymate.platform.mvc.filter.IFilter;
+import net.ymate.platform.mvc.view.IView;
+import net.ymate.platform.validation.IValidateContext;
+import net.ymate.platform.validation.IValidator;
+import net.ymate.platform.validation.Validates;
+import net.ymate.platform.validation.annotation.Validate;
+import net.ymate.platform.validation.annotation.ValidateRule;
+import net.ymate.platform.validation.annotation.Validation;
+
+/**
+ * <p>
+ * RequestExecutorTest
+ * </p>
+ * <p>
+ * 共享 RequestExecutor 实例的并发测试，验证参数验证取值不会在并发请求间串扰，以及废弃的无参 getMethodParams 方法仍被调用；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2012-12-14下午4:45:10</td>
+ *          </tr>
+ *          </table>
+ */
+public class RequestExecutorTest extends TestCase {
+
+	private static final int __THREADS = 16;
+
+	private static final int __REQUESTS = 2000;
+
+	/**
+	 * 当前线程本次请求期望的参数值，由验证器比对参数验证取值映射中的实际值
+	 */
+	private static final ThreadLocal<String> __EXPECTED = new ThreadLocal<String>();
+
+	public static class SameRequestValidator implements IValidator {
+
+		public String getName() {
+			return "same_request";
+		}
+
+		public String validate(IValidateContext context) {
+			return __EXPECTED.get().equals(context.getFieldValue()) ? null : "leaked:" + context.getFieldValue();
+		}
+
+	}
+
+	public static class EchoController {
+
+		@RequestMapping("echo")
+		@Validation
+		public IView echo(@Validate(value = { @ValidateRule("same_request") }, name = "token") String token) {
+			// 执行到此处说明验证已通过，方法参数同样必须属于本次请求
+			if (!__EXPECTED.get().equals(token)) {
+				throw new IllegalStateException("leaked:" + token);
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * 模拟请求参数处理：写入取值映射后让出CPU，放大并发交错的机会
+	 */
+	private static class EchoExecutor extends RequestExecutor {
+
+		EchoExecutor(RequestMeta meta) {
+			super(meta);
+		}
+
+		@Override
+		protected Object[] getMethodParams(Map<String, Object> validateFieldValues) throws Exception {
+			String _token = __EXPECTED.get();
+			validateFieldValues.put("token", _token);
+			Thread.yield();
+			return new Object[] { _token };
+		}
+
+	}
+
+	/**
+	 * 仅重写废弃无参方法的旧式子类
+	 */
+	private static class LegacyExecutor extends RequestExecutor {
+
+		private boolean __called;
+
+		LegacyExecutor(RequestMeta meta) {
+			super(meta);
+		}
+
+		@Override
+		@SuppressWarnings("deprecation")
+		protected Object[] getMethodParams() {
+			__called = true;
+			return new Object[] { __EXPECTED.get() };
+		}
+
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		Validates.registerValidatorClass(SameRequestValidator.class);
+	}
+
+	private static RequestMeta __doCreateMeta() throws Exception {
+		Method _method = EchoController.class.getMethod("echo", String.class);
+		return new RequestMeta(new EchoController(), "/test", _method, new ArrayList<PairObject<Class<IFilter>, String>>());
+	}
+
+	public void testNoCrossRequestLeakage() throws Exception {
+		final RequestExecutor _executor = new EchoExecutor(__doCreateMeta());
+		final CountDownLatch _start = new CountDownLatch(1);
+		final CountDownLatch _done = new CountDownLatch(__THREADS);
+		final AtomicInteger _executed = new AtomicInteger();
+		final AtomicReference<Throwable> _failure = new AtomicReference<Throwable>();
+		for (int _idx = 0; _idx < __THREADS; _idx++) {
+			final int _threadIdx = _idx;
+			new Thread() {
+				@Override
+				public void run() {
+					try {
+						_start.await();
+						for (int _req = 0; _req < __REQUESTS && _failure.get() == null; _req++) {
+							__EXPECTED.set(_threadIdx + "-" + _req);
+							_executor.execute();
+							_executed.incrementAndGet();
+						}
+					} catch (Throwable e) {
+						_failure.compareAndSet(null, e);
+					} finally {
+						_done.countDown();
+					}
+				}
+			}.start();
+		}
+		_start.countDown();
+		_done.await();
+		if (_failure.get() != null) {
+			throw new AssertionError(_failure.get());
+		}
+		assertEquals(__THREADS * __REQUESTS, _executed.get());
+	}
+
+	public void testDeprecatedNoArgHookStillCalled() throws Exception {
+		LegacyExecutor _executor = new LegacyExecutor(__doCreateMeta());
+		__EXPECTED.set("legacy");
+		_executor.execute();
+		assertTrue(_executor.__called);
+	}
+
+}
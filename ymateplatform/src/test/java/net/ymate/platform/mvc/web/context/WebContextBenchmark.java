@@ -0,0 +1,176 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.web.context;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.ymate.platform.mvc.context.Context;
+
+/**
+ * <p>
+ * WebContextBenchmark
+ * </p>
+ * <p>
+ * WebContext 请求级开销基准测试：以动态代理模拟 Servlet 容器对象，对比原先每个请求预先创建参数副本、各作用域 Map 包装及上下文 HashMap 的方式与现字段化、延迟创建的 bindContext/releaseContext，输出每个请求的平均耗时及内存分配量；直接运行 main 方法，不参与单元测试；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月28日下午2:15:46</td>
+ *          </tr>
+ *          </table>
+ */
+public class WebContextBenchmark {
+
+	private static final int __REQUESTS = 2000000;
+
+	/**
+	 * 原 WebContext 的实现方式：以 HashMap 保存全部上下文对象
+	 */
+	private static class LegacyWebContext extends Context {
+
+		LegacyWebContext(Map<String, Object> context) {
+			super(context);
+			put(WebContext.WEB_REQUEST_CONTEXT, null);
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		static Map<String, Object> createWebContextMap(ServletContext servletContext, HttpServletRequest request, HttpServletResponse response, Locale locale) {
+			Map _requestMap = new RequestMap(request);
+			Map _params = new HashMap(request.getParameterMap());
+			Map _session = new SessionMap(request);
+			Map _application = new ApplicationMap(servletContext);
+			HashMap<String, Object> _context = new HashMap<String, Object>();
+			_context.put(WebContext.PARAMETERS, new HashMap(_params));
+			_context.put(WebContext.REQUEST, _requestMap);
+			_context.put(WebContext.SESSION, _session);
+			_context.put(WebContext.APPLICATION, _application);
+			_context.put(WebContext.LOCALE, locale);
+			_context.put(WebContext.HTTP_REQUEST, request);
+			_context.put(WebContext.HTTP_RESPONSE, response);
+			_context.put(WebContext.SERVLET_CONTEXT, servletContext);
+			return _context;
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T __doStub(Class<T> clazz, final Map<String, Object> returnValues) {
+		return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[] { clazz }, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				return returnValues.get(method.getName());
+			}
+		});
+	}
+
+	private static long __doAllocatedBytes() {
+		java.lang.management.ThreadMXBean _bean = ManagementFactory.getThreadMXBean();
+		if (_bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) _bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	private static ServletContext __servletContext;
+
+	private static HttpServletRequest __request;
+
+	private static HttpServletResponse __response;
+
+	/**
+	 * @param legacy 是否采用原实现方式
+	 * @param touch 是否模拟一次典型的请求处理：读取请求参数、存入一个路径变量并读取区域设置
+	 */
+	private static int __doRequest(boolean legacy, boolean touch) {
+		int _hash = 0;
+		if (legacy) {
+			Context.setContext(new LegacyWebContext(LegacyWebContext.createWebContextMap(__servletContext, __request, __response, Locale.CHINA)));
+			if (touch) {
+				Context _context = Context.getContext();
+				_hash += ((Map<?, ?>) _context.get(WebContext.PARAMETERS)).size();
+				_context.put("id", "1024");
+				_hash += _context.get(WebContext.LOCALE).hashCode();
+			}
+			Context.setContext(null);
+		} else {
+			WebContext.bindContext(__servletContext, __request, __response, null);
+			if (touch) {
+				WebContext _context = WebContext.getContext();
+				_hash += _context.getParameters().size();
+				_context.put("id", "1024");
+				_context.setLocale(Locale.CHINA);
+				_hash += _context.getLocale().hashCode();
+			}
+			WebContext.releaseContext();
+		}
+		return _hash;
+	}
+
+	private static void __doMeasure(boolean legacy, boolean touch) {
+		for (int _idx = 0; _idx < __REQUESTS / 10; _idx++) {
+			__doRequest(legacy, touch);
+		}
+		long _hash = 0;
+		long _allocated = __doAllocatedBytes();
+		long _startTime = System.nanoTime();
+		for (int _idx = 0; _idx < __REQUESTS; _idx++) {
+			_hash += __doRequest(legacy, touch);
+		}
+		long _elapsed = System.nanoTime() - _startTime;
+		_allocated = __doAllocatedBytes() - _allocated;
+		System.out.println(String.format("%-7s %-10s %8.1f ns/request  %7.1f B/request  (hash %d)", legacy ? "legacy" : "current", touch ? "touch" : "bind-only", (double) _elapsed / __REQUESTS, (double) _allocated / __REQUESTS, _hash));
+	}
+
+	public static void main(String[] args) {
+		Map<String, String[]> _parameters = new HashMap<String, String[]>();
+		for (int _idx = 0; _idx < 8; _idx++) {
+			_parameters.put("param" + _idx, new String[] { "value" + _idx });
+		}
+		Map<String, Object> _requestValues = new HashMap<String, Object>();
+		_requestValues.put("getParameterMap", _parameters);
+		_requestValues.put("getLocale", Locale.CHINA);
+		__request = __doStub(HttpServletRequest.class, _requestValues);
+		__response = __doStub(HttpServletResponse.class, new HashMap<String, Object>());
+		__servletContext = __doStub(ServletContext.class, new HashMap<String, Object>());
+		for (int _round = 0; _round < 3; _round++) {
+			__doMeasure(true, false);
+			__doMeasure(false, false);
+			__doMeasure(true, true);
+			__doMeasure(false, true);
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.web.support;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import net.ymate.platform.mvc.context.IRequestContext;
+
+/**
+ * <p>
+ * RequestMappingBenchmark
+ * </p>
+ * <p>
+ * 参数化请求映射匹配的基准测试：分别注册 10、100、1000 个映射，对比原先遍历映射集合的 doParser(context, mappingSet) 与预编译前缀树的 doParser(context)，输出每次匹配的平均耗时；直接运行 main 方法，不参与单元测试；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月28日上午9:26:51</td>
+ *          </tr>
+ *          </table>
+ */
+public class RequestMappingBenchmark {
+
+	private static final int __REQUESTS = 1000;
+
+	private static IRequestContext __doCreateContext(final String requestMapping) {
+		return new IRequestContext() {
+
+			public String getRequestMapping() {
+				return requestMapping;
+			}
+
+		};
+	}
+
+	/**
+	 * @param index 映射序号
+	 * @return 奇数序号为两个参数段的映射，偶数序号为一个参数段的映射
+	 */
+	private static String __doBuildMapping(int index) {
+		String _base = "/module" + (index % 10) + "/resource" + index + "/{id}";
+		return index % 2 == 0 ? _base : _base + "/items/{itemId}";
+	}
+
+	private static String __doBuildRequest(int index, Random random) {
+		String _base = "/module" + (index % 10) + "/resource" + index + "/" + random.nextInt(100000);
+		return index % 2 == 0 ? _base : _base + "/items/" + random.nextInt(100000);
+	}
+
+	private static long __doMeasure(int routes, boolean trie, RequestMappingParser parser, Set<String> mappingSet, IRequestContext[] requests, int iterations) {
+		long _matched = 0;
+		long _startTime = System.nanoTime();
+		for (int _round = 0; _round < iterations; _round++) {
+			for (IRequestContext _request : requests) {
+				String _key = trie ? parser.doParser(_request) : parser.doParser(_request, mappingSet);
+				if (_key != null) {
+					_matched++;
+				}
+			}
+		}
+		long _elapsed = System.nanoTime() - _startTime;
+		System.out.println(String.format("routes=%-5d %-6s %10.1f ns/match  (matched %d)", routes, trie ? "trie" : "scan", (double) _elapsed / ((long) iterations * requests.length), _matched));
+		return _matched;
+	}
+
+	private static void __doRun(int routes, int iterations) {
+		Random _random = new Random(routes);
+		Set<String> _mappingSet = new LinkedHashSet<String>();
+		RequestMappingParser _parser = new RequestMappingParser();
+		for (int _idx = 0; _idx < routes; _idx++) {
+			String _mapping = __doBuildMapping(_idx);
+			_mappingSet.add(_mapping);
+			_parser.addMapping(_mapping);
+		}
+		List<IRequestContext> _requests = new ArrayList<IRequestContext>();
+		for (int _idx = 0; _idx < __REQUESTS; _idx++) {
+			int _route = _random.nextInt(routes);
+			IRequestContext _request = __doCreateContext(__doBuildRequest(_route, _random));
+			// 前缀树须匹配到请求对应的映射
+			if (!__doBuildMapping(_route).equals(_parser.doParser(_request))) {
+				throw new IllegalStateException("trie mismatch: " + _request.getRequestMapping());
+			}
+			_requests.add(_request);
+		}
+		IRequestContext[] _requestArray = _requests.toArray(new IRequestContext[_requests.size()]);
+		// 预热
+		__doMeasure(routes, false, _parser, _mappingSet, _requestArray, Math.max(iterations / 10, 1));
+		__doMeasure(routes, true, _parser, _mappingSet, _requestArray, Math.max(iterations / 10, 1));
+		for (int _round = 0; _round < 3; _round++) {
+			__doMeasure(routes, false, _parser, _mappingSet, _requestArray, iterations);
+			__doMeasure(routes, true, _parser, _mappingSet, _requestArray, iterations);
+		}
+	}
+
+	public static void main(String[] args) {
+		int _iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		__doRun(10, _iterations);
+		__doRun(100, _iterations);
+		// 原方式每次匹配需遍历全部映射，减少迭代次数以控制运行时间
+		__doRun(1000, Math.max(_iterations / 10, 1));
+	}
+
+}
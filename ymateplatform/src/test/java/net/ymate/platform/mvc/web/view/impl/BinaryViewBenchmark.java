@@ -0,0 +1,285 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.web.view.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.ymate.platform.mvc.web.context.WebContext;
+import net.ymate.platform.mvc.web.view.AbstractWebView;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * <p>
+ * BinaryViewBenchmark
+ * </p>
+ * <p>
+ * BinaryView 文件输出基准测试：对比原先通过 FileInputStream 以堆内缓冲区复制与现通过 FileChannel.transferTo 传输的方式，分别输出至普通输出流及本机 Socket 通道，统计默认 1GB 文件每次渲染的耗时、吞吐量、CPU 时间及内存分配量；直接运行 main 方法，不参与单元测试；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月28日下午3:32:09</td>
+ *          </tr>
+ *          </table>
+ */
+public class BinaryViewBenchmark {
+
+	/**
+	 * 原 BinaryView 输出文件的方式：通过 FileInputStream 以堆内缓冲区逐块复制至响应输出流
+	 */
+	private static class LegacyBinaryView extends AbstractWebView {
+
+		private final File __file;
+
+		LegacyBinaryView(File file) {
+			this.__file = file;
+		}
+
+		protected void renderView() throws Exception {
+			HttpServletResponse response = WebContext.getResponse();
+			response.setContentType("application/octet-stream");
+			// 原实现未关闭文件流，此处补充关闭以免基准测试耗尽文件句柄
+			FileInputStream _input = new FileInputStream(__file);
+			try {
+				response.setContentLength((int) IOUtils.copyLarge(_input, response.getOutputStream()));
+			} finally {
+				IOUtils.closeQuietly(_input);
+			}
+		}
+
+	}
+
+	/**
+	 * 数据输出目标
+	 */
+	private interface ISink {
+
+		ServletOutputStream getOutputStream();
+
+		/**
+		 * 等待已写出的数据全部到达目标，返回到达的总字节数
+		 */
+		long await(long expected) throws Exception;
+
+	}
+
+	/**
+	 * 仅统计写入字节数的普通输出流(非 Channel)，BinaryView 需通过 Channels.newChannel 包装后传输
+	 */
+	private static class CountingSink extends ServletOutputStream implements ISink {
+
+		private long __count;
+
+		public void write(int b) throws IOException {
+			__count++;
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			__count += len;
+		}
+
+		public ServletOutputStream getOutputStream() {
+			return this;
+		}
+
+		public long await(long expected) {
+			return __count;
+		}
+
+	}
+
+	/**
+	 * 写入本机 Socket 的输出流，同时实现 WritableByteChannel 以模拟容器直接暴露 Socket 通道的情况，
+	 * 对端由后台线程持续读取并丢弃数据
+	 */
+	private static class SocketSink extends ServletOutputStream implements ISink, WritableByteChannel {
+
+		private final SocketChannel __channel;
+
+		private final AtomicLong __received = new AtomicLong();
+
+		SocketSink() throws IOException {
+			final ServerSocketChannel _server = ServerSocketChannel.open();
+			_server.socket().bind(new InetSocketAddress("127.0.0.1", 0));
+			__channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", _server.socket().getLocalPort()));
+			final SocketChannel _peer = _server.accept();
+			_server.close();
+			Thread _reader = new Thread(new Runnable() {
+				public void run() {
+					ByteBuffer _buffer = ByteBuffer.allocateDirect(256 * 1024);
+					try {
+						int _read;
+						while ((_read = _peer.read(_buffer)) >= 0) {
+							__received.addAndGet(_read);
+							_buffer.clear();
+						}
+					} catch (IOException e) {
+						// 连接关闭
+					}
+				}
+			}, "BinaryViewBenchmark-reader");
+			_reader.setDaemon(true);
+			_reader.start();
+		}
+
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			ByteBuffer _buffer = ByteBuffer.wrap(b, off, len);
+			while (_buffer.hasRemaining()) {
+				__channel.write(_buffer);
+			}
+		}
+
+		public int write(ByteBuffer src) throws IOException {
+			return __channel.write(src);
+		}
+
+		public boolean isOpen() {
+			return __channel.isOpen();
+		}
+
+		public ServletOutputStream getOutputStream() {
+			return this;
+		}
+
+		public long await(long expected) throws Exception {
+			while (__received.get() < expected) {
+				Thread.sleep(1);
+			}
+			return __received.get();
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T __doStub(Class<T> clazz, final Map<String, Object> returnValues) {
+		return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[] { clazz }, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				return returnValues.get(method.getName());
+			}
+		});
+	}
+
+	private static void __doBind(ISink sink) {
+		Map<String, Object> _requestValues = new HashMap<String, Object>();
+		_requestValues.put("getMethod", "GET");
+		_requestValues.put("getDateHeader", Long.valueOf(-1));
+		Map<String, Object> _responseValues = new HashMap<String, Object>();
+		_responseValues.put("getOutputStream", sink.getOutputStream());
+		_responseValues.put("isCommitted", Boolean.FALSE);
+		WebContext.bindContext(null, __doStub(HttpServletRequest.class, _requestValues), __doStub(HttpServletResponse.class, _responseValues), null);
+	}
+
+	private static File __doCreateFile(long length) throws IOException {
+		File _file = File.createTempFile("BinaryViewBenchmark", ".bin");
+		_file.deleteOnExit();
+		FileOutputStream _output = new FileOutputStream(_file);
+		try {
+			byte[] _chunk = new byte[1024 * 1024];
+			for (int _idx = 0; _idx < _chunk.length; _idx++) {
+				_chunk[_idx] = (byte) (_idx * 31 + (_idx >>> 8));
+			}
+			for (long _written = 0; _written < length; _written += _chunk.length) {
+				_output.write(_chunk, 0, (int) Math.min(_chunk.length, length - _written));
+			}
+		} finally {
+			_output.close();
+		}
+		return _file;
+	}
+
+	private static long __doAllocatedBytes() {
+		java.lang.management.ThreadMXBean _bean = ManagementFactory.getThreadMXBean();
+		if (_bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) _bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	private static void __doMeasure(String sinkName, ISink sink, boolean legacy, File file, long[] total) throws Exception {
+		__doBind(sink);
+		AbstractWebView _view = legacy ? new LegacyBinaryView(file) : new BinaryView(file);
+		long _allocated = __doAllocatedBytes();
+		long _cpuTime = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+		long _startTime = System.nanoTime();
+		_view.render();
+		long _received = sink.await(total[0] + file.length());
+		long _elapsed = System.nanoTime() - _startTime;
+		_cpuTime = ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime() - _cpuTime;
+		_allocated = __doAllocatedBytes() - _allocated;
+		if (_received - total[0] != file.length()) {
+			throw new IllegalStateException("transferred " + (_received - total[0]) + " of " + file.length() + " bytes");
+		}
+		total[0] = _received;
+		System.out.println(String.format("%-6s %-11s %8.1f ms  %7.1f MB/s  %8.1f ms cpu  %8.1f KB allocated", sinkName, legacy ? "copyLarge" : "transferTo", _elapsed / 1e6, file.length() / (_elapsed / 1e9) / (1024 * 1024), _cpuTime / 1e6, _allocated / 1024.0));
+	}
+
+	/**
+	 * @param args 可选参数：文件大小(MB)，默认 1024
+	 */
+	public static void main(String[] args) throws Exception {
+		long _length = (args.length > 0 ? Long.parseLong(args[0]) : 1024L) * 1024 * 1024;
+		File _file = __doCreateFile(_length);
+		try {
+			CountingSink _counting = new CountingSink();
+			SocketSink _socket = new SocketSink();
+			long[] _countingTotal = new long[1];
+			long[] _socketTotal = new long[1];
+			for (int _round = 0; _round < 3; _round++) {
+				__doMeasure("memory", _counting, true, _file, _countingTotal);
+				__doMeasure("memory", _counting, false, _file, _countingTotal);
+				__doMeasure("socket", _socket, true, _file, _socketTotal);
+				__doMeasure("socket", _socket, false, _file, _socketTotal);
+			}
+		} finally {
+			_file.delete();
+		}
+	}
+
+}
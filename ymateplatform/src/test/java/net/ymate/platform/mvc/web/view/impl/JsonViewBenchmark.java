@@ -0,0 +1,261 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.mvc.web.view.impl;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import net.ymate.platform.mvc.MVC;
+import net.ymate.platform.mvc.web.IWebMvcConfig;
+import net.ymate.platform.mvc.web.WebMVC;
+import net.ymate.platform.mvc.web.context.WebContext;
+import net.ymate.platform.mvc.web.view.AbstractWebView;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * <p>
+ * JsonViewBenchmark
+ * </p>
+ * <p>
+ * JsonView 输出基准测试：对比原先构造时转换为 JSON 对象树、渲染时生成完整字符串再编码输出的方式与现渲染时直接序列化至输出流的方式，输出不同数据量下每次渲染的平均耗时、吞吐量及内存分配量；直接运行 main 方法，不参与单元测试；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月28日下午3:32:09</td>
+ *          </tr>
+ *          </table>
+ */
+public class JsonViewBenchmark {
+
+	/**
+	 * 原 JsonView 的实现方式
+	 */
+	private static class LegacyJsonView extends AbstractWebView {
+
+		private final Object __jsonObj;
+
+		private final String __jsonpCallback;
+
+		LegacyJsonView(Object obj, String jsonpCallback) {
+			this.__jsonObj = JSON.toJSON(obj);
+			this.__jsonpCallback = jsonpCallback;
+		}
+
+		protected void renderView() throws Exception {
+			HttpServletResponse response = WebContext.getResponse();
+			StringBuilder _jsonStr = new StringBuilder(__jsonObj.toString());
+			if (this.__jsonpCallback != null) {
+				_jsonStr.insert(0, this.__jsonpCallback + "(").append(");");
+			}
+			IOUtils.write(_jsonStr.toString(), response.getOutputStream(), StringUtils.defaultIfEmpty(WebMVC.getConfig().getCharsetEncoding(), response.getCharacterEncoding()));
+		}
+
+	}
+
+	/**
+	 * 仅统计写入字节数的输出流
+	 */
+	private static class CountingOutputStream extends ServletOutputStream {
+
+		long count;
+
+		public void write(int b) throws IOException {
+			count++;
+		}
+
+		public void write(byte[] b, int off, int len) throws IOException {
+			count += len;
+		}
+
+	}
+
+	public static class Item {
+
+		private long id;
+
+		private String name;
+
+		private double price;
+
+		private boolean available;
+
+		private List<String> tags;
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public double getPrice() {
+			return price;
+		}
+
+		public void setPrice(double price) {
+			this.price = price;
+		}
+
+		public boolean isAvailable() {
+			return available;
+		}
+
+		public void setAvailable(boolean available) {
+			this.available = available;
+		}
+
+		public List<String> getTags() {
+			return tags;
+		}
+
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+
+	}
+
+	private static final CountingOutputStream __OUTPUT = new CountingOutputStream();
+
+	@SuppressWarnings("unchecked")
+	private static <T> T __doStub(Class<T> clazz, final Map<String, Object> returnValues) {
+		return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[] { clazz }, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				return returnValues.get(method.getName());
+			}
+		});
+	}
+
+	/**
+	 * 以最小配置替代 WebMVC 初始化，仅提供字符集编码
+	 */
+	private static void __doInitialize() throws Exception {
+		Map<String, Object> _configValues = new HashMap<String, Object>();
+		_configValues.put("getCharsetEncoding", "UTF-8");
+		Field _field = MVC.class.getDeclaredField("__MVC_CONFIG");
+		_field.setAccessible(true);
+		_field.set(null, __doStub(IWebMvcConfig.class, _configValues));
+		Map<String, Object> _responseValues = new HashMap<String, Object>();
+		_responseValues.put("getOutputStream", __OUTPUT);
+		_responseValues.put("getCharacterEncoding", "UTF-8");
+		_responseValues.put("isCommitted", Boolean.FALSE);
+		WebContext.bindContext(null, null, __doStub(HttpServletResponse.class, _responseValues), null);
+	}
+
+	private static List<Item> __doCreateItems(int count) {
+		List<Item> _items = new ArrayList<Item>(count);
+		for (int _idx = 0; _idx < count; _idx++) {
+			Item _item = new Item();
+			_item.setId(_idx);
+			_item.setName("商品名称-item-" + _idx);
+			_item.setPrice(_idx * 1.25);
+			_item.setAvailable(_idx % 3 != 0);
+			List<String> _tags = new ArrayList<String>();
+			_tags.add("tag" + (_idx % 7));
+			_tags.add("category" + (_idx % 13));
+			_item.setTags(_tags);
+			_items.add(_item);
+		}
+		return _items;
+	}
+
+	private static long __doAllocatedBytes() {
+		java.lang.management.ThreadMXBean _bean = ManagementFactory.getThreadMXBean();
+		if (_bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) _bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	private static long __doRender(boolean legacy, List<Item> items) throws Exception {
+		long _start = __OUTPUT.count;
+		if (legacy) {
+			new LegacyJsonView(items, "callback").render();
+		} else {
+			new JsonView(items).withJsonpCallback("callback").render();
+		}
+		return __OUTPUT.count - _start;
+	}
+
+	private static void __doMeasure(boolean legacy, List<Item> items, int iterations) throws Exception {
+		for (int _idx = 0; _idx < Math.max(iterations / 5, 2); _idx++) {
+			__doRender(legacy, items);
+		}
+		long _bytes = 0;
+		long _allocated = __doAllocatedBytes();
+		long _startTime = System.nanoTime();
+		for (int _idx = 0; _idx < iterations; _idx++) {
+			_bytes += __doRender(legacy, items);
+		}
+		long _elapsed = System.nanoTime() - _startTime;
+		_allocated = __doAllocatedBytes() - _allocated;
+		System.out.println(String.format("%-7s items=%-6d %9.3f ms/render  %7.1f MB/s  %10.1f KB allocated/render  (%d bytes/render)", legacy ? "legacy" : "stream", items.size(), _elapsed / 1e6 / iterations, _bytes / (_elapsed / 1e9) / (1024 * 1024), _allocated / 1024.0 / iterations, _bytes / iterations));
+	}
+
+	public static void main(String[] args) throws Exception {
+		__doInitialize();
+		// 两种方式的输出须一致
+		for (int _count : new int[] { 10, 1000 }) {
+			List<Item> _items = __doCreateItems(_count);
+			if (__doRender(true, _items) != __doRender(false, _items)) {
+				throw new IllegalStateException("output length differs");
+			}
+		}
+		int[][] _cases = { { 10, 20000 }, { 1000, 500 }, { 20000, 30 } };
+		for (int _round = 0; _round < 3; _round++) {
+			for (int[] _case : _cases) {
+				List<Item> _items = __doCreateItems(_case[0]);
+				__doMeasure(true, _items, _case[1]);
+				__doMeasure(false, _items, _case[1]);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import net.ymate.platform.persistence.jdbc.base.dialect.impl.MySqlDialect;
+import net.ymate.platform.persistence.jdbc.support.JdbcDataSourceCfgMeta;
+
+/**
+ * <p>
+ * JdbcTestSupport
+ * </p>
+ * <p>
+ * 基于 H2 内存数据库的 JDBC 模块测试基类，负责创建数据源配置、初始化及销毁 JDBC 模块；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日下午4:20:18</td>
+ *          </tr>
+ *          </table>
+ */
+public abstract class JdbcTestSupport extends TestCase {
+
+	public static final String H2_DRIVER = "org.h2.Driver";
+
+	static {
+		// H2 兼容 MySQL 的 limit 分页语法
+		JDBC.registerDialectClass("H2", MySqlDialect.class);
+	}
+
+	/**
+	 * @param dbName 内存数据库名称
+	 * @return 返回在最后一个连接关闭后仍保留数据的 H2 内存数据库连接串
+	 */
+	public static String memUrl(String dbName) {
+		return "jdbc:h2:mem:" + dbName + ";DB_CLOSE_DELAY=-1";
+	}
+
+	/**
+	 * @param name 数据源名称
+	 * @param adapter 数据源适配器名称
+	 * @param url 数据库连接串
+	 * @param params 数据源适配器参数，可为NULL
+	 * @param replicas 从库列表，可为NULL
+	 * @param routingParams 读写分离路由参数，可为NULL
+	 * @return 创建数据源配置
+	 */
+	public static JdbcDataSourceCfgMeta dataSource(String name, String adapter, String url, Map<String, String> params, String replicas, Map<String, String> routingParams) {
+		return dataSource(name, adapter, url, params, replicas, routingParams, 0);
+	}
+
+	/**
+	 * @param name 数据源名称
+	 * @param adapter 数据源适配器名称
+	 * @param url 数据库连接串
+	 * @param params 数据源适配器参数，可为NULL
+	 * @param replicas 从库列表，可为NULL
+	 * @param routingParams 读写分离路由参数，可为NULL
+	 * @param statementCacheSize 每个连接缓存的PreparedStatement数量
+	 * @return 创建数据源配置
+	 */
+	public static JdbcDataSourceCfgMeta dataSource(String name, String adapter, String url, Map<String, String> params, String replicas, Map<String, String> routingParams, int statementCacheSize) {
+		return new JdbcDataSourceCfgMeta(name, adapter, H2_DRIVER, url, "sa", "", statementCacheSize, params != null ? params : new HashMap<String, String>(), replicas, routingParams);
+	}
+
+	/**
+	 * @param name 数据源名称
+	 * @return 返回已初始化的数据源适配器
+	 */
+	public static IDataSourceAdapter adapter(String name) {
+		return JDBC.__DATASOURCE_CACHE.get(name);
+	}
+
+	/**
+	 * 直接通过驱动执行SQL语句，用于准备测试数据
+	 * 
+	 * @param url 数据库连接串
+	 * @param sqls SQL语句集合
+	 * @throws SQLException
+	 */
+	public static void executeDirect(String url, String... sqls) throws SQLException {
+		Connection _conn = DriverManager.getConnection(url, "sa", "");
+		try {
+			Statement _stmt = _conn.createStatement();
+			for (String _sql : sqls) {
+				_stmt.execute(_sql);
+			}
+			_stmt.close();
+		} finally {
+			_conn.close();
+		}
+	}
+
+	/**
+	 * 以指定数据源集合初始化 JDBC 模块，第一个数据源为默认数据源
+	 * 
+	 * @param dataSources 数据源配置集合
+	 */
+	protected void initializeJdbc(JdbcDataSourceCfgMeta... dataSources) throws Exception {
+		Class.forName(H2_DRIVER);
+		final Set<JdbcDataSourceCfgMeta> _metas = new LinkedHashSet<JdbcDataSourceCfgMeta>();
+		for (JdbcDataSourceCfgMeta _meta : dataSources) {
+			_metas.add(_meta);
+		}
+		final String _defaultName = dataSources[0].getName();
+		JDBC.initialize(new IJdbcConfig() {
+
+			public boolean isShowSql() {
+				return false;
+			}
+
+			public String getTablePrefix() {
+				return "";
+			}
+
+			public String getDefaultDataSourceName() {
+				return _defaultName;
+			}
+
+			public String[] getRepositoryPackages() {
+				return null;
+			}
+
+			public int getBatchSize() {
+				return 0;
+			}
+
+			public boolean isBatchMultiRowInsert() {
+				return false;
+			}
+
+			public String getEntityCacheClass() {
+				return null;
+			}
+
+			public String[] getCacheableEntities() {
+				return null;
+			}
+
+			public boolean isMetricsEnabled() {
+				return false;
+			}
+
+			public long getSlowQueryThreshold() {
+				return 0;
+			}
+
+			public Set<JdbcDataSourceCfgMeta> getDataSourceCfgMetas() {
+				return _metas;
+			}
+
+		});
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JDBC.destroy();
+	}
+
+}
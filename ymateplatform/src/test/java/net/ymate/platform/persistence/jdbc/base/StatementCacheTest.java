@@ -0,0 +1,121 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.ymate.platform.persistence.jdbc.AbstractDataSourceAdapter;
+import net.ymate.platform.persistence.jdbc.IConnectionHolder;
+import net.ymate.platform.persistence.jdbc.ISession;
+import net.ymate.platform.persistence.jdbc.JDBC;
+import net.ymate.platform.persistence.jdbc.JdbcTestSupport;
+import net.ymate.platform.persistence.jdbc.operator.impl.ArrayResultSetHandler;
+
+/**
+ * <p>
+ * StatementCacheTest
+ * </p>
+ * <p>
+ * PreparedStatement对象缓存测试：内置连接池的缓存随物理连接在多个会话之间复用，其它适配器的缓存仅在单个会话内有效；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月27日上午10:16:52</td>
+ *          </tr>
+ *          </table>
+ */
+public class StatementCacheTest extends JdbcTestSupport {
+
+	private static final String __URL = memUrl("statement_cache");
+
+	private static final String __SQL = "select id from item where id = ?";
+
+	@Override
+	protected void setUp() throws Exception {
+		Class.forName(H2_DRIVER);
+		executeDirect(__URL, "drop table if exists item", "create table item (id int primary key)", "insert into item values (1)");
+	}
+
+	private void __doInitialize(String adapter) throws Exception {
+		Map<String, String> _params = new HashMap<String, String>();
+		_params.put("min_size", "1");
+		_params.put("max_size", "1");
+		initializeJdbc(dataSource("default", adapter, __URL, _params, null, null, 8));
+	}
+
+	private static void __doQuery(int times) throws Exception {
+		ISession _session = JDBC.openSession();
+		try {
+			for (int _idx = 0; _idx < times; _idx++) {
+				assertEquals(1, _session.findAll(__SQL, new ArrayResultSetHandler(), new Object[] { 1 }).size());
+			}
+		} finally {
+			_session.close();
+		}
+	}
+
+	public void testPooledCacheIsReusedAcrossSessions() throws Exception {
+		__doInitialize("pooled");
+		AbstractDataSourceAdapter _adapter = (AbstractDataSourceAdapter) adapter("default");
+		for (int _idx = 0; _idx < 5; _idx++) {
+			__doQuery(1);
+		}
+		// 唯一的物理连接在五个会话之间复用，仅首次预编译
+		assertEquals(1, _adapter.getStatementCacheMissCount());
+		assertEquals(4, _adapter.getStatementCacheHitCount());
+	}
+
+	public void testHolderCacheIsLimitedToSession() throws Exception {
+		__doInitialize("default");
+		AbstractDataSourceAdapter _adapter = (AbstractDataSourceAdapter) adapter("default");
+		__doQuery(3);
+		__doQuery(3);
+		// 每个会话独立创建缓存，会话内后续执行命中
+		assertEquals(2, _adapter.getStatementCacheMissCount());
+		assertEquals(4, _adapter.getStatementCacheHitCount());
+	}
+
+	public void testPooledCacheIsClosedWithPhysicalConnection() throws Exception {
+		__doInitialize("pooled");
+		IConnectionHolder _holder = JDBC.getConnectionHolder();
+		StatementCache _cache;
+		try {
+			_cache = _holder.getStatementCache();
+			assertNotNull(_cache);
+			_cache.offer(__SQL, _cache.take(_holder.getConnection(), __SQL));
+			assertEquals(1, _cache.size());
+		} finally {
+			JDBC.release(_holder);
+		}
+		// 归还连接不会关闭缓存
+		assertEquals(1, _cache.size());
+		JDBC.destroy();
+		assertEquals(0, _cache.size());
+	}
+
+}
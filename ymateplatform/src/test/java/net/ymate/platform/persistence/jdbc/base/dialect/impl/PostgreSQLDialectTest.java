@@ -0,0 +1,68 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base.dialect.impl;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>
+ * PostgreSQLDialectTest
+ * </p>
+ * <p>
+ * PostgreSQL 方言分页语句测试，参数约定与 PageQuery 一致：limit 为起始行号，offset 为分页大小；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日下午2:30:12</td>
+ *          </tr>
+ *          </table>
+ */
+public class PostgreSQLDialectTest extends TestCase {
+
+	private final PostgreSQLDialect __dialect = new PostgreSQLDialect();
+
+	public void testFirstPage() {
+		// PageQuery 第1页：起始行号0，分页大小10
+		assertEquals("select * from t limit 10 offset 0", __dialect.getPaginationSql("select * from t", 0, 10));
+	}
+
+	public void testLaterPage() {
+		// PageQuery 第3页：起始行号20，分页大小10
+		assertEquals("select * from t limit 10 offset 20", __dialect.getPaginationSql("select * from t", 20, 10));
+	}
+
+	public void testZeroOffsetMatchesMySql() {
+		assertEquals(new MySqlDialect().getPaginationSql("select * from t", 5, 0), __dialect.getPaginationSql("select * from t", 5, 0));
+	}
+
+	public void testKeysetPagination() {
+		String _sql = __dialect.getKeysetPaginationSql("select * from t", "id", false, true, 10);
+		assertTrue(_sql, _sql.endsWith(" order by id asc limit 10 offset 0"));
+		assertTrue(_sql, _sql.contains(" where id > ?"));
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.base.dialect.impl;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>
+ * SQLServer2008DialectTest
+ * </p>
+ * <p>
+ * SQL Server 方言 upsert 语句测试；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日下午3:10:45</td>
+ *          </tr>
+ *          </table>
+ */
+public class SQLServer2008DialectTest extends TestCase {
+
+	private static final String[] __COLUMNS = { "id", "name" };
+
+	private static final String[] __KEYS = { "id" };
+
+	private static final String[] __UPDATES = { "name" };
+
+	public void testMergeHoldsRangeLock() {
+		String _sql = new SQLServer2008Dialect().getUpsertSql("usr", __COLUMNS, __KEYS, __UPDATES, 1);
+		assertEquals("merge into [usr] with (holdlock) as t_ using (select ? as [id],? as [name]) as s_ on (t_.[id]=s_.[id])"
+				+ " when matched then update set t_.[name]=s_.[name] when not matched then insert ([id],[name]) values (s_.[id],s_.[name]);", _sql);
+	}
+
+	public void testSqlServer2005RejectsUpsert() {
+		try {
+			new SQLServer2005Dialect().getUpsertSql("usr", __COLUMNS, __KEYS, __UPDATES, 1);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			assertTrue(e.getMessage().contains("2008"));
+		}
+	}
+
+	public void testOracleMergeHasNoHint() {
+		String _sql = new OracleDialect().getUpsertSql("usr", __COLUMNS, __KEYS, __UPDATES, 1);
+		assertTrue(_sql, _sql.startsWith("merge into usr t_ using (select ? id,? name from dual) s_ on (t_.id=s_.id)"));
+	}
+
+}
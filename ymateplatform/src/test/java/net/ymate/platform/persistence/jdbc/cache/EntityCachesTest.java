@@ -0,0 +1,136 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.cache;
+
+import junit.framework.TestCase;
+import net.ymate.platform.persistence.annotation.Cacheable;
+
+/**
+ * <p>
+ * EntityCachesTest
+ * </p>
+ * <p>
+ * 实体二级缓存测试：查询期间被失效的旧数据不得放入缓存，以及缓存对象副本的拷贝；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午11:02:37</td>
+ *          </tr>
+ *          </table>
+ */
+public class EntityCachesTest extends TestCase {
+
+	@Cacheable
+	public static class User {
+
+		private Long id;
+
+		private String name;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+	private IEntityCacheRegion __region;
+
+	@Override
+	protected void setUp() throws Exception {
+		EntityCaches.initialize(null, null);
+		__region = EntityCaches.getRegion(User.class);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		EntityCaches.destroy();
+	}
+
+	private static User __doCreateUser(long id, String name) {
+		User _user = new User();
+		_user.setId(id);
+		_user.setName(name);
+		return _user;
+	}
+
+	public void testPutAfterConcurrentEvictIsRejected() {
+		String _key = EntityCaches.buildKey("default", 1L);
+		// 读线程在查询前获取版本号并读到旧数据
+		long _version = EntityCaches.currentVersion();
+		User _loaded = __doCreateUser(1L, "v1");
+		// 写线程提交修改并失效缓存
+		EntityCaches.evict(__region, _key);
+		// 读线程随后放入的旧数据必须被拒绝
+		EntityCaches.put(__region, _key, _loaded, _version);
+		assertNull(EntityCaches.get(__region, _key));
+	}
+
+	public void testPutLoadedAfterEvictIsAccepted() {
+		String _key = EntityCaches.buildKey("default", 2L);
+		EntityCaches.evict(__region, _key);
+		long _version = EntityCaches.currentVersion();
+		EntityCaches.put(__region, _key, __doCreateUser(2L, "v2"), _version);
+		User _cached = EntityCaches.get(__region, _key);
+		assertNotNull(_cached);
+		assertEquals("v2", _cached.getName());
+	}
+
+	public void testEvictOfOtherKeyDoesNotBlockPut() {
+		String _key = EntityCaches.buildKey("default", 3L);
+		long _version = EntityCaches.currentVersion();
+		EntityCaches.evict(__region, EntityCaches.buildKey("default", 4L));
+		EntityCaches.put(__region, _key, __doCreateUser(3L, "v3"), _version);
+		assertNotNull(EntityCaches.get(__region, _key));
+	}
+
+	public void testCachedEntityIsCopied() {
+		String _key = EntityCaches.buildKey("default", 5L);
+		User _user = __doCreateUser(5L, "v5");
+		EntityCaches.put(__region, _key, _user, EntityCaches.currentVersion());
+		_user.setName("changed");
+		User _first = EntityCaches.get(__region, _key);
+		assertEquals("v5", _first.getName());
+		assertEquals(Long.valueOf(5L), _first.getId());
+		_first.setName("changed");
+		User _second = EntityCaches.get(__region, _key);
+		assertNotSame(_first, _second);
+		assertEquals("v5", _second.getName());
+	}
+
+}
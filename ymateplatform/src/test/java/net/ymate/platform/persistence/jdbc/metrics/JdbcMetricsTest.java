@@ -0,0 +1,93 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.metrics;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>
+ * JdbcMetricsTest
+ * </p>
+ * <p>
+ * JDBC执行统计测试：原始SQL缓存及指纹数量达到上限后的统计归属；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月26日上午10:52:18</td>
+ *          </tr>
+ *          </table>
+ */
+public class JdbcMetricsTest extends TestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		JdbcMetrics.initialize(true, 0);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JdbcMetrics.destroy();
+	}
+
+	private static StatementMetrics.Snapshot __doFind(String fingerprint) {
+		for (StatementMetrics.Snapshot _snapshot : JdbcMetrics.getSnapshot().getStatements()) {
+			if (_snapshot.getFingerprint().equals(fingerprint)) {
+				return _snapshot;
+			}
+		}
+		return null;
+	}
+
+	public void testLiteralStatementsKeepCountingAfterSqlCacheIsFull() {
+		// 拼接字面量的语句很快占满原始SQL缓存(4096)，其后的语句仍须归入各自的指纹统计项
+		for (int _idx = 0; _idx < 10000; _idx++) {
+			JdbcMetrics.recordExecution("default", "select * from t1 where id = " + _idx, 1000, 1, false);
+		}
+		JdbcMetrics.recordError("default", "select * from t1 where id = 20000");
+		StatementMetrics.Snapshot _snapshot = __doFind(SqlFingerprint.normalize("select * from t1 where id = 0"));
+		assertNotNull(_snapshot);
+		assertEquals(10000, _snapshot.getLatency().getCount());
+		assertEquals(1, _snapshot.getErrors());
+		assertNull(__doFind(JdbcMetrics.OTHER_STATEMENTS));
+	}
+
+	public void testOverflowFingerprintsGoToOther() {
+		for (int _idx = 0; _idx < 1200; _idx++) {
+			JdbcMetrics.recordExecution("default", "select * from t" + _idx + " where id = ?", 1000, 1, false);
+		}
+		StatementMetrics.Snapshot _other = __doFind(JdbcMetrics.OTHER_STATEMENTS);
+		assertNotNull(_other);
+		assertEquals(200, _other.getLatency().getCount());
+		assertEquals(1001, JdbcMetrics.getSnapshot().getStatements().size());
+		// 已跟踪的指纹不受上限影响
+		JdbcMetrics.recordExecution("default", "select * from t0 where id = ?", 1000, 1, false);
+		assertEquals(2, __doFind(SqlFingerprint.normalize("select * from t0 where id = ?")).getLatency().getCount());
+		JdbcMetrics.reset();
+		assertNull(__doFind(JdbcMetrics.OTHER_STATEMENTS));
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.route;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.ymate.platform.persistence.base.OperatorException;
+import net.ymate.platform.persistence.jdbc.ISession;
+import net.ymate.platform.persistence.jdbc.JDBC;
+import net.ymate.platform.persistence.jdbc.JdbcTestSupport;
+import net.ymate.platform.persistence.jdbc.operator.impl.ArrayResultSetHandler;
+import net.ymate.platform.persistence.jdbc.support.ReplicaConnectionHolder;
+
+/**
+ * <p>
+ * ReplicaRouterTest
+ * </p>
+ * <p>
+ * 读写分离路由测试：按权重路由至从库、写操作后读主库以及从库故障摘除，主库及从库均为 H2 内存数据库，通过各库 node 表中的名称区分实际读取的数据库；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月24日下午5:12:40</td>
+ *          </tr>
+ *          </table>
+ */
+public class ReplicaRouterTest extends JdbcTestSupport {
+
+	private static final String __UNREACHABLE_URL = "jdbc:h2:tcp://127.0.0.1:1/unreachable";
+
+	@Override
+	protected void setUp() throws Exception {
+		Class.forName(H2_DRIVER);
+		for (String _name : new String[] { "primary", "r1", "r2" }) {
+			executeDirect(memUrl("route_" + _name), "drop table if exists node", "create table node (name varchar(16))", "insert into node values ('" + _name + "')");
+		}
+	}
+
+	private void __doInitialize(String r2Url) throws Exception {
+		Map<String, String> _routing = new HashMap<String, String>();
+		_routing.put("sticky_time", "300");
+		_routing.put("min_requests", "4");
+		_routing.put("eject_time", "60000");
+		initializeJdbc(dataSource("default", "default", memUrl("route_primary"), null, "r1:2|r2", _routing),
+				dataSource("r1", "default", memUrl("route_r1"), null, null, null),
+				dataSource("r2", "default", r2Url, null, null, null));
+	}
+
+	private static String __doRead(String sql) throws Exception {
+		ISession _session = JDBC.openSession();
+		try {
+			List<Object[]> _rows = _session.findAll(sql, new ArrayResultSetHandler(), null);
+			return (String) ((Object[]) _rows.get(0)[0])[1];
+		} finally {
+			_session.close();
+		}
+	}
+
+	private static Map<String, Integer> __doReadMany(int count) throws Exception {
+		Map<String, Integer> _counts = new HashMap<String, Integer>();
+		for (int _idx = 0; _idx < count; _idx++) {
+			String _name = __doRead("select name from node");
+			Integer _count = _counts.get(_name);
+			_counts.put(_name, _count == null ? 1 : _count + 1);
+		}
+		return _counts;
+	}
+
+	private static ReplicaNode __doGetNode(String name) {
+		for (ReplicaNode _node : JDBC.getReplicaRouter("default").getNodes()) {
+			if (_node.getName().equals(name)) {
+				return _node;
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	public void testWeightedRouting() throws Exception {
+		__doInitialize(memUrl("route_r2"));
+		Map<String, Integer> _counts = __doReadMany(30);
+		assertEquals(Integer.valueOf(20), _counts.get("r1"));
+		assertEquals(Integer.valueOf(10), _counts.get("r2"));
+		assertNull(_counts.get("primary"));
+	}
+
+	public void testReadsStickToPrimaryAfterWrite() throws Exception {
+		__doInitialize(memUrl("route_r2"));
+		ISession _session = JDBC.openSession();
+		try {
+			_session.executeForUpdate("update node set name = name", null);
+		} finally {
+			_session.close();
+		}
+		assertEquals("primary", __doRead("select name from node"));
+		Thread.sleep(400);
+		assertFalse("primary".equals(__doRead("select name from node")));
+	}
+
+	public void testUnreachableReplicaIsEjected() throws Exception {
+		__doInitialize(__UNREACHABLE_URL);
+		// 从库r2无法连接时读操作改由r1完成，且r2在达到最小请求数后被摘除
+		Map<String, Integer> _counts = __doReadMany(12);
+		assertEquals(Integer.valueOf(12), _counts.get("r1"));
+		assertFalse(__doGetNode("r2").isAvailable(System.currentTimeMillis()));
+		assertTrue(__doGetNode("r1").isAvailable(System.currentTimeMillis()));
+	}
+
+	public void testStatementErrorsDoNotEject() throws Exception {
+		__doInitialize(memUrl("route_r2"));
+		for (int _idx = 0; _idx < 20; _idx++) {
+			try {
+				__doRead("select no_such_column from node");
+				fail();
+			} catch (OperatorException e) {
+				// 预期的语法错误
+			}
+		}
+		long _now = System.currentTimeMillis();
+		assertTrue(__doGetNode("r1").isAvailable(_now));
+		assertTrue(__doGetNode("r2").isAvailable(_now));
+		assertNull(__doReadMany(6).get("primary"));
+	}
+
+	public void testAvailabilityFailureClassification() {
+		assertTrue(ReplicaConnectionHolder.isAvailabilityFailure(new SQLException("link failure", "08S01")));
+		assertTrue(ReplicaConnectionHolder.isAvailabilityFailure(new SQLTransientConnectionException("refused")));
+		assertTrue(ReplicaConnectionHolder.isAvailabilityFailure(new SQLRecoverableException("broken")));
+		assertFalse(ReplicaConnectionHolder.isAvailabilityFailure(new SQLException("syntax", "42000")));
+		assertFalse(ReplicaConnectionHolder.isAvailabilityFailure(new SQLException("duplicate", "23000")));
+		assertFalse(ReplicaConnectionHolder.isAvailabilityFailure(new SQLException("no state")));
+	}
+
+}
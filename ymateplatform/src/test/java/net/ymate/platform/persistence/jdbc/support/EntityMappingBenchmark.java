@@ -0,0 +1,287 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.ymate.platform.commons.lang.TypeConverters;
+import net.ymate.platform.commons.util.ClassUtils;
+import net.ymate.platform.commons.util.ClassUtils.ClassBeanWrapper;
+import net.ymate.platform.persistence.annotation.Entity;
+import net.ymate.platform.persistence.annotation.Id;
+import net.ymate.platform.persistence.annotation.Property;
+import net.ymate.platform.persistence.base.IEntity;
+import net.ymate.platform.persistence.jdbc.JdbcTestSupport;
+import net.ymate.platform.persistence.jdbc.operator.impl.ArrayResultSetHandler;
+import net.ymate.platform.persistence.jdbc.support.ResultSetHelper;
+
+/**
+ * <p>
+ * EntityMappingBenchmark
+ * </p>
+ * <p>
+ * 结果集映射为实体对象的基准测试：以 H2 内存数据库中的 10000 行记录对比原先按行包装 ClassBeanWrapper 的映射方式与 EntityMappingPlan 映射计划，输出每次映射的平均耗时及内存分配量；直接运行 main 方法，不参与单元测试；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月27日下午5:12:08</td>
+ *          </tr>
+ *          </table>
+ */
+public class EntityMappingBenchmark {
+
+	private static final int __ROWS = 10000;
+
+	private static final String __URL = JdbcTestSupport.memUrl("mapping_benchmark");
+
+	private static final String __SQL = "select id, user_name, age, score, enabled, create_time from bench_user";
+
+	@Entity(name = "bench_user")
+	public static class BenchUser implements IEntity<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Id
+		@Property(name = "id")
+		private Long id;
+
+		@Property(name = "user_name")
+		private String userName;
+
+		@Property(name = "age")
+		private Integer age;
+
+		@Property(name = "score")
+		private Double score;
+
+		@Property(name = "enabled")
+		private Boolean enabled;
+
+		@Property(name = "create_time")
+		private Long createTime;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getUserName() {
+			return userName;
+		}
+
+		public void setUserName(String userName) {
+			this.userName = userName;
+		}
+
+		public Integer getAge() {
+			return age;
+		}
+
+		public void setAge(Integer age) {
+			this.age = age;
+		}
+
+		public Double getScore() {
+			return score;
+		}
+
+		public void setScore(Double score) {
+			this.score = score;
+		}
+
+		public Boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(Boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Long getCreateTime() {
+			return createTime;
+		}
+
+		public void setCreateTime(Long createTime) {
+			this.createTime = createTime;
+		}
+
+	}
+
+	/**
+	 * 映射方式
+	 */
+	private interface Mapper {
+
+		List<BenchUser> map(ResultSet rs) throws Exception;
+
+	}
+
+	/**
+	 * 原映射方式：先将结果集读取为 Object[] 键值对，再逐行创建 ClassBeanWrapper 并按字段名称设置属性值
+	 */
+	private static class LegacyMapper implements Mapper {
+
+		private final JdbcEntityMeta __meta;
+
+		LegacyMapper(JdbcEntityMeta meta) {
+			this.__meta = meta;
+		}
+
+		public List<BenchUser> map(ResultSet rs) throws Exception {
+			ArrayResultSetHandler _handler = new ArrayResultSetHandler();
+			_handler.handle(rs, 0);
+			List<BenchUser> _result = new ArrayList<BenchUser>();
+			ResultSetHelper _helper = ResultSetHelper.bind(_handler.getResultDataSet());
+			if (_helper != null) {
+				for (int _idx = 0; _idx < _helper.getRowCount(); _idx++) {
+					_helper.move(_idx);
+					ClassBeanWrapper<BenchUser> _wrapper = ClassUtils.wrapper(BenchUser.class);
+					for (String _key : __meta.getColumnNames()) {
+						Object _value = _helper.getFieldValue(_key);
+						if (_value == null) {
+							continue;
+						}
+						String _classAttr = __meta.getClassAttributeMap().get(_key);
+						_wrapper.setValue(_classAttr, TypeConverters.convert(_value, _wrapper.getFieldType(_classAttr)));
+					}
+					_result.add(_wrapper.getTarget());
+				}
+				_helper.clearAll();
+			}
+			return _result;
+		}
+
+	}
+
+	/**
+	 * 现映射方式：由 EntityResultSetHandler 按映射计划逐行直接设置属性值
+	 */
+	private static class PlanMapper implements Mapper {
+
+		private final JdbcEntityMeta __meta;
+
+		PlanMapper(JdbcEntityMeta meta) {
+			this.__meta = meta;
+		}
+
+		public List<BenchUser> map(ResultSet rs) throws Exception {
+			EntityResultSetHandler<BenchUser> _handler = new EntityResultSetHandler<BenchUser>(BenchUser.class, __meta);
+			_handler.handle(rs, 0);
+			return _handler.getResultDataSet();
+		}
+
+	}
+
+	private static long __doAllocatedBytes() {
+		java.lang.management.ThreadMXBean _bean = ManagementFactory.getThreadMXBean();
+		if (_bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) _bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	private static List<BenchUser> __doRun(Connection conn, Mapper mapper) throws Exception {
+		PreparedStatement _stmt = conn.prepareStatement(__SQL);
+		try {
+			ResultSet _rs = _stmt.executeQuery();
+			try {
+				return mapper.map(_rs);
+			} finally {
+				_rs.close();
+			}
+		} finally {
+			_stmt.close();
+		}
+	}
+
+	private static void __doMeasure(Connection conn, String name, Mapper mapper, int warmup, int iterations) throws Exception {
+		for (int _idx = 0; _idx < warmup; _idx++) {
+			__doRun(conn, mapper);
+		}
+		long _checksum = 0;
+		long _allocated = __doAllocatedBytes();
+		long _startTime = System.nanoTime();
+		for (int _idx = 0; _idx < iterations; _idx++) {
+			List<BenchUser> _users = __doRun(conn, mapper);
+			_checksum += _users.size() + _users.get(_users.size() - 1).getAge();
+		}
+		long _elapsed = System.nanoTime() - _startTime;
+		_allocated = __doAllocatedBytes() - _allocated;
+		System.out.println(String.format("%-8s %8.2f ms / %d rows  %10.1f KB allocated / %d rows  (checksum %d)", name, _elapsed / 1e6 / iterations, __ROWS, _allocated / 1024.0 / iterations, __ROWS, _checksum));
+	}
+
+	private static void __doPrepareData(Connection conn) throws SQLException {
+		conn.createStatement().execute("create table bench_user (id bigint primary key, user_name varchar(32), age int, score double, enabled boolean, create_time bigint)");
+		PreparedStatement _stmt = conn.prepareStatement("insert into bench_user values (?, ?, ?, ?, ?, ?)");
+		for (int _idx = 0; _idx < __ROWS; _idx++) {
+			_stmt.setLong(1, _idx);
+			_stmt.setString(2, "user_" + _idx);
+			_stmt.setInt(3, _idx % 100);
+			_stmt.setDouble(4, _idx * 0.5);
+			_stmt.setBoolean(5, _idx % 2 == 0);
+			_stmt.setLong(6, 1400000000000L + _idx);
+			_stmt.addBatch();
+		}
+		_stmt.executeBatch();
+		_stmt.close();
+	}
+
+	public static void main(String[] args) throws Exception {
+		int _iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		Class.forName(JdbcTestSupport.H2_DRIVER);
+		Connection _conn = DriverManager.getConnection(__URL, "sa", "");
+		try {
+			__doPrepareData(_conn);
+			JdbcEntityMeta _meta = new JdbcEntityMeta(BenchUser.class);
+			Mapper _legacy = new LegacyMapper(_meta);
+			Mapper _plan = new PlanMapper(_meta);
+			// 两种方式的映射结果须一致
+			BenchUser _a = __doRun(_conn, _legacy).get(__ROWS - 1);
+			BenchUser _b = __doRun(_conn, _plan).get(__ROWS - 1);
+			if (!_a.getUserName().equals(_b.getUserName()) || !_a.getScore().equals(_b.getScore()) || !_a.getEnabled().equals(_b.getEnabled()) || !_a.getCreateTime().equals(_b.getCreateTime())) {
+				throw new IllegalStateException("mapping results differ");
+			}
+			for (int _round = 0; _round < 3; _round++) {
+				__doMeasure(_conn, "legacy", _legacy, 20, _iterations);
+				__doMeasure(_conn, "plan", _plan, 20, _iterations);
+			}
+		} finally {
+			_conn.close();
+		}
+	}
+
+}
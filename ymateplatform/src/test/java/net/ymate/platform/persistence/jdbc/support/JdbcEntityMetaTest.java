@@ -0,0 +1,80 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import junit.framework.TestCase;
+import net.ymate.platform.persistence.jdbc.base.dialect.IDialect;
+import net.ymate.platform.persistence.jdbc.base.dialect.impl.MySqlDialect;
+import net.ymate.platform.persistence.jdbc.support.EntityMappingBenchmark.BenchUser;
+
+/**
+ * <p>
+ * JdbcEntityMetaTest
+ * </p>
+ * <p>
+ * 实体元数据测试：SQL 语句缓存的键值须复制调用方传入的字段过滤数组，调用后修改数组不得影响已缓存的语句；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月21日上午11:02:37</td>
+ *          </tr>
+ *          </table>
+ */
+public class JdbcEntityMetaTest extends TestCase {
+
+	private JdbcEntityMeta __meta;
+
+	private IDialect __dialect;
+
+	@Override
+	protected void setUp() throws Exception {
+		__meta = new JdbcEntityMeta(BenchUser.class);
+		__dialect = new MySqlDialect();
+	}
+
+	public void testFieldFilterModifiedAfterCallDoesNotBreakCache() {
+		String[] _fieldFilter = { "user_name", "age" };
+		String _sql = __meta.createSelectByPkSql(__dialect, _fieldFilter, null);
+		// 调用方复用并修改了同一数组
+		_fieldFilter[0] = "score";
+		String _other = __meta.createSelectByPkSql(__dialect, _fieldFilter, null);
+		assertTrue(_other.contains("score"));
+		assertFalse(_other.contains("user_name"));
+		// 原内容的过滤条件仍应命中缓存
+		assertSame(_sql, __meta.createSelectByPkSql(__dialect, new String[] { "user_name", "age" }, null));
+	}
+
+	public void testPkFieldFilterModifiedAfterCallDoesNotBreakCache() {
+		String[] _fieldFilter = { "user_name" };
+		String[] _pkFieldFilter = { "id" };
+		String _sql = __meta.createUpdateByPkSql(__dialect, _fieldFilter, _pkFieldFilter);
+		_fieldFilter[0] = "age";
+		_pkFieldFilter[0] = "score";
+		assertSame(_sql, __meta.createUpdateByPkSql(__dialect, new String[] { "user_name" }, new String[] { "id" }));
+	}
+
+}
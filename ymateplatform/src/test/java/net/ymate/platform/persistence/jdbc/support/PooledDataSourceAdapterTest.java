@@ -0,0 +1,241 @@
+/*
+ * Copyright 2007-2107 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.ymate.platform.persistence.jdbc.support;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import net.ymate.platform.persistence.base.ConnectionException;
+import net.ymate.platform.persistence.jdbc.JdbcTestSupport;
+
+/**
+ * <p>
+ * PooledDataSourceAdapterTest
+ * </p>
+ * <p>
+ * 内置连接池测试：连接数量控制、获取连接超时、有效性检查、最大生命周期回收及泄漏检测，物理连接为 H2 内存数据库，通过 SESSION_ID() 区分；
+ * </p>
+ * 
+ * @author 刘镇(suninformation@163.com)
+ * @version 0.0.0
+ *          <table style="border:1px solid gray;">
+ *          <tr>
+ *          <th width="100px">版本号</th><th width="100px">动作</th><th
+ *          width="100px">修改人</th><th width="100px">修改时间</th>
+ *          </tr>
+ *          <!-- 以 Table 方式书写修改历史 -->
+ *          <tr>
+ *          <td>0.0.0</td>
+ *          <td>创建类</td>
+ *          <td>刘镇</td>
+ *          <td>2014年6月27日下午3:40:26</td>
+ *          </tr>
+ *          </table>
+ */
+public class PooledDataSourceAdapterTest extends TestCase {
+
+	private static final String __URL = JdbcTestSupport.memUrl("pooled");
+
+	private PooledDataSourceAdapter __adapter;
+
+	@Override
+	protected void setUp() throws Exception {
+		Class.forName(JdbcTestSupport.H2_DRIVER);
+		JdbcTestSupport.executeDirect(__URL, "drop table if exists ping", "create table ping (id int)");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (__adapter != null) {
+			__adapter.destroy();
+			__adapter = null;
+		}
+	}
+
+	private PooledDataSourceAdapter __doCreate(String... params) {
+		Map<String, String> _params = new HashMap<String, String>();
+		for (int _idx = 0; _idx < params.length; _idx += 2) {
+			_params.put(params[_idx], params[_idx + 1]);
+		}
+		__adapter = new PooledDataSourceAdapter();
+		__adapter.initialize(JdbcTestSupport.dataSource("pooled", "pooled", __URL, _params, null, null));
+		return __adapter;
+	}
+
+	private static int __doGetSessionId(Connection conn) throws SQLException {
+		Statement _stmt = conn.createStatement();
+		try {
+			ResultSet _rs = _stmt.executeQuery("select SESSION_ID()");
+			_rs.next();
+			return _rs.getInt(1);
+		} finally {
+			_stmt.close();
+		}
+	}
+
+	private int __doBorrowSessionId() throws Exception {
+		Connection _conn = __adapter.getConnection();
+		try {
+			return __doGetSessionId(_conn);
+		} finally {
+			_conn.close();
+		}
+	}
+
+	private static void __doWaitFor(long timeout, Condition condition) throws InterruptedException {
+		long _deadline = System.currentTimeMillis() + timeout;
+		while (!condition.isSatisfied() && System.currentTimeMillis() < _deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private interface Condition {
+		boolean isSatisfied();
+	}
+
+	public void testPoolSizing() throws Exception {
+		final PooledDataSourceAdapter _adapter = __doCreate("min_size", "2", "max_size", "3", "max_wait", "200", "housekeeping_interval", "50");
+		// 定时维护补足最小连接数
+		__doWaitFor(2000, new Condition() {
+			public boolean isSatisfied() {
+				return _adapter.getIdleCount() == 2;
+			}
+		});
+		assertEquals(2, _adapter.getTotalCount());
+		assertEquals(2, _adapter.getIdleCount());
+		List<Connection> _conns = new ArrayList<Connection>();
+		try {
+			for (int _idx = 0; _idx < 3; _idx++) {
+				_conns.add(_adapter.getConnection());
+			}
+			assertEquals(3, _adapter.getTotalCount());
+			assertEquals(3, _adapter.getActiveCount());
+			assertEquals(0, _adapter.getIdleCount());
+		} finally {
+			for (Connection _conn : _conns) {
+				_conn.close();
+			}
+		}
+		assertEquals(3, _adapter.getTotalCount());
+		assertEquals(0, _adapter.getActiveCount());
+		assertEquals(3, _adapter.getIdleCount());
+		assertEquals(3, _adapter.getBorrowCount());
+	}
+
+	public void testMaxWaitTimeout() throws Exception {
+		final PooledDataSourceAdapter _adapter = __doCreate("min_size", "0", "max_size", "1", "max_wait", "200");
+		Connection _held = _adapter.getConnection();
+		try {
+			long _startTime = System.currentTimeMillis();
+			try {
+				_adapter.getConnection();
+				fail("expected a pool timeout");
+			} catch (ConnectionException e) {
+				long _elapsed = System.currentTimeMillis() - _startTime;
+				assertTrue("waited " + _elapsed + " ms", _elapsed >= 200 && _elapsed < 2000);
+			}
+			assertEquals(1, _adapter.getTimeoutCount());
+		} finally {
+			_held.close();
+		}
+		// 连接归还后可再次借出
+		Connection _conn = _adapter.getConnection();
+		_conn.close();
+		assertEquals(1, _adapter.getTimeoutCount());
+	}
+
+	public void testHandoffToWaitingThread() throws Exception {
+		final PooledDataSourceAdapter _adapter = __doCreate("min_size", "0", "max_size", "1", "max_wait", "5000");
+		final Connection _held = _adapter.getConnection();
+		Thread _releaser = new Thread() {
+			public void run() {
+				try {
+					Thread.sleep(200);
+					_held.close();
+				} catch (Exception e) {
+					// ~~~
+				}
+			}
+		};
+		_releaser.start();
+		long _startTime = System.currentTimeMillis();
+		Connection _conn = _adapter.getConnection();
+		long _elapsed = System.currentTimeMillis() - _startTime;
+		_conn.close();
+		_releaser.join();
+		assertTrue("waited " + _elapsed + " ms", _elapsed >= 150 && _elapsed < 5000);
+		assertEquals(0, _adapter.getTimeoutCount());
+		assertEquals(1, _adapter.getTotalCount());
+	}
+
+	public void testValidationRemovesBrokenConnection() throws Exception {
+		__doCreate("min_size", "0", "max_size", "1", "validation_interval", "0", "validation_query", "select count(*) from ping");
+		int _first = __doBorrowSessionId();
+		assertEquals(_first, __doBorrowSessionId());
+		// 验证语句失败后连接被移除并重新创建
+		JdbcTestSupport.executeDirect(__URL, "drop table ping");
+		Thread.sleep(20);
+		int _second = __doBorrowSessionId();
+		assertTrue(_first != _second);
+		assertEquals(1, __adapter.getTotalCount());
+	}
+
+	public void testMaxLifetimeRetirement() throws Exception {
+		__doCreate("min_size", "0", "max_size", "1", "max_lifetime", "200");
+		int _first = __doBorrowSessionId();
+		assertEquals(_first, __doBorrowSessionId());
+		Thread.sleep(300);
+		// 超过最大生命周期的空闲连接在借出时被回收
+		int _second = __doBorrowSessionId();
+		assertTrue(_first != _second);
+		// 使用中超过最大生命周期的连接在归还时被回收
+		Connection _conn = __adapter.getConnection();
+		Thread.sleep(300);
+		_conn.close();
+		assertEquals(0, __adapter.getTotalCount());
+	}
+
+	public void testLeakDetection() throws Exception {
+		final PooledDataSourceAdapter _adapter = __doCreate("min_size", "0", "max_size", "2", "leak_detection_threshold", "100", "housekeeping_interval", "20");
+		Connection _conn = _adapter.getConnection();
+		try {
+			__doWaitFor(2000, new Condition() {
+				public boolean isSatisfied() {
+					return _adapter.getLeakCount() > 0;
+				}
+			});
+			assertEquals(1, _adapter.getLeakCount());
+			// 同一次借出只报告一次
+			Thread.sleep(100);
+			assertEquals(1, _adapter.getLeakCount());
+		} finally {
+			_conn.close();
+		}
+		// 在阈值内归还的连接不会被报告
+		Connection _quick = _adapter.getConnection();
+		_quick.close();
+		Thread.sleep(150);
+		assertEquals(1, _adapter.getLeakCount());
+	}
+
+}